@@ -64,6 +64,20 @@ public class POIXMLProperties {
         NEW_CUST_INSTANCE.addNewProperties();
     }
 
+    /**
+     * Creates the properties, which were read without their package -
+     *  see {@link POIXMLPropertiesReader}. These can't be committed.
+     */
+    POIXMLProperties(PackagePropertiesPart core,
+                     org.openxmlformats.schemas.officeDocument.x2006.extendedProperties.PropertiesDocument ext,
+                     org.openxmlformats.schemas.officeDocument.x2006.customProperties.PropertiesDocument cust) {
+        this.core = new CoreProperties(core);
+        this.ext = new ExtendedProperties(ext != null ? ext
+            : (org.openxmlformats.schemas.officeDocument.x2006.extendedProperties.PropertiesDocument)NEW_EXT_INSTANCE.copy());
+        this.cust = new CustomProperties(cust != null ? cust
+            : (org.openxmlformats.schemas.officeDocument.x2006.customProperties.PropertiesDocument)NEW_CUST_INSTANCE.copy());
+    }
+
     public POIXMLProperties(OPCPackage docPackage) throws IOException, OpenXML4JException, XmlException {
         this.pkg = docPackage;
 
@@ -139,6 +153,9 @@ public class POIXMLProperties {
      * @return The Document Thumbnail part or null
      */
     protected PackagePart getThumbnailPart() {
+        if (pkg == null) {
+            return null;
+        }
         PackageRelationshipCollection rels =
                 pkg.getRelationshipsByType(PackageRelationshipTypes.THUMBNAIL);
         if(rels.size() == 1) {
@@ -181,6 +198,7 @@ public class POIXMLProperties {
      * @throws IOException if the thumbnail can't be written
      */
     public void setThumbnail(String filename, InputStream imageData) throws IOException {
+        checkPackage();
         PackagePart tPart = getThumbnailPart();
         if (tPart == null) {
             // New thumbnail
@@ -204,6 +222,7 @@ public class POIXMLProperties {
      * @throws POIXMLException if the properties are erroneous
      */
     public void commit() throws IOException {
+        checkPackage();
 
         if(extPart == null && ext != null && ext.props != null && !NEW_EXT_INSTANCE.toString().equals(ext.props.toString())){
             try {
@@ -243,6 +262,12 @@ public class POIXMLProperties {
         }
     }
 
+    private void checkPackage() {
+        if (pkg == null) {
+            throw new IllegalStateException("The properties were read without their package and can't be saved");
+        }
+    }
+
     /**
      * The core document properties
      */
@@ -0,0 +1,209 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+package org.apache.poi.ooxml;
+
+import static org.apache.poi.ooxml.POIXMLTypeLoader.DEFAULT_XML_OPTIONS;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Enumeration;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.poi.ooxml.util.DocumentHelper;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.NotOfficeXmlFileException;
+import org.apache.poi.openxml4j.opc.PackageNamespaces;
+import org.apache.poi.openxml4j.opc.PackagePartName;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.openxml4j.opc.PackagingURIHelper;
+import org.apache.poi.openxml4j.opc.internal.PackagePropertiesPart;
+import org.apache.poi.openxml4j.opc.internal.ZipHelper;
+import org.apache.poi.openxml4j.opc.internal.unmarshallers.PackagePropertiesUnmarshaller;
+import org.apache.poi.openxml4j.opc.internal.unmarshallers.UnmarshallContext;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.xmlbeans.XmlException;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Reads the core, extended and custom properties of an OOXML file without opening its package.<p>
+ *
+ * Only the zip central directory, the package relationships and the property parts are read -
+ * the content types and the other parts are ignored. The reader is stateless, so many files can
+ * be scanned in parallel. The returned properties are read-only, i.e. they can't be committed.<p>
+ *
+ * For OLE2 files, open a read-only {@link org.apache.poi.poifs.filesystem.POIFSFileSystem} with a
+ * {@link org.apache.poi.hpsf.HPSFPropertiesOnlyDocument}, which only reads the property set streams.
+ *
+ * @since POI 5.0.1
+ */
+public final class POIXMLPropertiesReader {
+
+    private POIXMLPropertiesReader() {}
+
+    /**
+     * Reads the properties of an OOXML file
+     *
+     * @param file the OOXML file
+     * @return the read-only properties
+     *
+     * @throws IOException if the file can't be read
+     * @throws NotOfficeXmlFileException if the file isn't an OOXML file
+     * @throws POIXMLException if the properties are erroneous
+     */
+    public static POIXMLProperties read(File file) throws IOException {
+        try (ZipSecureFile zipFile = new ZipSecureFile(file)) {
+            return read(zipFile);
+        }
+    }
+
+    /**
+     * Reads the properties of an OOXML file - the channel is closed afterwards
+     *
+     * @param channel the channel of the OOXML file
+     * @return the read-only properties
+     *
+     * @throws IOException if the channel can't be read
+     * @throws NotOfficeXmlFileException if the channel doesn't contain an OOXML file
+     * @throws POIXMLException if the properties are erroneous
+     */
+    public static POIXMLProperties read(SeekableByteChannel channel) throws IOException {
+        try (ZipSecureFile zipFile = new ZipSecureFile(channel)) {
+            return read(zipFile);
+        }
+    }
+
+    private static POIXMLProperties read(ZipSecureFile zipFile) throws IOException {
+        String relsName = ZipHelper.getZipItemNameFromOPCName(PackagingURIHelper.PACKAGE_RELATIONSHIPS_ROOT_URI.getPath());
+        ZipArchiveEntry relsEntry = getEntry(zipFile, relsName);
+        if (relsEntry == null) {
+            throw new NotOfficeXmlFileException("No package relationships found, this is not a valid OOXML (Office Open XML) file");
+        }
+
+        String coreName = null, extName = null, custName = null;
+        try (InputStream is = zipFile.getInputStream(relsEntry)) {
+            Element root = DocumentHelper.readDocument(is).getDocumentElement();
+            NodeList nodeList = root.getElementsByTagNameNS(PackageNamespaces.RELATIONSHIPS, PackageRelationship.RELATIONSHIP_TAG_NAME);
+            for (int i = 0; i < nodeList.getLength(); i++) {
+                Element element = (Element)nodeList.item(i);
+                if ("external".equalsIgnoreCase(element.getAttribute(PackageRelationship.TARGET_MODE_ATTRIBUTE_NAME))) {
+                    continue;
+                }
+                String type = element.getAttribute(PackageRelationship.TYPE_ATTRIBUTE_NAME);
+                String target = element.getAttribute(PackageRelationship.TARGET_ATTRIBUTE_NAME);
+                switch (type) {
+                    case PackageRelationshipTypes.CORE_PROPERTIES:
+                    case PackageRelationshipTypes.CORE_PROPERTIES_ECMA376:
+                        coreName = getPartName(target);
+                        break;
+                    case PackageRelationshipTypes.EXTENDED_PROPERTIES:
+                        extName = getPartName(target);
+                        break;
+                    case PackageRelationshipTypes.CUSTOM_PROPERTIES:
+                        custName = getPartName(target);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (SAXException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+
+        try {
+            return new POIXMLProperties(readCore(zipFile, coreName), readExtended(zipFile, extName), readCustom(zipFile, custName));
+        } catch (InvalidFormatException | XmlException e) {
+            throw new POIXMLException(e);
+        }
+    }
+
+    private static PackagePropertiesPart readCore(ZipSecureFile zipFile, String partName) throws IOException, InvalidFormatException {
+        PackagePartName corePartName = (partName == null)
+            ? PackagingURIHelper.CORE_PROPERTIES_PART_NAME
+            : PackagingURIHelper.createPartName(partName);
+        ZipArchiveEntry entry = getEntry(zipFile, partName);
+        if (entry == null) {
+            return new PackagePropertiesPart(null, corePartName);
+        }
+        try (InputStream is = zipFile.getInputStream(entry)) {
+            UnmarshallContext context = new UnmarshallContext(null, corePartName);
+            return (PackagePropertiesPart)new PackagePropertiesUnmarshaller().unmarshall(context, is);
+        }
+    }
+
+    private static org.openxmlformats.schemas.officeDocument.x2006.extendedProperties.PropertiesDocument
+    readExtended(ZipSecureFile zipFile, String partName) throws IOException, XmlException {
+        ZipArchiveEntry entry = getEntry(zipFile, partName);
+        if (entry == null) {
+            return null;
+        }
+        try (InputStream is = zipFile.getInputStream(entry)) {
+            return org.openxmlformats.schemas.officeDocument.x2006.extendedProperties.PropertiesDocument.Factory.parse(is, DEFAULT_XML_OPTIONS);
+        }
+    }
+
+    private static org.openxmlformats.schemas.officeDocument.x2006.customProperties.PropertiesDocument
+    readCustom(ZipSecureFile zipFile, String partName) throws IOException, XmlException {
+        ZipArchiveEntry entry = getEntry(zipFile, partName);
+        if (entry == null) {
+            return null;
+        }
+        try (InputStream is = zipFile.getInputStream(entry)) {
+            return org.openxmlformats.schemas.officeDocument.x2006.customProperties.PropertiesDocument.Factory.parse(is, DEFAULT_XML_OPTIONS);
+        }
+    }
+
+    /**
+     * @return the part name of a package relationship target
+     */
+    private static String getPartName(String target) {
+        try {
+            URI uri = PackagingURIHelper.resolvePartUri(PackagingURIHelper.PACKAGE_ROOT_URI, PackagingURIHelper.toURI(target));
+            return PackagingURIHelper.createPartName(uri).getName();
+        } catch (URISyntaxException | InvalidFormatException | IllegalArgumentException e) {
+            throw new POIXMLException("Invalid package relationship target: " + target, e);
+        }
+    }
+
+    /**
+     * @return the zip entry of the part name - like the packages, the names are compared case-insensitive
+     */
+    private static ZipArchiveEntry getEntry(ZipSecureFile zipFile, String partName) {
+        if (partName == null) {
+            return null;
+        }
+        String entryName = ZipHelper.getZipItemNameFromOPCName(partName);
+        ZipArchiveEntry entry = zipFile.getEntry(entryName);
+        if (entry != null) {
+            return entry;
+        }
+        Enumeration<ZipArchiveEntry> entries = zipFile.getEntries();
+        while (entries.hasMoreElements()) {
+            ZipArchiveEntry ze = entries.nextElement();
+            if (ze.getName().equalsIgnoreCase(entryName)) {
+                return ze;
+            }
+        }
+        return null;
+    }
+}
@@ -39,6 +39,7 @@ import org.apache.poi.poifs.filesystem.DirectoryNode;
 import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.xdgf.extractor.XDGFVisioExtractor;
+import org.apache.poi.xslf.extractor.XSLFEventBasedExtractor;
 import org.apache.poi.xslf.extractor.XSLFExtractor;
 import org.apache.poi.xslf.usermodel.XMLSlideShow;
 import org.apache.poi.xslf.usermodel.XSLFRelation;
@@ -46,6 +47,7 @@ import org.apache.poi.xssf.extractor.XSSFBEventBasedExcelExtractor;
 import org.apache.poi.xssf.extractor.XSSFEventBasedExcelExtractor;
 import org.apache.poi.xssf.extractor.XSSFExcelExtractor;
 import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xwpf.extractor.XWPFEventBasedWordExtractor;
 import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
 import org.apache.poi.xwpf.usermodel.XWPFRelation;
 import org.apache.xmlbeans.XmlException;
@@ -216,6 +218,9 @@ public final class POIXMLExtractorFactory implements ExtractorProvider {
             // Is it XWPF?
             for (XWPFRelation rel : XWPFWordExtractor.SUPPORTED_TYPES) {
                 if (rel.getContentType().equals(contentType)) {
+                    if (getPreferEventExtractor()) {
+                        return new XWPFEventBasedWordExtractor(pkg);
+                    }
                     return new XWPFWordExtractor(pkg);
                 }
             }
@@ -223,12 +228,18 @@ public final class POIXMLExtractorFactory implements ExtractorProvider {
             // Is it XSLF?
             for (XSLFRelation rel : SUPPORTED_XSLF_TYPES) {
                 if (rel.getContentType().equals(contentType)) {
+                    if (getPreferEventExtractor()) {
+                        return new XSLFEventBasedExtractor(pkg);
+                    }
                     return new XSLFExtractor(new XMLSlideShow(pkg));
                 }
             }
 
             // special handling for SlideShow-Theme-files,
             if (XSLFRelation.THEME_MANAGER.getContentType().equals(contentType)) {
+                if (getPreferEventExtractor()) {
+                    return new XSLFEventBasedExtractor(pkg);
+                }
                 return new XSLFExtractor(new XMLSlideShow(pkg));
             }
 
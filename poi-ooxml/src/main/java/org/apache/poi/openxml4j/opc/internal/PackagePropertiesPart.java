@@ -75,7 +75,8 @@ public final class PackagePropertiesPart extends PackagePart implements PackageP
      * Constructor.
      *
      * @param pack
-     *            Container package.
+     *            Container package - if {@code null}, the properties are
+     *            read without their package and have no relationships
      * @param partName
      *            Name of this part.
      * @throws InvalidFormatException
@@ -83,7 +84,7 @@ public final class PackagePropertiesPart extends PackagePart implements PackageP
      */
     public PackagePropertiesPart(OPCPackage pack, PackagePartName partName)
             throws InvalidFormatException {
-        super(pack, partName, ContentTypes.CORE_PROPERTIES_PART);
+        super(pack, partName, new ContentType(ContentTypes.CORE_PROPERTIES_PART), pack != null);
     }
 
     /**
@@ -19,6 +19,7 @@ package org.apache.poi.openxml4j.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
 
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipFile;
@@ -128,6 +129,18 @@ public class ZipSecureFile extends ZipFile {
         this.fileName = new File(name).getAbsolutePath();
     }
 
+    /**
+     * Opens the zip file from a channel - the channel is closed, when this zip file is closed
+     *
+     * @param channel the channel to read from
+     *
+     * @since POI 5.0.1
+     */
+    public ZipSecureFile(SeekableByteChannel channel) throws IOException {
+        super(channel);
+        this.fileName = null;
+    }
+
     /**
      * Returns an input stream for reading the contents of the specified
      * zip file entry.
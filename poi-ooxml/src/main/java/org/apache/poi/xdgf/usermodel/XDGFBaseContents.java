@@ -51,6 +51,9 @@ public class XDGFBaseContents extends XDGFXMLDocumentPart {
     protected Map<Long, XDGFShape> _shapes = new HashMap<>();
     protected List<XDGFConnection> _connections = new ArrayList<>();
 
+    // the contents are parsed on first access, see #ensureLoaded()
+    private boolean _loaded;
+
     /**
      * @since POI 3.14-Beta1
      */
@@ -60,13 +63,13 @@ public class XDGFBaseContents extends XDGFXMLDocumentPart {
 
     @Internal
     public PageContentsType getXmlObject() {
+        ensureLoaded();
         return _pageContents;
     }
 
 
     @Override
     protected void onDocumentRead() {
-
         if (_pageContents.isSetShapes()) {
             for (ShapeSheetType shapeSheet: _pageContents.getShapes().getShapeArray()) {
                 XDGFShape shape = new XDGFShape(shapeSheet, this, _document);
@@ -92,6 +95,31 @@ public class XDGFBaseContents extends XDGFXMLDocumentPart {
         }
     }
 
+    /**
+     * Parses the contents, if this hasn't been done yet. Pages and masters are only
+     * loaded when their shapes are accessed, so unused masters and pages which aren't
+     * processed by the caller are never parsed.
+     *
+     * @since POI 5.0.1
+     */
+    protected void ensureLoaded() {
+        if (!_loaded) {
+            // set upfront, as setting up the masters of the shapes accesses the contents again
+            _loaded = true;
+            try {
+                onDocumentRead();
+            } catch (RuntimeException | Error e) {
+                // discard the partially built shapes, so each access fails again
+                _loaded = false;
+                _pageContents = null;
+                _toplevelShapes.clear();
+                _shapes.clear();
+                _connections.clear();
+                throw e;
+            }
+        }
+    }
+
     protected void addToShapeIndex(XDGFShape shape) {
         _shapes.put(shape.getID(), shape);
 
@@ -118,22 +146,27 @@ public class XDGFBaseContents extends XDGFXMLDocumentPart {
 
 
     public XDGFShape getShapeById(long id) {
+        ensureLoaded();
         return _shapes.get(id);
     }
 
     public Map<Long, XDGFShape> getShapesMap() {
+        ensureLoaded();
         return Collections.unmodifiableMap(_shapes);
     }
 
     public Collection<XDGFShape> getShapes() {
+        ensureLoaded();
         return _shapes.values();
     }
 
     public List<XDGFShape> getTopLevelShapes() {
+        ensureLoaded();
         return Collections.unmodifiableList(_toplevelShapes);
     }
 
     public List<XDGFConnection> getConnections() {
+        ensureLoaded();
         return Collections.unmodifiableList(_connections);
     }
 
@@ -148,6 +181,7 @@ public class XDGFBaseContents extends XDGFXMLDocumentPart {
      * an easy way to convert shape coordinates into global coordinates
      */
     public void visitShapes(ShapeVisitor visitor) {
+        ensureLoaded();
         try {
             for (XDGFShape shape: _toplevelShapes) {
                 shape.visitShapes(visitor, new AffineTransform(), 0);
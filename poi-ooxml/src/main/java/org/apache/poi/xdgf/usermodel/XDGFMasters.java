@@ -86,7 +86,6 @@ public class XDGFMasters extends XDGFXMLDocumentPart {
                 }
 
                 XDGFMasterContents contents = (XDGFMasterContents)part;
-                contents.onDocumentRead();
 
                 XDGFMaster master = new XDGFMaster(settings, contents, _document);
                 _masters.put(master.getID(), master);
@@ -82,6 +82,7 @@ public class XDGFPageContents extends XDGFBaseContents {
     }
 
     public XDGFMaster getMasterById(long id) {
+        ensureLoaded();
         return _masters.get(id);
     }
 }
@@ -79,8 +79,6 @@ public class XDGFPages extends XDGFXMLDocumentPart {
                 XDGFPageContents contents = (XDGFPageContents)pageContentsPart;
                 XDGFPage page = new XDGFPage(pageSettings, contents, _document, this);
 
-                contents.onDocumentRead();
-
                 _pages.add(page);
             }
 
@@ -27,7 +27,9 @@ import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import com.microsoft.schemas.office.visio.x2012.main.ShapeSheetType;
@@ -52,6 +54,9 @@ public class XDGFShape extends XDGFSheet {
     XDGFMaster _master;
     XDGFShape _masterShape;
 
+    // cells resolved via the master shapes, including the ones which weren't found
+    private Map<String, XDGFCell> _inheritedCells;
+
     XDGFText _text;
 
     // subshapes if they exist
@@ -222,6 +227,7 @@ public class XDGFShape extends XDGFSheet {
 
         }
 
+        _inheritedCells = null;
         setupSectionMasters();
 
         if (_shapes != null) {
@@ -290,9 +296,16 @@ public class XDGFShape extends XDGFSheet {
     public XDGFCell getCell(String cellName) {
         XDGFCell _cell = super.getCell(cellName);
 
-        // if not found, ask the master
+        // if not found, ask the master - the result is remembered, so the chain
+        // of master shapes is only walked once per cell name
         if (_cell == null && _masterShape != null) {
+            if (_inheritedCells == null) {
+                _inheritedCells = new HashMap<>();
+            } else if (_inheritedCells.containsKey(cellName)) {
+                return _inheritedCells.get(cellName);
+            }
             _cell = _masterShape.getCell(cellName);
+            _inheritedCells.put(cellName, _cell);
         }
 
         return _cell;
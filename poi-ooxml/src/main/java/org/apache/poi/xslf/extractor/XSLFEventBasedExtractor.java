@@ -0,0 +1,600 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xslf.extractor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.ooxml.POIXMLDocument;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.ooxml.POIXMLProperties;
+import org.apache.poi.ooxml.POIXMLProperties.CoreProperties;
+import org.apache.poi.ooxml.POIXMLProperties.CustomProperties;
+import org.apache.poi.ooxml.POIXMLProperties.ExtendedProperties;
+import org.apache.poi.ooxml.extractor.POIXMLTextExtractor;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.openxml4j.opc.TargetMode;
+import org.apache.poi.util.LocaleUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xslf.usermodel.XSLFRelation;
+import org.apache.xmlbeans.XmlException;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Implementation of a text extractor from OOXML PowerPoint
+ * files that uses SAX event based parsing.<p>
+ *
+ * In contrast to {@link XSLFExtractor}, no slide or shape objects are created - the slide, notes and
+ * comments parts are parsed one after the other. The text is mostly the same as the one of
+ * {@link XSLFExtractor}, but the text capitalization is only taken from the runs, i.e. inherited
+ * capitalization of the placeholders or masters isn't applied, and the text of the masters
+ * isn't supported.
+ *
+ * @since POI 5.0.1
+ */
+public class XSLFEventBasedExtractor implements POIXMLTextExtractor {
+
+    private static final Logger LOGGER = LogManager.getLogger(XSLFEventBasedExtractor.class);
+
+    private static final String NS_PRESENTATIONML = "http://schemas.openxmlformats.org/presentationml/2006/main";
+    private static final String NS_DRAWINGML = "http://schemas.openxmlformats.org/drawingml/2006/main";
+    private static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String NS_MARKUP_COMPATIBILITY = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+
+    protected final OPCPackage container;
+    protected final POIXMLProperties properties;
+
+    private boolean slidesByDefault = true;
+    private boolean notesByDefault;
+    private boolean commentsByDefault;
+    private boolean doCloseFilesystem = true;
+
+    public XSLFEventBasedExtractor(String path) throws XmlException, OpenXML4JException, IOException {
+        this(OPCPackage.open(path));
+    }
+
+    public XSLFEventBasedExtractor(OPCPackage container) throws XmlException, OpenXML4JException, IOException {
+        this.container = container;
+        properties = new POIXMLProperties(container);
+    }
+
+    /**
+     * Should a call to getText() return slide text? Default is yes
+     */
+    public void setSlidesByDefault(final boolean slidesByDefault) {
+        this.slidesByDefault = slidesByDefault;
+    }
+
+    /**
+     * Should a call to getText() return notes text? Default is no
+     */
+    public void setNotesByDefault(final boolean notesByDefault) {
+        this.notesByDefault = notesByDefault;
+    }
+
+    /**
+     * Should a call to getText() return comments text? Default is no
+     */
+    public void setCommentsByDefault(final boolean commentsByDefault) {
+        this.commentsByDefault = commentsByDefault;
+    }
+
+    /**
+     * Returns the opened OPCPackage container.
+     */
+    @Override
+    public OPCPackage getPackage() {
+        return container;
+    }
+
+    /**
+     * Returns the core document properties
+     */
+    @Override
+    public CoreProperties getCoreProperties() {
+        return properties.getCoreProperties();
+    }
+
+    /**
+     * Returns the extended document properties
+     */
+    @Override
+    public ExtendedProperties getExtendedProperties() {
+        return properties.getExtendedProperties();
+    }
+
+    /**
+     * Returns the custom document properties
+     */
+    @Override
+    public CustomProperties getCustomProperties() {
+        return properties.getCustomProperties();
+    }
+
+    /**
+     * Fetches all the slide text from the slideshow, but not the notes, unless
+     * you've called setSlidesByDefault() and setNotesByDefault() to change this
+     */
+    @Override
+    public String getText() {
+        try {
+            PackagePart presentation = getPresentationPart();
+            Map<String, String> authors = null;
+            StringBuilder text = new StringBuilder(64);
+            for (PackagePart slide : getSlideParts(presentation)) {
+                if (slidesByDefault) {
+                    appendText(slide, text);
+                }
+                if (commentsByDefault) {
+                    for (PackagePart comments : getRelatedParts(slide, XSLFRelation.COMMENTS)) {
+                        if (authors == null) {
+                            authors = getCommentAuthors(presentation);
+                        }
+                        CommentsHandler handler = new CommentsHandler(authors, text);
+                        parse(comments, handler);
+                    }
+                }
+                if (notesByDefault) {
+                    for (PackagePart notes : getRelatedParts(slide, XSLFRelation.NOTES)) {
+                        appendText(notes, text);
+                    }
+                }
+                checkMaxTextSize(text, "");
+            }
+            return text.toString();
+        } catch (IOException | OpenXML4JException | SAXException e) {
+            LOGGER.atWarn().withThrowable(e).log("Failed to load text");
+            return "";
+        }
+    }
+
+    /**
+     * @return the titles of the slides in the order of the presentation - {@code null} for slides without title
+     */
+    public List<String> getSlideTitles() throws IOException, OpenXML4JException, SAXException {
+        List<String> titles = new ArrayList<>();
+        for (PackagePart slide : getSlideParts(getPresentationPart())) {
+            SheetTextHandler handler = new SheetTextHandler(null);
+            parse(slide, handler);
+            titles.add(handler.title == null ? null : handler.title.toString());
+        }
+        return titles;
+    }
+
+    private void appendText(PackagePart sheet, StringBuilder text) throws IOException, SAXException {
+        parse(sheet, new SheetTextHandler(text));
+    }
+
+    private PackagePart getPresentationPart() throws InvalidFormatException {
+        PackageRelationship coreDocRelationship = container.getRelationshipsByType(
+                PackageRelationshipTypes.CORE_DOCUMENT).getRelationship(0);
+        if (coreDocRelationship == null) {
+            if (container.getRelationshipsByType(
+                    PackageRelationshipTypes.STRICT_CORE_DOCUMENT).getRelationship(0) != null) {
+                throw new POIXMLException("Strict OOXML isn't currently supported, please see bug #57699");
+            }
+            throw new POIXMLException("OOXML file structure broken/invalid - no core document found!");
+        }
+        PackagePart part = container.getPart(coreDocRelationship);
+        if (part == null) {
+            throw new POIXMLException("OOXML file structure broken/invalid - core document '"
+                + coreDocRelationship.getTargetURI() + "' not found!");
+        }
+        return part;
+    }
+
+    /**
+     * @return the slide parts in the order of the slide id list
+     */
+    private List<PackagePart> getSlideParts(PackagePart presentation) throws IOException, SAXException, InvalidFormatException {
+        List<String> relIds = new ArrayList<>();
+        parse(presentation, new DefaultHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                if (NS_PRESENTATIONML.equals(uri) && "sldId".equals(localName)) {
+                    relIds.add(attributes.getValue(NS_RELATIONSHIPS, "id"));
+                }
+            }
+        });
+
+        List<PackagePart> slides = new ArrayList<>(relIds.size());
+        for (String relId : relIds) {
+            PackageRelationship rel = (relId == null) ? null : presentation.getRelationship(relId);
+            PackagePart slide = (rel == null) ? null : presentation.getRelatedPart(rel);
+            if (slide != null) {
+                slides.add(slide);
+            }
+        }
+        return slides;
+    }
+
+    private static List<PackagePart> getRelatedParts(PackagePart part, XSLFRelation relation) throws InvalidFormatException {
+        List<PackagePart> parts = new ArrayList<>();
+        PackageRelationshipCollection rels = part.getRelationshipsByType(relation.getRelation());
+        for (PackageRelationship rel : rels) {
+            if (rel.getTargetMode() == TargetMode.INTERNAL) {
+                PackagePart related = part.getRelatedPart(rel);
+                if (related != null) {
+                    parts.add(related);
+                }
+            }
+        }
+        return parts;
+    }
+
+    private static Map<String, String> getCommentAuthors(PackagePart presentation)
+            throws IOException, SAXException, InvalidFormatException {
+        Map<String, String> authors = new HashMap<>();
+        for (PackagePart part : getRelatedParts(presentation, XSLFRelation.COMMENT_AUTHORS)) {
+            parse(part, new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if (NS_PRESENTATIONML.equals(uri) && "cmAuthor".equals(localName)) {
+                        authors.put(attributes.getValue("id"), attributes.getValue("name"));
+                    }
+                }
+            });
+        }
+        return authors;
+    }
+
+    private static void parse(PackagePart part, DefaultHandler handler) throws IOException, SAXException {
+        try (InputStream is = part.getInputStream()) {
+            XMLReader reader = XMLHelper.newXMLReader();
+            reader.setContentHandler(handler);
+            reader.parse(new InputSource(is));
+        } catch (ParserConfigurationException e) {
+            throw new RuntimeException("SAX parser appears to be broken - " + e.getMessage());
+        }
+    }
+
+    @Override
+    public POIXMLDocument getDocument() {
+        return null;
+    }
+
+    @Override
+    public void setCloseFilesystem(boolean doCloseFilesystem) {
+        this.doCloseFilesystem = doCloseFilesystem;
+    }
+
+    @Override
+    public boolean isCloseFilesystem() {
+        return doCloseFilesystem;
+    }
+
+    @Override
+    public OPCPackage getFilesystem() {
+        return container;
+    }
+
+    /**
+     * Appends "author - text" for each comment
+     */
+    private static class CommentsHandler extends DefaultHandler {
+        private final Map<String, String> authors;
+        private final StringBuilder output;
+        private final StringBuilder text = new StringBuilder();
+        private String authorId;
+        private boolean inText;
+
+        CommentsHandler(Map<String, String> authors, StringBuilder output) {
+            this.authors = authors;
+            this.output = output;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if (!NS_PRESENTATIONML.equals(uri)) {
+                return;
+            }
+            if ("cm".equals(localName)) {
+                authorId = attributes.getValue("authorId");
+                text.setLength(0);
+            } else if ("text".equals(localName)) {
+                inText = true;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if (!NS_PRESENTATIONML.equals(uri)) {
+                return;
+            }
+            if ("cm".equals(localName)) {
+                output.append(authors.get(authorId)).append(" - ").append(text);
+            } else if ("text".equals(localName)) {
+                inText = false;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inText) {
+                text.append(ch, start, length);
+            }
+        }
+    }
+
+    /**
+     * Extracts the text of the shapes of a slide or notes part in the same
+     * way as {@link org.apache.poi.sl.extractor.SlideShowExtractor}
+     */
+    private static class SheetTextHandler extends DefaultHandler {
+        private final StringBuilder output;
+        /** the text of the first top-level title placeholder */
+        private StringBuilder title;
+        private boolean inTitle;
+
+        private int shapeDepth;
+        private int skipDepth;
+        /** the nesting of mc:AlternateContent / mc:Choice elements, whose first group shape is used */
+        private int choiceDepth = -1;
+        private boolean choiceHasElement;
+
+        private String placeholder;
+        private boolean isTitlePlaceholder;
+        private boolean inRun;
+        private boolean inText;
+        private String textCap;
+        private final StringBuilder run = new StringBuilder();
+        private final StringBuilder paragraph = new StringBuilder();
+
+        /** table state: the number of grid columns and the column of the current cell */
+        private int tableColumns = -1;
+        private int column;
+        private String trailer = "\n";
+        private String cellTrailer;
+
+        SheetTextHandler(StringBuilder output) {
+            this.output = output;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if (skipDepth > 0) {
+                skipDepth++;
+                return;
+            }
+
+            if (NS_MARKUP_COMPATIBILITY.equals(uri)) {
+                if ("Fallback".equals(localName)) {
+                    skipDepth = 1;
+                } else if ("Choice".equals(localName)) {
+                    choiceHasElement = false;
+                    choiceDepth = 0;
+                }
+                return;
+            }
+
+            if (choiceDepth == 0) {
+                // like XSLFSheet, only the first element of the choice is used, if it's a group
+                if (choiceHasElement || !(NS_PRESENTATIONML.equals(uri) && "grpSp".equals(localName))) {
+                    skipDepth = 1;
+                    choiceHasElement = true;
+                    return;
+                }
+                // the children of the group are added to the parent container
+                choiceHasElement = true;
+                choiceDepth++;
+                return;
+            }
+            if (choiceDepth >= 0) {
+                choiceDepth++;
+            }
+
+            if (NS_PRESENTATIONML.equals(uri)) {
+                switch (localName) {
+                    case "sp":
+                        shapeDepth++;
+                        placeholder = null;
+                        isTitlePlaceholder = false;
+                        break;
+                    case "grpSp":
+                    case "graphicFrame":
+                        shapeDepth++;
+                        break;
+                    case "ph": {
+                        String type = attributes.getValue("type");
+                        placeholder = (type == null) ? "body" : type;
+                        // only top-level titles are used as slide title
+                        isTitlePlaceholder = "title".equals(placeholder) && shapeDepth == 1;
+                        break;
+                    }
+                    case "txBody":
+                        inTitle = isTitlePlaceholder && title == null;
+                        if (inTitle) {
+                            title = new StringBuilder();
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                return;
+            }
+
+            if (!NS_DRAWINGML.equals(uri)) {
+                return;
+            }
+
+            switch (localName) {
+                case "p":
+                    paragraph.setLength(0);
+                    if (inTitle && title.length() > 0) {
+                        title.append('\n');
+                    }
+                    break;
+                case "r":
+                case "fld":
+                    inRun = true;
+                    textCap = null;
+                    run.setLength(0);
+                    break;
+                case "rPr":
+                    if (inRun) {
+                        textCap = attributes.getValue("cap");
+                    }
+                    break;
+                case "t":
+                    inText = inRun;
+                    break;
+                case "br":
+                    addRun("\n", null);
+                    break;
+                case "tbl":
+                    tableColumns = 0;
+                    break;
+                case "gridCol":
+                    if (tableColumns >= 0) {
+                        tableColumns++;
+                    }
+                    break;
+                case "tr":
+                    column = 0;
+                    cellTrailer = "";
+                    break;
+                case "tc":
+                    if (column >= tableColumns) {
+                        // cells beyond the grid are ignored
+                        skipDepth = 1;
+                    } else {
+                        cellTrailer = trailer = (column < tableColumns - 1) ? "\t" : "\n";
+                    }
+                    column++;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if (skipDepth > 0) {
+                skipDepth--;
+                return;
+            }
+
+            if (NS_MARKUP_COMPATIBILITY.equals(uri)) {
+                if ("Choice".equals(localName)) {
+                    choiceDepth = -1;
+                }
+                return;
+            }
+            if (choiceDepth > 0) {
+                if (--choiceDepth == 0) {
+                    // end of the flattened group
+                    return;
+                }
+            }
+
+            if (NS_PRESENTATIONML.equals(uri)) {
+                switch (localName) {
+                    case "sp":
+                    case "grpSp":
+                    case "graphicFrame":
+                        shapeDepth--;
+                        placeholder = null;
+                        isTitlePlaceholder = false;
+                        break;
+                    case "txBody":
+                        inTitle = false;
+                        break;
+                    default:
+                        break;
+                }
+                return;
+            }
+
+            if (!NS_DRAWINGML.equals(uri)) {
+                return;
+            }
+
+            switch (localName) {
+                case "p":
+                    if (output != null) {
+                        output.append(paragraph).append(trailer);
+                    }
+                    break;
+                case "r":
+                case "fld":
+                    addRun(run.toString(), textCap);
+                    inRun = false;
+                    break;
+                case "t":
+                    inText = false;
+                    break;
+                case "tr":
+                    if (output != null && !"\n".equals(cellTrailer)) {
+                        output.append('\n');
+                    }
+                    break;
+                case "tc":
+                    trailer = "\n";
+                    break;
+                case "tbl":
+                    tableColumns = -1;
+                    trailer = "\n";
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inText && skipDepth == 0) {
+                run.append(ch, start, length);
+            }
+        }
+
+        private void addRun(String rawText, String cap) {
+            if (inTitle) {
+                title.append(rawText);
+            }
+
+            // 0xB acts like carriage return in page titles and like blank in the others
+            final char sep = ("title".equals(placeholder) || "ctrTitle".equals(placeholder) ||
+                "subTitle".equals(placeholder)) ? '\n' : ' ';
+            String txt = rawText.replace('\r', '\n').replace((char) 0x0B, sep);
+            if ("all".equals(cap)) {
+                txt = txt.toUpperCase(LocaleUtil.getUserLocale());
+            } else if ("small".equals(cap)) {
+                txt = txt.toLowerCase(LocaleUtil.getUserLocale());
+            }
+            paragraph.append(txt);
+        }
+    }
+}
@@ -26,15 +26,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.OptionalLong;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.ooxml.POIXMLDocument;
@@ -51,8 +53,6 @@ import org.apache.poi.sl.usermodel.SlideShow;
 import org.apache.poi.util.Beta;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.Internal;
-import org.apache.poi.util.LittleEndian;
-import org.apache.poi.util.LittleEndianConsts;
 import org.apache.poi.util.Units;
 import org.apache.xmlbeans.XmlException;
 import org.openxmlformats.schemas.presentationml.x2006.main.CTNotesMasterIdList;
@@ -393,6 +393,47 @@ public class XMLSlideShow extends POIXMLDocument
         return _slides;
     }
 
+    /**
+     * Writes the given slides to their package parts and releases their xml objects,
+     * so presentations with many slides can be generated without keeping all slides in memory.
+     * The slide xml is serialized concurrently, before the parts are updated.<p>
+     *
+     * A flushed slide is read again from its part, when it is accessed the next time.
+     * Shapes and other objects which were obtained from the slide before flushing must not be used anymore.
+     *
+     * @param slides the finished slides of this slideshow
+     * @throws IOException if the slides can't be written to their parts
+     *
+     * @since POI 5.0.1
+     */
+    public void flushSlides(Collection<XSLFSlide> slides) throws IOException {
+        List<XSLFSlide> pending = new ArrayList<>();
+        for (XSLFSlide slide : slides) {
+            if (slide.getSlideShow() != this) {
+                throw new IllegalArgumentException("Slide " + slide.getPackagePart().getPartName() + " doesn't belong to this slideshow");
+            }
+            if (!slide.isFlushed()) {
+                pending.add(slide);
+            }
+        }
+
+        // the serialization doesn't touch the package, only updating the parts has to be done sequentially
+        List<byte[]> data = pending.parallelStream().map(XMLSlideShow::serialize).collect(Collectors.toList());
+
+        for (int i = 0; i < pending.size(); i++) {
+            pending.get(i).flush(data.get(i));
+        }
+    }
+
+    private static byte[] serialize(XSLFSheet sheet) {
+        try (UnsynchronizedByteArrayOutputStream bos = new UnsynchronizedByteArrayOutputStream()) {
+            sheet.save(bos);
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new POIXMLException(e);
+        }
+    }
+
     /**
      * Return all the charts in the slideshow
      */
@@ -485,7 +526,8 @@ public class XMLSlideShow extends POIXMLDocument
      */
     @Override
     public XSLFPictureData addPicture(byte[] pictureData, PictureType format) {
-        XSLFPictureData img = findPictureData(pictureData);
+        long checksum = IOUtils.calculateChecksum(pictureData);
+        XSLFPictureData img = findPictureData(checksum);
         if (img != null) {
             return img;
         }
@@ -507,8 +549,9 @@ public class XMLSlideShow extends POIXMLDocument
         img.setIndex(_pictures.size());
         _pictures.add(img);
 
-        try (OutputStream out = img.getPackagePart().getOutputStream()) {
-            out.write(pictureData);
+        try {
+            // this also caches the checksum for subsequent lookups
+            img.setData(pictureData, checksum);
         } catch (IOException e) {
             throw new POIXMLException(e);
         }
@@ -558,12 +601,14 @@ public class XMLSlideShow extends POIXMLDocument
      */
     @Override
     public XSLFPictureData findPictureData(byte[] pictureData) {
-        long checksum = IOUtils.calculateChecksum(pictureData);
-        byte[] cs = new byte[LittleEndianConsts.LONG_SIZE];
-        LittleEndian.putLong(cs, 0, checksum);
+        return findPictureData(IOUtils.calculateChecksum(pictureData));
+    }
 
+    private XSLFPictureData findPictureData(long checksum) {
+        // the checksums of existing pictures are calculated and cached on first use - the picture parts
+        // are read sequentially, as not all package sources (e.g. encrypted temp files) support concurrent reads
         for (XSLFPictureData pic : getPictureData()) {
-            if (Arrays.equals(pic.getChecksum(), cs)) {
+            if (pic.getChecksumValue() == checksum) {
                 return pic;
             }
         }
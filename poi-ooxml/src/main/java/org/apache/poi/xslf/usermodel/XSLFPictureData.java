@@ -113,12 +113,22 @@ public final class XSLFPictureData extends POIXMLDocumentPart implements Picture
 
     @Override
     public byte[] getChecksum() {
-        cacheProperties();
         byte[] cs = new byte[LittleEndianConsts.LONG_SIZE];
-        LittleEndian.putLong(cs,0,checksum);
+        LittleEndian.putLong(cs,0,getChecksumValue());
         return cs;
     }
 
+    /**
+     * @return the checksum of the picture data - in contrast to {@link #cacheProperties()},
+     *  the image header isn't parsed
+     */
+    long getChecksumValue() {
+        if (checksum == null) {
+            checksum = IOUtils.calculateChecksum(getData());
+        }
+        return checksum;
+    }
+
     @Override
     public Dimension getImageDimension() {
         cacheProperties();
@@ -182,11 +192,19 @@ public final class XSLFPictureData extends POIXMLDocumentPart implements Picture
     }
 
     public void setData(byte[] data) throws IOException {
+        // recalculate now since we already have the data bytes available anyhow
+        setData(data, IOUtils.calculateChecksum(data));
+    }
+
+    /**
+     * @param data the picture data
+     * @param checksum the already calculated checksum of the data
+     */
+    void setData(byte[] data, long checksum) throws IOException {
         OutputStream os = getPackagePart().getOutputStream();
         os.write(data);
         os.close();
-        // recalculate now since we already have the data bytes available anyhow
-        checksum = IOUtils.calculateChecksum(data);
+        this.checksum = checksum;
 
         origSize = null; // need to recalculate image size
     }
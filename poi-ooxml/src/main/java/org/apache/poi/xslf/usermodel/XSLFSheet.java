@@ -402,8 +402,31 @@ implements XSLFShapeContainer, Sheet<XSLFShape,XSLFTextParagraph> {
         return _spTree;
     }
 
+    @Override
+    protected void prepareForCommit() {
+        // a flushed sheet is already up-to-date in its part
+        if (!isFlushed()) {
+            super.prepareForCommit();
+        }
+    }
+
     @Override
     protected final void commit() throws IOException {
+        if (isFlushed()) {
+            return;
+        }
+
+        PackagePart part = getPackagePart();
+        OutputStream out = part.getOutputStream();
+        save(out);
+        out.close();
+    }
+
+    /**
+     * Serializes the xml object of this sheet. This doesn't touch the package,
+     * so different sheets can be serialized concurrently.
+     */
+    void save(OutputStream out) throws IOException {
         XmlOptions xmlOptions = new XmlOptions(DEFAULT_XML_OPTIONS);
         String docName = getRootElementName();
         if(docName != null) {
@@ -411,10 +434,29 @@ implements XSLFShapeContainer, Sheet<XSLFShape,XSLFTextParagraph> {
                     new QName("http://schemas.openxmlformats.org/presentationml/2006/main", docName));
         }
 
-        PackagePart part = getPackagePart();
-        OutputStream out = part.getOutputStream();
         getXmlObject().save(out, xmlOptions);
-        out.close();
+    }
+
+    /**
+     * @return {@code true}, if the xml object has been written to the package part and
+     *  released, see {@link XMLSlideShow#flushSlides(java.util.Collection)}
+     */
+    boolean isFlushed() {
+        return false;
+    }
+
+    /**
+     * Discards the shapes and the other objects built from the xml object,
+     * so they are rebuilt on the next access
+     */
+    void resetShapes() {
+        _drawing = null;
+        _shapes = null;
+        _spTree = null;
+        _placeholders = null;
+        _placeholderByIdMap = null;
+        _placeholderByTypeMap = null;
+        shapeIds.clear();
     }
 
     /**
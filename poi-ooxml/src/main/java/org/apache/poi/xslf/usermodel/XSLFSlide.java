@@ -20,10 +20,12 @@ import static org.apache.poi.ooxml.POIXMLTypeLoader.DEFAULT_XML_OPTIONS;
 
 import java.awt.Graphics2D;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.poi.ooxml.POIXMLDocumentPart;
+import org.apache.poi.ooxml.POIXMLException;
 import org.apache.poi.ooxml.util.DocumentHelper;
 import org.apache.poi.openxml4j.opc.PackagePart;
 import org.apache.poi.sl.draw.DrawFactory;
@@ -52,7 +54,8 @@ import org.xml.sax.SAXException;
 @Beta
 public final class XSLFSlide extends XSLFSheet
 implements Slide<XSLFShape,XSLFTextParagraph> {
-    private final CTSlide _slide;
+    // null, if the slide has been flushed to its package part
+    private CTSlide _slide;
     private XSLFSlideLayout _layout;
     private XSLFComments _comments;
     private XSLFCommentAuthors _commentAuthors;
@@ -76,16 +79,19 @@ implements Slide<XSLFShape,XSLFTextParagraph> {
      */
     XSLFSlide(PackagePart part) throws IOException, XmlException {
         super(part);
+        _slide = readSlide(part);
+    }
 
+    private static CTSlide readSlide(PackagePart part) throws IOException, XmlException {
         Document _doc;
         try {
-            _doc = DocumentHelper.readDocument(getPackagePart().getInputStream());
+            _doc = DocumentHelper.readDocument(part.getInputStream());
         } catch (SAXException e) {
             throw new IOException(e);
         }
 
         SldDocument doc = SldDocument.Factory.parse(_doc, DEFAULT_XML_OPTIONS);
-        _slide = doc.getSld();
+        return doc.getSld();
     }
 
     private static CTSlide prototype(){
@@ -120,9 +126,40 @@ implements Slide<XSLFShape,XSLFTextParagraph> {
 
     @Override
     public CTSlide getXmlObject() {
+        if (_slide == null) {
+            // the slide has been flushed - read it again from the package part, which
+            // might have been replaced by a new part of the same name on writing
+            PackagePart part = getPackagePart();
+            PackagePart current = part.getPackage().getPart(part.getPartName());
+            try {
+                _slide = readSlide(current != null ? current : part);
+            } catch (IOException | XmlException e) {
+                throw new POIXMLException(e);
+            }
+        }
         return _slide;
     }
 
+    @Override
+    boolean isFlushed() {
+        return _slide == null;
+    }
+
+    /**
+     * Writes the serialized slide to its package part and releases the xml object and the shapes
+     *
+     * @param data the slide xml, as serialized by {@link #save(OutputStream)}
+     */
+    void flush(byte[] data) throws IOException {
+        PackagePart part = getPackagePart();
+        part.clear();
+        try (OutputStream out = part.getOutputStream()) {
+            out.write(data);
+        }
+        _slide = null;
+        resetShapes();
+    }
+
     @Override
     protected String getRootElementName(){
         return "sld";
@@ -255,7 +292,7 @@ implements Slide<XSLFShape,XSLFTextParagraph> {
      */
     @Override
     public XSLFBackground getBackground() {
-        CTBackground bg = _slide.getCSld().getBg();
+        CTBackground bg = getXmlObject().getCSld().getBg();
         if(bg != null) {
             return new XSLFBackground(bg, this);
         } else {
@@ -265,7 +302,7 @@ implements Slide<XSLFShape,XSLFTextParagraph> {
 
     @Override
     public boolean getFollowMasterGraphics(){
-        return _slide.getShowMasterSp();
+        return getXmlObject().getShowMasterSp();
     }
 
     /**
@@ -274,7 +311,7 @@ implements Slide<XSLFShape,XSLFTextParagraph> {
      */
     @SuppressWarnings("WeakerAccess")
     public void setFollowMasterGraphics(boolean value){
-        _slide.setShowMasterSp(value);
+        getXmlObject().setShowMasterSp(value);
     }
 
 
@@ -301,22 +338,22 @@ implements Slide<XSLFShape,XSLFTextParagraph> {
         }
 
         // only copy direct backgrounds - not backgrounds of master sheet
-        CTBackground bgOther = ((XSLFSlide)src)._slide.getCSld().getBg();
+        CTBackground bgOther = ((XSLFSlide)src).getXmlObject().getCSld().getBg();
         if (bgOther == null) {
             return this;
         }
 
-        CTBackground bgThis = _slide.getCSld().getBg();
+        CTBackground bgThis = getXmlObject().getCSld().getBg();
         // remove existing background
         if (bgThis != null) {
             if (bgThis.isSetBgPr() && bgThis.getBgPr().isSetBlipFill()) {
                 String oldId = bgThis.getBgPr().getBlipFill().getBlip().getEmbed();
                 removeRelation(oldId);
             }
-            _slide.getCSld().unsetBg();
+            getXmlObject().getCSld().unsetBg();
         }
 
-        bgThis = (CTBackground)_slide.getCSld().addNewBg().set(bgOther);
+        bgThis = (CTBackground)getXmlObject().getCSld().addNewBg().set(bgOther);
 
         if(bgOther.isSetBgPr() && bgOther.getBgPr().isSetBlipFill()){
             String idOther = bgOther.getBgPr().getBlipFill().getBlip().getEmbed();
@@ -410,6 +447,6 @@ implements Slide<XSLFShape,XSLFTextParagraph> {
 
     @Override
     String mapSchemeColor(String schemeColor) {
-        return mapSchemeColor(_slide.getClrMapOvr(), schemeColor);
+        return mapSchemeColor(getXmlObject().getClrMapOvr(), schemeColor);
     }
 }
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -39,8 +40,11 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.common.usermodel.GenericRecord;
 import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.sl.draw.DecodedImageCache;
 import org.apache.poi.sl.draw.Drawable;
 import org.apache.poi.sl.draw.EmbeddedExtractor.EmbeddedPart;
+import org.apache.poi.sl.draw.ParallelSlideRenderer;
+import org.apache.poi.sl.usermodel.SlideShowFactory;
 import org.apache.poi.util.Dimension2DDouble;
 import org.apache.poi.util.GenericRecordJsonWriter;
 import org.apache.poi.util.LocaleUtil;
@@ -84,7 +88,10 @@ public final class PPTX2PNG {
             "    -fontdir <dir>    (PDF only) font directories separated by \";\" - use $HOME for current users home dir\n" +
             "                      defaults to the usual plattform directories\n" +
             "    -fontTtf <regex>  (PDF only) regex to match the .ttf filenames\n" +
-            "    -fontMap <map>    \";\"-separated list of font mappings <typeface from>:<typeface to>";
+            "    -fontMap <map>    \";\"-separated list of font mappings <typeface from>:<typeface to>\n" +
+            "    -threads <int>    (ppt/pptx to png,gif,jpg only) number of slides rendered concurrently, defaults to 1\n" +
+            "    -imageCache <int> size in MB of the cache for decoded images shared between the slides,\n" +
+            "                      bitmaps are decoded with a lower resolution if possible - defaults to 0 (no cache)";
 
         System.out.println(msg);
         // no System.exit here, as we also run in junit tests!
@@ -117,6 +124,8 @@ public final class PPTX2PNG {
     private String fontDir = null;
     private String fontTtf = null;
     private String fontMap = null;
+    private int threads = 1;
+    private DecodedImageCache imageCache = null;
 
     private PPTX2PNG() {
     }
@@ -230,6 +239,19 @@ public final class PPTX2PNG {
                         fontMap = null;
                     }
                     break;
+                case "-imagecache":
+                    if (opt != null) {
+                        long size = Long.parseLong(opt);
+                        imageCache = (size > 0) ? new DecodedImageCache(size * 1024 * 1024) : null;
+                        i++;
+                    }
+                    break;
+                case "-threads":
+                    if (opt != null) {
+                        threads = Integer.parseInt(opt);
+                        i++;
+                    }
+                    break;
                 default:
                     file = new File(args[i]);
                     break;
@@ -271,6 +293,11 @@ public final class PPTX2PNG {
             return false;
         }
 
+        if (threads < 1) {
+            usage("Invalid number of threads given");
+            return false;
+        }
+
         if (!"long,short,width,height,scale".contains(fixSide)) {
             usage("<fixside> must be one of long / short / width / height");
             return false;
@@ -298,48 +325,32 @@ public final class PPTX2PNG {
             final int width = Math.max((int)Math.rint(dim.getWidth()),1);
             final int height = Math.max((int)Math.rint(dim.getHeight()),1);
 
-            try (OutputFormat outputFormat = getOutput()) {
-                for (int slideNo : slidenum) {
-                    proxy.setSlideNo(slideNo);
-                    if (!quiet) {
-                        String title = proxy.getTitle();
-                        System.out.println("Rendering slide " + slideNo + (title == null ? "" : ": " + title.trim()));
-                    }
-
-                    dumpRecords(proxy);
-
-                    extractEmbedded(proxy, slideNo);
+            if (isParallel(proxy)) {
+                renderParallel(proxy, slidenum, width, height, lenSide);
+            } else {
+                try (OutputFormat outputFormat = getOutput()) {
+                    for (int slideNo : slidenum) {
+                        proxy.setSlideNo(slideNo);
+                        if (!quiet) {
+                            String title = proxy.getTitle();
+                            System.out.println("Rendering slide " + slideNo + (title == null ? "" : ": " + title.trim()));
+                        }
 
-                    Graphics2D graphics = outputFormat.addSlide(width, height);
+                        dumpRecords(proxy);
 
-                    // default rendering options
-                    graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                    graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                    graphics.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
-                    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-                    graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
-                    graphics.setRenderingHint(Drawable.DEFAULT_CHARSET, getDefaultCharset());
-                    graphics.setRenderingHint(Drawable.EMF_FORCE_HEADER_BOUNDS, emfHeaderBounds);
-                    if (fontMap != null) {
-                        Map<String,String> fmap = Arrays.stream(fontMap.split(";"))
-                            .map(s -> s.split(":"))
-                            .collect(Collectors.toMap(s -> s[0], s -> s[1]));
-                        graphics.setRenderingHint(Drawable.FONT_MAP, fmap);
-                    }
+                        extractEmbedded(proxy, slideNo);
 
-                    graphics.scale(scale / lenSide, scale / lenSide);
+                        Graphics2D graphics = outputFormat.addSlide(width, height);
+                        initGraphics(graphics, width, height, lenSide);
 
-                    graphics.setComposite(AlphaComposite.Clear);
-                    graphics.fillRect(0, 0, width, height);
-                    graphics.setComposite(AlphaComposite.SrcOver);
+                        // draw stuff
+                        proxy.draw(graphics);
 
-                    // draw stuff
-                    proxy.draw(graphics);
+                        outputFormat.writeSlide(proxy, new File(outdir, calcOutFile(proxy, slideNo)));
+                    }
 
-                    outputFormat.writeSlide(proxy, new File(outdir, calcOutFile(proxy, slideNo)));
+                    outputFormat.writeDocument(proxy, new File(outdir, calcOutFile(proxy, 0)));
                 }
-
-                outputFormat.writeDocument(proxy, new File(outdir, calcOutFile(proxy, 0)));
             }
 
         } catch (NoScratchpadException e) {
@@ -352,6 +363,67 @@ public final class PPTX2PNG {
         }
     }
 
+    /**
+     * Slides of a ppt/pptx file can be rendered concurrently into separate bitmaps -
+     * the other formats collect all slides in one document or only contain one image
+     */
+    private boolean isParallel(MFProxy proxy) {
+        return threads > 1 && proxy instanceof PPTHandler && !"stdin".equalsIgnoreCase(file.getName())
+            && format.matches("^(png|gif|jpg|null)$");
+    }
+
+    private void renderParallel(MFProxy proxy, Set<Integer> slidenum, int width, int height, double lenSide) throws IOException {
+        // the proxy is only used on this thread, the workers use their own slide show instances
+        Map<Integer,File> outFiles = new HashMap<>();
+        for (int slideNo : slidenum) {
+            proxy.setSlideNo(slideNo);
+            dumpRecords(proxy);
+            extractEmbedded(proxy, slideNo);
+            outFiles.put(slideNo, new File(outdir, calcOutFile(proxy, slideNo)));
+        }
+
+        try (ParallelSlideRenderer renderer = new ParallelSlideRenderer(() -> SlideShowFactory.create(file, null, true), threads)) {
+            renderer.forEachSlide(slidenum, (slideNo, slide) -> {
+                if (!quiet) {
+                    String title = slide.getTitle();
+                    System.out.println("Rendering slide " + slideNo + (title == null ? "" : ": " + title.trim()));
+                }
+                try (OutputFormat outputFormat = getOutput()) {
+                    Graphics2D graphics = outputFormat.addSlide(width, height);
+                    initGraphics(graphics, width, height, lenSide);
+                    slide.draw(graphics);
+                    outputFormat.writeSlide(proxy, outFiles.get(slideNo));
+                }
+            });
+        }
+    }
+
+    private void initGraphics(Graphics2D graphics, int width, int height, double lenSide) {
+        // default rendering options
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        graphics.setRenderingHint(Drawable.DEFAULT_CHARSET, getDefaultCharset());
+        graphics.setRenderingHint(Drawable.EMF_FORCE_HEADER_BOUNDS, emfHeaderBounds);
+        if (imageCache != null) {
+            graphics.setRenderingHint(Drawable.IMAGE_CACHE, imageCache);
+        }
+        if (fontMap != null) {
+            Map<String,String> fmap = Arrays.stream(fontMap.split(";"))
+                .map(s -> s.split(":"))
+                .collect(Collectors.toMap(s -> s[0], s -> s[1]));
+            graphics.setRenderingHint(Drawable.FONT_MAP, fmap);
+        }
+
+        graphics.scale(scale / lenSide, scale / lenSide);
+
+        graphics.setComposite(AlphaComposite.Clear);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setComposite(AlphaComposite.SrcOver);
+    }
+
     private OutputFormat getOutput() {
         switch (format) {
             case "svg": {
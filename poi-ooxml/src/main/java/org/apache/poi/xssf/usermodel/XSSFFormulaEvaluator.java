@@ -18,7 +18,9 @@
 package org.apache.poi.xssf.usermodel;
 
 import org.apache.poi.ss.formula.BaseFormulaEvaluator;
+import org.apache.poi.ss.formula.EvaluationCacheType;
 import org.apache.poi.ss.formula.EvaluationCell;
+import org.apache.poi.ss.formula.EvaluationProfiler;
 import org.apache.poi.ss.formula.IStabilityClassifier;
 import org.apache.poi.ss.formula.WorkbookEvaluator;
 import org.apache.poi.ss.formula.udf.UDFFinder;
@@ -40,6 +42,10 @@ public final class XSSFFormulaEvaluator extends BaseXSSFFormulaEvaluator {
     private XSSFFormulaEvaluator(XSSFWorkbook workbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder) {
         this(workbook, new WorkbookEvaluator(XSSFEvaluationWorkbook.create(workbook), stabilityClassifier, udfFinder));
     }
+    private XSSFFormulaEvaluator(XSSFWorkbook workbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder,
+            EvaluationCacheType cacheType) {
+        this(workbook, new WorkbookEvaluator(XSSFEvaluationWorkbook.create(workbook), stabilityClassifier, udfFinder, cacheType));
+    }
     protected XSSFFormulaEvaluator(XSSFWorkbook workbook, WorkbookEvaluator bookEvaluator) {
         super(bookEvaluator);
         _book = workbook;
@@ -55,6 +61,36 @@ public final class XSSFFormulaEvaluator extends BaseXSSFFormulaEvaluator {
         return new XSSFFormulaEvaluator(workbook, stabilityClassifier, udfFinder);
     }
 
+    /**
+     * @param stabilityClassifier used to optimise caching performance. Pass <code>null</code>
+     * for the (conservative) assumption that any cell may have its definition changed after
+     * evaluation begins.
+     * @param udfFinder pass <code>null</code> for default (AnalysisToolPak only)
+     * @param cacheType {@link EvaluationCacheType#COMPACT} to reduce the memory used for caching
+     * the input cells of large models
+     *
+     * @since POI 5.0.1
+     */
+    public static XSSFFormulaEvaluator create(XSSFWorkbook workbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder,
+            EvaluationCacheType cacheType) {
+        return new XSSFFormulaEvaluator(workbook, stabilityClassifier, udfFinder, cacheType);
+    }
+
+    /**
+     * @param stabilityClassifier used to optimise caching performance. Pass <code>null</code>
+     * for the (conservative) assumption that any cell may have its definition changed after
+     * evaluation begins.
+     * @param udfFinder pass <code>null</code> for default (AnalysisToolPak only)
+     * @param profiler collects the evaluation times of the cells and functions
+     *
+     * @since POI 5.0.1
+     */
+    public static XSSFFormulaEvaluator create(XSSFWorkbook workbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder,
+            EvaluationProfiler profiler) {
+        return new XSSFFormulaEvaluator(workbook,
+            new WorkbookEvaluator(XSSFEvaluationWorkbook.create(workbook), profiler, stabilityClassifier, udfFinder));
+    }
+
     public void notifySetFormula(Cell cell) {
         _bookEvaluator.notifyUpdateCell(new XSSFEvaluationCell((XSSFCell)cell));
     }
@@ -0,0 +1,614 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xwpf.eventusermodel;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.poi.openxml4j.opc.PackageNamespaces;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.apache.poi.xwpf.usermodel.XWPFStyles;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDecimalNumber;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTLvl;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTNum;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTNumPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTNumbering;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPrGeneral;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * This class handles the streaming processing of the body of a word processing part,
+ * i.e. of the main document, of headers and footers and of the footnote, endnote and comment parts.<p>
+ *
+ * Only the current paragraph is kept in memory - the paragraphs, runs, tables and section
+ * breaks are reported to a {@link BodyContentsHandler} in document order.<p>
+ *
+ * Like {@link org.apache.poi.xwpf.usermodel.XWPFRun#getPictureText()}, the text of text boxes and
+ * shapes is reported as picture text of the containing run. Alternate content fallbacks and
+ * tracked property changes are skipped.
+ * Like in the usermodel, the text of tracked deletions is reported as part of the runs.
+ * Content controls are reported like their enclosed paragraphs and tables.
+ *
+ * @since POI 5.0.1
+ */
+public class XWPFBodyXMLHandler extends DefaultHandler {
+    private static final String NS_WORDPROCESSINGML = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    /** elements whose content is skipped */
+    private static final Set<String> SKIPPED_ELEMENTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        "txbxContent", "pPrChange", "rPrChange", "sectPrChange", "tblPrChange",
+        "trPrChange", "tcPrChange", "numberingChange"
+    )));
+
+    private final XWPFStyles styles;
+    private final BodyContentsHandler output;
+    /** the abstract numbering definitions by numId */
+    private final Map<BigInteger, CTAbstractNum> abstractNums = new HashMap<>();
+    /** the paragraph styles with their base styles - paragraphs usually share a few styles */
+    private final Map<String, XWPFStyle[]> styleChains = new HashMap<>();
+
+    private int depth;
+    private int skipDepth;
+
+    // paragraph state
+    private boolean inParagraph;
+    private boolean paragraphStarted;
+    private boolean inParagraphProps;
+    private String paragraphStyleId;
+    private BigInteger numId;
+    private BigInteger numLevel;
+
+    // section state
+    private Map<String, String> headerIds;
+    private Map<String, String> footerIds;
+    private boolean paragraphSectionBreak;
+
+    // run state
+    private int runDepth;
+    private int runElementDepth;
+    private int pictureDepth;
+    private boolean inPictureText;
+    private boolean newPictureText;
+    private boolean inRunProps;
+    private boolean inText;
+    private boolean inPhonetic;
+    private boolean inCheckBox;
+    private boolean checkBoxChecked;
+    private String runStyleId;
+    private final StringBuilder text = new StringBuilder(64);
+    private final StringBuilder phonetic = new StringBuilder();
+    private final StringBuilder pictureText = new StringBuilder();
+
+    /**
+     * @param styles the styles for resolving the style names and numberings, may be {@code null}
+     * @param numbering the numbering definitions, may be {@code null}
+     * @param output the handler which receives the body contents
+     */
+    public XWPFBodyXMLHandler(XWPFStyles styles, CTNumbering numbering, BodyContentsHandler output) {
+        this.styles = styles;
+        this.output = output;
+        if (numbering != null) {
+            Map<BigInteger, CTAbstractNum> byId = new HashMap<>();
+            for (CTAbstractNum an : numbering.getAbstractNumArray()) {
+                byId.put(an.getAbstractNumId(), an);
+            }
+            for (CTNum num : numbering.getNumArray()) {
+                CTDecimalNumber anId = num.getAbstractNumId();
+                CTAbstractNum an = (anId == null) ? null : byId.get(anId.getVal());
+                if (an != null) {
+                    abstractNums.put(num.getNumId(), an);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        depth++;
+        if (pictureDepth > 0) {
+            pictureDepth++;
+            if (NS_WORDPROCESSINGML.equals(uri) && "t".equals(localName)) {
+                inPictureText = true;
+                newPictureText = true;
+            }
+            return;
+        }
+        if (skipDepth > 0) {
+            skipDepth++;
+            return;
+        }
+        if (PackageNamespaces.MARKUP_COMPATIBILITY.equals(uri) && "Fallback".equals(localName)) {
+            skipDepth = 1;
+            return;
+        }
+        if (!NS_WORDPROCESSINGML.equals(uri)) {
+            return;
+        }
+        if (SKIPPED_ELEMENTS.contains(localName)) {
+            skipDepth = 1;
+            return;
+        }
+
+        if (inParagraph && !paragraphStarted && !inParagraphProps && !"pPr".equals(localName)) {
+            startParagraph();
+        }
+
+        switch (localName) {
+            case "p":
+                inParagraph = true;
+                paragraphStarted = false;
+                paragraphStyleId = null;
+                numId = null;
+                numLevel = null;
+                paragraphSectionBreak = false;
+                break;
+            case "pPr":
+                inParagraphProps = inParagraph;
+                break;
+            case "pStyle":
+                if (inParagraphProps) {
+                    paragraphStyleId = getValue(attributes, "val");
+                }
+                break;
+            case "ilvl":
+                if (inParagraphProps) {
+                    numLevel = toBigInteger(getValue(attributes, "val"));
+                }
+                break;
+            case "numId":
+                if (inParagraphProps) {
+                    numId = toBigInteger(getValue(attributes, "val"));
+                }
+                break;
+            case "sectPr":
+                headerIds = new LinkedHashMap<>();
+                footerIds = new LinkedHashMap<>();
+                break;
+            case "headerReference":
+            case "footerReference":
+                if (headerIds != null) {
+                    String type = getValue(attributes, "type");
+                    // treat invalid types as "default" (see bug 60293)
+                    if (!"first".equals(type) && !"even".equals(type)) {
+                        type = "default";
+                    }
+                    String relId = attributes.getValue(NS_RELATIONSHIPS, "id");
+                    ("headerReference".equals(localName) ? headerIds : footerIds).put(type, relId);
+                }
+                break;
+            case "tbl":
+                output.startTable();
+                break;
+            case "tr":
+                output.startRow();
+                break;
+            case "tc":
+                output.startCell();
+                break;
+            case "hyperlink":
+                if (inParagraph) {
+                    output.startHyperlink(
+                        attributes.getValue(NS_RELATIONSHIPS, "id"),
+                        getValue(attributes, "anchor"));
+                }
+                break;
+            case "commentRangeStart":
+                output.commentRangeStart(getValue(attributes, "id"));
+                break;
+            case "footnote":
+            case "endnote":
+            case "comment":
+                output.startNote(localName, getValue(attributes, "id"), getValue(attributes, "author"));
+                break;
+            default:
+                startRunElement(localName, attributes);
+                break;
+        }
+    }
+
+    private void startRunElement(String localName, Attributes attributes) {
+        if ("r".equals(localName)) {
+            // ruby runs are nested within the outer run
+            if (runDepth++ == 0) {
+                text.setLength(0);
+                phonetic.setLength(0);
+                pictureText.setLength(0);
+                runStyleId = null;
+                runElementDepth = depth;
+            }
+            return;
+        }
+        if (runDepth == 0) {
+            return;
+        }
+        switch (localName) {
+            case "pict":
+            case "drawing":
+                // the text of text boxes and shapes is reported as picture text of the run
+                if (depth == runElementDepth+1) {
+                    pictureDepth = 1;
+                }
+                break;
+            case "rPr":
+                inRunProps = (runDepth == 1);
+                break;
+            case "rStyle":
+                if (inRunProps) {
+                    runStyleId = getValue(attributes, "val");
+                }
+                break;
+            case "t":
+            case "delText":
+                inText = true;
+                break;
+            case "rt":
+                inPhonetic = true;
+                break;
+            case "tab":
+            case "ptab":
+                appendRunText("\t");
+                break;
+            case "br":
+            case "cr":
+                appendRunText("\n");
+                break;
+            case "checkBox":
+                inCheckBox = true;
+                checkBoxChecked = false;
+                break;
+            case "default":
+                if (inCheckBox) {
+                    String val = getValue(attributes, "val");
+                    checkBoxChecked = (val == null || "1".equals(val) || "true".equals(val) || "on".equals(val));
+                }
+                break;
+            case "footnoteReference":
+            case "endnoteReference": {
+                String id = getValue(attributes, "id");
+                boolean isFootnote = "footnoteReference".equals(localName);
+                appendRunText((isFootnote ? "[footnoteRef:" : "[endnoteRef:") + id + "]");
+                output.noteReference(isFootnote ? "footnote" : "endnote", id);
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        depth--;
+        if (pictureDepth > 0) {
+            pictureDepth--;
+            inPictureText = false;
+            return;
+        }
+        if (skipDepth > 0) {
+            skipDepth--;
+            return;
+        }
+        if (!NS_WORDPROCESSINGML.equals(uri)) {
+            return;
+        }
+
+        switch (localName) {
+            case "p":
+                if (inParagraph) {
+                    if (!paragraphStarted) {
+                        startParagraph();
+                    }
+                    if (paragraphSectionBreak) {
+                        output.sectionBreak(headerIds, footerIds);
+                    }
+                    output.endParagraph();
+                    inParagraph = false;
+                }
+                break;
+            case "pPr":
+                if (inParagraphProps) {
+                    inParagraphProps = false;
+                    startParagraph();
+                }
+                break;
+            case "sectPr":
+                if (inParagraphProps) {
+                    // reported at the end of the last paragraph of the section
+                    paragraphSectionBreak = true;
+                } else if (headerIds != null) {
+                    output.sectionBreak(headerIds, footerIds);
+                }
+                break;
+            case "tbl":
+                output.endTable();
+                break;
+            case "tr":
+                output.endRow();
+                break;
+            case "tc":
+                output.endCell();
+                break;
+            case "hyperlink":
+                if (inParagraph) {
+                    output.endHyperlink();
+                }
+                break;
+            case "footnote":
+            case "endnote":
+            case "comment":
+                output.endNote();
+                break;
+            case "r":
+                if (runDepth > 0 && --runDepth == 0) {
+                    output.run(runStyleId, text.toString(), toNullIfEmpty(phonetic), toNullIfEmpty(pictureText));
+                }
+                break;
+            case "rPr":
+                inRunProps = false;
+                break;
+            case "t":
+            case "delText":
+                inText = false;
+                break;
+            case "rt":
+                inPhonetic = false;
+                break;
+            case "checkBox":
+                if (inCheckBox) {
+                    appendRunText(checkBoxChecked ? "|X|" : "|_|");
+                    inCheckBox = false;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (inPictureText) {
+            // like XWPFRun, the texts are separated by line breaks
+            if (newPictureText && pictureText.length() > 0) {
+                pictureText.append('\n');
+            }
+            newPictureText = false;
+            pictureText.append(ch, start, length);
+        } else if (inText && skipDepth == 0) {
+            (inPhonetic ? phonetic : text).append(ch, start, length);
+        }
+    }
+
+    private static String toNullIfEmpty(StringBuilder sb) {
+        return sb.length() == 0 ? null : sb.toString();
+    }
+
+    private void appendRunText(String str) {
+        (inPhonetic ? phonetic : text).append(str);
+    }
+
+    private void startParagraph() {
+        paragraphStarted = true;
+        BigInteger resolvedNumId = numId, resolvedLevel = numLevel;
+        String styleName = null;
+        XWPFStyle[] chain = getStyleChain(paragraphStyleId);
+        if (chain.length > 0) {
+            styleName = chain[0].getName();
+        }
+        // the numbering might be inherited from the paragraph style
+        for (int i = 0; resolvedNumId == null && i < chain.length; i++) {
+            CTPPrGeneral ppr = chain[i].getCTStyle().getPPr();
+            CTNumPr numPr = (ppr == null) ? null : ppr.getNumPr();
+            if (numPr != null && numPr.getNumId() != null) {
+                resolvedNumId = numPr.getNumId().getVal();
+                if (resolvedLevel == null && numPr.getIlvl() != null) {
+                    resolvedLevel = numPr.getIlvl().getVal();
+                }
+            }
+        }
+        if (resolvedNumId != null && resolvedLevel == null) {
+            resolvedLevel = BigInteger.ZERO;
+        }
+
+        String numFmt = null, numLevelText = null;
+        CTAbstractNum an = (resolvedNumId == null) ? null : abstractNums.get(resolvedNumId);
+        if (an != null) {
+            for (CTLvl lvl : an.getLvlArray()) {
+                if (resolvedLevel.equals(lvl.getIlvl())) {
+                    if (lvl.getNumFmt() != null && lvl.getNumFmt().getVal() != null) {
+                        numFmt = lvl.getNumFmt().getVal().toString();
+                    }
+                    if (lvl.getLvlText() != null) {
+                        numLevelText = lvl.getLvlText().getVal();
+                    }
+                    break;
+                }
+            }
+        }
+
+        output.startParagraph(new ParagraphProperties(
+            paragraphStyleId, styleName, resolvedNumId, resolvedLevel, numFmt, numLevelText));
+    }
+
+    /**
+     * @return the style and its base styles
+     */
+    private XWPFStyle[] getStyleChain(String styleId) {
+        if (styles == null || styleId == null) {
+            return new XWPFStyle[0];
+        }
+        return styleChains.computeIfAbsent(styleId, id -> {
+            Map<String, XWPFStyle> chain = new LinkedHashMap<>();
+            for (XWPFStyle s = styles.getStyle(id); s != null && !chain.containsKey(s.getStyleId());
+                 s = (s.getBasisStyleID() == null) ? null : styles.getStyle(s.getBasisStyleID())) {
+                chain.put(s.getStyleId(), s);
+            }
+            return chain.values().toArray(new XWPFStyle[0]);
+        });
+    }
+
+    private static String getValue(Attributes attributes, String localName) {
+        return attributes.getValue(NS_WORDPROCESSINGML, localName);
+    }
+
+    private static BigInteger toBigInteger(String val) {
+        try {
+            return (val == null) ? null : new BigInteger(val);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The properties of a paragraph with the resolved style name and numbering.
+     * The numbering is resolved via the paragraph style, if it's not set on the paragraph itself.
+     */
+    public static final class ParagraphProperties {
+        private final String styleId;
+        private final String styleName;
+        private final BigInteger numId;
+        private final BigInteger numLevel;
+        private final String numFmt;
+        private final String numLevelText;
+
+        ParagraphProperties(String styleId, String styleName, BigInteger numId, BigInteger numLevel,
+                            String numFmt, String numLevelText) {
+            this.styleId = styleId;
+            this.styleName = styleName;
+            this.numId = numId;
+            this.numLevel = numLevel;
+            this.numFmt = numFmt;
+            this.numLevelText = numLevelText;
+        }
+
+        /** @return the paragraph style id or {@code null} */
+        public String getStyleId() {
+            return styleId;
+        }
+
+        /** @return the name of the paragraph style or {@code null} */
+        public String getStyleName() {
+            return styleName;
+        }
+
+        /** @return the numbering id or {@code null}, if the paragraph isn't numbered */
+        public BigInteger getNumID() {
+            return numId;
+        }
+
+        /** @return the numbering level or {@code null}, if the paragraph isn't numbered */
+        public BigInteger getNumIlvl() {
+            return numLevel;
+        }
+
+        /** @return the number format of the numbering level (e.g. "decimal" or "bullet") or {@code null} */
+        public String getNumFmt() {
+            return numFmt;
+        }
+
+        /** @return the text around the level numbers (e.g. "%1.") or {@code null} */
+        public String getNumLevelText() {
+            return numLevelText;
+        }
+    }
+
+    /**
+     * This interface allows to provide callbacks when the body content is processed
+     * with the event API. The paragraph and run callbacks need to be implemented,
+     * the others are optional.
+     */
+    public interface BodyContentsHandler {
+        /** A paragraph has started - the properties are reported before the first run */
+        void startParagraph(ParagraphProperties properties);
+
+        /**
+         * A text run of the current paragraph was encountered
+         *
+         * @param styleId the character style id or {@code null}
+         * @param text the text with tabs and line breaks and with placeholders for checkboxes and note references
+         * @param phonetic the phonetic guide (ruby) text or {@code null}
+         * @param pictureText the text of embedded text boxes or shapes or {@code null}
+         */
+        void run(String styleId, String text, String phonetic, String pictureText);
+
+        /** The current paragraph has ended */
+        void endParagraph();
+
+        /** A table has started - tables can be nested in cells */
+        default void startTable() {}
+
+        default void endTable() {}
+
+        default void startRow() {}
+
+        default void endRow() {}
+
+        default void startCell() {}
+
+        default void endCell() {}
+
+        /**
+         * A hyperlink within the current paragraph has started.
+         * The runs up to {@link #endHyperlink()} belong to the hyperlink.
+         *
+         * @param relId the relationship id of external hyperlinks or {@code null}
+         * @param anchor the bookmark name of internal hyperlinks or {@code null}
+         */
+        default void startHyperlink(String relId, String anchor) {}
+
+        default void endHyperlink() {}
+
+        /**
+         * A section has ended. For all but the last section, this is reported before the
+         * {@link #endParagraph()} of the last paragraph of the section.
+         *
+         * @param headerIds the relationship ids of the headers by type ("default", "first" or "even")
+         * @param footerIds the relationship ids of the footers by type
+         */
+        default void sectionBreak(Map<String, String> headerIds, Map<String, String> footerIds) {}
+
+        /**
+         * A footnote or endnote reference was encountered in a run
+         *
+         * @param noteType "footnote" or "endnote"
+         * @param id the note id
+         */
+        default void noteReference(String noteType, String id) {}
+
+        /** A commented range starts in the current paragraph */
+        default void commentRangeStart(String id) {}
+
+        /**
+         * A note of the footnote, endnote or comment parts has started
+         *
+         * @param noteType "footnote", "endnote" or "comment"
+         * @param id the note id
+         * @param author the author of a comment or {@code null}
+         */
+        default void startNote(String noteType, String id, String author) {}
+
+        default void endNote() {}
+    }
+}
@@ -0,0 +1,186 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xwpf.eventusermodel;
+
+import static org.apache.poi.ooxml.POIXMLTypeLoader.DEFAULT_XML_OPTIONS;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.openxml4j.opc.TargetMode;
+import org.apache.poi.xwpf.usermodel.XWPFRelation;
+import org.apache.poi.xwpf.usermodel.XWPFStyles;
+import org.apache.xmlbeans.XmlException;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTNumbering;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.NumberingDocument;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.StylesDocument;
+
+/**
+ * This class makes it easy to get at individual parts
+ * of an OOXML .docx file, suitable for low memory sax
+ * parsing or similar.
+ * It makes up the core part of the EventUserModel support
+ * for XWPF.<p>
+ *
+ * The main document part and the header, footer and note parts can be
+ * streamed with a {@link XWPFBodyXMLHandler}, while the small lookup parts
+ * (styles and numbering) are parsed completely.
+ *
+ * @since POI 5.0.1
+ */
+public class XWPFReader {
+
+    protected final OPCPackage pkg;
+    protected final PackagePart documentPart;
+
+    /**
+     * Creates a new XWPFReader, for the given package
+     *
+     * @param pkg an {@code OPCPackage} representing a word processing file
+     */
+    public XWPFReader(OPCPackage pkg) throws IOException, OpenXML4JException {
+        this.pkg = pkg;
+
+        PackageRelationship coreDocRelationship = pkg.getRelationshipsByType(
+                PackageRelationshipTypes.CORE_DOCUMENT).getRelationship(0);
+        if (coreDocRelationship == null) {
+            if (pkg.getRelationshipsByType(
+                    PackageRelationshipTypes.STRICT_CORE_DOCUMENT).getRelationship(0) != null) {
+                throw new POIXMLException("Strict OOXML isn't currently supported, please see bug #57699");
+            }
+            throw new POIXMLException("OOXML file structure broken/invalid - no core document found!");
+        }
+
+        // Get the part that holds the document
+        documentPart = pkg.getPart(coreDocRelationship);
+        if (documentPart == null) {
+            throw new POIXMLException("OOXML file structure broken/invalid - core document '"
+                + coreDocRelationship.getTargetURI() + "' not found!");
+        }
+    }
+
+    /**
+     * @return the package part of the main document
+     */
+    public PackagePart getDocumentPart() {
+        return documentPart;
+    }
+
+    /**
+     * Returns an InputStream to read the contents of the main document,
+     * i.e. the {@code w:document} element with the body
+     */
+    public InputStream getDocumentData() throws IOException {
+        return documentPart.getInputStream();
+    }
+
+    /**
+     * Opens up the styles part, parses it, and returns a handy object
+     * for looking up the paragraph and run styles
+     *
+     * @return the styles or {@code null} if the document doesn't contain styles
+     */
+    public XWPFStyles getStyles() throws IOException, InvalidFormatException {
+        List<PackagePart> parts = getRelatedParts(XWPFRelation.STYLES);
+        if (parts.isEmpty()) {
+            return null;
+        }
+        try (InputStream is = parts.get(0).getInputStream()) {
+            XWPFStyles styles = new XWPFStyles();
+            styles.setStyles(StylesDocument.Factory.parse(is, DEFAULT_XML_OPTIONS).getStyles());
+            return styles;
+        } catch (XmlException e) {
+            throw new POIXMLException("Unable to read styles", e);
+        }
+    }
+
+    /**
+     * Opens up the numbering part and parses it
+     *
+     * @return the numbering definitions or {@code null} if the document doesn't contain numberings
+     */
+    public CTNumbering getNumbering() throws IOException, InvalidFormatException {
+        List<PackagePart> parts = getRelatedParts(XWPFRelation.NUMBERING);
+        if (parts.isEmpty()) {
+            return null;
+        }
+        try (InputStream is = parts.get(0).getInputStream()) {
+            return NumberingDocument.Factory.parse(is, DEFAULT_XML_OPTIONS).getNumbering();
+        } catch (XmlException e) {
+            throw new POIXMLException("Unable to read numbering", e);
+        }
+    }
+
+    /**
+     * Returns the parts, which are related to the main document by the given relation,
+     * e.g. {@link XWPFRelation#FOOTNOTE} or {@link XWPFRelation#COMMENT}
+     */
+    public List<PackagePart> getRelatedParts(XWPFRelation relation) throws InvalidFormatException {
+        List<PackagePart> parts = new ArrayList<>();
+        for (PackageRelationship rel : documentPart.getRelationshipsByType(relation.getRelation())) {
+            if (rel.getTargetMode() == TargetMode.INTERNAL) {
+                PackagePart part = documentPart.getRelatedPart(rel);
+                if (part != null) {
+                    parts.add(part);
+                }
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Returns the part which is referenced by the relationship id, e.g. of a
+     * header reference in a section
+     *
+     * @param part the part containing the reference, usually the {@link #getDocumentPart() document part}
+     * @param relId the relationship id
+     * @return the part or {@code null}, if the relationship doesn't exist or refers to an external target
+     */
+    public PackagePart getRelatedPart(PackagePart part, String relId) throws InvalidFormatException {
+        PackageRelationship rel = (relId == null) ? null : part.getRelationship(relId);
+        return (rel == null || rel.getTargetMode() != TargetMode.INTERNAL) ? null : part.getRelatedPart(rel);
+    }
+
+    /**
+     * Returns the target of an (external) hyperlink relationship
+     *
+     * @param part the part containing the hyperlink, usually the {@link #getDocumentPart() document part}
+     * @param relId the relationship id of the hyperlink
+     * @return the url or {@code null}, if the relationship doesn't exist
+     */
+    public String getHyperlinkURL(PackagePart part, String relId) throws InvalidFormatException {
+        PackageRelationship rel = (relId == null) ? null : part.getRelationship(relId);
+        return (rel == null) ? null : rel.getTargetURI().toString();
+    }
+
+    /**
+     * @return the package this reader was created for
+     */
+    public OPCPackage getPackage() {
+        return pkg;
+    }
+}
@@ -0,0 +1,483 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xwpf.extractor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.ooxml.POIXMLDocument;
+import org.apache.poi.ooxml.POIXMLProperties;
+import org.apache.poi.ooxml.POIXMLProperties.CoreProperties;
+import org.apache.poi.ooxml.POIXMLProperties.CustomProperties;
+import org.apache.poi.ooxml.POIXMLProperties.ExtendedProperties;
+import org.apache.poi.ooxml.extractor.POIXMLTextExtractor;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xwpf.eventusermodel.XWPFBodyXMLHandler;
+import org.apache.poi.xwpf.eventusermodel.XWPFBodyXMLHandler.BodyContentsHandler;
+import org.apache.poi.xwpf.eventusermodel.XWPFBodyXMLHandler.ParagraphProperties;
+import org.apache.poi.xwpf.eventusermodel.XWPFReader;
+import org.apache.poi.xwpf.usermodel.XWPFRelation;
+import org.apache.xmlbeans.XmlException;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Implementation of a text extractor from OOXML Word
+ * files that uses SAX event based parsing.<p>
+ *
+ * In contrast to {@link XWPFWordExtractor}, the document body isn't loaded into
+ * memory. Only the footnotes, endnotes and comments are read upfront, as they are
+ * appended to the referencing paragraphs. The text is mostly the same as the one of
+ * {@link XWPFWordExtractor}, but the content controls are extracted like the
+ * enclosed paragraphs and the header/footer contents are extracted in document order.
+ *
+ * @since POI 5.0.1
+ */
+public class XWPFEventBasedWordExtractor implements POIXMLTextExtractor {
+
+    private static final Logger LOGGER = LogManager.getLogger(XWPFEventBasedWordExtractor.class);
+
+    private static final String[] HEADER_FOOTER_TYPES = { "first", "even", "default" };
+
+    protected final OPCPackage container;
+    protected final POIXMLProperties properties;
+
+    protected boolean fetchHyperlinks;
+    protected boolean concatenatePhoneticRuns = true;
+
+    private boolean doCloseFilesystem = true;
+
+    public XWPFEventBasedWordExtractor(String path) throws XmlException, OpenXML4JException, IOException {
+        this(OPCPackage.open(path));
+    }
+
+    public XWPFEventBasedWordExtractor(OPCPackage container) throws XmlException, OpenXML4JException, IOException {
+        this.container = container;
+        properties = new POIXMLProperties(container);
+    }
+
+    /**
+     * Should we also fetch the hyperlinks, when fetching
+     * the text content? Default is to only output the
+     * hyperlink label, and not the contents
+     */
+    public void setFetchHyperlinks(boolean fetch) {
+        fetchHyperlinks = fetch;
+    }
+
+    /**
+     * Should we concatenate phonetic runs in extraction.  Default is <code>true</code>
+     * @param concatenatePhoneticRuns If phonetic runs should be concatenated
+     */
+    public void setConcatenatePhoneticRuns(boolean concatenatePhoneticRuns) {
+        this.concatenatePhoneticRuns = concatenatePhoneticRuns;
+    }
+
+    /**
+     * Returns the opened OPCPackage container.
+     */
+    @Override
+    public OPCPackage getPackage() {
+        return container;
+    }
+
+    /**
+     * Returns the core document properties
+     */
+    @Override
+    public CoreProperties getCoreProperties() {
+        return properties.getCoreProperties();
+    }
+
+    /**
+     * Returns the extended document properties
+     */
+    @Override
+    public ExtendedProperties getExtendedProperties() {
+        return properties.getExtendedProperties();
+    }
+
+    /**
+     * Returns the custom document properties
+     */
+    @Override
+    public CustomProperties getCustomProperties() {
+        return properties.getCustomProperties();
+    }
+
+    /**
+     * Processes the given body part, i.e. the main document, a header/footer or a notes part
+     */
+    public void processBody(BodyContentsHandler bodyContentsHandler, InputStream bodyInputStream)
+            throws IOException, SAXException {
+        InputSource bodySource = new InputSource(bodyInputStream);
+        try {
+            XMLReader bodyParser = XMLHelper.newXMLReader();
+            bodyParser.setContentHandler(new XWPFBodyXMLHandler(null, null, bodyContentsHandler));
+            bodyParser.parse(bodySource);
+        } catch (ParserConfigurationException e) {
+            throw new RuntimeException("SAX parser appears to be broken - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Processes the file and returns the text
+     */
+    public String getText() {
+        try {
+            XWPFReader reader = new XWPFReader(container);
+            NoteTextExtractor notes = new NoteTextExtractor();
+            for (XWPFRelation rel : new XWPFRelation[]{ XWPFRelation.FOOTNOTE, XWPFRelation.ENDNOTE, XWPFRelation.COMMENT }) {
+                for (PackagePart part : reader.getRelatedParts(rel)) {
+                    try (InputStream is = part.getInputStream()) {
+                        processBody(notes, is);
+                    }
+                }
+            }
+
+            BodyTextExtractor body = new BodyTextExtractor(reader, reader.getDocumentPart(), notes, false);
+            try (InputStream is = reader.getDocumentData()) {
+                processBody(body, is);
+            }
+
+            StringBuilder text = new StringBuilder(body.output.length() + 64);
+            // Start out with all headers
+            body.appendHeadersFooters(text, body.bodyHeaderIds);
+            checkMaxTextSize(text, body.output.toString());
+            text.append(body.output);
+            // Finish up with all the footers
+            body.appendHeadersFooters(text, body.bodyFooterIds);
+            return text.toString();
+        } catch (IOException | OpenXML4JException | SAXException e) {
+            LOGGER.atWarn().withThrowable(e).log("Failed to load text");
+            return null;
+        }
+    }
+
+    @Override
+    public POIXMLDocument getDocument() {
+        return null;
+    }
+
+    @Override
+    public void setCloseFilesystem(boolean doCloseFilesystem) {
+        this.doCloseFilesystem = doCloseFilesystem;
+    }
+
+    @Override
+    public boolean isCloseFilesystem() {
+        return doCloseFilesystem;
+    }
+
+    @Override
+    public OPCPackage getFilesystem() {
+        return container;
+    }
+
+    private String getRunText(String text, String phonetic, String pictureText) {
+        if (!concatenatePhoneticRuns || (phonetic == null && pictureText == null)) {
+            return text;
+        }
+        // as XWPFRun.toString(), the picture text is appended to the phonetic text
+        StringBuilder sb = new StringBuilder(text).append(" (");
+        if (phonetic != null) {
+            sb.append(phonetic);
+        }
+        if (pictureText != null) {
+            sb.append('\n').append(pictureText).append('\n');
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * Collects the texts of the footnotes, endnotes and comments
+     */
+    protected class NoteTextExtractor implements BodyContentsHandler {
+        private final Map<String, String> texts = new HashMap<>();
+        private final Map<String, String> authors = new HashMap<>();
+        private final StringBuilder noteText = new StringBuilder(64);
+        private String noteKey;
+        private boolean firstParagraph;
+
+        @Override
+        public void startNote(String noteType, String id, String author) {
+            noteKey = noteType + ":" + id;
+            authors.put(noteKey, author);
+            noteText.setLength(0);
+            firstParagraph = true;
+        }
+
+        @Override
+        public void endNote() {
+            if (noteKey != null) {
+                texts.put(noteKey, noteText.toString());
+                noteKey = null;
+            }
+        }
+
+        @Override
+        public void startParagraph(ParagraphProperties properties) {
+            if (noteKey != null && !firstParagraph) {
+                noteText.append('\n');
+            }
+            firstParagraph = false;
+        }
+
+        @Override
+        public void run(String styleId, String text, String phonetic, String pictureText) {
+            if (noteKey != null) {
+                noteText.append(getRunText(text, phonetic, pictureText));
+            }
+        }
+
+        @Override
+        public void endParagraph() {
+        }
+
+        String getText(String noteType, String id) {
+            return texts.get(noteType + ":" + id);
+        }
+
+        String getAuthor(String noteType, String id) {
+            return authors.get(noteType + ":" + id);
+        }
+    }
+
+    /**
+     * Builds the text of a main document or a header/footer part
+     */
+    protected class BodyTextExtractor implements BodyContentsHandler {
+        private final XWPFReader reader;
+        private final PackagePart part;
+        private final NoteTextExtractor notes;
+        private final boolean isHeaderFooter;
+        private final StringBuilder output = new StringBuilder(64);
+        private final StringBuilder paragraph = new StringBuilder(64);
+        private final StringBuilder footnotes = new StringBuilder();
+        private final StringBuilder comments = new StringBuilder();
+        /** the separator to be added before the next element of the (nested) cells */
+        private final Deque<String> cellSeparators = new ArrayDeque<>();
+        private final Map<String, String> headerFooterTexts = new HashMap<>();
+        private int tableDepth;
+        private boolean inParagraph;
+        private boolean firstCellOfRow;
+        private String hyperlinkURL;
+        private Map<String, String> sectionHeaderIds, sectionFooterIds;
+        private Map<String, String> bodyHeaderIds, bodyFooterIds;
+
+        protected BodyTextExtractor(XWPFReader reader, PackagePart part, NoteTextExtractor notes, boolean isHeaderFooter) {
+            this.reader = reader;
+            this.part = part;
+            this.notes = notes;
+            this.isHeaderFooter = isHeaderFooter;
+        }
+
+        @Override
+        public void startParagraph(ParagraphProperties properties) {
+            paragraph.setLength(0);
+            footnotes.setLength(0);
+            comments.setLength(0);
+            sectionHeaderIds = null;
+            sectionFooterIds = null;
+            inParagraph = true;
+            appendCellSeparator();
+        }
+
+        @Override
+        public void run(String styleId, String text, String phonetic, String pictureText) {
+            paragraph.append(getRunText(text, phonetic, pictureText));
+            if (hyperlinkURL != null && fetchHyperlinks) {
+                paragraph.append(" <").append(hyperlinkURL).append(">");
+            }
+        }
+
+        @Override
+        public void startHyperlink(String relId, String anchor) {
+            try {
+                hyperlinkURL = reader.getHyperlinkURL(part, relId);
+            } catch (InvalidFormatException e) {
+                LOGGER.atWarn().withThrowable(e).log("Invalid hyperlink relationship {}", relId);
+                hyperlinkURL = null;
+            }
+        }
+
+        @Override
+        public void endHyperlink() {
+            hyperlinkURL = null;
+        }
+
+        @Override
+        public void noteReference(String noteType, String id) {
+            String noteText = (notes == null) ? null : notes.getText(noteType, id);
+            footnotes.append(" [").append(id).append(": ");
+            if (noteText != null) {
+                footnotes.append(noteText);
+            } else {
+                footnotes.append("!!! End note with ID \"").append(id).append("\" not found in document.");
+            }
+            footnotes.append("] ");
+        }
+
+        @Override
+        public void commentRangeStart(String id) {
+            String commentText = (notes == null) ? null : notes.getText("comment", id);
+            if (commentText != null) {
+                comments.append("\tComment by ")
+                    .append(notes.getAuthor("comment", id))
+                    .append(": ")
+                    .append(commentText);
+            }
+        }
+
+        @Override
+        public void sectionBreak(Map<String, String> headerIds, Map<String, String> footerIds) {
+            // only the last section is reported outside of a paragraph
+            if (inParagraph) {
+                sectionHeaderIds = headerIds;
+                sectionFooterIds = footerIds;
+            } else {
+                bodyHeaderIds = headerIds;
+                bodyFooterIds = footerIds;
+            }
+        }
+
+        @Override
+        public void endParagraph() {
+            if (tableDepth > 0) {
+                checkMaxTextSize(output, paragraph.toString());
+                output.append(paragraph).append(footnotes);
+                cellSeparators.pop();
+                cellSeparators.push("\t");
+            } else if (isHeaderFooter) {
+                if (paragraph.length() > 0 || footnotes.length() > 0) {
+                    output.append(paragraph).append(footnotes).append('\n');
+                }
+            } else {
+                appendHeadersFooters(output, sectionHeaderIds);
+                checkMaxTextSize(output, paragraph.toString());
+                output.append(paragraph);
+                if (comments.length() > 0) {
+                    output.append(comments).append('\n');
+                }
+                if (footnotes.length() > 0) {
+                    output.append(footnotes).append('\n');
+                }
+                appendHeadersFooters(output, sectionFooterIds);
+                output.append('\n');
+            }
+            sectionHeaderIds = null;
+            sectionFooterIds = null;
+            inParagraph = false;
+        }
+
+        @Override
+        public void startTable() {
+            appendCellSeparator();
+            tableDepth++;
+        }
+
+        @Override
+        public void endTable() {
+            if (--tableDepth == 0) {
+                output.append('\n');
+            } else {
+                cellSeparators.pop();
+                cellSeparators.push("\n");
+            }
+        }
+
+        @Override
+        public void startRow() {
+            firstCellOfRow = true;
+        }
+
+        @Override
+        public void endRow() {
+            if (tableDepth == 1) {
+                output.append('\n');
+            }
+        }
+
+        @Override
+        public void startCell() {
+            if (tableDepth == 1) {
+                if (!firstCellOfRow) {
+                    output.append('\t');
+                }
+                firstCellOfRow = false;
+            }
+            cellSeparators.push("");
+        }
+
+        @Override
+        public void endCell() {
+            cellSeparators.pop();
+        }
+
+        private void appendCellSeparator() {
+            if (tableDepth > 0 && !cellSeparators.isEmpty()) {
+                output.append(cellSeparators.pop());
+                cellSeparators.push("");
+            }
+        }
+
+        private void appendHeadersFooters(StringBuilder text, Map<String, String> relIds) {
+            if (relIds == null) {
+                return;
+            }
+            for (String type : HEADER_FOOTER_TYPES) {
+                String relId = relIds.get(type);
+                if (relId != null) {
+                    String hfText = headerFooterTexts.computeIfAbsent(relId, this::extractHeaderFooter);
+                    checkMaxTextSize(text, hfText);
+                    text.append(hfText);
+                }
+            }
+        }
+
+        private String extractHeaderFooter(String relId) {
+            try {
+                PackagePart hfPart = reader.getRelatedPart(part, relId);
+                if (hfPart == null) {
+                    return "";
+                }
+                BodyTextExtractor hf = new BodyTextExtractor(reader, hfPart, notes, true);
+                try (InputStream is = hfPart.getInputStream()) {
+                    processBody(hf, is);
+                }
+                return hf.output.toString();
+            } catch (IOException | InvalidFormatException | SAXException e) {
+                LOGGER.atWarn().withThrowable(e).log("Failed to load header/footer {}", relId);
+                return "";
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xwpf.streaming;
+
+import static org.apache.poi.ooxml.POIXMLTypeLoader.DEFAULT_XML_OPTIONS;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.poi.util.TempFile;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+
+/**
+ * Writes the flushed body elements of a {@link SXWPFDocument} to a temp file.<p>
+ *
+ * Each element is saved as a fragment, which is then copied into the {@code w:body} of the
+ * document part. The implicit namespaces are declared on the document element, so the
+ * fragments only declare the remaining namespaces.
+ */
+class BodyDataWriter implements Closeable {
+    private final File _fd;
+    private final Writer _out;
+    private final boolean _compress;
+    private final XmlOptions _xmlOptions;
+    private int _numberOfFlushedElements;
+
+    /**
+     * @param implicitNamespaces the namespaces by prefix, which are declared on the document element
+     */
+    BodyDataWriter(boolean compress, Map<String, String> implicitNamespaces) throws IOException {
+        _compress = compress;
+        _fd = TempFile.createTempFile("poi-sxwpf-body", compress ? ".gz" : ".xml");
+        FileOutputStream fos = new FileOutputStream(_fd);
+        OutputStream decorated;
+        try {
+            decorated = compress ? new GZIPOutputStream(fos) : fos;
+        } catch (IOException e) {
+            fos.close();
+            throw e;
+        }
+        _out = new BufferedWriter(new OutputStreamWriter(decorated, StandardCharsets.UTF_8));
+
+        _xmlOptions = new XmlOptions(DEFAULT_XML_OPTIONS);
+        _xmlOptions.setSaveOuter();
+        _xmlOptions.setSaveNoXmlDecl();
+        _xmlOptions.setSaveImplicitNamespaces(implicitNamespaces);
+    }
+
+    /**
+     * Writes a paragraph or table
+     *
+     * @throws IllegalArgumentException if the element is neither a paragraph nor a table
+     */
+    void writeBodyElement(IBodyElement element) throws IOException {
+        final XmlObject xml;
+        if (element instanceof XWPFParagraph) {
+            xml = ((XWPFParagraph)element).getCTP();
+        } else if (element instanceof XWPFTable) {
+            xml = ((XWPFTable)element).getCTTbl();
+        } else {
+            throw new IllegalArgumentException("Only paragraphs and tables can be flushed, but found " + element.getElementType());
+        }
+        writeXml(xml);
+        _numberOfFlushedElements++;
+    }
+
+    void writeXml(XmlObject xml) throws IOException {
+        xml.save(_out, _xmlOptions);
+    }
+
+    String toXml(XmlObject xml) {
+        return xml.xmlText(_xmlOptions);
+    }
+
+    int getNumberOfFlushedElements() {
+        return _numberOfFlushedElements;
+    }
+
+    /**
+     * flush and close the temp data writer.
+     * This method <em>must</em> be invoked before calling {@link #getBodyXMLInputStream()}
+     */
+    @Override
+    public void close() throws IOException {
+        _out.close();
+    }
+
+    /**
+     * @return a stream to read temp file with the body data
+     */
+    InputStream getBodyXMLInputStream() throws IOException {
+        FileInputStream fis = new FileInputStream(_fd);
+        try {
+            return _compress ? new GZIPInputStream(fis) : fis;
+        } catch (IOException e) {
+            fis.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes the temporary file that backed the body on disk.
+     * @return true if the file was deleted, false if it wasn't.
+     */
+    boolean dispose() throws IOException {
+        final boolean ret;
+        try {
+            _out.close();
+        } finally {
+            ret = _fd.delete();
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,428 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xwpf.streaming;
+
+import static org.apache.poi.ooxml.POIXMLTypeLoader.DEFAULT_XML_OPTIONS;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.openxml4j.util.ZipArchiveThresholdInputStream;
+import org.apache.poi.openxml4j.util.ZipEntrySource;
+import org.apache.poi.openxml4j.util.ZipFileZipEntrySource;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.TempFile;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.xmlbeans.XmlCursor;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBody;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+
+/**
+ * Streaming version of {@link XWPFDocument} for generating very large documents.<p>
+ *
+ * Paragraphs and tables are appended with the usual XWPF API, but only a sliding window of
+ * the most recently created body elements is kept in memory. Older elements are written to a
+ * temp file and injected into the document part when the document is written.<p>
+ *
+ * All other parts - styles, numbering, headers, footers, settings and the pictures - stay in the
+ * underlying {@link XWPFDocument}, which is available via {@link #getXWPFDocument()}. This
+ * also means the style and numbering definitions are shared with the streamed content.<p>
+ *
+ * Like with {@link org.apache.poi.xssf.streaming.SXSSFWorkbook}, flushed elements can't be
+ * accessed anymore and the body content of a template document is kept in memory
+ * and written before the streamed elements.
+ *
+ * @since POI 5.0.1
+ */
+public class SXWPFDocument implements Closeable {
+    /**
+     * Specifies how many of the created body elements are kept in memory. When a new
+     * paragraph or table is created and the number of unflushed elements would exceed the
+     * specified value, then the oldest element is flushed and cannot be accessed anymore.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+    private static final Logger LOG = LogManager.getLogger(SXWPFDocument.class);
+    private static final String NS_WORDPROCESSINGML = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final QName BODY = new QName(NS_WORDPROCESSINGML, "body");
+
+    private final XWPFDocument _doc;
+    private final BodyDataWriter _writer;
+    /** the number of body elements of the template, which aren't streamed */
+    private final int _templateElements;
+    private final int _windowSize;
+    /** the namespaces by prefix, which are declared on the document element instead of each fragment */
+    private final Map<String, String> _implicitNamespaces;
+
+    /**
+     * Construct a new document with the default window size
+     */
+    public SXWPFDocument() throws IOException {
+        this(new XWPFDocument());
+    }
+
+    /**
+     * Construct a document based on the given template with the default window size
+     *
+     * @param doc the template document - its styles, numbering, headers and footers are used for the
+     *  new document and its body content is written before the streamed content
+     */
+    public SXWPFDocument(XWPFDocument doc) throws IOException {
+        this(doc, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Construct a document based on the given template
+     *
+     * @param doc the template document
+     * @param windowSize the number of body elements that are kept in memory until they are flushed
+     *  out or -1 to keep all of them in memory, i.e. only flush them via {@link #flushBodyElements()}
+     */
+    public SXWPFDocument(XWPFDocument doc, int windowSize) throws IOException {
+        this(doc, windowSize, false);
+    }
+
+    /**
+     * Construct a document based on the given template
+     *
+     * @param doc the template document
+     * @param windowSize the number of body elements that are kept in memory until they are flushed
+     *  out or -1 to keep all of them in memory
+     * @param compressTmpFiles whether to use gzip compression for the temp file
+     */
+    public SXWPFDocument(XWPFDocument doc, int windowSize, boolean compressTmpFiles) throws IOException {
+        if (windowSize == 0 || windowSize < -1) {
+            throw new IllegalArgumentException("windowSize must be greater than 0 or -1");
+        }
+        _doc = doc;
+        _windowSize = windowSize;
+        _templateElements = doc.getBodyElements().size();
+        _implicitNamespaces = getImplicitNamespaces(doc);
+        _writer = new BodyDataWriter(compressTmpFiles, _implicitNamespaces);
+    }
+
+    /**
+     * @return the underlying document, which holds the styles, numbering, headers/footers and
+     *  the unflushed body elements
+     */
+    public XWPFDocument getXWPFDocument() {
+        return _doc;
+    }
+
+    /**
+     * Appends a new paragraph and flushes the oldest body elements, if the window size is exceeded
+     *
+     * @return a new paragraph
+     */
+    public XWPFParagraph createParagraph() throws IOException {
+        XWPFParagraph p = _doc.createParagraph();
+        flushExcessElements();
+        return p;
+    }
+
+    /**
+     * Appends a new table with one row and one column
+     * and flushes the oldest body elements, if the window size is exceeded
+     *
+     * @return a new table
+     */
+    public XWPFTable createTable() throws IOException {
+        XWPFTable t = _doc.createTable();
+        flushExcessElements();
+        return t;
+    }
+
+    /**
+     * Appends a new table with the given number of rows and columns
+     * and flushes the oldest body elements, if the window size is exceeded
+     *
+     * @return a new table
+     */
+    public XWPFTable createTable(int rows, int cols) throws IOException {
+        XWPFTable t = _doc.createTable(rows, cols);
+        flushExcessElements();
+        return t;
+    }
+
+    private void flushExcessElements() throws IOException {
+        if (_windowSize != -1 && getNumberOfUnflushedElements() > _windowSize) {
+            flushBodyElements(_windowSize);
+        }
+    }
+
+    /**
+     * @return the number of streamed body elements, which are still in memory
+     */
+    public int getNumberOfUnflushedElements() {
+        return _doc.getBodyElements().size() - _templateElements;
+    }
+
+    /**
+     * @return the number of body elements, which have been written to the temp file
+     */
+    public int getNumberOfFlushedElements() {
+        return _writer.getNumberOfFlushedElements();
+    }
+
+    /**
+     * Specifies how many body elements can be accessed at most. Older elements are flushed to the
+     * temp file and can't be accessed anymore.
+     *
+     * @param remaining the number of the most recent body elements that are kept in memory
+     * @throws IllegalArgumentException if an element to be flushed is neither a paragraph nor a table
+     */
+    public void flushBodyElements(int remaining) throws IOException {
+        List<IBodyElement> elements = _doc.getBodyElements();
+        while (elements.size() - _templateElements > remaining) {
+            _writer.writeBodyElement(elements.get(_templateElements));
+            _doc.removeBodyElement(_templateElements);
+        }
+    }
+
+    /**
+     * Flushes all streamed body elements
+     */
+    public void flushBodyElements() throws IOException {
+        flushBodyElements(0);
+    }
+
+    /**
+     * Write out this document to an OutputStream.<p>
+     *
+     * All body elements are flushed beforehand, so no further elements can be appended afterwards.
+     *
+     * @param stream - the java OutputStream you wish to write to
+     * @exception IOException if anything can't be written.
+     */
+    public void write(OutputStream stream) throws IOException {
+        flushBodyElements();
+        _writer.close();
+
+        // the section properties of the body follow the streamed elements
+        CTBody body = _doc.getDocument().getBody();
+        CTSectPr sectPr = body.isSetSectPr() ? body.getSectPr() : null;
+        String sectPrXml = (sectPr == null) ? "" : _writer.toXml(sectPr);
+        CTSectPr sectPrCopy = (sectPr == null) ? null : (CTSectPr)sectPr.copy();
+
+        //Save the template
+        File tmplFile = TempFile.createTempFile("poi-sxwpf-template", ".docx");
+        boolean deleted;
+        try {
+            try (FileOutputStream os = new FileOutputStream(tmplFile)) {
+                if (sectPrCopy != null) {
+                    body.unsetSectPr();
+                }
+                _doc.write(os);
+            } finally {
+                if (sectPrCopy != null) {
+                    body.setSectPr(sectPrCopy);
+                }
+            }
+
+            //Substitute the template body with the streamed body
+            try (ZipSecureFile zf = new ZipSecureFile(tmplFile);
+                 ZipFileZipEntrySource source = new ZipFileZipEntrySource(zf)) {
+                injectData(source, stream, sectPrXml);
+            }
+        } finally {
+            deleted = tmplFile.delete();
+        }
+        if (!deleted) {
+            throw new IOException("Could not delete temporary file after processing: " + tmplFile);
+        }
+    }
+
+    private void injectData(ZipEntrySource zipEntrySource, OutputStream out, String sectPrXml) throws IOException {
+        String docEntry = _doc.getPackagePart().getPartName().getName().substring(1);
+        ZipArchiveOutputStream zos = new ZipArchiveOutputStream(out);
+        try {
+            Enumeration<? extends ZipArchiveEntry> en = zipEntrySource.getEntries();
+            while (en.hasMoreElements()) {
+                ZipArchiveEntry ze = en.nextElement();
+                ZipArchiveEntry zeOut = new ZipArchiveEntry(ze.getName());
+                zeOut.setTime(ze.getTime());
+                zos.putArchiveEntry(zeOut);
+                try (final InputStream is = zipEntrySource.getInputStream(ze)) {
+                    if (is instanceof ZipArchiveThresholdInputStream) {
+                        // the streamed content is usually repetitive, see #59743 for SXSSF
+                        ((ZipArchiveThresholdInputStream)is).setGuardState(false);
+                    }
+                    if (docEntry.equals(ze.getName())) {
+                        copyStreamAndInjectBody(is, zos, sectPrXml);
+                    } else {
+                        IOUtils.copy(is, zos);
+                    }
+                } finally {
+                    zos.closeArchiveEntry();
+                }
+            }
+        } finally {
+            zos.finish();
+            zipEntrySource.close();
+        }
+    }
+
+    /**
+     * Copies the document part and inserts the flushed elements and the section
+     * properties at the end of the body. The body is located with a StAX pass,
+     * so comments, CDATA sections and attributes of the template don't matter.
+     */
+    private void copyStreamAndInjectBody(InputStream in, OutputStream out, String sectPrXml) throws IOException {
+        try {
+            XMLEventReader reader = XMLHelper.newXMLInputFactory().createXMLEventReader(in);
+            XMLEventWriter writer = XMLHelper.newXMLOutputFactory().createXMLEventWriter(out, StandardCharsets.UTF_8.name());
+            XMLEventFactory events = XMLHelper.newXMLEventFactory();
+            int depth = 0;
+            boolean injected = false;
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    if (depth++ == 0) {
+                        event = declareImplicitNamespaces(event.asStartElement(), events);
+                    }
+                } else if (event.isEndElement()) {
+                    if (depth-- == 2 && BODY.equals(event.asEndElement().getName())) {
+                        // close a pending start tag, before writing the raw fragments
+                        writer.add(events.createCharacters(""));
+                        writer.flush();
+                        try (InputStream bis = _writer.getBodyXMLInputStream()) {
+                            IOUtils.copy(bis, out);
+                        }
+                        out.write(sectPrXml.getBytes(StandardCharsets.UTF_8));
+                        injected = true;
+                    }
+                }
+                writer.add(event);
+            }
+            // don't close the writer, as it would close the zip stream
+            writer.flush();
+            if (!injected) {
+                throw new IOException("Can't find the body of the document part");
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Can't parse the document part", e);
+        }
+    }
+
+    /**
+     * The flushed fragments don't declare the implicit namespaces, so they are added to
+     * the document element, unless the template declares them already
+     */
+    private StartElement declareImplicitNamespaces(StartElement root, XMLEventFactory events) throws IOException {
+        Map<String, String> missing = new TreeMap<>(_implicitNamespaces);
+        List<Namespace> namespaces = new ArrayList<>();
+        for (Iterator<?> iter = root.getNamespaces(); iter.hasNext(); ) {
+            Namespace ns = (Namespace)iter.next();
+            namespaces.add(ns);
+            String uri = missing.remove(ns.getPrefix());
+            if (uri != null && !uri.equals(ns.getNamespaceURI())) {
+                throw new IOException("The namespace prefix '" + ns.getPrefix() + "' of the document part " +
+                    "is bound to " + ns.getNamespaceURI() + " instead of " + uri);
+            }
+        }
+        if (missing.isEmpty()) {
+            return root;
+        }
+        for (Map.Entry<String, String> me : missing.entrySet()) {
+            namespaces.add(events.createNamespace(me.getKey(), me.getValue()));
+        }
+        return events.createStartElement(root.getName(), root.getAttributes(), namespaces.iterator());
+    }
+
+    /**
+     * @return the well-known namespaces by prefix, which are declared on the document element and
+     *  therefore can be omitted in the flushed fragments. Prefixes, which the template binds to
+     *  other namespaces, are left out.
+     */
+    private static Map<String, String> getImplicitNamespaces(XWPFDocument doc) {
+        Map<String, String> declared = new HashMap<>();
+        XmlCursor cur = doc.getDocument().newCursor();
+        try {
+            cur.getAllNamespaces(declared);
+        } finally {
+            cur.dispose();
+        }
+
+        Map<String, String> implicit = new HashMap<>();
+        for (Map.Entry<String, String> me : DEFAULT_XML_OPTIONS.getSaveSuggestedPrefixes().entrySet()) {
+            String uri = me.getKey(), prefix = me.getValue();
+            String declaredUri = declared.get(prefix);
+            if (declaredUri == null || declaredUri.equals(uri)) {
+                implicit.put(prefix, uri);
+            }
+        }
+        return implicit;
+    }
+
+    /**
+     * Closes the temp file writer and the underlying {@link XWPFDocument}.
+     * The temp file is kept until {@link #dispose()} is called.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            _writer.close();
+        } catch (IOException e) {
+            LOG.atWarn().withThrowable(e).log("An exception occurred while closing the body data writer");
+        }
+        _doc.close();
+    }
+
+    /**
+     * Dispose of the temporary file backing this document on disk.
+     * Calling this method will render the document unusable.
+     * @return true if the temporary file was deleted successfully.
+     */
+    public boolean dispose() {
+        try {
+            return _writer.dispose();
+        } catch (IOException e) {
+            LOG.atWarn().withThrowable(e).log("Failed to dispose the body data");
+            return false;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.apache.poi.xwpf.usermodel;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.poi.util.Beta;
@@ -87,6 +88,13 @@ public class XWPFSDTContent implements ISDTContent {
         cursor.dispose();
     }
 
+    /**
+     * @return the paragraphs, tables, runs and nested content controls in document order
+     */
+    List<ISDTContents> getBodyElements() {
+        return Collections.unmodifiableList(bodyElements);
+    }
+
     @Override
     public String getText() {
         StringBuilder text = new StringBuilder();
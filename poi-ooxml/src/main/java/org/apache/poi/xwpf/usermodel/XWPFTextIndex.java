@@ -0,0 +1,423 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xwpf.usermodel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ooxml.POIXMLDocumentPart;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTText;
+
+/**
+ * Index of the visible text of a document, which maps the text offsets of each paragraph to the
+ * {@code w:t} elements of its runs. It's used to search and replace text across run boundaries,
+ * e.g. placeholders which have been split into several runs by the spell checker.<p>
+ *
+ * The index covers the paragraphs of the body, tables, block and inline content controls, headers,
+ * footers, footnotes, endnotes and comments. Tabs, breaks and other non-text run content
+ * are indexed as separators, which can't be part of a match.<p>
+ *
+ * The index reflects the text at the time of its creation and is updated by
+ * {@link #replace(Map)}. It needs to be recreated after other modifications of the document.
+ *
+ * @since POI 5.0.1
+ */
+public class XWPFTextIndex {
+    /** placeholder for run content, which isn't indexed as text */
+    private static final char OBJECT_CHAR = '\uFFFC';
+
+    private final List<ParagraphText> paragraphs = new ArrayList<>();
+
+    /**
+     * Indexes all text of the document
+     */
+    public XWPFTextIndex(XWPFDocument doc) {
+        addBody(doc);
+        // the header/footer lists of the document don't contain the newly created ones
+        for (POIXMLDocumentPart part : doc.getRelations()) {
+            if (part instanceof XWPFHeader) {
+                addBody((XWPFHeader)part);
+            }
+        }
+        for (POIXMLDocumentPart part : doc.getRelations()) {
+            if (part instanceof XWPFFooter) {
+                addBody((XWPFFooter)part);
+            }
+        }
+        for (XWPFFootnote note : doc.getFootnotes()) {
+            addBody(note);
+        }
+        for (XWPFEndnote note : doc.getEndnotes()) {
+            addBody(note);
+        }
+        XWPFComment[] comments = doc.getComments();
+        if (comments != null) {
+            for (XWPFComment comment : comments) {
+                addBody(comment);
+            }
+        }
+    }
+
+    private void addBody(IBody body) {
+        for (IBodyElement element : body.getBodyElements()) {
+            addElement(element);
+        }
+    }
+
+    private void addElement(Object element) {
+        if (element instanceof XWPFParagraph) {
+            paragraphs.add(new ParagraphText((XWPFParagraph)element));
+        } else if (element instanceof XWPFTable) {
+            for (XWPFTableRow row : ((XWPFTable)element).getRows()) {
+                for (ICell cell : row.getTableICells()) {
+                    if (cell instanceof XWPFTableCell) {
+                        addBody((XWPFTableCell)cell);
+                    } else if (cell instanceof XWPFSDTCell) {
+                        addContent(((XWPFSDTCell)cell).getContent());
+                    }
+                }
+            }
+        } else if (element instanceof XWPFSDT) {
+            addContent(((XWPFSDT)element).getContent());
+        }
+    }
+
+    private void addContent(ISDTContent content) {
+        if (content instanceof XWPFSDTContent) {
+            for (ISDTContents element : ((XWPFSDTContent)content).getBodyElements()) {
+                addElement(element);
+            }
+        }
+    }
+
+    /**
+     * @return the indexed paragraphs in the order of the body, headers, footers, footnotes, endnotes and comments
+     */
+    public List<XWPFParagraph> getParagraphs() {
+        List<XWPFParagraph> list = new ArrayList<>(paragraphs.size());
+        for (ParagraphText pt : paragraphs) {
+            list.add(pt.paragraph);
+        }
+        return list;
+    }
+
+    /**
+     * @param paragraphIndex the index of the paragraph within {@link #getParagraphs()}
+     * @return the indexed text of the paragraph with tabs as {@code '\t'}, breaks as {@code '\n'} and other
+     *  non-text run content as U+FFFC
+     */
+    public String getText(int paragraphIndex) {
+        return paragraphs.get(paragraphIndex).text;
+    }
+
+    /**
+     * Finds all (non-overlapping) occurrences of the text
+     *
+     * @param searched the text to look for
+     * @return the matches in index order
+     */
+    public List<TextMatch> search(String searched) {
+        if (searched == null || searched.isEmpty()) {
+            throw new IllegalArgumentException("The searched text must not be empty");
+        }
+        List<TextMatch> matches = new ArrayList<>();
+        for (ParagraphText pt : paragraphs) {
+            String text = pt.text;
+            for (int pos = text.indexOf(searched); pos != -1; ) {
+                int end = pos + searched.length();
+                int sep = pt.separators.nextSetBit(pos);
+                if (sep == -1 || sep >= end) {
+                    matches.add(pt.createMatch(pos, end));
+                    pos = text.indexOf(searched, end);
+                } else {
+                    pos = text.indexOf(searched, pos + 1);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Replaces all occurrences of the keys with their values in a single pass over the indexed text.<p>
+     *
+     * Where several keys match at the same position, the longest key wins. A replacement takes the formatting
+     * of the run in which the match starts - the text of the other runs spanned by the match is removed,
+     * but the runs themselves and their formatting are kept.
+     *
+     * @param replacements the replacement texts by searched texts
+     * @return the number of replacements
+     */
+    public int replace(Map<String, String> replacements) {
+        TrieNode root = new TrieNode();
+        for (Map.Entry<String, String> me : replacements.entrySet()) {
+            String key = me.getKey();
+            if (key == null || key.isEmpty()) {
+                throw new IllegalArgumentException("The searched texts must not be empty");
+            }
+            TrieNode node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), k -> new TrieNode());
+            }
+            node.key = key;
+            node.value = (me.getValue() == null) ? "" : me.getValue();
+        }
+
+        int count = 0;
+        for (ParagraphText pt : paragraphs) {
+            count += pt.replace(root);
+        }
+        return count;
+    }
+
+    /**
+     * A match of {@link #search(String)}
+     */
+    public static final class TextMatch {
+        private final XWPFParagraph paragraph;
+        private final int start, end;
+        private final List<XWPFRun> runs;
+
+        private TextMatch(XWPFParagraph paragraph, int start, int end, List<XWPFRun> runs) {
+            this.paragraph = paragraph;
+            this.start = start;
+            this.end = end;
+            this.runs = runs;
+        }
+
+        public XWPFParagraph getParagraph() {
+            return paragraph;
+        }
+
+        /**
+         * @return the start offset of the match within the indexed paragraph text
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * @return the end offset (exclusive) of the match within the indexed paragraph text
+         */
+        public int getEnd() {
+            return end;
+        }
+
+        /**
+         * @return the runs containing the matched text
+         */
+        public List<XWPFRun> getRuns() {
+            return runs;
+        }
+    }
+
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private String key;
+        private String value;
+    }
+
+    /**
+     * The text pieces of a paragraph - either a {@code w:t} element or a single separator character
+     */
+    private static final class ParagraphText {
+        private final XWPFParagraph paragraph;
+        private final List<CTText> texts = new ArrayList<>();
+        private final List<XWPFRun> runs = new ArrayList<>();
+        private final List<String> values = new ArrayList<>();
+        private int[] starts;
+        private String text;
+        private BitSet separators;
+
+        ParagraphText(XWPFParagraph paragraph) {
+            this.paragraph = paragraph;
+            addRuns(paragraph.getIRuns());
+            update();
+        }
+
+        private void addRuns(List<? extends Object> iruns) {
+            for (Object run : iruns) {
+                if (run instanceof XWPFRun) {
+                    addRun((XWPFRun)run);
+                } else if (run instanceof XWPFSDT) {
+                    ISDTContent content = ((XWPFSDT)run).getContent();
+                    if (content instanceof XWPFSDTContent) {
+                        addRuns(((XWPFSDTContent)content).getBodyElements());
+                    }
+                }
+            }
+        }
+
+        private void addRun(XWPFRun run) {
+            XmlCursor c = run.getCTR().newCursor();
+            try {
+                c.selectPath("./*");
+                while (c.toNextSelection()) {
+                    XmlObject o = c.getObject();
+                    String name = c.getName().getLocalPart();
+                    if (o instanceof CTText && "t".equals(name)) {
+                        addPiece((CTText)o, run, ((CTText)o).getStringValue());
+                    } else if (o instanceof CTRPr || "lastRenderedPageBreak".equals(name)) {
+                        // not part of the text
+                    } else if ("tab".equals(name) || "ptab".equals(name)) {
+                        addPiece(null, run, "\t");
+                    } else if ("br".equals(name) || "cr".equals(name)) {
+                        addPiece(null, run, "\n");
+                    } else {
+                        addPiece(null, run, String.valueOf(OBJECT_CHAR));
+                    }
+                }
+            } finally {
+                c.dispose();
+            }
+        }
+
+        private void addPiece(CTText t, XWPFRun run, String value) {
+            texts.add(t);
+            runs.add(run);
+            values.add(value);
+        }
+
+        private void update() {
+            int size = values.size();
+            StringBuilder sb = new StringBuilder();
+            starts = new int[size + 1];
+            separators = new BitSet();
+            for (int i = 0; i < size; i++) {
+                starts[i] = sb.length();
+                if (texts.get(i) == null) {
+                    separators.set(sb.length());
+                }
+                sb.append(values.get(i));
+            }
+            starts[size] = sb.length();
+            text = sb.toString();
+        }
+
+        /**
+         * @return the index of the piece containing the character at the offset
+         */
+        private int pieceAt(int offset) {
+            int idx = Arrays.binarySearch(starts, offset);
+            if (idx < 0) {
+                return -idx - 2;
+            }
+            // skip empty pieces
+            while (idx < values.size() - 1 && starts[idx + 1] == offset) {
+                idx++;
+            }
+            return idx;
+        }
+
+        TextMatch createMatch(int start, int end) {
+            List<XWPFRun> matchRuns = new ArrayList<>();
+            for (int i = pieceAt(start); i < values.size() && starts[i] < end; i++) {
+                XWPFRun run = runs.get(i);
+                if (matchRuns.isEmpty() || matchRuns.get(matchRuns.size() - 1) != run) {
+                    matchRuns.add(run);
+                }
+            }
+            return new TextMatch(paragraph, start, end, Collections.unmodifiableList(matchRuns));
+        }
+
+        int replace(TrieNode root) {
+            // find the leftmost-longest matches
+            List<int[]> matches = new ArrayList<>();
+            List<String> replacements = new ArrayList<>();
+            final int len = text.length();
+            for (int pos = 0; pos < len; ) {
+                TrieNode node = root, best = null;
+                int bestEnd = -1;
+                for (int i = pos; i < len && !separators.get(i); i++) {
+                    node = node.children.get(text.charAt(i));
+                    if (node == null) {
+                        break;
+                    }
+                    if (node.key != null) {
+                        best = node;
+                        bestEnd = i + 1;
+                    }
+                }
+                if (best == null) {
+                    pos++;
+                } else {
+                    matches.add(new int[]{pos, bestEnd});
+                    replacements.add(best.value);
+                    pos = bestEnd;
+                }
+            }
+
+            if (matches.isEmpty()) {
+                return 0;
+            }
+
+            // rebuild the text of the affected pieces in one go
+            int m = 0;
+            for (int i = 0; i < values.size(); i++) {
+                CTText t = texts.get(i);
+                if (t == null) {
+                    continue;
+                }
+                int pieceStart = starts[i], pieceEnd = starts[i + 1];
+                while (m < matches.size() && matches.get(m)[1] <= pieceStart) {
+                    m++;
+                }
+                if (m == matches.size() || matches.get(m)[0] >= pieceEnd) {
+                    continue;
+                }
+
+                StringBuilder sb = new StringBuilder();
+                int pos = pieceStart;
+                int mi = m;
+                while (pos < pieceEnd) {
+                    if (mi < matches.size() && matches.get(mi)[0] <= pos) {
+                        int[] match = matches.get(mi);
+                        if (match[0] == pos) {
+                            sb.append(replacements.get(mi));
+                        }
+                        pos = Math.min(match[1], pieceEnd);
+                        if (match[1] <= pieceEnd) {
+                            mi++;
+                        }
+                    } else {
+                        int next = (mi < matches.size()) ? Math.min(matches.get(mi)[0], pieceEnd) : pieceEnd;
+                        sb.append(text, pos, next);
+                        pos = next;
+                    }
+                }
+
+                String value = sb.toString();
+                values.set(i, value);
+                t.setStringValue(value);
+                if (!t.isSetSpace()) {
+                    XWPFRun.preserveSpaces(t);
+                }
+            }
+
+            update();
+            return matches.size();
+        }
+    }
+}
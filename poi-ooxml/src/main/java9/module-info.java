@@ -36,8 +36,10 @@ module org.apache.poi.ooxml {
     provides org.apache.poi.sl.draw.ImageRenderer with org.apache.poi.xslf.draw.SVGImageRenderer;
 
     exports org.apache.poi.xwpf.extractor;
+    exports org.apache.poi.xwpf.eventusermodel;
     exports org.apache.poi.xwpf.usermodel;
     exports org.apache.poi.xwpf.model;
+    exports org.apache.poi.xwpf.streaming;
     exports org.apache.poi.xdgf.extractor;
     exports org.apache.poi.xdgf.exceptions;
     exports org.apache.poi.xdgf.usermodel;
@@ -0,0 +1,183 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.extractor.ooxml;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.extractor.BatchExtractor;
+import org.apache.poi.extractor.ExtractorFactory;
+import org.apache.poi.extractor.POITextExtractor;
+import org.apache.poi.xssf.extractor.XSSFEventBasedExcelExtractor;
+import org.junit.jupiter.api.Test;
+
+class TestBatchExtractor {
+    private static final POIDataSamples ssTests = POIDataSamples.getSpreadSheetInstance();
+    private static final POIDataSamples docTests = POIDataSamples.getDocumentInstance();
+
+    private static class CollectingSink implements BatchExtractor.TextSink {
+        final Map<File, String> texts = new HashMap<>();
+        final Map<File, Exception> failures = new HashMap<>();
+
+        @Override
+        public void text(File file, String text) throws IOException {
+            texts.put(file, text);
+        }
+
+        @Override
+        public void failed(File file, Exception e) {
+            failures.put(file, e);
+        }
+    }
+
+    @Test
+    void testExtract() throws IOException {
+        File xls = ssTests.getFile("SampleSS.xls");
+        File xlsx = ssTests.getFile("SampleSS.xlsx");
+        File docx = docTests.getFile("sample.docx");
+        File invalid = ssTests.getFile("SampleSS.txt");
+        List<File> files = Arrays.asList(xls, xlsx, docx, invalid);
+
+        CollectingSink sink = new CollectingSink();
+        try (BatchExtractor batch = new BatchExtractor(2)) {
+            // only one document at a time
+            batch.setMaxBytesInFlight(1);
+            batch.extract(files, sink);
+        }
+
+        assertEquals(3, sink.texts.size());
+        assertEquals(1, sink.failures.size());
+        assertNotNull(sink.failures.get(invalid));
+        for (File f : Arrays.asList(xls, xlsx, docx)) {
+            try (POITextExtractor ex = ExtractorFactory.createExtractor(f)) {
+                assertEquals(ex.getText(), sink.texts.get(f), f.getName());
+            }
+        }
+    }
+
+    @Test
+    void testEventExtractors() throws IOException {
+        File xlsx = ssTests.getFile("SampleSS.xlsx");
+        try (BatchExtractor batch = new BatchExtractor(1)) {
+            batch.setExtractorOpener(f -> {
+                POITextExtractor ex = ExtractorFactory.createExtractor(f);
+                assertTrue(ex instanceof XSSFEventBasedExcelExtractor);
+                return ex;
+            });
+            CollectingSink sink = new CollectingSink();
+            batch.extract(Arrays.asList(xlsx), sink);
+            assertEquals(1, sink.texts.size());
+            assertEquals(0, sink.failures.size());
+        }
+    }
+
+    @Test
+    void testTimeout() throws IOException {
+        File xls = ssTests.getFile("SampleSS.xls");
+        File xlsx = ssTests.getFile("SampleSS.xlsx");
+        // load the classes upfront, so the extraction is within the timeout on slow machines
+        try (POITextExtractor ex = ExtractorFactory.createExtractor(xlsx)) {
+            assertNotNull(ex.getText());
+        }
+        try (BatchExtractor batch = new BatchExtractor(2)) {
+            batch.setTimeout(5, TimeUnit.SECONDS);
+            batch.setExtractorOpener(f -> {
+                if (f.equals(xls)) {
+                    try {
+                        Thread.sleep(60_000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException(e);
+                    }
+                }
+                return ExtractorFactory.createExtractor(f);
+            });
+            CollectingSink sink = new CollectingSink();
+            batch.extract(Arrays.asList(xls, xlsx), sink);
+            assertEquals(1, sink.texts.size());
+            assertNotNull(sink.texts.get(xlsx));
+            assertTrue(sink.failures.get(xls) instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    void testTimeoutKeepsSlotUntilFinished() throws IOException {
+        File xls = ssTests.getFile("SampleSS.xls");
+        File xlsx = ssTests.getFile("SampleSS.xlsx");
+        try (POITextExtractor ex = ExtractorFactory.createExtractor(xlsx)) {
+            assertNotNull(ex.getText());
+        }
+        AtomicLong slowFinished = new AtomicLong();
+        AtomicLong nextStarted = new AtomicLong();
+        try (BatchExtractor batch = new BatchExtractor(2)) {
+            batch.setTimeout(1, TimeUnit.SECONDS);
+            // only one document at a time
+            batch.setMaxBytesInFlight(1);
+            batch.setExtractorOpener(f -> {
+                if (!f.equals(xls)) {
+                    nextStarted.set(System.currentTimeMillis());
+                    return ExtractorFactory.createExtractor(f);
+                }
+                // like the extractors, continue for a while after the interruption of the cancelled task
+                long end = System.currentTimeMillis() + 30_000;
+                while (System.currentTimeMillis() < end) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        end = System.currentTimeMillis() + 1000;
+                    }
+                }
+                slowFinished.set(System.currentTimeMillis());
+                return ExtractorFactory.createExtractor(f);
+            });
+            CollectingSink sink = new CollectingSink();
+            batch.extract(Arrays.asList(xls, xlsx), sink);
+            assertTrue(sink.failures.get(xls) instanceof TimeoutException);
+            // the next document waits for the cancelled one and its timeout starts later
+            assertNotNull(sink.texts.get(xlsx));
+            assertTrue(nextStarted.get() >= slowFinished.get());
+        }
+    }
+
+    @Test
+    void testSinkFailure() {
+        File xlsx = ssTests.getFile("SampleSS.xlsx");
+        try (BatchExtractor batch = new BatchExtractor(1)) {
+            IOException ex = assertThrows(IOException.class, () -> batch.extract(Arrays.asList(xlsx, xlsx), new CollectingSink() {
+                @Override
+                public void text(File file, String text) throws IOException {
+                    throw new IOException("sink is full");
+                }
+            }));
+            assertEquals("sink is full", ex.getMessage());
+        }
+    }
+}
@@ -25,7 +25,10 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
 import java.time.ZoneId;
 import java.util.Calendar;
 import java.util.Date;
@@ -332,6 +335,40 @@ public final class TestPOIXMLProperties {
         }
     }
 
+    @Test
+    void testPropertiesReader() throws IOException {
+        File file = POIDataSamples.getDocumentInstance().getFile("documentProperties.docx");
+        POIXMLProperties props = POIXMLPropertiesReader.read(file);
+
+        CoreProperties core = props.getCoreProperties();
+        assertEquals(_coreProperties.getTitle(), core.getTitle());
+        assertEquals(_coreProperties.getCreator(), core.getCreator());
+        assertEquals(_coreProperties.getSubject(), core.getSubject());
+        assertEquals(_coreProperties.getCategory(), core.getCategory());
+        assertEquals(_coreProperties.getCreated(), core.getCreated());
+        assertEquals(_props.getExtendedProperties().getUnderlyingProperties().xmlText(),
+            props.getExtendedProperties().getUnderlyingProperties().xmlText());
+        assertEquals(_props.getCustomProperties().getUnderlyingProperties().xmlText(),
+            props.getCustomProperties().getUnderlyingProperties().xmlText());
+
+        // the properties are read without their package
+        assertNull(props.getThumbnailFilename());
+        assertThrows(IllegalStateException.class, props::commit);
+
+        try (SeekableByteChannel channel = Files.newByteChannel(file.toPath())) {
+            props = POIXMLPropertiesReader.read(channel);
+            assertEquals("Hello World", props.getCoreProperties().getTitle());
+        }
+    }
+
+    @Test
+    void testPropertiesReaderOoxmlStrict() throws IOException {
+        File file = POIDataSamples.getSpreadSheetInstance().getFile("sample.strict.xlsx");
+        POIXMLProperties props = POIXMLPropertiesReader.read(file);
+        assertNotNull(props.getCoreProperties().getCreated());
+        assertEquals(2007, props.getCoreProperties().getCreated().toInstant().atZone(ZoneId.of("UTC")).getYear());
+    }
+
     @Test
     void testBug60977() throws IOException {
 
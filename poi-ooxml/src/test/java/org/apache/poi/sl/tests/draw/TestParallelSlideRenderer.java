@@ -0,0 +1,211 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.sl.tests.draw;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.sl.draw.ParallelSlideRenderer;
+import org.apache.poi.sl.tests.SLCommonUtils;
+import org.apache.poi.sl.usermodel.SlideShow;
+import org.apache.poi.sl.usermodel.SlideShowFactory;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TestParallelSlideRenderer {
+    private static final POIDataSamples ssSamples = POIDataSamples.getSlideShowInstance();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"alterman_security.ppt", "alterman_security.pptx"})
+    void renderConcurrently(String file) throws IOException {
+        assumeFalse(file.endsWith(".ppt") && SLCommonUtils.xslfOnly());
+
+        final Map<Integer,BufferedImage> sequential = new ConcurrentHashMap<>();
+        final Map<Integer,BufferedImage> parallel = new ConcurrentHashMap<>();
+
+        final int slideCount;
+        try (SlideShow<?,?> ppt = open(file)) {
+            slideCount = ppt.getSlides().size();
+        }
+        Iterable<Integer> slideNos = IntStream.rangeClosed(1, slideCount).boxed().collect(Collectors.toList());
+
+        try (ParallelSlideRenderer renderer = new ParallelSlideRenderer(() -> open(file), 1)) {
+            renderer.render(slideNos, 0.5, BufferedImage.TYPE_INT_ARGB, sequential::put);
+        }
+        try (ParallelSlideRenderer renderer = new ParallelSlideRenderer(() -> open(file), 3)) {
+            renderer.render(slideNos, 0.5, BufferedImage.TYPE_INT_ARGB, parallel::put);
+        }
+
+        assertEquals(slideCount, sequential.size());
+        assertEquals(slideCount, parallel.size());
+        for (int slideNo : slideNos) {
+            assertArrayEquals(getPixels(sequential.get(slideNo)), getPixels(parallel.get(slideNo)), "slide " + slideNo);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"alterman_security.pptx"})
+    void failingTask(String file) throws IOException {
+        Iterable<Integer> slideNos = IntStream.rangeClosed(1, 10).boxed().collect(Collectors.toList());
+        try (ParallelSlideRenderer renderer = new ParallelSlideRenderer(() -> open(file), 2)) {
+            IOException ex = assertThrows(IOException.class, () -> renderer.forEachSlide(slideNos, (slideNo, slide) -> {
+                if (slideNo == 3) {
+                    throw new IOException("slide 3 failed");
+                }
+            }));
+            assertEquals("slide 3 failed", ex.getMessage());
+        }
+    }
+
+    @Test
+    void failingTaskWaitsForRunningSlides() throws Exception {
+        final Set<SlideShow<?,?>> closed = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        final CountDownLatch slowStarted = new CountDownLatch(1);
+        final AtomicBoolean slowFinished = new AtomicBoolean();
+        final AtomicBoolean usedClosed = new AtomicBoolean();
+
+        Iterable<Integer> slideNos = IntStream.rangeClosed(1, 10).boxed().collect(Collectors.toList());
+        try (ParallelSlideRenderer renderer = new ParallelSlideRenderer(() -> openTracked(closed), 2)) {
+            IOException ex = assertThrows(IOException.class, () -> renderer.forEachSlide(slideNos, (slideNo, slide) -> {
+                if (slideNo == 1) {
+                    awaitLatch(slowStarted);
+                    throw new IOException("slide 1 failed");
+                }
+                if (slideNo == 2) {
+                    slowStarted.countDown();
+                    sleep(500);
+                    usedClosed.compareAndSet(false, closed.contains(slide.getSlideShow()));
+                    slowFinished.set(true);
+                }
+            }));
+            assertEquals("slide 1 failed", ex.getMessage());
+            // the running slide has finished, before the failure is rethrown
+            assertTrue(slowFinished.get());
+        }
+        assertFalse(usedClosed.get());
+    }
+
+    @Test
+    void closeWaitsForRunningSlides() throws Exception {
+        final Set<SlideShow<?,?>> closed = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch slowFinished = new CountDownLatch(1);
+        final AtomicBoolean usedClosed = new AtomicBoolean();
+
+        Iterable<Integer> slideNos = IntStream.rangeClosed(1, 4).boxed().collect(Collectors.toList());
+        ParallelSlideRenderer renderer = new ParallelSlideRenderer(() -> openTracked(closed), 2);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> result = caller.submit(() -> {
+                renderer.forEachSlide(slideNos, (slideNo, slide) -> {
+                    started.countDown();
+                    if (slideNo == 1) {
+                        throw new IOException("slide 1 failed");
+                    }
+                    if (slideNo == 2) {
+                        sleep(500);
+                        usedClosed.compareAndSet(false, closed.contains(slide.getSlideShow()));
+                        slowFinished.countDown();
+                    }
+                });
+                return null;
+            });
+
+            // close while slide 2 is still rendering
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            renderer.close();
+            assertTrue(slowFinished.await(10, TimeUnit.SECONDS));
+            assertFalse(usedClosed.get());
+            assertEquals(2, closed.size());
+            assertThrows(Exception.class, result::get);
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    private static SlideShow<?,?> openTracked(Set<SlideShow<?,?>> closed) throws IOException {
+        try (InputStream is = ssSamples.openResourceAsStream("alterman_security.pptx")) {
+            return new XMLSlideShow(is) {
+                @Override
+                public void close() throws IOException {
+                    closed.add(this);
+                    super.close();
+                }
+            };
+        }
+    }
+
+    private static void awaitLatch(CountDownLatch latch) throws IOException {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Simulates a slow slide, which doesn't react on interrupts
+     */
+    private static void sleep(long millis) {
+        long end = System.currentTimeMillis() + millis;
+        boolean interrupted = false;
+        for (long left; (left = end - System.currentTimeMillis()) > 0; ) {
+            try {
+                Thread.sleep(left);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static SlideShow<?,?> open(String file) throws IOException {
+        try (InputStream is = ssSamples.openResourceAsStream(file)) {
+            return SlideShowFactory.create(is);
+        }
+    }
+
+    private static int[] getPixels(BufferedImage img) {
+        return img.getRGB(0, 0, img.getWidth(), img.getHeight(), null, 0, img.getWidth());
+    }
+}
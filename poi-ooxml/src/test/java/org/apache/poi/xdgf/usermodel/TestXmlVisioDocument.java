@@ -0,0 +1,128 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+package org.apache.poi.xdgf.usermodel;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.xdgf.extractor.XDGFVisioExtractor;
+import org.junit.jupiter.api.Test;
+
+class TestXmlVisioDocument {
+
+    private static final POIDataSamples SAMPLES = POIDataSamples.getDiagramInstance();
+
+    @Test
+    void testLazyContents() throws IOException {
+        try (InputStream is = SAMPLES.openResourceAsStream("60489.vsdx");
+             XmlVisioDocument xml = new XmlVisioDocument(is)) {
+
+            // neither pages nor masters are parsed on opening the document
+            assertFalse(xml.getPages().isEmpty());
+            for (XDGFPage page : xml.getPages()) {
+                assertNull(page.getContent()._pageContents);
+            }
+            assertFalse(xml._masters.getMastersList().isEmpty());
+            for (XDGFMaster master : xml._masters.getMastersList()) {
+                assertNull(master.getContent()._pageContents);
+            }
+
+            XDGFPage page = xml.getPages().iterator().next();
+            assertFalse(page.getContent().getShapes().isEmpty());
+            assertNotNull(page.getContent()._pageContents);
+
+            // only the masters of the shapes are loaded
+            for (XDGFShape shape : page.getContent().getShapes()) {
+                if (shape.hasMaster()) {
+                    assertNotNull(shape._master.getContent()._pageContents);
+                }
+            }
+
+            try (XDGFVisioExtractor extractor = new XDGFVisioExtractor(xml)) {
+                assertFalse(extractor.getText().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    void testInheritedCells() throws IOException {
+        try (InputStream is = SAMPLES.openResourceAsStream("test_text_extraction.vsdx");
+             XmlVisioDocument xml = new XmlVisioDocument(is)) {
+            int inherited = 0;
+            for (XDGFPage page : xml.getPages()) {
+                for (XDGFShape shape : page.getContent().getShapes()) {
+                    if (!shape.hasMasterShape()) {
+                        continue;
+                    }
+                    for (String name : new String[]{"LineColor", "FillForegnd", "NoSuchCell"}) {
+                        XDGFCell cell = shape.getCell(name);
+                        assertSame(cell, shape.getCell(name));
+                        if (shape._cells.get(name) == null) {
+                            assertSame(shape.getMasterShape().getCell(name), cell);
+                            inherited++;
+                        }
+                    }
+                    assertNull(shape.getCell("NoSuchCell"));
+                }
+            }
+            assertTrue(inherited > 0);
+        }
+    }
+
+    @Test
+    void testBrokenPageContents() throws Exception {
+        // the connect refers to a missing shape, after the shapes have been built
+        String broken =
+            "<PageContents xmlns=\"http://schemas.microsoft.com/office/visio/2012/main\">" +
+            "<Shapes><Shape ID=\"1\" Type=\"Shape\"/></Shapes>" +
+            "<Connects><Connect FromSheet=\"1\" ToSheet=\"999\"/></Connects>" +
+            "</PageContents>";
+
+        try (InputStream is = SAMPLES.openResourceAsStream("60489.vsdx")) {
+            OPCPackage pkg = OPCPackage.open(is);
+            PackagePart pagePart = pkg.getPartsByContentType("application/vnd.ms-visio.page+xml").get(0);
+            try (OutputStream os = pagePart.getOutputStream()) {
+                os.write(broken.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try (XmlVisioDocument xml = new XmlVisioDocument(pkg)) {
+                XDGFPageContents contents = xml.getPages().stream().map(XDGFPage::getContent)
+                    .filter(c -> c.getPackagePart().getPartName().equals(pagePart.getPartName())).findFirst().orElse(null);
+                assertNotNull(contents);
+
+                // the partially built shapes aren't returned on subsequent accesses
+                assertThrows(POIXMLException.class, contents::getShapes);
+                assertThrows(POIXMLException.class, contents::getShapes);
+                assertThrows(POIXMLException.class, contents::getTopLevelShapes);
+                assertThrows(POIXMLException.class, contents::getConnections);
+            }
+        }
+    }
+}
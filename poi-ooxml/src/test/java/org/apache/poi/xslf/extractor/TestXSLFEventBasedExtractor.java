@@ -0,0 +1,117 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xslf.extractor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.extractor.ExtractorFactory;
+import org.apache.poi.extractor.POITextExtractor;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xslf.usermodel.XMLSlideShow;
+import org.apache.poi.xslf.usermodel.XSLFSlide;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests for {@link XSLFEventBasedExtractor}
+ */
+class TestXSLFEventBasedExtractor {
+    private static final POIDataSamples slTests = POIDataSamples.getSlideShowInstance();
+
+    /**
+     * The event based extractor should produce the same text as the usermodel based one
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "sample.pptx", "SampleShow.pptx", "45541_Header.pptx", "45541_Footer.pptx", "45545_Comment.pptx",
+        "with_japanese.pptx", "table_test.pptx", "table_test2.pptx", "sample_pptx_grouping_issues.pptx",
+        "shapes.pptx", "bug60499.pptx", "bug62736.pptx", "present1.pptx", "testPPT.pptx"
+    })
+    void testSameTextAsUsermodel(String file) throws Exception {
+        for (int mode = 0; mode < 8; mode++) {
+            boolean slides = (mode & 1) != 0, notes = (mode & 2) != 0, comments = (mode & 4) != 0;
+            String expected, actual;
+            try (OPCPackage pkg = OPCPackage.open(slTests.getFile(file), PackageAccess.READ);
+                 XSLFExtractor extractor = new XSLFExtractor(new XMLSlideShow(pkg))) {
+                extractor.setSlidesByDefault(slides);
+                extractor.setNotesByDefault(notes);
+                extractor.setCommentsByDefault(comments);
+                expected = extractor.getText();
+            }
+            try (OPCPackage pkg = OPCPackage.open(slTests.getFile(file), PackageAccess.READ);
+                 XSLFEventBasedExtractor extractor = new XSLFEventBasedExtractor(pkg)) {
+                extractor.setSlidesByDefault(slides);
+                extractor.setNotesByDefault(notes);
+                extractor.setCommentsByDefault(comments);
+                actual = extractor.getText();
+                assertNull(extractor.getDocument());
+            }
+            assertEquals(expected, actual, file + " - mode " + mode);
+        }
+    }
+
+    @Test
+    void testSlideTitles() throws Exception {
+        List<String> expected = new ArrayList<>();
+        try (OPCPackage pkg = OPCPackage.open(slTests.getFile("SampleShow.pptx"), PackageAccess.READ);
+             XMLSlideShow ppt = new XMLSlideShow(pkg)) {
+            for (XSLFSlide slide : ppt.getSlides()) {
+                expected.add(slide.getTitle());
+            }
+        }
+        try (OPCPackage pkg = OPCPackage.open(slTests.getFile("SampleShow.pptx"), PackageAccess.READ);
+             XSLFEventBasedExtractor extractor = new XSLFEventBasedExtractor(pkg)) {
+            assertEquals(expected, extractor.getSlideTitles());
+        }
+    }
+
+    @Test
+    void testComments() throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(slTests.getFile("45545_Comment.pptx"), PackageAccess.READ);
+             XSLFEventBasedExtractor extractor = new XSLFEventBasedExtractor(pkg)) {
+            extractor.setCommentsByDefault(true);
+            String text = extractor.getText();
+            assertTrue(text.contains("testdoc"), text);
+            assertTrue(text.contains("test phrase"), text);
+        }
+    }
+
+    @Test
+    void testPreferEventExtractor() throws IOException {
+        File file = slTests.getFile("SampleShow.pptx");
+        try {
+            ExtractorFactory.setThreadPrefersEventExtractors(true);
+            try (POITextExtractor extractor = ExtractorFactory.createExtractor(file)) {
+                assertTrue(extractor instanceof XSLFEventBasedExtractor);
+                assertTrue(extractor.getText().startsWith("Title of the first slide\n"));
+            }
+        } finally {
+            ExtractorFactory.setThreadPrefersEventExtractors(false);
+        }
+    }
+}
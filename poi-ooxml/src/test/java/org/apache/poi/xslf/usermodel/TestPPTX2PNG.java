@@ -58,6 +58,9 @@ class TestPPTX2PNG {
     private static final String pdfFiles =
         "alterman_security.ppt";
 
+    private static final String threadFiles =
+        "alterman_security.ppt, layouts.pptx";
+
     @BeforeAll
     public static void checkHslf() {
         try {
@@ -87,9 +90,12 @@ class TestPPTX2PNG {
         if (pdfFiles.contains(pptFile)) {
             PPTX2PNG.main(getArgs(pptFile, "pdf"));
         }
+        if (threadFiles.contains(pptFile)) {
+            PPTX2PNG.main(getArgs(pptFile, "null", "-threads", "4", "-imageCache", "32"));
+        }
     }
 
-    private String[] getArgs(String pptFile, String format) throws IOException {
+    private String[] getArgs(String pptFile, String format, String... extraArgs) throws IOException {
         File tmpDir = new File("build/tmp/");
 
         // fix maven build errors
@@ -118,6 +124,8 @@ class TestPPTX2PNG {
             ));
         }
 
+        args.addAll(asList(extraArgs));
+
         args.add((basedir == null ? samples.getFile(pptFile) : new File(basedir, pptFile)).getAbsolutePath());
 
         return args.toArray(new String[0]);
@@ -25,10 +25,13 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.openxml4j.opc.PackagePart;
 import org.apache.poi.sl.usermodel.BaseTestSlideShow;
+import org.apache.poi.sl.usermodel.PictureData.PictureType;
 import org.apache.poi.sl.usermodel.SlideShow;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -180,6 +183,65 @@ class TestXMLSlideShow extends BaseTestSlideShow<XSLFShape, XSLFTextParagraph> {
         }
     }
 
+    @Test
+    void testFlushSlides() throws IOException {
+        byte[] pictureData = slTests.readFile("tomcat.png");
+        try (XMLSlideShow ppt = new XMLSlideShow()) {
+            for (int i = 0; i < 20; i++) {
+                XSLFSlide slide = ppt.createSlide();
+                slide.createTextBox().setText("slide " + i);
+                XSLFPictureData pd = ppt.addPicture(pictureData, PictureType.PNG);
+                slide.createPicture(pd);
+            }
+            assertEquals(1, ppt.getPictureData().size());
+
+            ppt.flushSlides(ppt.getSlides());
+            for (XSLFSlide slide : ppt.getSlides()) {
+                assertTrue(slide.isFlushed());
+            }
+
+            // a flushed slide is read again on access and can still be modified
+            XSLFSlide slide = ppt.getSlides().get(3);
+            assertEquals("slide 3", ((XSLFTextShape)slide.getShapes().get(0)).getText());
+            assertFalse(slide.isFlushed());
+            slide.createTextBox().setText("added");
+
+            try (XMLSlideShow ppt2 = writeOutAndReadBack(ppt)) {
+                assertEquals(20, ppt2.getSlides().size());
+                for (int i = 0; i < 20; i++) {
+                    List<XSLFShape> shapes = ppt2.getSlides().get(i).getShapes();
+                    assertEquals(i == 3 ? 3 : 2, shapes.size());
+                    assertEquals("slide " + i, ((XSLFTextShape)shapes.get(0)).getText());
+                    assertTrue(shapes.get(1) instanceof XSLFPictureShape);
+                }
+                assertEquals("added", ((XSLFTextShape)ppt2.getSlides().get(3).getShapes().get(2)).getText());
+                assertEquals(1, ppt2.getPictureData().size());
+                assertNotNull(ppt2.findPictureData(pictureData));
+            }
+        }
+    }
+
+    @Test
+    void testFlushLoadedSlides() throws IOException {
+        try (XMLSlideShow ppt = new XMLSlideShow(pack)) {
+            List<String> texts = new ArrayList<>();
+            for (XSLFSlide slide : ppt.getSlides()) {
+                texts.add(slide.getTitle());
+            }
+
+            ppt.flushSlides(ppt.getSlides());
+            ppt.flushSlides(ppt.getSlides());
+
+            try (XMLSlideShow ppt2 = writeOutAndReadBack(ppt)) {
+                List<String> texts2 = new ArrayList<>();
+                for (XSLFSlide slide : ppt2.getSlides()) {
+                    texts2.add(slide.getTitle());
+                }
+                assertEquals(texts, texts2);
+            }
+        }
+    }
+
     @Override
     public XMLSlideShow reopen(SlideShow<XSLFShape, XSLFTextParagraph> show) throws IOException {
         return writeOutAndReadBack((XMLSlideShow) show);
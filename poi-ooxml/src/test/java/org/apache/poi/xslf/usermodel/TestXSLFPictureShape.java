@@ -23,21 +23,29 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
+import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
 
 import org.apache.poi.POIDataSamples;
+import org.apache.poi.hwmf.usermodel.HwmfPicture;
 import org.apache.poi.sl.usermodel.PictureData.PictureType;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.TempFile;
@@ -249,6 +257,37 @@ class TestXSLFPictureShape {
     }
 
 
+    @Test
+    void renderTruncatedWmfFallback() throws IOException {
+        byte[] wmf = _slTests.readFile("santa.wmf");
+        // cut the file in the middle of a record
+        byte[] truncated = Arrays.copyOf(wmf, wmf.length / 2);
+        assertThrows(IOException.class, () -> new HwmfPicture(truncated));
+
+        BufferedImage red = new BufferedImage(20, 20, BufferedImage.TYPE_INT_RGB);
+        Graphics2D rg = red.createGraphics();
+        rg.setColor(Color.RED);
+        rg.fillRect(0, 0, 20, 20);
+        rg.dispose();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ImageIO.write(red, "png", bos);
+
+        try (XMLSlideShow ppt = new XMLSlideShow()) {
+            XSLFSlide slide = ppt.createSlide();
+            XSLFPictureShape shape = slide.createPicture(ppt.addPicture(bos.toByteArray(), PictureType.PNG));
+            shape.setAnchor(new Rectangle2D.Double(0, 0, 20, 20));
+            // the alternative picture is tried first
+            shape.setSvgImage(ppt.addPicture(truncated, PictureType.WMF));
+
+            BufferedImage img = new BufferedImage(20, 20, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = img.createGraphics();
+            shape.draw(g, shape.getAnchor());
+            g.dispose();
+
+            assertEquals(Color.RED.getRGB(), img.getRGB(10, 10));
+        }
+    }
+
     @Test
     void renderSvgImage() throws Exception {
         try (XMLSlideShow ppt = new XMLSlideShow()) {
@@ -17,8 +17,22 @@
 
 package org.apache.poi.xssf.usermodel;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.eval.NumberEval;
 import org.apache.poi.ss.formula.eval.forked.BaseTestForkedEvaluator;
+import org.apache.poi.ss.formula.eval.forked.ForkedEvaluationBase;
+import org.apache.poi.ss.formula.eval.forked.ForkedEvaluator;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.AreaReference;
+import org.junit.jupiter.api.Test;
 
 class TestXSSFForkedEvaluator extends BaseTestForkedEvaluator {
 
@@ -26,4 +40,59 @@ class TestXSSFForkedEvaluator extends BaseTestForkedEvaluator {
     protected Workbook newWorkbook() {
         return new XSSFWorkbook();
     }
+
+    @Test
+    void testSharedBaseWithTablesAndNamesConcurrently() throws Exception {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            XSSFSheet data = wb.createSheet("Data");
+            XSSFRow row = data.createRow(0);
+            row.createCell(0).setCellValue("Item");
+            row.createCell(1).setCellValue("Amount");
+            row.createCell(3).setCellValue(2.0); // Data!D1
+            for (int i = 1; i <= 3; i++) {
+                row = data.createRow(i);
+                row.createCell(0).setCellValue("Item" + i);
+                row.createCell(1).setCellValue(i * 10.0);
+            }
+            XSSFTable table = data.createTable(new AreaReference("A1:B4", SpreadsheetVersion.EXCEL2007));
+            table.setName("Sales");
+            table.setDisplayName("Sales");
+            table.updateHeaders();
+
+            XSSFName factor = wb.createName();
+            factor.setNameName("Factor");
+            factor.setRefersToFormula("Data!$D$1");
+
+            row = wb.createSheet("Calculations").createRow(0);
+            row.createCell(0).setCellFormula("SUM(Sales[Amount])*Factor");
+            row.createCell(1).setCellFormula("COUNTIFS(Sales[Amount],\">15\")");
+
+            ForkedEvaluationBase base = ForkedEvaluationBase.create(wb, null);
+
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<double[]>> results = new ArrayList<>();
+                for (int i = 0; i < 64; i++) {
+                    final double amount = i;
+                    final double factorValue = i % 3 + 1;
+                    results.add(executor.submit(() -> {
+                        ForkedEvaluator fe = ForkedEvaluator.create(base, null);
+                        fe.updateCell("Data", 1, 1, new NumberEval(amount));
+                        fe.updateCell("Data", 0, 3, new NumberEval(factorValue));
+                        return new double[] {
+                            evaluate(fe, "Calculations", 0, 0),
+                            evaluate(fe, "Calculations", 0, 1)
+                        };
+                    }));
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    double[] result = results.get(i).get();
+                    assertEquals((i + 50) * (i % 3 + 1), result[0], 0.0);
+                    assertEquals(i > 15 ? 3 : 2, result[1], 0.0);
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
 }
@@ -0,0 +1,163 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xwpf.eventusermodel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xwpf.eventusermodel.XWPFBodyXMLHandler.BodyContentsHandler;
+import org.apache.poi.xwpf.eventusermodel.XWPFBodyXMLHandler.ParagraphProperties;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+class TestXWPFReader {
+    private static final POIDataSamples _dataSamples = POIDataSamples.getDocumentInstance();
+
+    @Test
+    void testParagraphsWithNumbering() throws Exception {
+        List<String> expected = new ArrayList<>();
+        try (OPCPackage pkg = OPCPackage.open(_dataSamples.getFile("Numbering.docx"), PackageAccess.READ);
+             XWPFDocument doc = new XWPFDocument(pkg)) {
+            for (XWPFParagraph p : doc.getParagraphs()) {
+                expected.add(p.getStyleID() + "|" + p.getNumID() + "|" + p.getNumIlvl() + "|" +
+                    p.getNumFmt() + "|" + p.getNumLevelText() + "|" + p.getText());
+            }
+        }
+
+        List<String> actual = new ArrayList<>();
+        try (OPCPackage pkg = OPCPackage.open(_dataSamples.getFile("Numbering.docx"), PackageAccess.READ)) {
+            XWPFReader reader = new XWPFReader(pkg);
+            assertNotNull(reader.getStyles());
+            assertNotNull(reader.getNumbering());
+
+            parse(reader, reader.getDocumentPart(), new EventCollector() {
+                @Override
+                public void startParagraph(ParagraphProperties props) {
+                    super.startParagraph(props);
+                    text.append(props.getStyleId()).append('|').append(props.getNumID()).append('|')
+                        .append(props.getNumIlvl()).append('|').append(props.getNumFmt()).append('|')
+                        .append(props.getNumLevelText()).append('|');
+                    if ("ListParagraph".equals(props.getStyleId())) {
+                        assertEquals("List Paragraph", props.getStyleName());
+                    }
+                }
+
+                @Override
+                public void endParagraph() {
+                    actual.add(text.toString());
+                }
+            });
+        }
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testTablesAndSections() throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(_dataSamples.getFile("ThreeColHeadFoot.docx"), PackageAccess.READ)) {
+            XWPFReader reader = new XWPFReader(pkg);
+            EventCollector events = new EventCollector();
+            parse(reader, reader.getDocumentPart(), events);
+
+            // only the body section
+            assertEquals(1, events.sections.size());
+            Map<String, String> headerIds = events.sections.get(0);
+            assertFalse(headerIds.isEmpty());
+
+            PackagePart header = reader.getRelatedPart(reader.getDocumentPart(), headerIds.get("default"));
+            assertNotNull(header);
+            EventCollector headerEvents = new EventCollector();
+            parse(reader, header, headerEvents);
+            assertTrue(headerEvents.allText.toString().contains("Mid header"));
+        }
+
+        int tables, cells;
+        try (XWPFDocument doc = new XWPFDocument(_dataSamples.openResourceAsStream("table_footnotes.docx"))) {
+            tables = doc.getTables().size();
+            cells = doc.getTables().stream().flatMap(t -> t.getRows().stream()).mapToInt(r -> r.getTableCells().size()).sum();
+        }
+        assertTrue(tables > 0);
+        try (OPCPackage pkg = OPCPackage.open(_dataSamples.getFile("table_footnotes.docx"), PackageAccess.READ)) {
+            XWPFReader reader = new XWPFReader(pkg);
+            EventCollector events = new EventCollector();
+            parse(reader, reader.getDocumentPart(), events);
+            assertEquals(tables, events.tables);
+            assertEquals(cells, events.cells);
+        }
+    }
+
+    private static void parse(XWPFReader reader, PackagePart part, BodyContentsHandler handler) throws Exception {
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(new XWPFBodyXMLHandler(reader.getStyles(), reader.getNumbering(), handler));
+        try (InputStream is = part.getInputStream()) {
+            parser.parse(new InputSource(is));
+        }
+    }
+
+    private static class EventCollector implements BodyContentsHandler {
+        final StringBuilder text = new StringBuilder();
+        final StringBuilder allText = new StringBuilder();
+        final List<Map<String, String>> sections = new ArrayList<>();
+        int tables, cells;
+
+        @Override
+        public void startParagraph(ParagraphProperties properties) {
+            text.setLength(0);
+        }
+
+        @Override
+        public void run(String styleId, String text, String phonetic, String pictureText) {
+            this.text.append(text);
+            allText.append(text);
+        }
+
+        @Override
+        public void endParagraph() {
+        }
+
+        @Override
+        public void startTable() {
+            tables++;
+        }
+
+        @Override
+        public void startCell() {
+            cells++;
+        }
+
+        @Override
+        public void sectionBreak(Map<String, String> headerIds, Map<String, String> footerIds) {
+            sections.add(headerIds);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xwpf.extractor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.extractor.ExtractorFactory;
+import org.apache.poi.extractor.POITextExtractor;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests for {@link XWPFEventBasedWordExtractor}
+ */
+class TestXWPFEventBasedWordExtractor {
+    private static final POIDataSamples _dataSamples = POIDataSamples.getDocumentInstance();
+
+    /**
+     * The event based extractor should produce the same text as the usermodel based one
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "sample.docx", "IllustrativeCases.docx", "TestDocument.docx", "Headers.docx", "ThreeColHeadFoot.docx",
+        "DiffFirstPageHeadFoot.docx", "footnotes.docx", "endnotes.docx", "table_footnotes.docx",
+        "form_footnotes.docx", "checkboxes.docx", "FieldCodes.docx", "FldSimple.docx", "drawing.docx",
+        "WithTabs.docx", "Bug54849.docx", "55733.docx", "61470.docx", "MultipleBodyBug.docx",
+        "WordWithAttachments.docx", "45690.docm", "60316.dotx"
+    })
+    void testSameTextAsUsermodel(String file) throws Exception {
+        String expected, actual;
+        try (OPCPackage pkg = OPCPackage.open(_dataSamples.getFile(file), PackageAccess.READ);
+             XWPFWordExtractor extractor = new XWPFWordExtractor(new XWPFDocument(pkg))) {
+            expected = extractor.getText();
+        }
+        try (OPCPackage pkg = OPCPackage.open(_dataSamples.getFile(file), PackageAccess.READ);
+             XWPFEventBasedWordExtractor extractor = new XWPFEventBasedWordExtractor(pkg)) {
+            actual = extractor.getText();
+            assertNull(extractor.getDocument());
+        }
+        assertEquals(expected, actual, file);
+    }
+
+    @Test
+    void testGetWithHyperlinks() throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(_dataSamples.getFile("TestDocument.docx"), PackageAccess.READ);
+             XWPFEventBasedWordExtractor extractor = new XWPFEventBasedWordExtractor(pkg)) {
+            extractor.setFetchHyperlinks(true);
+            assertEquals(
+                "This is a test document.\nThis bit is in bold and italic\n" +
+                    "Back to normal\n" +
+                    "This contains BOLD, ITALIC and BOTH, as well as RED and YELLOW text.\n" +
+                    "We have a hyperlink <http://poi.apache.org/> here, and another.\n",
+                extractor.getText()
+            );
+        }
+    }
+
+    @Test
+    void testPreferEventExtractor() throws IOException {
+        File file = _dataSamples.getFile("sample.docx");
+        try {
+            ExtractorFactory.setThreadPrefersEventExtractors(true);
+            try (POITextExtractor extractor = ExtractorFactory.createExtractor(file)) {
+                assertTrue(extractor instanceof XWPFEventBasedWordExtractor);
+                assertTrue(extractor.getText().startsWith("Lorem ipsum dolor sit amet"));
+            }
+        } finally {
+            ExtractorFactory.setThreadPrefersEventExtractors(false);
+        }
+    }
+}
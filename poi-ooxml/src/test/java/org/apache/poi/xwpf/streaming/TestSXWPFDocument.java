@@ -0,0 +1,185 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xwpf.streaming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.Units;
+import org.apache.poi.wp.usermodel.HeaderFooterType;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.xmlbeans.XmlCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TestSXWPFDocument {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testStreamedParagraphsAndTables(boolean compress) throws IOException {
+        UnsynchronizedByteArrayOutputStream bos = new UnsynchronizedByteArrayOutputStream();
+        SXWPFDocument sdoc = new SXWPFDocument(new XWPFDocument(), 10, compress);
+        try {
+            for (int i = 0; i < 500; i++) {
+                XWPFParagraph p = sdoc.createParagraph();
+                p.setStyle("Heading1");
+                p.createRun().setText("Paragraph " + i);
+                if (i % 100 == 0) {
+                    XWPFTable t = sdoc.createTable(2, 2);
+                    t.getRow(1).getCell(1).setText("Cell " + i);
+                }
+                assertTrue(sdoc.getNumberOfUnflushedElements() <= 10);
+            }
+            assertEquals(505 - 10, sdoc.getNumberOfFlushedElements());
+            sdoc.write(bos);
+            assertEquals(505, sdoc.getNumberOfFlushedElements());
+        } finally {
+            sdoc.close();
+            assertTrue(sdoc.dispose());
+        }
+
+        try (XWPFDocument doc = new XWPFDocument(bos.toInputStream())) {
+            List<IBodyElement> elements = doc.getBodyElements();
+            assertEquals(505, elements.size());
+            assertEquals(500, doc.getParagraphs().size());
+            assertEquals(5, doc.getTables().size());
+            assertEquals("Paragraph 0", doc.getParagraphs().get(0).getText());
+            assertEquals("Heading1", doc.getParagraphs().get(0).getStyle());
+            assertEquals("Paragraph 499", doc.getParagraphs().get(499).getText());
+            assertTrue(elements.get(1) instanceof XWPFTable);
+            assertEquals("Cell 0", doc.getTables().get(0).getRow(1).getCell(1).getText());
+            assertEquals("Cell 400", doc.getTables().get(4).getRow(1).getCell(1).getText());
+        }
+    }
+
+    @Test
+    void testTemplateContentAndSection() throws IOException {
+        UnsynchronizedByteArrayOutputStream bos = new UnsynchronizedByteArrayOutputStream();
+        XWPFDocument template = new XWPFDocument();
+        template.createParagraph().createRun().setText("Title");
+        template.createHeader(HeaderFooterType.DEFAULT).createParagraph().createRun().setText("Header text");
+        assertNotNull(template.getDocument().getBody().getSectPr());
+
+        try (SXWPFDocument sdoc = new SXWPFDocument(template, 2)) {
+            for (int i = 0; i < 10; i++) {
+                sdoc.createParagraph().createRun().setText("Line " + i);
+            }
+            sdoc.write(bos);
+            // the section properties are restored in the template
+            assertNotNull(template.getDocument().getBody().getSectPr());
+            assertTrue(sdoc.dispose());
+        }
+
+        try (XWPFDocument doc = new XWPFDocument(bos.toInputStream())) {
+            assertEquals(11, doc.getParagraphs().size());
+            assertEquals("Title", doc.getParagraphs().get(0).getText());
+            assertEquals("Line 0", doc.getParagraphs().get(1).getText());
+            assertEquals("Line 9", doc.getParagraphs().get(10).getText());
+            assertNotNull(doc.getDocument().getBody().getSectPr());
+            assertEquals(1, doc.getHeaderList().size());
+            assertEquals("Header text\n", doc.getHeaderList().get(0).getText());
+        }
+    }
+
+    @Test
+    void testBodyWithCommentsAndAttributes() throws IOException {
+        UnsynchronizedByteArrayOutputStream bos = new UnsynchronizedByteArrayOutputStream();
+        XWPFDocument template = new XWPFDocument();
+        template.createParagraph().createRun().setText("Title");
+        XmlCursor cur = template.getDocument().getBody().newCursor();
+        try {
+            // a namespace declaration on the body and comments, which look like body tags
+            cur.toNextToken();
+            cur.insertAttributeWithValue(new QName("urn:poi-test", "attr", "t"), "value");
+            cur.insertComment("<w:body>");
+            cur.toEndToken();
+            cur.insertComment("</w:body>");
+        } finally {
+            cur.dispose();
+        }
+
+        try (SXWPFDocument sdoc = new SXWPFDocument(template, 1)) {
+            for (int i = 0; i < 5; i++) {
+                sdoc.createParagraph().createRun().setText("Line " + i);
+            }
+            sdoc.write(bos);
+            assertTrue(sdoc.dispose());
+        }
+
+        try (XWPFDocument doc = new XWPFDocument(bos.toInputStream())) {
+            assertEquals(6, doc.getParagraphs().size());
+            assertEquals("Title", doc.getParagraphs().get(0).getText());
+            assertEquals("Line 4", doc.getParagraphs().get(5).getText());
+
+            // the flushed paragraphs don't repeat the namespace declarations
+            String xml = new String(IOUtils.toByteArray(doc.getPackagePart().getInputStream()), StandardCharsets.UTF_8);
+            assertEquals(xml.indexOf("xmlns:w="), xml.lastIndexOf("xmlns:w="));
+        }
+    }
+
+    @Test
+    void testPictures() throws Exception {
+        byte[] jpeg;
+        try (InputStream is = POIDataSamples.getDocumentInstance().openResourceAsStream("abstract1.jpg")) {
+            jpeg = IOUtils.toByteArray(is);
+        }
+
+        UnsynchronizedByteArrayOutputStream bos = new UnsynchronizedByteArrayOutputStream();
+        try (SXWPFDocument sdoc = new SXWPFDocument(new XWPFDocument(), 1)) {
+            for (int i = 0; i < 3; i++) {
+                XWPFRun run = sdoc.createParagraph().createRun();
+                run.addPicture(new ByteArrayInputStream(jpeg), Document.PICTURE_TYPE_JPEG, "abstract1.jpg",
+                    Units.toEMU(100), Units.toEMU(100));
+            }
+            sdoc.write(bos);
+            sdoc.dispose();
+        }
+
+        try (XWPFDocument doc = new XWPFDocument(bos.toInputStream())) {
+            // the picture data is stored only once
+            assertEquals(1, doc.getAllPackagePictures().size());
+            for (XWPFParagraph p : doc.getParagraphs()) {
+                assertEquals(1, p.getRuns().get(0).getEmbeddedPictures().size());
+            }
+        }
+    }
+
+    @Test
+    void testInvalidWindowSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SXWPFDocument(new XWPFDocument(), 0));
+    }
+}
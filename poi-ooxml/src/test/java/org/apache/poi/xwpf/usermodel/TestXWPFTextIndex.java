@@ -0,0 +1,129 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xwpf.usermodel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.wp.usermodel.HeaderFooterType;
+import org.apache.poi.xwpf.XWPFTestDataSamples;
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFTextIndex.TextMatch;
+import org.junit.jupiter.api.Test;
+
+class TestXWPFTextIndex {
+
+    @Test
+    void testSearchAcrossRuns() throws IOException {
+        try (XWPFDocument doc = new XWPFDocument()) {
+            XWPFParagraph p = doc.createParagraph();
+            p.createRun().setText("Dear ${first");
+            XWPFRun bold = p.createRun();
+            bold.setBold(true);
+            bold.setText("Name}, ");
+            XWPFRun tab = p.createRun();
+            tab.addTab();
+            tab.setText("${last}");
+
+            XWPFTextIndex index = new XWPFTextIndex(doc);
+            assertEquals("Dear ${firstName}, \t${last}", index.getText(0));
+
+            List<TextMatch> matches = index.search("${firstName}");
+            assertEquals(1, matches.size());
+            TextMatch match = matches.get(0);
+            assertEquals(p, match.getParagraph());
+            assertEquals(5, match.getStart());
+            assertEquals(17, match.getEnd());
+            assertEquals(2, match.getRuns().size());
+            assertEquals(bold, match.getRuns().get(1));
+
+            // tabs separate the text
+            assertEquals(0, index.search(" ${last}").size());
+            assertEquals(1, index.search("${last}").size());
+            assertThrows(IllegalArgumentException.class, () -> index.search(""));
+        }
+    }
+
+    @Test
+    void testReplace() throws IOException {
+        try (XWPFDocument doc = new XWPFDocument()) {
+            XWPFParagraph p = doc.createParagraph();
+            p.createRun().setText("Dear ${first");
+            XWPFRun bold = p.createRun();
+            bold.setBold(true);
+            bold.setText("Name} ${lastName}, ${first}${firstName}");
+
+            XWPFTable table = doc.createTable(1, 2);
+            table.getRow(0).getCell(1).setText("${lastName}");
+            XWPFHeader header = doc.createHeader(HeaderFooterType.DEFAULT);
+            header.createParagraph().createRun().setText("To ${firstName}");
+
+            Map<String, String> values = new HashMap<>();
+            values.put("${first}", " ");
+            values.put("${firstName}", "John");
+            values.put("${lastName}", "Doe");
+            values.put("${unused}", "-");
+
+            XWPFTextIndex index = new XWPFTextIndex(doc);
+            assertEquals(6, index.replace(values));
+
+            assertEquals("Dear John Doe,  John", p.getText());
+            assertEquals("Dear John", p.getRuns().get(0).text());
+            assertEquals(" Doe,  John", bold.text());
+            assertTrue(bold.isBold());
+            assertEquals("Doe", table.getRow(0).getCell(1).getText());
+            assertEquals("To John\n", header.getText());
+
+            // the index is updated
+            assertEquals("Dear John Doe,  John", index.getText(0));
+            assertEquals(0, index.replace(values));
+            assertEquals(1, index.replace(Collections.singletonMap("John Doe", "Jane Roe")));
+            assertEquals("Dear Jane Roe,  John", p.getText());
+        }
+    }
+
+    @Test
+    void testReplaceInContentControls() throws IOException {
+        try (XWPFDocument doc = XWPFTestDataSamples.openSampleDocument("Bug54849.docx")) {
+            XWPFTextIndex index = new XWPFTextIndex(doc);
+            assertEquals(1, index.search("Rich_text_cell1").size());
+            assertEquals(1, index.search("Watermelon").size());
+
+            Map<String, String> values = new HashMap<>();
+            values.put("Rich_text_cell1", "Cell");
+            values.put("Watermelon", "Melon");
+            assertEquals(2, index.replace(values));
+
+            try (XWPFDocument doc2 = XWPFTestDataSamples.writeOutAndReadBack(doc);
+                 XWPFWordExtractor ex = new XWPFWordExtractor(doc2)) {
+                String text = ex.getText();
+                assertTrue(text.contains("Cell"));
+                assertTrue(text.contains("Melon"));
+                assertEquals(-1, text.indexOf("Watermelon"));
+                assertEquals(-1, text.indexOf("Rich_text_cell1"));
+            }
+        }
+    }
+}
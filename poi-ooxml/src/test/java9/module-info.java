@@ -34,8 +34,10 @@ module org.apache.poi.ooxml {
     provides org.apache.poi.sl.draw.ImageRenderer with org.apache.poi.xslf.draw.SVGImageRenderer;
 
     exports org.apache.poi.xwpf.extractor;
+    exports org.apache.poi.xwpf.eventusermodel;
     exports org.apache.poi.xwpf.usermodel;
     exports org.apache.poi.xwpf.model;
+    exports org.apache.poi.xwpf.streaming;
     exports org.apache.poi.xdgf.extractor;
     exports org.apache.poi.xdgf.exceptions;
     exports org.apache.poi.xdgf.usermodel;
@@ -161,8 +163,10 @@ module org.apache.poi.ooxml {
     opens org.apache.poi.xssf.usermodel.charts to org.junit.platform.commons;
     opens org.apache.poi.xwpf to org.junit.platform.commons;
     opens org.apache.poi.xwpf.extractor to org.junit.platform.commons;
+    opens org.apache.poi.xwpf.eventusermodel to org.junit.platform.commons;
     opens org.apache.poi.xwpf.usermodel to org.junit.platform.commons;
     opens org.apache.poi.xwpf.model to org.junit.platform.commons;
+    opens org.apache.poi.xwpf.streaming to org.junit.platform.commons;
     opens org.apache.poi.xdgf.extractor to org.junit.platform.commons;
     opens org.apache.poi.xdgf.exceptions to org.junit.platform.commons;
     opens org.apache.poi.xdgf.usermodel to org.junit.platform.commons;
@@ -25,7 +25,6 @@ import java.awt.RenderingHints;
 import java.awt.geom.Dimension2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
@@ -35,6 +34,7 @@ import org.apache.poi.hemf.usermodel.HemfPicture;
 import org.apache.poi.hwmf.draw.HwmfGraphicsState;
 import org.apache.poi.hwmf.draw.HwmfImageRenderer;
 import org.apache.poi.sl.draw.BitmapImageRenderer;
+import org.apache.poi.sl.draw.DecodedImageCache;
 import org.apache.poi.sl.draw.Drawable;
 import org.apache.poi.sl.draw.EmbeddedExtractor;
 import org.apache.poi.sl.draw.ImageRenderer;
@@ -46,18 +46,30 @@ public class HemfImageRenderer implements ImageRenderer, EmbeddedExtractor {
     HemfPicture image;
     double alpha;
     boolean charsetInitialized = false;
+    /** the shared cache of rasterized images, if the target is a bitmap */
+    private DecodedImageCache imageCache;
+    /** the image data, if it's rasterized via the image cache */
+    private byte[] imageData;
 
     @Override
     public boolean canRender(String contentType) {
         return PictureData.PictureType.EMF.contentType.equalsIgnoreCase(contentType);
     }
 
+    @Override
+    public void setTarget(Graphics2D graphics, Rectangle2D anchor) {
+        // only rasterize when rendering to a bitmap - vector outputs like PDF or SVG can be zoomed in
+        imageCache = (graphics == null || graphics.getRenderingHint(Drawable.BUFFERED_IMAGE) == null)
+            ? null : (DecodedImageCache)graphics.getRenderingHint(Drawable.IMAGE_CACHE);
+    }
+
     @Override
     public void loadImage(InputStream data, String contentType) throws IOException {
         if (!PictureData.PictureType.EMF.contentType.equals(contentType)) {
             throw new IOException("Invalid picture type");
         }
         image = new HemfPicture(data);
+        imageData = null;
     }
 
     @Override
@@ -65,7 +77,8 @@ public class HemfImageRenderer implements ImageRenderer, EmbeddedExtractor {
         if (!PictureData.PictureType.EMF.contentType.equals(contentType)) {
             throw new IOException("Invalid picture type");
         }
-        image = new HemfPicture(new ByteArrayInputStream(data));
+        image = new HemfPicture(data);
+        imageData = (imageCache != null) ? data : null;
     }
 
     @Override
@@ -122,7 +135,11 @@ public class HemfImageRenderer implements ImageRenderer, EmbeddedExtractor {
                 clip = new Insets(0, 0, 0, 0);
             }
 
-            image.draw(graphics, getOuterBounds(anchor, clip));
+            Rectangle2D outerBounds = getOuterBounds(anchor, clip);
+            if (imageData == null ||
+                !imageCache.drawRasterImage(graphics, outerBounds, imageData, image.getDefaultCharset(), image::draw)) {
+                image.draw(graphics, outerBounds);
+            }
         } finally {
             graphicsState.restore(graphics);
         }
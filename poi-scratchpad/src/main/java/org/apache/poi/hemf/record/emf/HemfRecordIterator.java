@@ -20,6 +20,7 @@ package org.apache.poi.hemf.record.emf;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Predicate;
 
 import org.apache.poi.util.LittleEndianConsts;
 import org.apache.poi.util.LittleEndianInputStream;
@@ -30,10 +31,23 @@ public class HemfRecordIterator implements Iterator<HemfRecord> {
     static final int HEADER_SIZE = 2*LittleEndianConsts.INT_SIZE;
 
     private final LittleEndianInputStream stream;
+    private final Predicate<HemfRecordType> filter;
     private HemfRecord currentRecord;
 
     public HemfRecordIterator(LittleEndianInputStream leis) {
+        this(leis, null);
+    }
+
+    /**
+     * Creates an iterator which only parses the records of the accepted types.
+     * The other records are skipped without being instantiated, apart from the EOF record.
+     *
+     * @param leis the stream positioned at the first record
+     * @param filter the accepted record types, {@code null} to accept all
+     */
+    public HemfRecordIterator(LittleEndianInputStream leis, Predicate<HemfRecordType> filter) {
         stream = leis;
+        this.filter = filter;
         //queue the first non-header record
         currentRecord = _next();
     }
@@ -58,21 +72,37 @@ public class HemfRecordIterator implements Iterator<HemfRecord> {
             return null;
         }
 
-        final int readIndex = stream.getReadIndex();
+        long recordId, recordSize;
+        HemfRecordType type;
+        for (;;) {
+            final int readIndex = stream.getReadIndex();
+
+            try {
+                recordId = stream.readUInt();
+                recordSize = stream.readUInt();
+            } catch (RuntimeException e) {
+                // EOF
+                return null;
+            }
 
-        final long recordId, recordSize;
-        try {
-            recordId = stream.readUInt();
-            recordSize = stream.readUInt();
-        } catch (RuntimeException e) {
-            // EOF
-            return null;
+            type = HemfRecordType.getById(recordId);
+            if (type == null) {
+                throw new RecordFormatException("Undefined record of type: "+recordId+" at "+Integer.toHexString(readIndex));
+            }
+            if (filter == null || type == HemfRecordType.eof || filter.test(type)) {
+                break;
+            }
+            long remBytes = recordSize - HEADER_SIZE;
+            if (remBytes < 0 || remBytes > Integer.MAX_VALUE) {
+                throw new RecordFormatException("Invalid record size "+recordSize+" at "+Integer.toHexString(readIndex));
+            }
+            try {
+                stream.skipFully((int)remBytes);
+            } catch (IOException|RuntimeException e) {
+                throw new RecordFormatException(e);
+            }
         }
 
-        HemfRecordType type = HemfRecordType.getById(recordId);
-        if (type == null) {
-            throw new RecordFormatException("Undefined record of type: "+recordId+" at "+Integer.toHexString(readIndex));
-        }
         final HemfRecord record = type.constructor.get();
 
         try {
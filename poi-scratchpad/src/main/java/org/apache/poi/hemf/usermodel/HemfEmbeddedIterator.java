@@ -54,7 +54,7 @@ public class HemfEmbeddedIterator implements Iterator<HwmfEmbedded> {
     private Object current;
 
     public HemfEmbeddedIterator(HemfPicture emf) {
-        this(emf.getRecords().iterator());
+        this(emf.recordIterator());
     }
 
     public HemfEmbeddedIterator(Iterator<HemfRecord> recordIterator) {
@@ -27,14 +27,17 @@ import java.awt.Shape;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Dimension2D;
 import java.awt.geom.Rectangle2D;
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Spliterator;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import org.apache.poi.common.usermodel.GenericRecord;
@@ -43,6 +46,7 @@ import org.apache.poi.hemf.record.emf.HemfComment;
 import org.apache.poi.hemf.record.emf.HemfHeader;
 import org.apache.poi.hemf.record.emf.HemfRecord;
 import org.apache.poi.hemf.record.emf.HemfRecordIterator;
+import org.apache.poi.hemf.record.emf.HemfRecordType;
 import org.apache.poi.hwmf.usermodel.HwmfCharsetAware;
 import org.apache.poi.hwmf.usermodel.HwmfEmbedded;
 import org.apache.poi.sl.draw.Drawable;
@@ -57,9 +61,19 @@ import org.apache.poi.util.Units;
  */
 @Internal
 public class HemfPicture implements Iterable<HemfRecord>, GenericRecord {
+    /** the record types which are evaluated by {@link #getInnerBounds(Rectangle2D, Rectangle2D)} */
+    private static final EnumSet<HemfRecordType> BOUNDS_TYPES = EnumSet.of(
+        HemfRecordType.header, HemfRecordType.comment,
+        HemfRecordType.setWindowExtEx, HemfRecordType.setWindowOrgEx,
+        HemfRecordType.setViewportExtEx, HemfRecordType.setViewportOrgEx,
+        HemfRecordType.scaleViewportExtEx, HemfRecordType.scaleWindowExtEx
+    );
+
     private final LittleEndianInputStream stream;
+    private final byte[] data;
     private final List<HemfRecord> records = new ArrayList<>();
     private boolean isParsed = false;
+    private HemfHeader header;
     private Charset defaultCharset = LocaleUtil.CHARSET_1252;
 
     public HemfPicture(InputStream is) {
@@ -68,10 +82,33 @@ public class HemfPicture implements Iterable<HemfRecord>, GenericRecord {
 
     public HemfPicture(LittleEndianInputStream is) {
         stream = is;
+        data = null;
+    }
+
+    /**
+     * Creates a picture, which parses the records on demand.<p>
+     *
+     * In contrast to the stream based constructors, the records are only kept when {@link #getRecords()}
+     * is called - drawing the picture, calculating its bounds or iterating via {@link #recordIterator()}
+     * parse the records again for each pass.
+     *
+     * @param data the emf data
+     *
+     * @since POI 5.0.1
+     */
+    public HemfPicture(byte[] data) {
+        stream = null;
+        this.data = data;
     }
 
     public HemfHeader getHeader() {
-        return (HemfHeader)getRecords().get(0);
+        if (isParsed || data == null) {
+            return (HemfHeader)getRecords().get(0);
+        }
+        if (header == null) {
+            header = (HemfHeader)new HemfRecordIterator(newStream(), HemfRecordType.header::equals).next();
+        }
+        return header;
     }
 
     public List<HemfRecord> getRecords() {
@@ -80,7 +117,7 @@ public class HemfPicture implements Iterable<HemfRecord>, GenericRecord {
             // records up to that point
             isParsed = true;
             HemfHeader[] header = new HemfHeader[1];
-            new HemfRecordIterator(stream).forEachRemaining(r -> {
+            new HemfRecordIterator(data == null ? stream : newStream()).forEachRemaining(r -> {
                 if (r instanceof HemfHeader) {
                     header[0] = (HemfHeader) r;
                 }
@@ -94,6 +131,47 @@ public class HemfPicture implements Iterable<HemfRecord>, GenericRecord {
         return records;
     }
 
+    /**
+     * Returns an iterator over the records. If the picture was created from a byte array and
+     * {@link #getRecords()} hasn't been called yet, the records are parsed while iterating and
+     * aren't kept afterwards, otherwise this is the iterator of the parsed records.
+     *
+     * @return the record iterator
+     *
+     * @since POI 5.0.1
+     */
+    public Iterator<HemfRecord> recordIterator() {
+        return recordIterator(null);
+    }
+
+    private Iterator<HemfRecord> recordIterator(Predicate<HemfRecordType> filter) {
+        if (isParsed || data == null) {
+            return getRecords().iterator();
+        }
+        final HemfHeader hdr = getHeader();
+        final Iterator<HemfRecord> iter = new HemfRecordIterator(newStream(), filter);
+        return new Iterator<HemfRecord>() {
+            @Override
+            public boolean hasNext() {
+                return iter.hasNext();
+            }
+
+            @Override
+            public HemfRecord next() {
+                HemfRecord r = iter.next();
+                r.setHeader(hdr);
+                if (r instanceof HwmfCharsetAware) {
+                    ((HwmfCharsetAware)r).setCharsetProvider(HemfPicture.this::getDefaultCharset);
+                }
+                return r;
+            }
+        };
+    }
+
+    private LittleEndianInputStream newStream() {
+        return new LittleEndianInputStream(new ByteArrayInputStream(data));
+    }
+
     @Override
     public Iterator<HemfRecord> iterator() {
         return getRecords().iterator();
@@ -129,7 +207,9 @@ public class HemfPicture implements Iterable<HemfRecord>, GenericRecord {
 
     public void getInnerBounds(Rectangle2D window, Rectangle2D viewport) {
         HemfGraphics.EmfRenderState[] renderState = { HemfGraphics.EmfRenderState.INITIAL };
-        for (HemfRecord r : getRecords()) {
+        // only the windowing records are needed, the others are skipped when streaming
+        for (Iterator<HemfRecord> iter = recordIterator(BOUNDS_TYPES::contains); iter.hasNext(); ) {
+            HemfRecord r = iter.next();
             if (
                 (renderState[0] == EMF_ONLY && r instanceof HemfComment.EmfComment) ||
                 (renderState[0] == EMFPLUS_ONLY && !(r instanceof HemfComment.EmfComment))
@@ -198,7 +278,8 @@ public class HemfPicture implements Iterable<HemfRecord>, GenericRecord {
             HemfGraphics g = new HemfGraphics(ctx, b);
 
             int idx=0;
-            for (HemfRecord r : getRecords()) {
+            for (Iterator<HemfRecord> iter = recordIterator(); iter.hasNext(); ) {
+                HemfRecord r = iter.next();
                 try {
                     g.draw(r);
                 } catch (RuntimeException ignored) {
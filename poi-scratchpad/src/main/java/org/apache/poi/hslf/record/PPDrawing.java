@@ -46,6 +46,7 @@ import org.apache.poi.ddf.EscherSpgrRecord;
 import org.apache.poi.ddf.EscherTextboxRecord;
 import org.apache.poi.sl.usermodel.ShapeType;
 import org.apache.poi.util.GenericRecordUtil;
+import org.apache.poi.util.Internal;
 import org.apache.poi.util.LittleEndian;
 
 /**
@@ -54,6 +55,9 @@ import org.apache.poi.util.LittleEndian;
  * For now, creates a tree of the Escher records, and then creates any
  *  PowerPoint (hslf) records found within the EscherTextboxRecord
  *  (msofbtClientTextbox) records.
+ * The tree is only built, when the drawing is accessed the first time -
+ *  until then, the record keeps a reference to the source bytes and
+ *  writes them unchanged.
  * Also provides easy access to the EscherTextboxRecords, so that their
  *  text may be extracted and used in Sheets.
  * <p>
@@ -74,11 +78,19 @@ public final class PPDrawing extends RecordAtom implements Iterable<EscherRecord
     //cached EscherDgRecord
     private EscherDgRecord dg;
 
+    // the unparsed record data - reset to null after the escher records have been built
+    private byte[] _source;
+    private int _start;
+    private int _len;
+
     /**
      * Get access to the underlying Escher Records
      */
     @SuppressWarnings("WeakerAccess")
-    public List<EscherRecord> getEscherRecords() { return Collections.singletonList(dgContainer); }
+    public List<EscherRecord> getEscherRecords() {
+        parseEscherRecords();
+        return Collections.singletonList(dgContainer);
+    }
 
     @Override
     public Iterator<EscherRecord> iterator() {
@@ -88,7 +100,10 @@ public final class PPDrawing extends RecordAtom implements Iterable<EscherRecord
     /**
      * Get access to the atoms inside Textboxes
      */
-    public EscherTextboxWrapper[] getTextboxWrappers() { return textboxWrappers; }
+    public EscherTextboxWrapper[] getTextboxWrappers() {
+        parseEscherRecords();
+        return textboxWrappers;
+    }
 
 
     /* ******************** record stuff follows ********************** */
@@ -108,7 +123,7 @@ public final class PPDrawing extends RecordAtom implements Iterable<EscherRecord
     }
 
     /**
-     * Sets everything up, groks the escher etc
+     * Sets everything up - the escher records are grokked on first access
      */
     PPDrawing(byte[] source, int start, int len) {
         // Get the header
@@ -117,9 +132,32 @@ public final class PPDrawing extends RecordAtom implements Iterable<EscherRecord
         // Get the type
         _type = LittleEndian.getUShort(_header,2);
 
+        _source = source;
+        _start = start;
+        _len = len;
+    }
+
+    /**
+     * @return {@code true}, if the escher records have been built from the record data
+     */
+    @Internal
+    public boolean isEscherParsed() {
+        return _source == null;
+    }
+
+    /**
+     * Builds up the tree of Escher records, if it hasn't been done yet
+     */
+    private void parseEscherRecords() {
+        if (_source == null) {
+            return;
+        }
+        final byte[] source = _source;
+        _source = null;
+
         // Build up a tree of Escher records contained within
         final DefaultEscherRecordFactory erf = new HSLFEscherRecordFactory();
-        dgContainer.fillFields(source, start + 8, erf);
+        dgContainer.fillFields(source, _start + 8, erf);
         assert dgContainer.getRecordId() == EscherRecordTypes.DG_CONTAINER.typeID;
         dg = dgContainer.getChildById(EscherRecordTypes.DG.typeID);
 
@@ -188,6 +226,15 @@ public final class PPDrawing extends RecordAtom implements Iterable<EscherRecord
      * Walks the escher layer to get the contents
      */
     public void writeOut(OutputStream out) throws IOException {
+        if (_source != null && _start + _len <= _source.length) {
+            // the drawing hasn't been touched, so the source bytes are still valid
+            out.write(_header);
+            out.write(_source, _start + 8, _len - 8);
+            return;
+        }
+
+        parseEscherRecords();
+
         // Ensure the escher layer reflects the text changes
         for (EscherTextboxWrapper w : textboxWrappers) {
             w.writeOut(null);
@@ -270,6 +317,7 @@ public final class PPDrawing extends RecordAtom implements Iterable<EscherRecord
      * Add a new EscherTextboxWrapper to this <code>PPDrawing</code>.
      */
     public void addTextboxWrapper(EscherTextboxWrapper txtbox){
+        parseEscherRecords();
         EscherTextboxWrapper[] tw = new EscherTextboxWrapper[textboxWrappers.length + 1];
         System.arraycopy(textboxWrappers, 0, tw, 0, textboxWrappers.length);
 
@@ -282,6 +330,7 @@ public final class PPDrawing extends RecordAtom implements Iterable<EscherRecord
      * @since POI 3.14-Beta2
      */
     public EscherContainerRecord getDgContainer() {
+        parseEscherRecords();
         return dgContainer;
     }
 
@@ -291,10 +340,12 @@ public final class PPDrawing extends RecordAtom implements Iterable<EscherRecord
      * @return EscherDgRecord
      */
     public EscherDgRecord getEscherDgRecord(){
+        parseEscherRecords();
         return dg;
     }
 
     public StyleTextProp9Atom[] getNumberedListInfo() {
+        parseEscherRecords();
         return Stream.of(dgContainer).
                     flatMap(findEscherContainer(EscherRecordTypes.SPGR_CONTAINER)).
                     flatMap(findEscherContainer(EscherRecordTypes.SP_CONTAINER)).
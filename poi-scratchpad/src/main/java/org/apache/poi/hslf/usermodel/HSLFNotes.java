@@ -37,6 +37,8 @@ public final class HSLFNotes extends HSLFSheet implements Notes<HSLFShape,HSLFTe
     private static final Logger LOG = LogManager.getLogger(HSLFNotes.class);
 
     private final List<List<HSLFTextParagraph>> _paragraphs = new ArrayList<>();
+    /** whether the text of the PPDrawing has been added to the paragraphs */
+    private boolean _drawingTextFound;
 
     /**
      * Constructs a Notes Sheet from the given Notes record.
@@ -47,16 +49,9 @@ public final class HSLFNotes extends HSLFSheet implements Notes<HSLFShape,HSLFTe
     public HSLFNotes(org.apache.poi.hslf.record.Notes notes) {
         super(notes, notes.getNotesAtom().getSlideID());
 
-        // Now, build up TextRuns from pairs of TextHeaderAtom and
+        // The TextRuns are built up on first access from pairs of TextHeaderAtom and
         // one of TextBytesAtom or TextCharsAtom, found inside
         // EscherTextboxWrapper's in the PPDrawing
-        for (List<HSLFTextParagraph> l : HSLFTextParagraph.findTextParagraphs(getPPDrawing(), this)) {
-            if (!_paragraphs.contains(l)) _paragraphs.add(l);
-        }
-
-        if (_paragraphs.isEmpty()) {
-            LOG.atWarn().log("No text records found for notes sheet");
-        }
     }
 
     /**
@@ -64,6 +59,19 @@ public final class HSLFNotes extends HSLFSheet implements Notes<HSLFShape,HSLFTe
      */
     @Override
     public List<List<HSLFTextParagraph>> getTextParagraphs() {
+        if (!_drawingTextFound) {
+            _drawingTextFound = true;
+            addDrawingTextParagraphs(_paragraphs);
+
+            if (_paragraphs.isEmpty()) {
+                LOG.atWarn().log("No text records found for notes sheet");
+            }
+        }
+        return _paragraphs;
+    }
+
+    @Override
+    protected List<List<HSLFTextParagraph>> getLoadedTextParagraphs() {
         return _paragraphs;
     }
 
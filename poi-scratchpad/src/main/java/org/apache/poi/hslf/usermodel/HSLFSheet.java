@@ -129,7 +129,7 @@ public abstract class HSLFSheet implements HSLFShapeContainer, Sheet<HSLFShape,H
         }
 
         _slideShow = ss;
-        List<List<HSLFTextParagraph>> trs = getTextParagraphs();
+        List<List<HSLFTextParagraph>> trs = getLoadedTextParagraphs();
         if (trs == null) {
             return;
         }
@@ -139,6 +139,33 @@ public abstract class HSLFSheet implements HSLFShapeContainer, Sheet<HSLFShape,H
         }
     }
 
+    /**
+     * @return the text paragraphs, which have been found so far. Sheets, which find the text of
+     *  their PPDrawing lazily, don't parse its escher records for this.
+     */
+    @Internal
+    protected List<List<HSLFTextParagraph>> getLoadedTextParagraphs() {
+        return getTextParagraphs();
+    }
+
+    /**
+     * Adds the text paragraphs of the PPDrawing, which aren't already contained in the list.
+     * This parses the escher records of the drawing, so the sheets do it on first access of the text.
+     */
+    @Internal
+    protected void addDrawingTextParagraphs(List<List<HSLFTextParagraph>> paragraphs) {
+        for (List<HSLFTextParagraph> l : HSLFTextParagraph.findTextParagraphs(getPPDrawing(), this)) {
+            if (paragraphs.contains(l)) {
+                continue;
+            }
+            paragraphs.add(l);
+            if (_slideShow != null) {
+                HSLFTextParagraph.supplySheet(l, this);
+                HSLFTextParagraph.applyHyperlinks(l);
+            }
+        }
+    }
+
 
     /**
      * Returns all shapes contained in this Sheet
@@ -59,6 +59,8 @@ public final class HSLFSlide extends HSLFSheet implements Slide<HSLFShape,HSLFTe
     private int _slideNo;
     private SlideAtomsSet _atomSet;
     private final List<List<HSLFTextParagraph>> _paragraphs = new ArrayList<>();
+    /** whether the text of the PPDrawing has been added to the paragraphs */
+    private boolean _drawingTextFound;
     private HSLFNotes _notes; // usermodel needs to set this
 
     /**
@@ -88,12 +90,7 @@ public final class HSLFSlide extends HSLFSheet implements Slide<HSLFShape,HSLFTe
             }
         }
 
-        // Grab text from slide's PPDrawing
-        for (List<HSLFTextParagraph> l : HSLFTextParagraph.findTextParagraphs(getPPDrawing(), this)) {
-            if (!_paragraphs.contains(l)) {
-                _paragraphs.add(l);
-            }
-        }
+        // the text of the slide's PPDrawing is grabbed on first access
     }
 
     /**
@@ -104,6 +101,7 @@ public final class HSLFSlide extends HSLFSheet implements Slide<HSLFShape,HSLFTe
     public HSLFSlide(int sheetNumber, int sheetRefId, int slideNumber){
         super(new org.apache.poi.hslf.record.Slide(), sheetNumber);
         _slideNo = slideNumber;
+        _drawingTextFound = true;
         getSheetContainer().setSheetId(sheetRefId);
     }
 
@@ -240,7 +238,18 @@ public final class HSLFSlide extends HSLFSheet implements Slide<HSLFShape,HSLFTe
      * Returns an array of all the TextRuns found
      */
     @Override
-    public List<List<HSLFTextParagraph>> getTextParagraphs() { return _paragraphs; }
+    public List<List<HSLFTextParagraph>> getTextParagraphs() {
+        if (!_drawingTextFound) {
+            _drawingTextFound = true;
+            addDrawingTextParagraphs(_paragraphs);
+        }
+        return _paragraphs;
+    }
+
+    @Override
+    protected List<List<HSLFTextParagraph>> getLoadedTextParagraphs() {
+        return _paragraphs;
+    }
 
     /**
      * Returns the (public facing) page number of this slide
@@ -433,7 +442,7 @@ public final class HSLFSlide extends HSLFSheet implements Slide<HSLFShape,HSLFTe
     @Override
     protected void onAddTextShape(HSLFTextShape shape) {
         List<HSLFTextParagraph> newParas = shape.getTextParagraphs();
-        _paragraphs.add(newParas);
+        getTextParagraphs().add(newParas);
     }
 
     /** This will return an atom per TextBox, so if the page has two text boxes the method should return two atoms. */
@@ -36,6 +36,8 @@ import org.apache.poi.util.Internal;
  */
 public final class HSLFSlideMaster extends HSLFMasterSheet {
     private final List<List<HSLFTextParagraph>> _paragraphs = new ArrayList<>();
+    /** whether the text of the PPDrawing has been added to the paragraphs */
+    private boolean _drawingTextFound;
 
     /**
      * all TxMasterStyleAtoms available in this master
@@ -48,12 +50,6 @@ public final class HSLFSlideMaster extends HSLFMasterSheet {
      */
     public HSLFSlideMaster(MainMaster record, int sheetNo) {
         super(record, sheetNo);
-
-        for (List<HSLFTextParagraph> l : HSLFTextParagraph.findTextParagraphs(getPPDrawing(), this)) {
-            if (!_paragraphs.contains(l)) {
-                _paragraphs.add(l);
-            }
-        }
     }
 
     /**
@@ -61,6 +57,15 @@ public final class HSLFSlideMaster extends HSLFMasterSheet {
      */
     @Override
     public List<List<HSLFTextParagraph>> getTextParagraphs() {
+        if (!_drawingTextFound) {
+            _drawingTextFound = true;
+            addDrawingTextParagraphs(_paragraphs);
+        }
+        return _paragraphs;
+    }
+
+    @Override
+    protected List<List<HSLFTextParagraph>> getLoadedTextParagraphs() {
         return _paragraphs;
     }
 
@@ -176,7 +181,7 @@ public final class HSLFSlideMaster extends HSLFMasterSheet {
     @Override
     protected void onAddTextShape(HSLFTextShape shape) {
         List<HSLFTextParagraph> runs = shape.getTextParagraphs();
-        _paragraphs.add(runs);
+        getTextParagraphs().add(runs);
     }
 
     public TxMasterStyleAtom[] getTxMasterStyleAtoms(){
@@ -452,9 +452,12 @@ public final class HSLFSlideShow extends POIDocument implements SlideShow<HSLFSh
 
     @Override
     public void write(OutputStream out) throws IOException {
-        // check for text paragraph modifications
+        // check for text paragraph modifications - the text of a slide can only be modified,
+        // after the escher records of its drawing have been parsed
         for (HSLFSlide sl : getSlides()) {
-            writeDirtyParagraphs(sl);
+            if (sl.getPPDrawing().isEscherParsed()) {
+                writeDirtyParagraphs(sl);
+            }
         }
 
         for (HSLFSlideMaster sl : getSlideMasters()) {
@@ -207,6 +207,9 @@ implements TextShape<HSLFShape,HSLFTextParagraph> {
             getSpContainer().addChildRecord(thisTxtbox.getEscherRecord());
 
             PPDrawing ppdrawing = sh.getPPDrawing();
+            // the sheet finds the text of its drawing lazily - it needs to happen before
+            // the new textbox is added, otherwise its text would be listed twice
+            sh.getTextParagraphs();
             ppdrawing.addTextboxWrapper(thisTxtbox);
             // Ensure the escher layer knows about the added records
             try {
@@ -28,6 +28,8 @@ import org.apache.poi.hslf.record.SlideAtom;
  */
 public final class HSLFTitleMaster extends HSLFMasterSheet {
     private final List<List<HSLFTextParagraph>> _paragraphs = new ArrayList<>();
+    /** whether the text of the PPDrawing has been added to the paragraphs */
+    private boolean _drawingTextFound;
 
     /**
      * Constructs a TitleMaster
@@ -35,12 +37,6 @@ public final class HSLFTitleMaster extends HSLFMasterSheet {
      */
     public HSLFTitleMaster(org.apache.poi.hslf.record.Slide record, int sheetNo) {
         super(record, sheetNo);
-
-        for (List<HSLFTextParagraph> l : HSLFTextParagraph.findTextParagraphs(getPPDrawing(), this)) {
-            if (!_paragraphs.contains(l)) {
-                _paragraphs.add(l);
-            }
-        }
     }
 
     /**
@@ -48,6 +44,15 @@ public final class HSLFTitleMaster extends HSLFMasterSheet {
      */
     @Override
     public List<List<HSLFTextParagraph>> getTextParagraphs() {
+        if (!_drawingTextFound) {
+            _drawingTextFound = true;
+            addDrawingTextParagraphs(_paragraphs);
+        }
+        return _paragraphs;
+    }
+
+    @Override
+    protected List<List<HSLFTextParagraph>> getLoadedTextParagraphs() {
         return _paragraphs;
     }
 
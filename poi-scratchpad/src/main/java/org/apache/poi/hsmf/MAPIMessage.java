@@ -146,10 +146,29 @@ public class MAPIMessage extends POIReadOnlyDocument {
     * @exception IOException on errors reading, or invalid data
     */
    public MAPIMessage(DirectoryNode poifsDir) throws IOException {
+      this(poifsDir, false);
+   }
+
+   /**
+    * Constructor for reading MSG Files from a certain
+    *  point within a POIFS filesystem
+    *
+    * <p>With deferred chunks, only the properties are read upfront - the binary and
+    *  string chunks, e.g. the bodies and attachment data, are read from the filesystem
+    *  when they are accessed. So the filesystem must not be closed before the
+    *  message has been processed.
+    *
+    * @param poifsDir Directory containing the message
+    * @param deferChunks if {@code true}, the chunk data is read on first access
+    * @exception IOException on errors reading, or invalid data
+    *
+    * @since POI 5.0.1
+    */
+   public MAPIMessage(DirectoryNode poifsDir, boolean deferChunks) throws IOException {
       super(poifsDir);
 
       // Grab all the chunks
-      ChunkGroup[] chunkGroups = POIFSChunkParser.parse(poifsDir);
+      ChunkGroup[] chunkGroups = POIFSChunkParser.parse(poifsDir, deferChunks);
 
       // Grab interesting bits
       ArrayList<AttachmentChunks> attachments = new ArrayList<>();
@@ -24,7 +24,10 @@ import static org.apache.poi.hsmf.datatypes.MAPIProperty.ATTACH_LONG_FILENAME;
 import static org.apache.poi.hsmf.datatypes.MAPIProperty.ATTACH_MIME_TAG;
 import static org.apache.poi.hsmf.datatypes.MAPIProperty.ATTACH_RENDERING;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -33,6 +36,7 @@ import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.hsmf.MAPIMessage;
+import org.apache.poi.util.IOUtils;
 
 /**
  * Collection of convenience chunks for standard parts of the MSG file
@@ -97,6 +101,42 @@ public class AttachmentChunks implements ChunkGroup {
         return null;
     }
 
+    /**
+     * Opens a stream of the attachment data. The data of attachments, which are linked to
+     * their document, is read from the filesystem instead of being loaded into memory.
+     *
+     * @return the stream of the attachment data - the caller needs to close it -
+     *  or {@code null}, if the attachment has no data, e.g. if it's an embedded message
+     *
+     * @since POI 5.0.1
+     */
+    public InputStream getAttachDataStream() throws IOException {
+        if (attachData instanceof ByteChunkDeferred) {
+            return ((ByteChunkDeferred) attachData).getValueStream();
+        }
+        byte[] data = (attachData == null) ? null : attachData.getValue();
+        return (data == null) ? null : new ByteArrayInputStream(data);
+    }
+
+    /**
+     * Writes the attachment data to the given stream without loading it into memory,
+     * if the attachment is linked to its document
+     *
+     * @param out the stream to write the data to
+     * @return {@code true}, if the attachment has data, otherwise nothing is written
+     *
+     * @since POI 5.0.1
+     */
+    public boolean writeAttachData(OutputStream out) throws IOException {
+        try (InputStream is = getAttachDataStream()) {
+            if (is == null) {
+                return false;
+            }
+            IOUtils.copy(is, out);
+            return true;
+        }
+    }
+
     public Chunk[] getAll() {
         return allChunks.toArray(new Chunk[0]);
     }
@@ -17,6 +17,7 @@
 
 package org.apache.poi.hsmf.datatypes;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -94,6 +95,22 @@ public class ByteChunkDeferred extends ByteChunk {
         super.setValue(value);
     }
 
+    /**
+     * Opens a stream of the bytes, which is read from the document, if the chunk is linked,
+     * instead of loading the whole value into memory
+     *
+     * @return the stream of the bytes - the caller needs to close it
+     *
+     * @since POI 5.0.1
+     */
+    public InputStream getValueStream() throws IOException {
+        if (node == null) {
+            byte[] value = super.getValue();
+            return new ByteArrayInputStream(value == null ? new byte[0] : value);
+        }
+        return createDocumentInputStream();
+    }
+
     private DocumentInputStream createDocumentInputStream() throws IOException {
         return ((DirectoryNode) node.getParent()).createDocumentInputStream(node);
     }
@@ -66,7 +66,7 @@ public class StringChunk extends Chunk {
         this.encoding7Bit = encoding;
 
         // Re-read the String if we're a 7 bit one
-        if (getType() == Types.ASCII_STRING) {
+        if (getType() == Types.ASCII_STRING && rawValue != null) {
             parseString();
         }
     }
@@ -0,0 +1,110 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hsmf.datatypes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.hsmf.datatypes.Types.MAPIType;
+import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.poi.poifs.filesystem.DocumentInputStream;
+import org.apache.poi.poifs.filesystem.DocumentNode;
+
+/**
+ * A Chunk that either acts as {@link StringChunk} (if not initialized with a node) or
+ * lazy loads its string from the document (if linked with a node via {@link #readValue(DocumentNode)}).
+ * In contrast to {@link ByteChunkDeferred}, the string is kept after it has been loaded.
+ *
+ * @since POI 5.0.1
+ */
+public class StringChunkDeferred extends StringChunk {
+    private static final Logger LOG = LogManager.getLogger(StringChunkDeferred.class);
+
+    private DocumentNode node;
+
+    /**
+     * Creates a String Chunk, with the specified type.
+     */
+    public StringChunkDeferred(String namePrefix, int chunkId, MAPIType type) {
+        super(namePrefix, chunkId, type);
+    }
+
+    /**
+     * Links the chunk to a document
+     * @param node the document node
+     */
+    public void readValue(DocumentNode node) {
+        this.node = node;
+    }
+
+    @Override
+    public void readValue(InputStream value) throws IOException {
+        if (node == null) {
+            super.readValue(value);
+        }
+    }
+
+    @Override
+    public void writeValue(OutputStream out) throws IOException {
+        load();
+        super.writeValue(out);
+    }
+
+    @Override
+    public String getValue() {
+        load();
+        return super.getValue();
+    }
+
+    @Override
+    public byte[] getRawValue() {
+        load();
+        return super.getRawValue();
+    }
+
+    /**
+     * Set the string directly - the link to the document is removed
+     */
+    @Override
+    public void setValue(String str) {
+        node = null;
+        super.setValue(str);
+    }
+
+    @Override
+    public String toString() {
+        load();
+        return super.toString();
+    }
+
+    private void load() {
+        if (node == null) {
+            return;
+        }
+        final DocumentNode dn = node;
+        node = null;
+        try (DocumentInputStream dis = ((DirectoryNode) dn.getParent()).createDocumentInputStream(dn)) {
+            super.readValue(dis);
+        } catch (IOException e) {
+            LOG.atError().withThrowable(e).log("Error reading from part {}", dn.getName());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hsmf.extractor;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.poi.hsmf.MAPIMessage;
+import org.apache.poi.hsmf.datatypes.AttachmentChunks;
+import org.apache.poi.hsmf.datatypes.DirectoryChunk;
+
+/**
+ * Walks recursively through a message, its attachments and the embedded messages.<p>
+ *
+ * Embedded messages are opened with deferred chunks (see {@link MAPIMessage#MAPIMessage(org.apache.poi.poifs.filesystem.DirectoryNode, boolean)})
+ * and the attachment data is passed as stream, so only the properties of the messages
+ * and attachments on the current path are kept in memory, independent of the attachment sizes.
+ *
+ * @since POI 5.0.1
+ */
+public class MAPIMessageWalker {
+
+    /**
+     * Receives the messages and attachments found by the walker
+     */
+    public interface MessageVisitor {
+        /**
+         * Called for the message itself and for each embedded message, before its attachments are visited
+         *
+         * @param message the message
+         * @param parent the attachment containing the message, or {@code null} for the top level message
+         * @param depth the nesting level, the top level message has depth 0
+         * @return {@code true}, if the attachments of the message should be visited
+         */
+        default boolean visitMessage(MAPIMessage message, AttachmentChunks parent, int depth) throws IOException {
+            return true;
+        }
+
+        /**
+         * Called for each attachment, which isn't an embedded message
+         *
+         * @param message the message containing the attachment
+         * @param attachment the attachment metadata, e.g. file name and mime type
+         * @param data the attachment data, which is only valid during the call, or {@code null} if there's no data
+         * @param depth the nesting level of the containing message
+         */
+        void visitAttachment(MAPIMessage message, AttachmentChunks attachment, InputStream data, int depth) throws IOException;
+    }
+
+    private int maxDepth = 10;
+
+    /**
+     * Sets the maximum nesting level of embedded messages, deeper messages are skipped. Defaults to 10.
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Walks through the message and its embedded messages
+     *
+     * @param message the top level message
+     * @param visitor the visitor receiving the messages and attachments
+     */
+    public void walk(MAPIMessage message, MessageVisitor visitor) throws IOException {
+        walk(message, null, 0, visitor);
+    }
+
+    private void walk(MAPIMessage message, AttachmentChunks parent, int depth, MessageVisitor visitor) throws IOException {
+        if (!visitor.visitMessage(message, parent, depth)) {
+            return;
+        }
+
+        for (AttachmentChunks attachment : message.getAttachmentFiles()) {
+            DirectoryChunk dir = attachment.getAttachmentDirectory();
+            if (dir == null) {
+                try (InputStream data = attachment.getAttachDataStream()) {
+                    visitor.visitAttachment(message, attachment, data, depth);
+                }
+            } else if (depth < maxDepth) {
+                // the embedded message shares the filesystem of its parent, so it must not be closed
+                MAPIMessage embedded = new MAPIMessage(dir.getDirectory(), true);
+                walk(embedded, attachment, depth + 1, visitor);
+            }
+        }
+    }
+}
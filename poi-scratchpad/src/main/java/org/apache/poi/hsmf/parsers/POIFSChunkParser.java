@@ -41,6 +41,7 @@ import org.apache.poi.hsmf.datatypes.PropertiesChunk;
 import org.apache.poi.hsmf.datatypes.RecipientChunks;
 import org.apache.poi.hsmf.datatypes.StoragePropertiesChunk;
 import org.apache.poi.hsmf.datatypes.StringChunk;
+import org.apache.poi.hsmf.datatypes.StringChunkDeferred;
 import org.apache.poi.hsmf.datatypes.Types;
 import org.apache.poi.hsmf.datatypes.Types.MAPIType;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
@@ -64,6 +65,21 @@ public final class POIFSChunkParser {
     }
 
     public static ChunkGroup[] parse(DirectoryNode node) {
+        return parse(node, false);
+    }
+
+    /**
+     * Processes the chunks of a message
+     *
+     * @param node the directory of the message
+     * @param deferred if {@code true}, the binary and string chunks are only linked to their document
+     *  entries and read on first access, i.e. the filesystem needs to stay open while the chunks are used.
+     *  Otherwise all chunks are read immediately.
+     * @return the chunk groups of the message
+     *
+     * @since POI 5.0.1
+     */
+    public static ChunkGroup[] parse(DirectoryNode node, boolean deferred) {
         Chunks mainChunks = new Chunks();
 
         ArrayList<ChunkGroup> groups = new ArrayList<>();
@@ -89,14 +105,14 @@ public final class POIFSChunkParser {
                 }
 
                 if (group != null) {
-                    processChunks(dir, group);
+                    processChunks(dir, group, deferred);
                     groups.add(group);
                 }
             }
         }
 
         // Now do the top level chunks
-        processChunks(node, mainChunks);
+        processChunks(node, mainChunks, deferred);
 
         // All chunks are now processed, have the ChunkGroup
         // match up variable-length properties and their chunks
@@ -112,13 +128,13 @@ public final class POIFSChunkParser {
      * Creates all the chunks for a given Directory, but
      * doesn't recurse or descend
      */
-    private static void processChunks(DirectoryNode node, ChunkGroup grouping) {
+    private static void processChunks(DirectoryNode node, ChunkGroup grouping, boolean deferred) {
         final Map<Integer, MultiChunk> multiChunks = new TreeMap<>();
 
         for (Entry entry : node) {
             if (entry instanceof DocumentNode ||
                 (entry instanceof DirectoryNode && entry.getName().endsWith(Types.DIRECTORY.asFileEnding()))) {
-                process(entry, grouping, multiChunks);
+                process(entry, grouping, multiChunks, deferred);
             }
         }
 
@@ -132,14 +148,14 @@ public final class POIFSChunkParser {
     /**
      * Creates a chunk, and gives it to its parent group
      */
-    private static void process(Entry entry, ChunkGroup grouping, Map<Integer, MultiChunk> multiChunks) {
+    private static void process(Entry entry, ChunkGroup grouping, Map<Integer, MultiChunk> multiChunks, boolean deferred) {
         final String entryName = entry.getName();
         boolean[] isMultiValued = { false };
 
         // Is it a properties chunk? (They have special names)
         Chunk chunk = (PropertiesChunk.NAME.equals(entryName))
             ? readPropertiesChunk(grouping, entry)
-            : readPrimitiveChunk(entry, isMultiValued, multiChunks);
+            : readPrimitiveChunk(entry, isMultiValued, multiChunks, deferred);
 
         if (chunk == null) {
             return;
@@ -170,7 +186,7 @@ public final class POIFSChunkParser {
         }
     }
 
-    private static Chunk readPrimitiveChunk(Entry entry, boolean[] isMultiValue, Map<Integer, MultiChunk> multiChunks) {
+    private static Chunk readPrimitiveChunk(Entry entry, boolean[] isMultiValue, Map<Integer, MultiChunk> multiChunks, boolean deferred) {
         final String entryName = entry.getName();
         final int splitAt = entryName.lastIndexOf('_');
 
@@ -229,8 +245,18 @@ public final class POIFSChunkParser {
                 if (type == Types.DIRECTORY && entry instanceof DirectoryNode) {
                     return new DirectoryChunk((DirectoryNode) entry, namePrefix, chunkId, type);
                 } else if (type == Types.BINARY) {
+                    if (deferred && entry instanceof DocumentNode) {
+                        ByteChunkDeferred bcd = new ByteChunkDeferred(namePrefix, chunkId, type);
+                        bcd.readValue((DocumentNode) entry);
+                        return bcd;
+                    }
                     return new ByteChunk(namePrefix, chunkId, type);
                 } else if (type == Types.ASCII_STRING || type == Types.UNICODE_STRING) {
+                    if (deferred && entry instanceof DocumentNode) {
+                        StringChunkDeferred scd = new StringChunkDeferred(namePrefix, chunkId, type);
+                        scd.readValue((DocumentNode) entry);
+                        return scd;
+                    }
                     return new StringChunk(namePrefix, chunkId, type);
                 }
                 // Type of an unsupported type! Skipping...
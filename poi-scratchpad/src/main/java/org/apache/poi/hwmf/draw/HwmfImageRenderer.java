@@ -24,22 +24,25 @@ import java.awt.RenderingHints;
 import java.awt.geom.Dimension2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.Iterator;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.apache.poi.common.usermodel.GenericRecord;
 import org.apache.poi.hwmf.usermodel.HwmfEmbedded;
 import org.apache.poi.hwmf.usermodel.HwmfPicture;
 import org.apache.poi.sl.draw.BitmapImageRenderer;
+import org.apache.poi.sl.draw.DecodedImageCache;
 import org.apache.poi.sl.draw.DrawPictureShape;
 import org.apache.poi.sl.draw.Drawable;
 import org.apache.poi.sl.draw.EmbeddedExtractor;
 import org.apache.poi.sl.draw.ImageRenderer;
 import org.apache.poi.sl.usermodel.PictureData.PictureType;
 import org.apache.poi.util.Internal;
+import org.apache.poi.util.RecordFormatException;
 import org.apache.poi.util.Units;
 
 /**
@@ -47,21 +50,35 @@ import org.apache.poi.util.Units;
  * via reflection
  */
 public class HwmfImageRenderer implements ImageRenderer, EmbeddedExtractor {
+    private static final Logger LOG = LogManager.getLogger(HwmfImageRenderer.class);
+
     HwmfPicture image;
     double alpha;
     boolean charsetInitialized = false;
+    /** the shared cache of rasterized images, if the target is a bitmap */
+    private DecodedImageCache imageCache;
+    /** the image data, if it's rasterized via the image cache */
+    private byte[] imageData;
 
     @Override
     public boolean canRender(String contentType) {
         return PictureType.WMF.contentType.equalsIgnoreCase(contentType);
     }
 
+    @Override
+    public void setTarget(Graphics2D graphics, Rectangle2D anchor) {
+        // only rasterize when rendering to a bitmap - vector outputs like PDF or SVG can be zoomed in
+        imageCache = (graphics == null || graphics.getRenderingHint(Drawable.BUFFERED_IMAGE) == null)
+            ? null : (DecodedImageCache)graphics.getRenderingHint(Drawable.IMAGE_CACHE);
+    }
+
     @Override
     public void loadImage(InputStream data, String contentType) throws IOException {
         if (!PictureType.WMF.contentType.equals(contentType)) {
             throw new IOException("Invalid picture type");
         }
         image = new HwmfPicture(data);
+        imageData = null;
     }
 
     @Override
@@ -69,7 +86,11 @@ public class HwmfImageRenderer implements ImageRenderer, EmbeddedExtractor {
         if (!PictureType.WMF.contentType.equals(contentType)) {
             throw new IOException("Invalid picture type");
         }
-        image = new HwmfPicture(new ByteArrayInputStream(data));
+        image = null;
+        imageData = null;
+        // the record structure is checked upfront, so corrupted data fails here and the caller can use a fallback
+        image = new HwmfPicture(data);
+        imageData = (imageCache != null) ? data : null;
     }
 
     @Override
@@ -134,9 +155,19 @@ public class HwmfImageRenderer implements ImageRenderer, EmbeddedExtractor {
             graphics.clip(anchor);
         }
 
-        image.draw(graphics, getOuterBounds(anchor, clip));
-
-        graphicsState.restore(graphics);
+        Rectangle2D outerBounds = getOuterBounds(anchor, clip);
+        try {
+            if (imageData == null ||
+                !imageCache.drawRasterImage(graphics, outerBounds, imageData, image.getDefaultCharset(), image::draw)) {
+                image.draw(graphics, outerBounds);
+            }
+        } catch (RecordFormatException e) {
+            // the record content is only parsed while drawing
+            LOG.atWarn().withThrowable(e).log("wmf record can't be parsed");
+            return false;
+        } finally {
+            graphicsState.restore(graphics);
+        }
 
         return true;
     }
@@ -0,0 +1,150 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hwmf.record;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.LittleEndianInputStream;
+import org.apache.poi.util.RecordFormatException;
+
+/**
+ * Parses the WMF records on demand.
+ *
+ * @since POI 5.0.1
+ */
+public class HwmfRecordIterator implements Iterator<HwmfRecord> {
+    private static final Logger LOG = LogManager.getLogger(HwmfRecordIterator.class);
+
+    private final LittleEndianInputStream stream;
+    private final Predicate<HwmfRecordType> filter;
+    private HwmfRecord currentRecord;
+    private boolean hasCurrent;
+
+    /**
+     * @param leis the stream positioned after the wmf header
+     */
+    public HwmfRecordIterator(LittleEndianInputStream leis) {
+        this(leis, null);
+    }
+
+    /**
+     * Creates an iterator which only parses the records of the accepted types.
+     * The other records are skipped without being instantiated.
+     *
+     * @param leis the stream positioned after the wmf header
+     * @param filter the accepted record types, {@code null} to accept all
+     */
+    public HwmfRecordIterator(LittleEndianInputStream leis, Predicate<HwmfRecordType> filter) {
+        stream = leis;
+        this.filter = filter;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!hasCurrent) {
+            try {
+                currentRecord = readRecord();
+            } catch (IOException e) {
+                throw new RecordFormatException(e);
+            }
+            hasCurrent = true;
+        }
+        return currentRecord != null;
+    }
+
+    @Override
+    public HwmfRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        hasCurrent = false;
+        return currentRecord;
+    }
+
+    /**
+     * Reads the next accepted record. Use this instead of the iterator methods to handle
+     * invalid records as checked exceptions.
+     *
+     * @return the next accepted record or {@code null} if the end of the records is reached
+     * @throws IOException if the record type is unknown or the record can't be read
+     */
+    public HwmfRecord readRecord() throws IOException {
+        for (;;) {
+            int recordSize;
+            int recordFunction;
+            try {
+                // recordSize in DWORDs
+                long recordSizeLong = stream.readUInt()*2;
+                if (recordSizeLong > Integer.MAX_VALUE) {
+                    throw new RecordFormatException("record size can't be > "+Integer.MAX_VALUE);
+                } else if (recordSizeLong < 0L) {
+                    throw new RecordFormatException("record size can't be < 0");
+                }
+                recordSize = (int)recordSizeLong;
+                recordFunction = stream.readShort();
+            } catch (Exception e) {
+                LOG.atError().log("unexpected eof - wmf file was truncated");
+                return null;
+            }
+            // 4 bytes (recordSize) + 2 bytes (recordFunction)
+            int consumedSize = 6;
+            HwmfRecordType wrt = HwmfRecordType.getById(recordFunction);
+            if (wrt == null) {
+                throw new IOException("unexpected record type: "+recordFunction);
+            }
+            if (wrt == HwmfRecordType.eof) {
+                return null;
+            }
+            if (wrt.constructor == null) {
+                throw new IOException("unsupported record type: "+recordFunction);
+            }
+
+            final HwmfRecord wr;
+            if (filter == null || filter.test(wrt)) {
+                wr = wrt.constructor.get();
+                consumedSize += wr.init(stream, recordSize, recordFunction);
+            } else {
+                wr = null;
+            }
+            int remainingSize = recordSize - consumedSize;
+            if (remainingSize < 0) {
+                throw new RecordFormatException("read too many bytes. record size: "+recordSize + "; comsumed size: "+consumedSize);
+            } else if(remainingSize > 0) {
+                long skipped = IOUtils.skipFully(stream, remainingSize);
+                if (skipped != (long)remainingSize) {
+                    throw new RecordFormatException("Tried to skip "+remainingSize + " but skipped: "+skipped);
+                }
+            }
+
+            if (wr != null) {
+                return wr;
+            }
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Remove not supported");
+    }
+}
@@ -36,7 +36,7 @@ public class HwmfEmbeddedIterator implements Iterator<HwmfEmbedded> {
     private Object current;
 
     public HwmfEmbeddedIterator(HwmfPicture wmf) {
-        this(wmf.getRecords().iterator());
+        this(wmf.recordIterator());
     }
 
     public HwmfEmbeddedIterator(Iterator<HwmfRecord> recordIterator) {
@@ -22,20 +22,21 @@ import java.awt.Shape;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Dimension2D;
 import java.awt.geom.Rectangle2D;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Spliterator;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.apache.poi.common.usermodel.GenericRecord;
 import org.apache.poi.hwmf.draw.HwmfDrawProperties;
 import org.apache.poi.hwmf.draw.HwmfGraphics;
@@ -43,11 +44,11 @@ import org.apache.poi.hwmf.draw.HwmfGraphicsState;
 import org.apache.poi.hwmf.record.HwmfHeader;
 import org.apache.poi.hwmf.record.HwmfPlaceableHeader;
 import org.apache.poi.hwmf.record.HwmfRecord;
+import org.apache.poi.hwmf.record.HwmfRecordIterator;
 import org.apache.poi.hwmf.record.HwmfRecordType;
 import org.apache.poi.hwmf.record.HwmfWindowing.WmfSetWindowExt;
 import org.apache.poi.hwmf.record.HwmfWindowing.WmfSetWindowOrg;
 import org.apache.poi.util.Dimension2DDouble;
-import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.LittleEndianInputStream;
 import org.apache.poi.util.LocaleUtil;
 import org.apache.poi.util.RecordFormatException;
@@ -57,11 +58,18 @@ public class HwmfPicture implements Iterable<HwmfRecord>, GenericRecord {
     /** Max. record length - processing longer records will throw an exception */
     public static final int MAX_RECORD_LENGTH = 50_000_000;
 
-    private static final Logger LOG = LogManager.getLogger(HwmfPicture.class);
+    /** the record types which are evaluated by {@link #getInnnerBounds()} */
+    private static final EnumSet<HwmfRecordType> BOUNDS_TYPES =
+        EnumSet.of(HwmfRecordType.setWindowOrg, HwmfRecordType.setWindowExt);
 
     final List<HwmfRecord> records = new ArrayList<>();
     final HwmfPlaceableHeader placeableHeader;
     final HwmfHeader header;
+    /** the wmf data, if the records are parsed on demand */
+    private final byte[] data;
+    /** the offset of the first record in the data */
+    private final int recordsOffset;
+    private boolean isParsed;
     /** The default charset */
     private Charset defaultCharset = LocaleUtil.CHARSET_1252;
 
@@ -70,62 +78,104 @@ public class HwmfPicture implements Iterable<HwmfRecord>, GenericRecord {
         try (LittleEndianInputStream leis = new LittleEndianInputStream(inputStream)) {
             placeableHeader = HwmfPlaceableHeader.readHeader(leis);
             header = new HwmfHeader(leis);
+            data = null;
+            recordsOffset = 0;
+            isParsed = true;
 
-            for (;;) {
-                long recordSize;
-                int recordFunction;
-                try {
-                    // recordSize in DWORDs
-                    long recordSizeLong = leis.readUInt()*2;
-                    if (recordSizeLong > Integer.MAX_VALUE) {
-                        throw new RecordFormatException("record size can't be > "+Integer.MAX_VALUE);
-                    } else if (recordSizeLong < 0L) {
-                        throw new RecordFormatException("record size can't be < 0");
-                    }
-                    recordSize = (int)recordSizeLong;
-                    recordFunction = leis.readShort();
-                } catch (Exception e) {
-                    LOG.atError().log("unexpected eof - wmf file was truncated");
-                    break;
-                }
-                // 4 bytes (recordSize) + 2 bytes (recordFunction)
-                int consumedSize = 6;
-                HwmfRecordType wrt = HwmfRecordType.getById(recordFunction);
-                if (wrt == null) {
-                    throw new IOException("unexpected record type: "+recordFunction);
-                }
-                if (wrt == HwmfRecordType.eof) {
-                    break;
-                }
-                if (wrt.constructor == null) {
-                    throw new IOException("unsupported record type: "+recordFunction);
-                }
+            HwmfRecordIterator iter = new HwmfRecordIterator(leis);
+            for (HwmfRecord wr; (wr = iter.readRecord()) != null; ) {
+                addRecord(wr);
+            }
+        }
+    }
 
-                final HwmfRecord wr = wrt.constructor.get();
-                records.add(wr);
-
-                consumedSize += wr.init(leis, recordSize, recordFunction);
-                int remainingSize = (int)(recordSize - consumedSize);
-                if (remainingSize < 0) {
-                    throw new RecordFormatException("read too many bytes. record size: "+recordSize + "; comsumed size: "+consumedSize);
-                } else if(remainingSize > 0) {
-                    long skipped = IOUtils.skipFully(leis, remainingSize);
-                    if (skipped != (long)remainingSize) {
-                        throw new RecordFormatException("Tried to skip "+remainingSize + " but skipped: "+skipped);
-                    }
-                }
+    /**
+     * Creates a picture, which parses the records on demand.<p>
+     *
+     * Only the headers are parsed upfront - the records are only kept when {@link #getRecords()}
+     * is called, otherwise drawing the picture, calculating its bounds or iterating via
+     * {@link #recordIterator()} parse the records again for each pass.<p>
+     *
+     * To fail early on corrupted data, the record structure is checked by skipping over
+     * the records without parsing their content.
+     *
+     * @param data the wmf data
+     * @throws IOException if the headers can't be read or the record structure is invalid
+     *
+     * @since POI 5.0.1
+     */
+    public HwmfPicture(byte[] data) throws IOException {
+        LittleEndianInputStream leis = new LittleEndianInputStream(new ByteArrayInputStream(data));
+        placeableHeader = HwmfPlaceableHeader.readHeader(leis);
+        header = new HwmfHeader(leis);
+        this.data = data;
+        recordsOffset = leis.getReadIndex();
 
-                if (wr instanceof HwmfCharsetAware) {
-                    ((HwmfCharsetAware)wr).setCharsetProvider(this::getDefaultCharset);
-                }
-            }
+        try {
+            // a filter which rejects all types, only reads the record headers
+            new HwmfRecordIterator(newStream(), t -> false).readRecord();
+        } catch (RecordFormatException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void addRecord(HwmfRecord wr) {
+        setCharsetProvider(wr);
+        records.add(wr);
+    }
+
+    private void setCharsetProvider(HwmfRecord wr) {
+        if (wr instanceof HwmfCharsetAware) {
+            ((HwmfCharsetAware)wr).setCharsetProvider(this::getDefaultCharset);
         }
     }
 
     public List<HwmfRecord> getRecords() {
+        if (!isParsed) {
+            // in case the parsing throws an exception, we can provide the records up to that point
+            isParsed = true;
+            new HwmfRecordIterator(newStream()).forEachRemaining(this::addRecord);
+        }
         return Collections.unmodifiableList(records);
     }
 
+    /**
+     * Returns an iterator over the records. If the picture was created from a byte array and
+     * {@link #getRecords()} hasn't been called yet, the records are parsed while iterating and
+     * aren't kept afterwards, otherwise this is the iterator of the parsed records.
+     *
+     * @return the record iterator
+     *
+     * @since POI 5.0.1
+     */
+    public Iterator<HwmfRecord> recordIterator() {
+        return recordIterator(null);
+    }
+
+    private Iterator<HwmfRecord> recordIterator(Predicate<HwmfRecordType> filter) {
+        if (isParsed) {
+            return getRecords().iterator();
+        }
+        final Iterator<HwmfRecord> iter = new HwmfRecordIterator(newStream(), filter);
+        return new Iterator<HwmfRecord>() {
+            @Override
+            public boolean hasNext() {
+                return iter.hasNext();
+            }
+
+            @Override
+            public HwmfRecord next() {
+                HwmfRecord wr = iter.next();
+                setCharsetProvider(wr);
+                return wr;
+            }
+        };
+    }
+
+    private LittleEndianInputStream newStream() {
+        return new LittleEndianInputStream(new ByteArrayInputStream(data, recordsOffset, data.length - recordsOffset));
+    }
+
     public void draw(Graphics2D ctx) {
         Dimension2D dim = getSize();
         int width = Units.pointsToPixel(dim.getWidth());
@@ -157,7 +207,8 @@ public class HwmfPicture implements Iterable<HwmfRecord>, GenericRecord {
             prop.setViewportExt(innerBounds.getWidth(), innerBounds.getHeight());
 
             int idx = 0;
-            for (HwmfRecord r : records) {
+            for (Iterator<HwmfRecord> iter = recordIterator(); iter.hasNext(); ) {
+                HwmfRecord r = iter.next();
                 prop = g.getProperties();
                 Shape propClip = prop.getClip();
                 Shape ctxClip = ctx.getClip();
@@ -198,7 +249,9 @@ public class HwmfPicture implements Iterable<HwmfRecord>, GenericRecord {
     public Rectangle2D getInnnerBounds() {
         WmfSetWindowOrg wOrg = null;
         WmfSetWindowExt wExt = null;
-        for (HwmfRecord r : getRecords()) {
+        // only the window records are needed, the others are skipped when streaming
+        for (Iterator<HwmfRecord> iter = recordIterator(BOUNDS_TYPES::contains); iter.hasNext(); ) {
+            HwmfRecord r = iter.next();
             if (r instanceof WmfSetWindowOrg) {
                 wOrg = (WmfSetWindowOrg)r;
             } else if (r instanceof WmfSetWindowExt) {
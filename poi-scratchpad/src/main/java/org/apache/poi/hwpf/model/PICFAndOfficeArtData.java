@@ -69,7 +69,8 @@ public class PICFAndOfficeArtData
             offset += _cchPicName;
         }
 
-        final DefaultEscherRecordFactory escherRecordFactory = new DefaultEscherRecordFactory();
+        // the data stream is kept by the document, so the blips can reference it
+        final DefaultEscherRecordFactory escherRecordFactory = new DefaultEscherRecordFactory(true);
         int recordSize = _shape.fillFields( dataStream, offset,
                 escherRecordFactory );
         offset += recordSize;
@@ -168,7 +168,7 @@ public final class PicturesTable {
                     try {
                         // Blip stored in delay stream, which in a word doc, is
                         // the main stream
-                        EscherRecordFactory recordFactory = new DefaultEscherRecordFactory();
+                        EscherRecordFactory recordFactory = new DefaultEscherRecordFactory(true);
                         EscherRecord record = recordFactory.createRecord(
                             _mainStream, bse.getOffset());
 
@@ -170,26 +170,58 @@ public class TextPieceTable implements CharIndexTranslator {
 
     @Override
     public int getByteIndex(int charPos) {
-        int byteCount = 0;
-        for (TextPiece tp : _textPieces) {
-            if (charPos >= tp.getEnd()) {
-                byteCount = tp.getPieceDescriptor().getFilePosition()
-                        + (tp.getEnd() - tp.getStart())
-                        * (tp.isUnicode() ? 2 : 1);
-
-                if (charPos == tp.getEnd())
-                    break;
+        if (_textPieces.isEmpty()) {
+            return 0;
+        }
 
-                continue;
+        // the pieces don't overlap, so their ends are ascending in character order
+        int low = 0;
+        int high = _textPieces.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (_textPieces.get(mid).getEnd() < charPos) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
-            if (charPos < tp.getEnd()) {
-                int left = charPos - tp.getStart();
-                byteCount = tp.getPieceDescriptor().getFilePosition() + left
-                        * (tp.isUnicode() ? 2 : 1);
-                break;
+        }
+
+        if (low == _textPieces.size()) {
+            // behind the last piece
+            TextPiece tp = _textPieces.get(low - 1);
+            return tp.getPieceDescriptor().getFilePosition()
+                    + (tp.getEnd() - tp.getStart())
+                    * (tp.isUnicode() ? 2 : 1);
+        }
+
+        TextPiece tp = _textPieces.get(low);
+        int left = charPos - tp.getStart();
+        return tp.getPieceDescriptor().getFilePosition() + left
+                * (tp.isUnicode() ? 2 : 1);
+    }
+
+    /**
+     * Finds the first text piece in file order, which ends at or behind the given position.
+     * As the pieces don't overlap, their ends are ascending in file order as well.
+     *
+     * @param bytePos the byte position
+     * @param inclusive if {@code true}, pieces ending exactly at the position are included
+     * @return the index into {@link #_textPiecesFCOrder} or its size, if all pieces end before the position
+     */
+    private int findFirstPieceEndingAt(int bytePos, boolean inclusive) {
+        int low = 0;
+        int high = _textPiecesFCOrder.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            TextPiece tp = _textPiecesFCOrder.get(mid);
+            int pieceEnd = tp.getPieceDescriptor().getFilePosition() + tp.bytesLength();
+            if (pieceEnd < bytePos || (!inclusive && pieceEnd == bytePos)) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
         }
-        return byteCount;
+        return low;
     }
 
     @Deprecated
@@ -238,7 +270,9 @@ public class TextPieceTable implements CharIndexTranslator {
     public int[][] getCharIndexRanges(int startBytePosInclusive,
                                       int endBytePosExclusive) {
         List<int[]> result = new LinkedList<>();
-        for (TextPiece textPiece : _textPiecesFCOrder) {
+        final int size = _textPiecesFCOrder.size();
+        for (int i = findFirstPieceEndingAt(startBytePosInclusive, true); i < size; i++) {
+            final TextPiece textPiece = _textPiecesFCOrder.get(i);
             final int tpStart = textPiece.getPieceDescriptor()
                     .getFilePosition();
             if (endBytePosExclusive <= tpStart)
@@ -310,57 +344,47 @@ public class TextPieceTable implements CharIndexTranslator {
 
     @Override
     public boolean isIndexInTable(int bytePos) {
-        for (TextPiece tp : _textPiecesFCOrder) {
-            int pieceStart = tp.getPieceDescriptor().getFilePosition();
-
-            if (bytePos > pieceStart + tp.bytesLength()) {
-                continue;
-            }
-
-            return pieceStart <= bytePos;
+        int index = findFirstPieceEndingAt(bytePos, true);
+        if (index == _textPiecesFCOrder.size()) {
+            return false;
         }
 
-        return false;
+        int pieceStart = _textPiecesFCOrder.get(index).getPieceDescriptor().getFilePosition();
+        return pieceStart <= bytePos;
     }
 
     boolean isIndexInTable(int startBytePos, int endBytePos) {
-        for (TextPiece tp : _textPiecesFCOrder) {
-            int pieceStart = tp.getPieceDescriptor().getFilePosition();
-
-            if (startBytePos >= pieceStart + tp.bytesLength()) {
-                continue;
-            }
+        int index = findFirstPieceEndingAt(startBytePos, false);
+        if (index == _textPiecesFCOrder.size()) {
+            return false;
+        }
 
-            int left = Math.max(startBytePos, pieceStart);
-            int right = Math.min(endBytePos, pieceStart + tp.bytesLength());
+        TextPiece tp = _textPiecesFCOrder.get(index);
+        int pieceStart = tp.getPieceDescriptor().getFilePosition();
 
-            return left < right;
-        }
+        int left = Math.max(startBytePos, pieceStart);
+        int right = Math.min(endBytePos, pieceStart + tp.bytesLength());
 
-        return false;
+        return left < right;
     }
 
     @Override
     public int lookIndexBackward(final int startBytePos) {
-        int bytePos = startBytePos;
-        int lastEnd = 0;
-
-        for (TextPiece tp : _textPiecesFCOrder) {
-            int pieceStart = tp.getPieceDescriptor().getFilePosition();
-
-            if (bytePos > pieceStart + tp.bytesLength()) {
-                lastEnd = pieceStart + tp.bytesLength();
-                continue;
-            }
-
-            if (pieceStart > bytePos) {
-                bytePos = lastEnd;
-            }
+        int index = findFirstPieceEndingAt(startBytePos, true);
+        if (index == _textPiecesFCOrder.size()) {
+            return startBytePos;
+        }
 
-            break;
+        int pieceStart = _textPiecesFCOrder.get(index).getPieceDescriptor().getFilePosition();
+        if (pieceStart <= startBytePos) {
+            return startBytePos;
         }
 
-        return bytePos;
+        if (index == 0) {
+            return 0;
+        }
+        TextPiece previous = _textPiecesFCOrder.get(index - 1);
+        return previous.getPieceDescriptor().getFilePosition() + previous.bytesLength();
     }
 
     @Override
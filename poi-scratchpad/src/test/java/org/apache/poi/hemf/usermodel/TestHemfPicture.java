@@ -19,17 +19,22 @@
 package org.apache.poi.hemf.usermodel;
 
 import static org.apache.poi.POITestCase.assertContains;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.awt.Graphics2D;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -51,6 +56,8 @@ import org.apache.poi.hwmf.usermodel.HwmfPicture;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.RecordFormatException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 public class TestHemfPicture {
 
@@ -316,5 +323,39 @@ public class TestHemfPicture {
     }
 
 
+    @ParameterizedTest
+    @ValueSource(strings = {"SimpleEMF_windows.emf", "SimpleEMF_mac.emf", "63327.emf", "nested_wmf.emf", "wrench.emf"})
+    void streamingRecords(String file) throws Exception {
+        POIDataSamples samples = file.startsWith("Simple") || file.startsWith("63327") ? ss_samples : sl_samples;
+        byte[] data;
+        try (InputStream is = samples.openResourceAsStream(file)) {
+            data = IOUtils.toByteArray(is);
+        }
+        HemfPicture parsed = new HemfPicture(new ByteArrayInputStream(data));
+        HemfPicture streamed = new HemfPicture(data);
+
+        List<HemfRecordType> types = new ArrayList<>();
+        for (Iterator<HemfRecord> iter = streamed.recordIterator(); iter.hasNext(); ) {
+            types.add(iter.next().getEmfRecordType());
+        }
+        List<HemfRecordType> expTypes = new ArrayList<>();
+        parsed.getRecords().forEach(r -> expTypes.add(r.getEmfRecordType()));
+        assertEquals(expTypes, types);
+
+        assertEquals(parsed.getHeader().getBoundsRectangle(), streamed.getHeader().getBoundsRectangle());
+        assertEquals(parsed.getBounds(), streamed.getBounds());
+
+        Rectangle2D bounds = new Rectangle2D.Double(0, 0, 100, 100);
+        assertArrayEquals(render(parsed, bounds), render(streamed, bounds));
+    }
+
+    private static int[] render(HemfPicture pic, Rectangle2D bounds) {
+        BufferedImage img = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        pic.draw(g, bounds);
+        g.dispose();
+        return img.getRGB(0, 0, 100, 100, null, 0, 100);
+    }
+
     /* govdocs1 064213.doc-0.emf contains an example of extextouta */
 }
\ No newline at end of file
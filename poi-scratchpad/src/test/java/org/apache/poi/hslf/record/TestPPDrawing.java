@@ -0,0 +1,103 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hslf.record;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.hslf.usermodel.HSLFSlide;
+import org.apache.poi.hslf.usermodel.HSLFSlideShow;
+import org.apache.poi.hslf.usermodel.HSLFSlideShowImpl;
+import org.apache.poi.hslf.usermodel.HSLFTextParagraph;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that PPDrawing builds its escher records lazily and writes them properly
+ */
+public final class TestPPDrawing {
+    private static final POIDataSamples slTests = POIDataSamples.getSlideShowInstance();
+
+    @Test
+    void testLazyParsing() throws IOException {
+        try (InputStream is = slTests.openResourceAsStream("basic_test_ppt_file.ppt");
+             POIFSFileSystem pfs = new POIFSFileSystem(is);
+             HSLFSlideShowImpl ss = new HSLFSlideShowImpl(pfs)) {
+            int drawings = 0;
+            for (Record r : ss.getRecords()) {
+                if (!(r instanceof Slide)) {
+                    continue;
+                }
+                PPDrawing ppd = ((Slide) r).getPPDrawing();
+                assertNotNull(ppd);
+                drawings++;
+
+                // untouched drawings are written as they were read
+                byte[] unparsed = toBytes(ppd);
+
+                // building the escher tree doesn't change the record
+                assertNotNull(ppd.getDgContainer());
+                assertNotNull(ppd.getEscherDgRecord());
+                assertEquals(1, ppd.getEscherRecords().size());
+                byte[] parsed = toBytes(ppd);
+                assertArrayEquals(unparsed, parsed);
+            }
+            assertEquals(3, drawings);
+        }
+    }
+
+    @Test
+    void testUntouchedSlideShow() throws IOException {
+        byte[] written;
+        try (InputStream is = slTests.openResourceAsStream("basic_test_ppt_file.ppt");
+             HSLFSlideShow ppt = new HSLFSlideShow(is)) {
+            // opening and writing the slideshow doesn't need the escher records
+            UnsynchronizedByteArrayOutputStream bos = new UnsynchronizedByteArrayOutputStream();
+            ppt.write(bos);
+            written = bos.toByteArray();
+            for (HSLFSlide slide : ppt.getSlides()) {
+                assertFalse(slide.getPPDrawing().isEscherParsed());
+            }
+
+            // but the text of the slides does
+            HSLFSlide slide = ppt.getSlides().get(0);
+            assertFalse(slide.getTextParagraphs().isEmpty());
+            assertTrue(slide.getPPDrawing().isEscherParsed());
+        }
+
+        try (HSLFSlideShow ppt = new HSLFSlideShow(new ByteArrayInputStream(written))) {
+            assertEquals(2, ppt.getSlides().size());
+            assertEquals("This is a test title", HSLFTextParagraph.getRawText(ppt.getSlides().get(0).getTextParagraphs().get(0)));
+        }
+    }
+
+    private static byte[] toBytes(Record r) throws IOException {
+        UnsynchronizedByteArrayOutputStream bos = new UnsynchronizedByteArrayOutputStream();
+        r.writeOut(bos);
+        return bos.toByteArray();
+    }
+}
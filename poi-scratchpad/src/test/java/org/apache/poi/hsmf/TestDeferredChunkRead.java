@@ -0,0 +1,92 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hsmf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.InputStream;
+
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.hsmf.datatypes.AttachmentChunks;
+import org.apache.poi.hsmf.datatypes.ByteChunk;
+import org.apache.poi.hsmf.datatypes.ByteChunkDeferred;
+import org.apache.poi.hsmf.datatypes.StringChunkDeferred;
+import org.apache.poi.hsmf.extractor.OutlookTextExtractor;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.util.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests to verify that messages with deferred chunks are read like the fully loaded ones
+ */
+public final class TestDeferredChunkRead {
+    private static final POIDataSamples samples = POIDataSamples.getHSMFInstance();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "quick.msg", "simple_test_msg.msg", "attachment_test_msg.msg", "attachment_msg_pdf.msg",
+        "example_received_unicode.msg", "cyrillic_message.msg", "chinese-traditional.msg",
+        "ASCII_CP1251_LCID1049.msg", "HTMLBodyBinary_UTF-8.msg", "lots-of-recipients.msg", "outlook_30_msg.msg"
+    })
+    void testSameTextAsLoaded(String file) throws Exception {
+        File f = samples.getFile(file);
+        String expected, actual;
+        try (MAPIMessage msg = new MAPIMessage(new POIFSFileSystem(f, true).getRoot(), false);
+             OutlookTextExtractor ext = new OutlookTextExtractor(msg)) {
+            expected = ext.getText();
+        }
+        try (MAPIMessage msg = new MAPIMessage(new POIFSFileSystem(f, true).getRoot(), true);
+             OutlookTextExtractor ext = new OutlookTextExtractor(msg)) {
+            actual = ext.getText();
+        }
+        assertEquals(expected, actual, file);
+    }
+
+    @Test
+    void testDeferredChunks() throws Exception {
+        File f = samples.getFile("attachment_test_msg.msg");
+        try (MAPIMessage loaded = new MAPIMessage(new POIFSFileSystem(f, true).getRoot(), false);
+             MAPIMessage deferred = new MAPIMessage(new POIFSFileSystem(f, true).getRoot(), true)) {
+            assertTrue(deferred.getMainChunks().getSubjectChunk() instanceof StringChunkDeferred);
+            assertEquals(loaded.getSubject(), deferred.getSubject());
+            assertEquals(loaded.getDisplayFrom(), deferred.getDisplayFrom());
+            assertEquals(loaded.getTextBody(), deferred.getTextBody());
+
+            AttachmentChunks[] loadedAtts = loaded.getAttachmentFiles();
+            AttachmentChunks[] deferredAtts = deferred.getAttachmentFiles();
+            assertEquals(loadedAtts.length, deferredAtts.length);
+            for (int i = 0; i < loadedAtts.length; i++) {
+                assertEquals(loadedAtts[i].getAttachLongFileName().getValue(),
+                    deferredAtts[i].getAttachLongFileName().getValue());
+
+                ByteChunk data = deferredAtts[i].getAttachData();
+                assertTrue(data instanceof ByteChunkDeferred);
+                byte[] expected = loadedAtts[i].getAttachData().getValue();
+                assertArrayEquals(expected, data.getValue());
+                try (InputStream is = ((ByteChunkDeferred) data).getValueStream()) {
+                    assertArrayEquals(expected, IOUtils.toByteArray(is));
+                }
+            }
+        }
+    }
+}
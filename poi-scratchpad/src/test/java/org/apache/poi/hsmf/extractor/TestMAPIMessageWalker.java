@@ -0,0 +1,102 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hsmf.extractor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+import org.apache.poi.POIDataSamples;
+import org.apache.poi.hsmf.MAPIMessage;
+import org.apache.poi.hsmf.datatypes.AttachmentChunks;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.util.IOUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MAPIMessageWalker}
+ */
+public final class TestMAPIMessageWalker {
+    private static final POIDataSamples samples = POIDataSamples.getHSMFInstance();
+
+    @Test
+    void testWalkNestedMessage() throws IOException {
+        List<String> events = new ArrayList<>();
+        try (MAPIMessage msg = new MAPIMessage(new POIFSFileSystem(samples.getFile("attachment_msg_pdf.msg"), true).getRoot(), true)) {
+            new MAPIMessageWalker().walk(msg, new MAPIMessageWalker.MessageVisitor() {
+                @Override
+                public boolean visitMessage(MAPIMessage message, AttachmentChunks parent, int depth) throws IOException {
+                    events.add("message " + depth + " " + (parent == null ? null : parent.getAttachFileName().getValue()));
+                    return true;
+                }
+
+                @Override
+                public void visitAttachment(MAPIMessage message, AttachmentChunks attachment, InputStream data, int depth) throws IOException {
+                    events.add("attachment " + depth + " " + attachment.getAttachLongFileName().getValue() + " " + IOUtils.toByteArray(data).length);
+                }
+            });
+        }
+
+        assertEquals(3, events.size());
+        assertEquals("message 0 null", events.get(0));
+        assertEquals("message 1 Test Attachment", events.get(1));
+        assertEquals("attachment 0 smbprn.00009008.KdcPjl.pdf 13539", events.get(2));
+    }
+
+    @Test
+    void testMaxDepth() throws IOException {
+        List<Integer> depths = new ArrayList<>();
+        try (MAPIMessage msg = new MAPIMessage(samples.openResourceAsStream("attachment_msg_pdf.msg"))) {
+            MAPIMessageWalker walker = new MAPIMessageWalker();
+            walker.setMaxDepth(0);
+            walker.walk(msg, new MAPIMessageWalker.MessageVisitor() {
+                @Override
+                public boolean visitMessage(MAPIMessage message, AttachmentChunks parent, int depth) {
+                    depths.add(depth);
+                    return true;
+                }
+
+                @Override
+                public void visitAttachment(MAPIMessage message, AttachmentChunks attachment, InputStream data, int depth) {
+                    depths.add(depth);
+                }
+            });
+        }
+        assertEquals(2, depths.size());
+    }
+
+    @Test
+    void testWriteAttachData() throws IOException {
+        try (MAPIMessage msg = new MAPIMessage(samples.openResourceAsStream("attachment_test_msg.msg"))) {
+            for (AttachmentChunks attachment : msg.getAttachmentFiles()) {
+                UnsynchronizedByteArrayOutputStream bos = new UnsynchronizedByteArrayOutputStream();
+                assertTrue(attachment.writeAttachData(bos));
+                assertEquals(attachment.getAttachData().getValue().length, bos.size());
+            }
+
+            AttachmentChunks noData = new AttachmentChunks("__attach_version1.0_#00000000");
+            assertNull(noData.getAttachDataStream());
+        }
+    }
+}
@@ -18,29 +18,43 @@
 package org.apache.poi.hwmf;
 
 import static org.apache.poi.POITestCase.assertContains;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.poi.POIDataSamples;
+import org.apache.poi.hwmf.draw.HwmfImageRenderer;
 import org.apache.poi.hwmf.record.HwmfFont;
 import org.apache.poi.hwmf.record.HwmfRecord;
 import org.apache.poi.hwmf.record.HwmfRecordType;
 import org.apache.poi.hwmf.record.HwmfText;
 import org.apache.poi.hwmf.usermodel.HwmfPicture;
+import org.apache.poi.sl.draw.DecodedImageCache;
+import org.apache.poi.sl.draw.Drawable;
+import org.apache.poi.sl.usermodel.PictureData.PictureType;
+import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.LocaleUtil;
 import org.apache.poi.util.RecordFormatException;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 public class TestHwmfParsing {
 
@@ -64,6 +78,67 @@ public class TestHwmfParsing {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {"santa.wmf", "empty-polygon-close.wmf", "60677.wmf", "64716_image1.wmf"})
+    void streamingRecords(String file) throws IOException {
+        byte[] data;
+        try (InputStream is = samples.openResourceAsStream(file)) {
+            data = IOUtils.toByteArray(is);
+        }
+        HwmfPicture parsed = new HwmfPicture(new ByteArrayInputStream(data));
+        HwmfPicture streamed = new HwmfPicture(data);
+
+        List<HwmfRecordType> types = new ArrayList<>();
+        for (Iterator<HwmfRecord> iter = streamed.recordIterator(); iter.hasNext(); ) {
+            types.add(iter.next().getWmfRecordType());
+        }
+        List<HwmfRecordType> expTypes = new ArrayList<>();
+        parsed.getRecords().forEach(r -> expTypes.add(r.getWmfRecordType()));
+        assertEquals(expTypes, types);
+
+        assertEquals(parsed.getBounds(), streamed.getBounds());
+        assertEquals(parsed.getInnnerBounds(), streamed.getInnnerBounds());
+
+        assertArrayEquals(render(parsed), render(streamed));
+        // the records are kept, once they have been requested
+        assertEquals(parsed.getRecords().size(), streamed.getRecords().size());
+    }
+
+    @Test
+    void cachedRasterImage() throws IOException {
+        byte[] data;
+        try (InputStream is = samples.openResourceAsStream("santa.wmf")) {
+            data = IOUtils.toByteArray(is);
+        }
+        DecodedImageCache cache = new DecodedImageCache(10_000_000);
+        BufferedImage canvas = new BufferedImage(300, 300, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = canvas.createGraphics();
+        g.setRenderingHint(Drawable.IMAGE_CACHE, cache);
+        g.setRenderingHint(Drawable.BUFFERED_IMAGE, new WeakReference<>(canvas));
+
+        // a new renderer for each picture, as in DrawPictureShape
+        for (Rectangle2D anchor : new Rectangle2D[]{
+            new Rectangle2D.Double(0, 0, 100, 100), new Rectangle2D.Double(150, 150, 100, 100) }) {
+            HwmfImageRenderer renderer = new HwmfImageRenderer();
+            renderer.setTarget(g, anchor);
+            renderer.loadImage(data, PictureType.WMF.contentType);
+            renderer.drawImage(g, anchor);
+        }
+        g.dispose();
+
+        assertEquals(1, cache.getImageCount());
+        assertEquals(1, cache.getHits());
+        assertArrayEquals(canvas.getRGB(0, 0, 100, 100, null, 0, 100), canvas.getRGB(150, 150, 100, 100, null, 0, 100));
+    }
+
+    private static int[] render(HwmfPicture pic) {
+        BufferedImage img = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        pic.draw(g, new Rectangle2D.Double(0, 0, 100, 100));
+        g.dispose();
+        return img.getRGB(0, 0, 100, 100, null, 0, 100);
+    }
+
     @Test
     void testInfiniteLoop() throws Exception {
         try (InputStream is = samples.openResourceAsStream("61338.wmf")) {
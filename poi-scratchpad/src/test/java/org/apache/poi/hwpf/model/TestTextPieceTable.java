@@ -24,6 +24,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 import org.apache.poi.hwpf.HWPFDocFixture;
 import org.apache.poi.hwpf.HWPFDocument;
@@ -245,4 +248,104 @@ public final class TestTextPieceTable {
         assertEquals(1, range.length);
         assertArrayEquals(new int[] {339,339}, range[0]);
     }
+
+    /**
+     * The lookups use binary searches - check them against linear scans on a document with many pieces
+     */
+    @Test
+    void testLookupsWithManyPieces() throws Exception {
+        try (HWPFDocument doc = HWPFTestDataSamples.openSampleFile("o_kurs.doc")) {
+            TextPieceTable tbl = doc.getTextTable();
+            List<TextPiece> pieces = tbl.getTextPieces();
+            assertTrue(pieces.size() > 100);
+
+            int maxCp = pieces.get(pieces.size() - 1).getEnd();
+            for (int cp = 0; cp <= maxCp + 1; cp++) {
+                assertEquals(getByteIndexLinear(pieces, cp), tbl.getByteIndex(cp), "cp " + cp);
+            }
+
+            List<TextPiece> fcOrder = new ArrayList<>(pieces);
+            fcOrder.sort(Comparator.comparingInt(tp -> tp.getPieceDescriptor().getFilePosition()));
+            TextPiece last = fcOrder.get(fcOrder.size() - 1);
+            int maxFc = last.getPieceDescriptor().getFilePosition() + last.bytesLength();
+            for (int fc = 0; fc <= maxFc + 2; fc++) {
+                assertEquals(isIndexInTableLinear(fcOrder, fc), tbl.isIndexInTable(fc), "fc " + fc);
+                assertEquals(isIndexInTableLinear(fcOrder, fc, fc + 3), tbl.isIndexInTable(fc, fc + 3), "fc " + fc);
+                assertEquals(lookIndexBackwardLinear(fcOrder, fc), tbl.lookIndexBackward(fc), "fc " + fc);
+                assertArrayEquals(getCharIndexRangesLinear(fcOrder, fc, fc + 50), tbl.getCharIndexRanges(fc, fc + 50), "fc " + fc);
+            }
+        }
+    }
+
+    private static int getByteIndexLinear(List<TextPiece> pieces, int charPos) {
+        int byteCount = 0;
+        for (TextPiece tp : pieces) {
+            int multiple = tp.isUnicode() ? 2 : 1;
+            if (charPos >= tp.getEnd()) {
+                byteCount = tp.getPieceDescriptor().getFilePosition() + (tp.getEnd() - tp.getStart()) * multiple;
+                if (charPos == tp.getEnd()) {
+                    break;
+                }
+                continue;
+            }
+            byteCount = tp.getPieceDescriptor().getFilePosition() + (charPos - tp.getStart()) * multiple;
+            break;
+        }
+        return byteCount;
+    }
+
+    private static int[][] getCharIndexRangesLinear(List<TextPiece> fcOrder, int startBytePos, int endBytePos) {
+        List<int[]> result = new ArrayList<>();
+        for (TextPiece tp : fcOrder) {
+            int tpStart = tp.getPieceDescriptor().getFilePosition();
+            if (endBytePos <= tpStart) {
+                break;
+            }
+            int tpEnd = tpStart + tp.bytesLength();
+            int rangeStart = Math.max(tpStart, startBytePos);
+            int rangeEnd = Math.min(tpEnd, endBytePos);
+            if (startBytePos > tpEnd || rangeStart > rangeEnd) {
+                continue;
+            }
+            int multiple = tp.isUnicode() ? 2 : 1;
+            int startCp = tp.getStart() + (rangeStart - tpStart) / multiple;
+            result.add(new int[]{startCp, startCp + (rangeEnd - rangeStart) / multiple});
+        }
+        return result.toArray(new int[0][]);
+    }
+
+    private static boolean isIndexInTableLinear(List<TextPiece> fcOrder, int bytePos) {
+        for (TextPiece tp : fcOrder) {
+            int pieceStart = tp.getPieceDescriptor().getFilePosition();
+            if (bytePos > pieceStart + tp.bytesLength()) {
+                continue;
+            }
+            return pieceStart <= bytePos;
+        }
+        return false;
+    }
+
+    private static boolean isIndexInTableLinear(List<TextPiece> fcOrder, int startBytePos, int endBytePos) {
+        for (TextPiece tp : fcOrder) {
+            int pieceStart = tp.getPieceDescriptor().getFilePosition();
+            if (startBytePos >= pieceStart + tp.bytesLength()) {
+                continue;
+            }
+            return Math.max(startBytePos, pieceStart) < Math.min(endBytePos, pieceStart + tp.bytesLength());
+        }
+        return false;
+    }
+
+    private static int lookIndexBackwardLinear(List<TextPiece> fcOrder, int bytePos) {
+        int lastEnd = 0;
+        for (TextPiece tp : fcOrder) {
+            int pieceStart = tp.getPieceDescriptor().getFilePosition();
+            if (bytePos > pieceStart + tp.bytesLength()) {
+                lastEnd = pieceStart + tp.bytesLength();
+                continue;
+            }
+            return (pieceStart > bytePos) ? lastEnd : bytePos;
+        }
+        return bytePos;
+    }
 }
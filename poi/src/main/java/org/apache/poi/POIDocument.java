@@ -249,6 +249,23 @@ public abstract class POIDocument implements Closeable {
         writeProperties(directory.getFileSystem(), null);
     }
 
+    /**
+     * Writes only the updated standard Document Information Properties (HPSF)
+     *  to the currently open {@link File}, via the writeable {@link POIFSFileSystem}
+     *  it was opened from. In contrast to {@link #write()}, the other streams
+     *  are neither serialized nor rewritten.
+     *
+     * @throws IOException thrown on errors writing to the file
+     * @throws IllegalStateException if this isn't from a writable File
+     *
+     * @since POI 5.0.1
+     */
+    public void writeInformationProperties() throws IOException {
+        validateInPlaceWritePossible();
+        writeProperties();
+        getDirectory().getFileSystem().writeFilesystem();
+    }
+
     /**
      * Writes out the standard Document Information Properties (HPSF)
      * @param outFS the POIFSFileSystem to write the properties into
@@ -31,11 +31,30 @@ import org.apache.poi.util.LittleEndian;
 public class DefaultEscherRecordFactory implements EscherRecordFactory {
     private static final BitField IS_CONTAINER = BitFieldFactory.getInstance(0xF);
 
+    private final boolean lazyBlipData;
+
     /**
      * Creates an instance of the escher record factory
      */
     public DefaultEscherRecordFactory() {
-        // no instance initialisation
+        this(false);
+    }
+
+    /**
+     * Creates an instance of the escher record factory
+     *
+     * @param lazyBlipData if {@code true}, the blip records reference the parsed data and only copy
+     *  the picture data when it's requested - see {@link #isLazyBlipData()}
+     *
+     * @since POI 5.0.1
+     */
+    public DefaultEscherRecordFactory(boolean lazyBlipData) {
+        this.lazyBlipData = lazyBlipData;
+    }
+
+    @Override
+    public boolean isLazyBlipData() {
+        return lazyBlipData;
     }
 
     @Override
@@ -49,7 +49,7 @@ public class EscherBitmapBlip extends EscherBlipRecord {
         System.arraycopy( data, pos, field_1_UID, 0, 16 ); pos += 16;
         field_2_marker = data[pos]; pos++;
 
-        setPictureData(data, pos, bytesAfterHeader - 17);
+        setPictureData(data, pos, bytesAfterHeader - 17, recordFactory);
 
         return bytesAfterHeader + HEADER_SIZE;
     }
@@ -65,16 +65,15 @@ public class EscherBitmapBlip extends EscherBlipRecord {
 
         System.arraycopy( field_1_UID, 0, data, pos, 16 );
         data[pos + 16] = field_2_marker;
-        byte[] pd = getPicturedata();
-        System.arraycopy( pd, 0, data, pos + 17, pd.length );
+        int length = copyPictureData(data, pos + 17);
 
         listener.afterRecordSerialize(offset + getRecordSize(), getRecordId(), getRecordSize(), this);
-        return HEADER_SIZE + 16 + 1 + pd.length;
+        return HEADER_SIZE + 16 + 1 + length;
     }
 
     @Override
     public int getRecordSize() {
-        return 8 + 16 + 1 + (getPicturedata() == null ? 0 : getPicturedata().length);
+        return 8 + 16 + 1 + getPictureDataLength();
     }
 
     /**
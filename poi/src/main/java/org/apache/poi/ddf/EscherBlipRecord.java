@@ -17,9 +17,11 @@
 
 package org.apache.poi.ddf;
 
+import java.io.InputStream;
 import java.util.Map;
 import java.util.function.Supplier;
 
+import org.apache.commons.io.input.UnsynchronizedByteArrayInputStream;
 import org.apache.poi.util.GenericRecordUtil;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.LittleEndian;
@@ -36,12 +38,24 @@ public class EscherBlipRecord extends EscherRecord {
 
     private byte[] field_pictureData;
 
+    /**
+     * the parsed data, which is referenced instead of copied in lazy mode,
+     * until the picture data is requested
+     */
+    private byte[] lazyData;
+    private int lazyOffset;
+    private int lazyLength;
+
     public EscherBlipRecord() {
     }
 
     public EscherBlipRecord(EscherBlipRecord other) {
         super(other);
         field_pictureData = (other.field_pictureData == null) ? null : other.field_pictureData.clone();
+        // the referenced data isn't modified, so it can be shared
+        lazyData = other.lazyData;
+        lazyOffset = other.lazyOffset;
+        lazyLength = other.lazyLength;
     }
 
     @Override
@@ -49,7 +63,7 @@ public class EscherBlipRecord extends EscherRecord {
         int bytesAfterHeader = readHeader( data, offset );
         int pos              = offset + HEADER_SIZE;
 
-        field_pictureData = IOUtils.safelyClone(data, pos, bytesAfterHeader, MAX_RECORD_LENGTH);
+        setPictureData(data, pos, bytesAfterHeader, recordFactory);
         return bytesAfterHeader + 8;
     }
 
@@ -60,15 +74,15 @@ public class EscherBlipRecord extends EscherRecord {
         LittleEndian.putShort( data, offset, getOptions() );
         LittleEndian.putShort( data, offset + 2, getRecordId() );
 
-        System.arraycopy( field_pictureData, 0, data, offset + 4, field_pictureData.length );
+        int length = copyPictureData(data, offset + 4);
 
-        listener.afterRecordSerialize(offset + 4 + field_pictureData.length, getRecordId(), field_pictureData.length + 4, this);
-        return field_pictureData.length + 4;
+        listener.afterRecordSerialize(offset + 4 + length, getRecordId(), length + 4, this);
+        return length + 4;
     }
 
     @Override
     public int getRecordSize() {
-        return field_pictureData.length + HEADER_SIZE;
+        return getPictureDataLength() + HEADER_SIZE;
     }
 
     @Override
@@ -83,9 +97,29 @@ public class EscherBlipRecord extends EscherRecord {
      * @return the picture data
      */
     public byte[] getPicturedata() {
+        if (lazyData != null) {
+            field_pictureData = IOUtils.safelyClone(lazyData, lazyOffset, lazyLength, MAX_RECORD_LENGTH);
+            lazyData = null;
+        }
         return field_pictureData;
     }
 
+    /**
+     * Gets the picture data as stream. In contrast to {@link #getPicturedata()}, a record which
+     * was parsed in lazy mode doesn't copy the picture data.
+     *
+     * @return the picture data stream or {@code null}, if there's no picture data
+     *
+     * @see EscherRecordFactory#isLazyBlipData()
+     * @since POI 5.0.1
+     */
+    public InputStream getPictureDataStream() {
+        if (lazyData != null) {
+            return new UnsynchronizedByteArrayInputStream(lazyData, lazyOffset, lazyLength);
+        }
+        return (field_pictureData == null) ? null : new UnsynchronizedByteArrayInputStream(field_pictureData);
+    }
+
     /**
      * Sets the picture data bytes
      *
@@ -107,6 +141,53 @@ public class EscherBlipRecord extends EscherRecord {
             throw new IllegalArgumentException("picture data can't be null");
         }
         field_pictureData = IOUtils.safelyClone(pictureData, offset, length, MAX_RECORD_LENGTH);
+        lazyData = null;
+    }
+
+    /**
+     * Sets the picture data bytes while parsing - depending on the record factory, the data is
+     * only referenced instead of copied
+     */
+    void setPictureData(byte[] data, int offset, int length, EscherRecordFactory recordFactory) {
+        if (recordFactory == null || !recordFactory.isLazyBlipData()) {
+            setPictureData(data, offset, length);
+            return;
+        }
+        if (offset < 0 || length < 0 || data.length < offset+length) {
+            throw new IllegalArgumentException("picture data can't be null");
+        }
+        IOUtils.safelyAllocateCheck(length, MAX_RECORD_LENGTH);
+        field_pictureData = null;
+        lazyData = data;
+        lazyOffset = offset;
+        lazyLength = length;
+    }
+
+    /**
+     * @return the length of the picture data without copying referenced data
+     */
+    int getPictureDataLength() {
+        if (lazyData != null) {
+            return lazyLength;
+        }
+        return (field_pictureData == null) ? 0 : field_pictureData.length;
+    }
+
+    /**
+     * Copies the picture data without copying referenced data first
+     *
+     * @return the length of the picture data
+     */
+    int copyPictureData(byte[] dest, int destOffset) {
+        if (lazyData != null) {
+            System.arraycopy(lazyData, lazyOffset, dest, destOffset, lazyLength);
+            return lazyLength;
+        }
+        if (field_pictureData == null) {
+            return 0;
+        }
+        System.arraycopy(field_pictureData, 0, dest, destOffset, field_pictureData.length);
+        return field_pictureData.length;
     }
 
     @Override
@@ -22,6 +22,7 @@ import static org.apache.logging.log4j.util.Unbox.box;
 import java.awt.Dimension;
 import java.awt.Rectangle;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -77,6 +78,13 @@ public final class EscherMetafileBlip extends EscherBlipRecord {
     private byte[] raw_pictureData;
     private byte[] remainingData;
 
+    /** the parsed data, which is referenced instead of copied in lazy mode */
+    private byte[] lazyRawData;
+    private int lazyRawOffset;
+    private int lazyRawLength;
+    /** in lazy mode, the picture data is only inflated when it's requested */
+    private boolean inflatePending;
+
     public EscherMetafileBlip() {}
 
     public EscherMetafileBlip(EscherMetafileBlip other) {
@@ -95,6 +103,10 @@ public final class EscherMetafileBlip extends EscherBlipRecord {
         field_7_fFilter = other.field_7_fFilter;
         raw_pictureData = (other.raw_pictureData == null) ? null : other.raw_pictureData.clone();
         remainingData = (other.remainingData == null) ? null : other.remainingData.clone();
+        lazyRawData = other.lazyRawData;
+        lazyRawOffset = other.lazyRawOffset;
+        lazyRawLength = other.lazyRawLength;
+        inflatePending = other.inflatePending;
     }
 
     @Override
@@ -118,16 +130,32 @@ public final class EscherMetafileBlip extends EscherBlipRecord {
         field_6_fCompression = data[pos]; pos++;
         field_7_fFilter = data[pos]; pos++;
 
-        raw_pictureData = IOUtils.safelyClone(data, pos, field_5_cbSave, MAX_RECORD_LENGTH);
-        pos += field_5_cbSave;
-
-        // 0 means DEFLATE compression
-        // 0xFE means no compression
-        if (field_6_fCompression == 0) {
-            super.setPictureData(inflatePictureData(raw_pictureData));
+        if (recordFactory != null && recordFactory.isLazyBlipData()) {
+            // reference the raw data and postpone the decompression until the picture data is requested
+            IOUtils.safelyAllocateCheck(field_5_cbSave, MAX_RECORD_LENGTH);
+            if (field_5_cbSave < 0 || data.length < pos + field_5_cbSave) {
+                throw new IllegalArgumentException("Invalid compressed size: " + field_5_cbSave);
+            }
+            raw_pictureData = null;
+            lazyRawData = data;
+            lazyRawOffset = pos;
+            lazyRawLength = field_5_cbSave;
+            inflatePending = (field_6_fCompression == 0);
+            if (!inflatePending) {
+                setPictureData(data, pos, field_5_cbSave, recordFactory);
+            }
         } else {
-            super.setPictureData(raw_pictureData);
+            raw_pictureData = IOUtils.safelyClone(data, pos, field_5_cbSave, MAX_RECORD_LENGTH);
+
+            // 0 means DEFLATE compression
+            // 0xFE means no compression
+            if (field_6_fCompression == 0) {
+                super.setPictureData(inflatePictureData(raw_pictureData));
+            } else {
+                super.setPictureData(raw_pictureData);
+            }
         }
+        pos += field_5_cbSave;
 
         int remaining = bytesAfterHeader - pos + offset + HEADER_SIZE;
         if(remaining > 0) {
@@ -160,8 +188,13 @@ public final class EscherMetafileBlip extends EscherBlipRecord {
         data[pos] = field_6_fCompression; pos++;
         data[pos] = field_7_fFilter; pos++;
 
-        System.arraycopy( raw_pictureData, 0, data, pos, raw_pictureData.length );
-        pos += raw_pictureData.length;
+        if (lazyRawData != null) {
+            System.arraycopy( lazyRawData, lazyRawOffset, data, pos, lazyRawLength );
+            pos += lazyRawLength;
+        } else {
+            System.arraycopy( raw_pictureData, 0, data, pos, raw_pictureData.length );
+            pos += raw_pictureData.length;
+        }
         if(remainingData != null) {
             System.arraycopy( remainingData, 0, data, pos, remainingData.length );
         }
@@ -189,7 +222,7 @@ public final class EscherMetafileBlip extends EscherBlipRecord {
 
     @Override
     public int getRecordSize() {
-        int size = 8 + 50 + raw_pictureData.length;
+        int size = 8 + 50 + (lazyRawData != null ? lazyRawLength : raw_pictureData.length);
         if(remainingData != null) {
             size += remainingData.length;
         }
@@ -386,8 +419,37 @@ public final class EscherMetafileBlip extends EscherBlipRecord {
         return 0;
     }
 
+    @Override
+    public byte[] getPicturedata() {
+        if (inflatePending) {
+            inflatePending = false;
+            byte[] raw = IOUtils.safelyClone(lazyRawData, lazyRawOffset, lazyRawLength, MAX_RECORD_LENGTH);
+            super.setPictureData(inflatePictureData(raw));
+        }
+        return super.getPicturedata();
+    }
+
+    /**
+     * Gets the picture data as stream. In lazy mode, compressed picture data is inflated while reading
+     * the stream - in contrast to {@link #getPicturedata()}, corrupt compressed data results in an
+     * {@link IOException} instead of returning the compressed data.
+     *
+     * @return the picture data stream or {@code null}, if there's no picture data
+     *
+     * @since POI 5.0.1
+     */
+    @Override
+    public InputStream getPictureDataStream() {
+        if (inflatePending) {
+            return new InflaterInputStream(new UnsynchronizedByteArrayInputStream(lazyRawData, lazyRawOffset, lazyRawLength));
+        }
+        return super.getPictureDataStream();
+    }
+
     @Override
     public void setPictureData(byte[] pictureData) {
+        lazyRawData = null;
+        inflatePending = false;
         super.setPictureData(pictureData);
         setUncompressedSize(pictureData.length);
 
@@ -31,4 +31,16 @@ public interface EscherRecordFactory {
      * @return The generated escher record
      */
     EscherRecord createRecord( byte[] data, int offset );
+
+    /**
+     * Determines if the blip records keep a reference to the parsed data instead of copying
+     * the picture data upfront. In this case, the parsed data must not be modified afterwards.
+     *
+     * @return {@code true}, if the picture data is copied (and decompressed) on demand
+     *
+     * @since POI 5.0.1
+     */
+    default boolean isLazyBlipData() {
+        return false;
+    }
 }
@@ -0,0 +1,287 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+package org.apache.poi.extractor;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Extracts the text of many files concurrently on a bounded pool of worker threads.<p>
+ *
+ * The extractors are created via {@link ExtractorFactory}, which prefers the event based (streaming)
+ * extractors by default. The number of concurrently processed documents is limited by the number of
+ * threads and by the sum of their file sizes, which serves as budget for the memory of the parsed documents.
+ * Documents, which take longer than the timeout, are cancelled and reported as failed.<p>
+ *
+ * The results are passed to the {@link TextSink} on the calling thread as soon as they are available,
+ * so the sink doesn't need to be thread-safe and the text of the finished documents isn't buffered.<p>
+ *
+ * Note: cancelling a document interrupts its worker thread, but the extractors don't check for
+ * interruption - a timed out extraction might keep its thread busy until it completes. Its thread
+ * and its share of the memory budget are only released, when it actually completes. The timeout
+ * of a document starts, when a worker thread picks it up.
+ *
+ * @since POI 5.0.1
+ */
+public final class BatchExtractor implements Closeable {
+
+    /**
+     * Creates the text extractor for a file on a worker thread
+     */
+    @FunctionalInterface
+    public interface ExtractorOpener {
+        POITextExtractor open(File file) throws IOException;
+    }
+
+    /**
+     * Receives the results on the thread calling {@link #extract(Iterable, TextSink)}
+     */
+    public interface TextSink {
+        /**
+         * @param file the processed file
+         * @param text the extracted text
+         */
+        void text(File file, String text) throws IOException;
+
+        /**
+         * @param file the processed file
+         * @param e the exception of the extraction or a {@link TimeoutException}, if it took too long
+         */
+        void failed(File file, Exception e) throws IOException;
+    }
+
+    private final int threads;
+    private final ExecutorService executor;
+    private boolean preferEventExtractors = true;
+    private String password;
+    private long timeoutMillis;
+    private long maxBytesInFlight;
+    private ExtractorOpener opener;
+
+    /**
+     * @param threads the number of worker threads
+     */
+    public BatchExtractor(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive, but was " + threads);
+        }
+        this.threads = threads;
+        final AtomicInteger threadNo = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "poi-batch-extractor-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * @param preferEventExtractors {@code true} (the default) to use the event based extractors
+     *  where available, which don't load the whole document
+     */
+    public void setPreferEventExtractors(boolean preferEventExtractors) {
+        this.preferEventExtractors = preferEventExtractors;
+    }
+
+    public boolean getPreferEventExtractors() {
+        return preferEventExtractors;
+    }
+
+    /**
+     * @param password the password for encrypted documents or {@code null} for the default password
+     */
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    /**
+     * @param timeout the maximum duration of a single extraction or 0 for no limit
+     */
+    public void setTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout must not be negative");
+        }
+        this.timeoutMillis = unit.toMillis(timeout);
+    }
+
+    /**
+     * Limits the sum of the file sizes of the documents in process.
+     * A single file exceeding the limit is processed, when no other documents are pending.
+     *
+     * @param maxBytesInFlight the maximum sum of the file sizes or 0 for no limit
+     */
+    public void setMaxBytesInFlight(long maxBytesInFlight) {
+        if (maxBytesInFlight < 0) {
+            throw new IllegalArgumentException("maxBytesInFlight must not be negative");
+        }
+        this.maxBytesInFlight = maxBytesInFlight;
+    }
+
+    /**
+     * @param opener the factory for the extractors or {@code null} to use {@link ExtractorFactory}
+     */
+    public void setExtractorOpener(ExtractorOpener opener) {
+        this.opener = opener;
+    }
+
+    /**
+     * Extracts the text of the files and waits until all are processed.
+     * If the sink throws an exception, the pending documents are cancelled and the exception is rethrown.
+     *
+     * @param files the files to process
+     * @param sink receives the text or failure of each file in the order of completion
+     */
+    public void extract(Iterable<File> files, TextSink sink) throws IOException {
+        // the tasks report their end themselves, as a cancelled task keeps its worker busy until it finishes
+        final BlockingQueue<Pending> finished = new LinkedBlockingQueue<>();
+        final Set<Pending> pending = new LinkedHashSet<>();
+        final Iterator<File> iter = files.iterator();
+        File next = iter.hasNext() ? iter.next() : null;
+        long bytesInFlight = 0;
+
+        try {
+            while (next != null || !pending.isEmpty()) {
+                // submit as many documents as the thread and memory limits allow
+                while (next != null && pending.size() < threads &&
+                    (pending.isEmpty() || maxBytesInFlight == 0 || bytesInFlight + next.length() <= maxBytesInFlight)) {
+                    final Pending p = new Pending(next);
+                    p.future = executor.submit(() -> {
+                        p.started = System.currentTimeMillis();
+                        try {
+                            return extractText(p.file);
+                        } finally {
+                            finished.add(p);
+                        }
+                    });
+                    pending.add(p);
+                    bytesInFlight += p.size;
+                    next = iter.hasNext() ? iter.next() : null;
+                }
+
+                Pending p = finished.poll(nextTimeout(pending), TimeUnit.MILLISECONDS);
+                if (p != null) {
+                    // only now the memory and the thread of the document are released
+                    pending.remove(p);
+                    bytesInFlight -= p.size;
+                    if (!p.future.isCancelled()) {
+                        deliver(p.future, p.file, sink);
+                    }
+                }
+                cancelTimedOut(pending, sink);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting text", e);
+        } finally {
+            pending.forEach(p -> p.future.cancel(true));
+        }
+    }
+
+    private String extractText(File file) throws IOException {
+        ExtractorFactory.setThreadPrefersEventExtractors(preferEventExtractors);
+        try (POITextExtractor extractor = (opener != null)
+                ? opener.open(file) : ExtractorFactory.createExtractor(file, password)) {
+            return extractor.getText();
+        }
+    }
+
+    private long nextTimeout(Set<Pending> pending) {
+        if (timeoutMillis == 0) {
+            return Long.MAX_VALUE;
+        }
+        long now = System.currentTimeMillis();
+        // a queued document, which hasn't started yet, is checked again after the full timeout
+        long next = timeoutMillis;
+        for (Pending p : pending) {
+            long started = p.started;
+            if (started != 0 && !p.future.isCancelled()) {
+                next = Math.min(next, started + timeoutMillis - now);
+            }
+        }
+        return Math.max(next, 1);
+    }
+
+    private void cancelTimedOut(Set<Pending> pending, TextSink sink) throws IOException {
+        if (timeoutMillis == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<File> timedOut = new ArrayList<>();
+        for (Pending p : pending) {
+            long started = p.started;
+            if (started != 0 && !p.future.isDone() && now - started >= timeoutMillis && p.future.cancel(true)) {
+                timedOut.add(p.file);
+            }
+        }
+        for (File file : timedOut) {
+            sink.failed(file, new TimeoutException("Extraction of " + file + " took longer than " + timeoutMillis + " ms"));
+        }
+    }
+
+    private static void deliver(Future<String> f, File file, TextSink sink) throws IOException, InterruptedException {
+        final String text;
+        try {
+            text = f.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                sink.failed(file, (Exception)cause);
+                return;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IOException(cause);
+        }
+        sink.text(file, text);
+    }
+
+    /**
+     * Shuts down the worker threads
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static final class Pending {
+        private final File file;
+        private final long size;
+        private Future<String> future;
+        /** the start time of the extraction on the worker thread or 0, if it's still queued */
+        private volatile long started;
+
+        Pending(File file) {
+            this.file = file;
+            this.size = file.length();
+        }
+    }
+}
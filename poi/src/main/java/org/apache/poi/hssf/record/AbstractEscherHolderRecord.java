@@ -80,7 +80,8 @@ public abstract class AbstractEscherHolderRecord extends Record {
     private void convertToEscherRecords( int offset, int size, byte[] data )
     {
          escherRecords.clear();
-        EscherRecordFactory recordFactory = new DefaultEscherRecordFactory();
+        // the raw data isn't modified in place, so the blips can reference it
+        EscherRecordFactory recordFactory = new DefaultEscherRecordFactory(true);
         int pos = offset;
         while ( pos < offset + size )
         {
@@ -21,6 +21,8 @@ import java.util.Map;
 
 import org.apache.poi.ss.formula.BaseFormulaEvaluator;
 import org.apache.poi.ss.formula.CollaboratingWorkbooksEnvironment;
+import org.apache.poi.ss.formula.EvaluationCacheType;
+import org.apache.poi.ss.formula.EvaluationProfiler;
 import org.apache.poi.ss.formula.IStabilityClassifier;
 import org.apache.poi.ss.formula.WorkbookEvaluator;
 import org.apache.poi.ss.formula.eval.BoolEval;
@@ -66,7 +68,18 @@ public class HSSFFormulaEvaluator extends BaseFormulaEvaluator {
      * @param udfFinder pass {@code null} for default (AnalysisToolPak only)
      */
     private HSSFFormulaEvaluator(HSSFWorkbook workbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder) {
-        super(new WorkbookEvaluator(HSSFEvaluationWorkbook.create(workbook), stabilityClassifier, udfFinder));
+        this(workbook, stabilityClassifier, udfFinder, EvaluationCacheType.DEFAULT);
+    }
+
+    private HSSFFormulaEvaluator(HSSFWorkbook workbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder,
+            EvaluationCacheType cacheType) {
+        super(new WorkbookEvaluator(HSSFEvaluationWorkbook.create(workbook), stabilityClassifier, udfFinder, cacheType));
+        _book = workbook;
+    }
+
+    private HSSFFormulaEvaluator(HSSFWorkbook workbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder,
+            EvaluationProfiler profiler) {
+        super(new WorkbookEvaluator(HSSFEvaluationWorkbook.create(workbook), profiler, stabilityClassifier, udfFinder));
         _book = workbook;
     }
 
@@ -81,6 +94,37 @@ public class HSSFFormulaEvaluator extends BaseFormulaEvaluator {
         return new HSSFFormulaEvaluator(workbook, stabilityClassifier, udfFinder);
     }
 
+    /**
+     * @param workbook  The workbook to perform the formula evaluations in
+     * @param stabilityClassifier used to optimise caching performance. Pass {@code null}
+     * for the (conservative) assumption that any cell may have its definition changed after
+     * evaluation begins.
+     * @param udfFinder pass {@code null} for default (AnalysisToolPak only)
+     * @param cacheType {@link EvaluationCacheType#COMPACT} to reduce the memory used for caching
+     * the input cells of large models
+     *
+     * @since POI 5.0.1
+     */
+    public static HSSFFormulaEvaluator create(HSSFWorkbook workbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder,
+            EvaluationCacheType cacheType) {
+        return new HSSFFormulaEvaluator(workbook, stabilityClassifier, udfFinder, cacheType);
+    }
+
+    /**
+     * @param workbook  The workbook to perform the formula evaluations in
+     * @param stabilityClassifier used to optimise caching performance. Pass {@code null}
+     * for the (conservative) assumption that any cell may have its definition changed after
+     * evaluation begins.
+     * @param udfFinder pass {@code null} for default (AnalysisToolPak only)
+     * @param profiler collects the evaluation times of the cells and functions
+     *
+     * @since POI 5.0.1
+     */
+    public static HSSFFormulaEvaluator create(HSSFWorkbook workbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder,
+            EvaluationProfiler profiler) {
+        return new HSSFFormulaEvaluator(workbook, stabilityClassifier, udfFinder, profiler);
+    }
+
     @Override
     protected RichTextString createRichTextString(String str) {
         return new HSSFRichTextString(str);
@@ -1301,11 +1301,11 @@ public final class HSSFWorkbook extends POIDocument implements Workbook {
         validateInPlaceWritePossible();
         final DirectoryNode dir = getDirectory();
 
-        // Update the Workbook stream in the file
+        // Update the Workbook stream in the file, if it was modified
         DocumentNode workbookNode = (DocumentNode) dir.getEntry(
                 getWorkbookDirEntryName(dir));
         POIFSDocument workbookDoc = new POIFSDocument(workbookNode);
-        workbookDoc.replaceContents(new UnsynchronizedByteArrayInputStream(getBytes()));
+        workbookDoc.replaceContentsIfChanged(getBytes());
 
         // Update the properties streams in the file
         writeProperties();
@@ -406,7 +406,8 @@ public class DirectoryNode
 
     /**
      * Set the contents of a document, creating if needed,
-     *  otherwise updating. Returns the created / updated DocumentEntry
+     *  otherwise updating. Returns the created / updated DocumentEntry.
+     *  Existing documents with unchanged contents aren't rewritten.
      *
      * @param name the name of the new or existing DocumentEntry
      * @param stream the InputStream from which to populate the DocumentEntry
@@ -425,7 +426,7 @@ public class DirectoryNode
         } else {
             DocumentNode existing = (DocumentNode)getEntry(name);
             POIFSDocument nDoc = new POIFSDocument(existing);
-            nDoc.replaceContents(stream);
+            nDoc.replaceContentsIfChanged(stream);
             return existing;
         }
     }
@@ -20,9 +20,11 @@ package org.apache.poi.poifs.filesystem;
 import static java.util.Collections.emptyIterator;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
@@ -197,6 +199,123 @@ public final class POIFSDocument implements POIFSViewable, Iterable<ByteBuffer>
        _property.updateSize(size);
    }
 
+   /**
+    * Replaces the contents, unless they are unchanged. Unchanged documents aren't rewritten,
+    * so an in-place write of the filesystem only touches the modified streams.<p>
+    *
+    * The stream is compared block by block with the stored contents, so unchanged contents
+    * aren't buffered. Use {@link #replaceContentsIfChanged(byte[])}, if the contents are
+    * already available as byte array.
+    *
+    * @param stream the new contents
+    * @return {@code true}, if the contents were replaced
+    *
+    * @since POI 5.0.1
+    */
+   public boolean replaceContentsIfChanged(InputStream stream) throws IOException {
+       final int size = getSize();
+       byte[] expected = new byte[_block_size];
+       byte[] actual = new byte[_block_size];
+       // the number of equal bytes and the bytes read after them
+       int equalBytes = 0;
+       int readBytes = 0;
+       boolean changed = false;
+       Iterator<ByteBuffer> iter = getBlockIterator();
+       while (equalBytes < size && iter.hasNext()) {
+           int length = Math.min(_block_size, size - equalBytes);
+           iter.next().get(expected, 0, length);
+           readBytes = Math.max(IOUtils.readFully(stream, actual, 0, length), 0);
+           if (readBytes != length || !isEqual(expected, actual, 0, length)) {
+               changed = true;
+               break;
+           }
+           equalBytes += length;
+           readBytes = 0;
+       }
+       if (!changed) {
+           if (equalBytes < size) {
+               // the stored blocks are shorter than the document size
+               changed = true;
+           } else {
+               int next = stream.read();
+               if (next == -1) {
+                   return false;
+               }
+               actual[0] = (byte)next;
+               readBytes = 1;
+           }
+       }
+
+       // the already read bytes are taken from a copy of the stored blocks,
+       // as the old blocks are possibly reused when the new contents are stored
+       byte[] head = new byte[equalBytes + readBytes];
+       copyContents(head, equalBytes);
+       System.arraycopy(actual, 0, head, equalBytes, readBytes);
+       replaceContents(new SequenceInputStream(new ByteArrayInputStream(head), stream));
+       return true;
+   }
+
+   /**
+    * Replaces the contents, unless they are unchanged. Unchanged documents aren't rewritten,
+    * so an in-place write of the filesystem only touches the modified streams.
+    *
+    * @param data the new contents
+    * @return {@code true}, if the contents were replaced
+    *
+    * @since POI 5.0.1
+    */
+   public boolean replaceContentsIfChanged(byte[] data) throws IOException {
+       if (hasContents(data)) {
+           return false;
+       }
+       replaceContents(new ByteArrayInputStream(data));
+       return true;
+   }
+
+   /**
+    * Compares the data in place with the stored contents
+    */
+   private boolean hasContents(byte[] data) {
+       final int size = getSize();
+       if (data.length != size) {
+           return false;
+       }
+       byte[] expected = new byte[_block_size];
+       int offset = 0;
+       Iterator<ByteBuffer> iter = getBlockIterator();
+       while (offset < size && iter.hasNext()) {
+           int length = Math.min(_block_size, size - offset);
+           iter.next().get(expected, 0, length);
+           if (!isEqual(expected, data, offset, length)) {
+               return false;
+           }
+           offset += length;
+       }
+       return offset == size;
+   }
+
+   private static boolean isEqual(byte[] block, byte[] data, int offset, int length) {
+       for (int i = 0; i < length; i++) {
+           if (block[i] != data[offset + i]) {
+               return false;
+           }
+       }
+       return true;
+   }
+
+   /**
+    * Copies the first bytes of the stored contents
+    */
+   private void copyContents(byte[] dest, int length) {
+       int offset = 0;
+       Iterator<ByteBuffer> iter = getBlockIterator();
+       while (offset < length && iter.hasNext()) {
+           int blockLength = Math.min(_block_size, length - offset);
+           iter.next().get(dest, offset, blockLength);
+           offset += blockLength;
+       }
+   }
+
    /**
     * @return the instance's DocumentProperty
     */
@@ -740,15 +740,19 @@ public class POIFSFileSystem extends BlockStore
         getBlockAt(-1).put(baos.toByteArray());
 
 
-        // BATs
+        // BATs - only the changed ones, as the others are already in the data source
         for (BATBlock bat : _bat_blocks) {
-            ByteBuffer block = getBlockAt(bat.getOurBlockIndex());
-            bat.writeData(block);
+            if (bat.isDirty()) {
+                ByteBuffer block = getBlockAt(bat.getOurBlockIndex());
+                bat.writeData(block);
+            }
         }
         // XBats
         for (BATBlock bat : _xbat_blocks) {
-            ByteBuffer block = getBlockAt(bat.getOurBlockIndex());
-            bat.writeData(block);
+            if (bat.isDirty()) {
+                ByteBuffer block = getBlockAt(bat.getOurBlockIndex());
+                bat.writeData(block);
+            }
         }
     }
 
@@ -245,8 +245,10 @@ public class POIFSMiniStore extends BlockStore {
     void syncWithDataSource() throws IOException {
         int blocksUsed = 0;
         for (BATBlock sbat : _sbat_blocks) {
-            ByteBuffer block = _filesystem.getBlockAt(sbat.getOurBlockIndex());
-            sbat.writeData(block);
+            if (sbat.isDirty()) {
+                ByteBuffer block = _filesystem.getBlockAt(sbat.getOurBlockIndex());
+                sbat.writeData(block);
+            }
 
             if (!sbat.hasFreeSectors()) {
                 blocksUsed += _filesystem.getBigBlockSizeDetails().getBATEntriesPerBlock();
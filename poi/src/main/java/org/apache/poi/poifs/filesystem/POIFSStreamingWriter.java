@@ -0,0 +1,526 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.poifs.filesystem;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+import org.apache.poi.hpsf.ClassID;
+import org.apache.poi.poifs.common.POIFSBigBlockSize;
+import org.apache.poi.poifs.common.POIFSConstants;
+import org.apache.poi.poifs.property.DirectoryProperty;
+import org.apache.poi.poifs.property.DocumentProperty;
+import org.apache.poi.poifs.property.Property;
+import org.apache.poi.poifs.property.PropertyTable;
+import org.apache.poi.poifs.storage.BATBlock;
+import org.apache.poi.poifs.storage.HeaderBlock;
+import org.apache.poi.poifs.storage.HeaderBlockConstants;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.IntList;
+
+/**
+ * Forward-only writer for OLE2 / POIFS files.<p>
+ *
+ * In contrast to {@link POIFSFileSystem}, which keeps the whole filesystem in its
+ * {@link org.apache.poi.poifs.nio.DataSource} until it's written, the documents are written
+ * to the target channel while they are created. The sizes don't need to be known in advance -
+ * the first 4096 bytes of a document are buffered to decide between the mini stream and the
+ * big blocks, the rest is streamed block by block. The mini FAT, the directory and the FAT/XFAT
+ * sectors are appended when the writer is closed, after which the header is written with a
+ * single seek back to the start.<p>
+ *
+ * As all big block documents are stored in contiguous sectors, only the chain ends need to be
+ * remembered, i.e. the memory usage depends on the number of entries, but not on the size of the
+ * documents. A document is limited to 2GB, as the entry sizes are stored as 32 bit values.<p>
+ *
+ * Only one document can be written at a time, and the written data can't be read back via this class.
+ *
+ * <pre>{@code
+ * try (POIFSStreamingWriter writer = new POIFSStreamingWriter(file)) {
+ *     writer.getRoot().createDocument("Contents", inputStream);
+ *     try (OutputStream os = writer.getRoot().createDirectory("Sub").createDocument("Data")) {
+ *         ...
+ *     }
+ * }
+ * }</pre>
+ *
+ * @since POI 5.0.1
+ */
+public final class POIFSStreamingWriter implements Closeable {
+    private final SeekableByteChannel _channel;
+    private final boolean _closeChannel;
+    private final long _startOffset;
+    private final POIFSBigBlockSize _bigBlockSize;
+    private final int _blockSize;
+    private final HeaderBlock _header;
+    private final PropertyTable _propertyTable;
+    /** the properties in the order of the property table */
+    private final List<Property> _properties = new ArrayList<>();
+    private final Directory _root;
+
+    /** the next free sector */
+    private int _nextSector;
+    /** sectors whose FAT entry isn't "sector + 1", as pairs of (sector, entry) */
+    private final IntList _chainSectors = new IntList();
+    private final IntList _chainEntries = new IntList();
+
+    /** the mini stream block which isn't full yet */
+    private final byte[] _miniBlock;
+    private int _miniBlockPos;
+    private int _miniStreamStart = POIFSConstants.END_OF_CHAIN;
+    private int _lastMiniStreamSector = POIFSConstants.END_OF_CHAIN;
+    /** the mini FAT entries - only small documents are stored there */
+    private final IntList _miniFat = new IntList();
+
+    private DocumentOutputStream _openDocument;
+    private boolean _closed;
+
+    /**
+     * Creates a writer for a new file with 512 byte blocks
+     *
+     * @param file the file to be written, which is truncated if it already exists
+     */
+    public POIFSStreamingWriter(File file) throws IOException {
+        this(FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE),
+                POIFSConstants.SMALLER_BIG_BLOCK_SIZE_DETAILS, true);
+    }
+
+    /**
+     * Creates a writer for the given channel. The filesystem is written from the current
+     * position of the channel and the channel is left open on {@link #close()}.
+     *
+     * @param channel the channel to be written
+     * @param bigBlockSize the big block size, i.e. {@link POIFSConstants#SMALLER_BIG_BLOCK_SIZE_DETAILS}
+     *  or {@link POIFSConstants#LARGER_BIG_BLOCK_SIZE_DETAILS}
+     */
+    public POIFSStreamingWriter(SeekableByteChannel channel, POIFSBigBlockSize bigBlockSize) throws IOException {
+        this(channel, bigBlockSize, false);
+    }
+
+    private POIFSStreamingWriter(SeekableByteChannel channel, POIFSBigBlockSize bigBlockSize, boolean closeChannel)
+    throws IOException {
+        _channel = channel;
+        _closeChannel = closeChannel;
+        _bigBlockSize = bigBlockSize;
+        _blockSize = bigBlockSize.getBigBlockSize();
+        _header = new HeaderBlock(bigBlockSize);
+        _propertyTable = new PropertyTable(_header);
+        _properties.add(_propertyTable.getRoot());
+        _root = new Directory(_propertyTable.getRoot());
+        _miniBlock = new byte[_blockSize];
+
+        try {
+            // reserve the header, it's written when everything else is known
+            _startOffset = channel.position();
+            writeFully(ByteBuffer.wrap(new byte[_blockSize]));
+        } catch (IOException|RuntimeException e) {
+            if (closeChannel) {
+                channel.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return the root directory
+     */
+    public Directory getRoot() {
+        return _root;
+    }
+
+    /**
+     * Finishes the filesystem, by writing the mini stream, the directory, the FAT and the header.
+     * A still open document is closed before.
+     */
+    @Override
+    public void close() throws IOException {
+        if (_closed) {
+            return;
+        }
+        try {
+            if (_openDocument != null) {
+                _openDocument.close();
+            }
+            writeTrailer();
+        } finally {
+            _closed = true;
+            if (_closeChannel) {
+                _channel.close();
+            }
+        }
+    }
+
+    private void writeTrailer() throws IOException {
+        // the last (partly filled) block of the mini stream
+        if (_miniBlockPos > 0) {
+            Arrays.fill(_miniBlock, _miniBlockPos, _blockSize, (byte)0);
+            appendMiniStreamBlock();
+        }
+        _propertyTable.getRoot().setStartBlock(_miniStreamStart);
+        _propertyTable.getRoot().setSize(_miniFat.size());
+        if (_lastMiniStreamSector != POIFSConstants.END_OF_CHAIN) {
+            endChain(_lastMiniStreamSector);
+        }
+
+        // mini FAT
+        if (!_miniFat.isEmpty()) {
+            int entriesPerBlock = _bigBlockSize.getBATEntriesPerBlock();
+            int blocks = (_miniFat.size() + entriesPerBlock - 1) / entriesPerBlock;
+            _header.setSBATStart(_nextSector);
+            _header.setSBATBlockCount(blocks);
+            for (int i = 0; i < blocks; i++) {
+                BATBlock sbat = BATBlock.createEmptyBATBlock(_bigBlockSize, false);
+                for (int j = 0, idx = i*entriesPerBlock; j < entriesPerBlock && idx < _miniFat.size(); j++, idx++) {
+                    sbat.setValueAt(j, _miniFat.get(idx));
+                }
+                writeBATBlock(sbat);
+            }
+            endChain(_nextSector - 1);
+        }
+
+        // directory
+        _propertyTable.preWrite();
+        UnsynchronizedByteArrayOutputStream bos = new UnsynchronizedByteArrayOutputStream();
+        for (Property p : _properties) {
+            p.writeData(bos);
+        }
+        int propBlocks = (bos.size() + _blockSize - 1) / _blockSize;
+        byte[] propData = Arrays.copyOf(bos.toByteArray(), propBlocks * _blockSize);
+        _header.setPropertyStart(_nextSector);
+        writeFully(ByteBuffer.wrap(propData));
+        _nextSector += propBlocks;
+        endChain(_nextSector - 1);
+
+        writeFAT();
+
+        // finally the header
+        UnsynchronizedByteArrayOutputStream headerData = new UnsynchronizedByteArrayOutputStream(_blockSize);
+        _header.writeData(headerData);
+        long endPos = _channel.position();
+        _channel.position(_startOffset);
+        writeFully(ByteBuffer.wrap(headerData.toByteArray()));
+        _channel.position(endPos);
+    }
+
+    private void writeFAT() throws IOException {
+        final int entriesPerBlock = _bigBlockSize.getBATEntriesPerBlock();
+        final int entriesPerXBAT = _bigBlockSize.getXBATEntriesPerBlock();
+        final int headerBATs = HeaderBlockConstants._max_bats_in_header;
+
+        // the FAT needs to cover its own and the XFAT sectors
+        int dataSectors = _nextSector;
+        int fatCount = 0, xbatCount = 0;
+        while ((long)fatCount * entriesPerBlock < (long)dataSectors + fatCount + xbatCount) {
+            fatCount++;
+            xbatCount = (fatCount <= headerBATs) ? 0 : (fatCount - headerBATs + entriesPerXBAT - 1) / entriesPerXBAT;
+        }
+        final int fatStart = dataSectors;
+        final int xbatStart = fatStart + fatCount;
+        final int totalSectors = xbatStart + xbatCount;
+
+        // the chain ends are collected out of order, as the mini stream is written between the documents
+        long[] chainEnds = new long[_chainSectors.size()];
+        for (int i = 0; i < chainEnds.length; i++) {
+            chainEnds[i] = ((long)_chainSectors.get(i) << 32) | (_chainEntries.get(i) & 0xFFFFFFFFL);
+        }
+        Arrays.sort(chainEnds);
+
+        int chainIdx = 0;
+        for (int i = 0, sector = 0; i < fatCount; i++) {
+            BATBlock bat = BATBlock.createEmptyBATBlock(_bigBlockSize, false);
+            for (int j = 0; j < entriesPerBlock; j++, sector++) {
+                int entry;
+                if (sector >= totalSectors) {
+                    entry = POIFSConstants.UNUSED_BLOCK;
+                } else if (sector >= xbatStart) {
+                    entry = POIFSConstants.DIFAT_SECTOR_BLOCK;
+                } else if (sector >= fatStart) {
+                    entry = POIFSConstants.FAT_SECTOR_BLOCK;
+                } else if (chainIdx < chainEnds.length && (int)(chainEnds[chainIdx] >>> 32) == sector) {
+                    entry = (int)chainEnds[chainIdx++];
+                } else {
+                    entry = sector + 1;
+                }
+                bat.setValueAt(j, entry);
+            }
+            writeBATBlock(bat);
+        }
+
+        int[] batArray = new int[Math.min(fatCount, headerBATs)];
+        for (int i = 0; i < batArray.length; i++) {
+            batArray[i] = fatStart + i;
+        }
+        _header.setBATCount(fatCount);
+        _header.setBATArray(batArray);
+
+        _header.setXBATCount(xbatCount);
+        _header.setXBATStart(xbatCount == 0 ? POIFSConstants.END_OF_CHAIN : xbatStart);
+        for (int i = 0, fat = headerBATs; i < xbatCount; i++) {
+            BATBlock xbat = BATBlock.createEmptyBATBlock(_bigBlockSize, true);
+            for (int j = 0; j < entriesPerXBAT && fat < fatCount; j++, fat++) {
+                xbat.setValueAt(j, fatStart + fat);
+            }
+            if (i < xbatCount - 1) {
+                xbat.setValueAt(entriesPerXBAT, xbatStart + i + 1);
+            }
+            writeBATBlock(xbat);
+        }
+    }
+
+    private void writeBATBlock(BATBlock block) throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate(_blockSize);
+        block.writeData(bb);
+        bb.flip();
+        writeFully(bb);
+        _nextSector++;
+    }
+
+    private void endChain(int sector) {
+        _chainSectors.add(sector);
+        _chainEntries.add(POIFSConstants.END_OF_CHAIN);
+    }
+
+    /**
+     * Writes whole blocks of document data
+     *
+     * @return the first sector of the written data
+     */
+    private int writeBlocks(byte[] data, int len) throws IOException {
+        int blocks = (len + _blockSize - 1) / _blockSize;
+        if (len < blocks * _blockSize) {
+            Arrays.fill(data, len, blocks * _blockSize, (byte)0);
+        }
+        int start = _nextSector;
+        if ((long)start + blocks > Integer.MAX_VALUE) {
+            throw new IOException("The filesystem exceeds the maximum number of sectors");
+        }
+        writeFully(ByteBuffer.wrap(data, 0, blocks * _blockSize));
+        _nextSector += blocks;
+        return start;
+    }
+
+    private void writeFully(ByteBuffer bb) throws IOException {
+        while (bb.hasRemaining()) {
+            _channel.write(bb);
+        }
+    }
+
+    /**
+     * Appends a small document to the mini stream
+     *
+     * @return the start of the document in the mini stream
+     */
+    private int appendMiniStream(byte[] data, int len) throws IOException {
+        int start = _miniFat.size();
+        int miniBlocks = (len + POIFSConstants.SMALL_BLOCK_SIZE - 1) / POIFSConstants.SMALL_BLOCK_SIZE;
+        for (int i = 1; i < miniBlocks; i++) {
+            _miniFat.add(start + i);
+        }
+        _miniFat.add(POIFSConstants.END_OF_CHAIN);
+
+        int paddedLen = miniBlocks * POIFSConstants.SMALL_BLOCK_SIZE;
+        for (int pos = 0; pos < paddedLen; ) {
+            int chunk = Math.min(paddedLen - pos, _blockSize - _miniBlockPos);
+            int dataChunk = Math.max(0, Math.min(chunk, len - pos));
+            System.arraycopy(data, pos, _miniBlock, _miniBlockPos, dataChunk);
+            Arrays.fill(_miniBlock, _miniBlockPos + dataChunk, _miniBlockPos + chunk, (byte)0);
+            _miniBlockPos += chunk;
+            pos += chunk;
+            if (_miniBlockPos == _blockSize) {
+                appendMiniStreamBlock();
+            }
+        }
+        return start;
+    }
+
+    private void appendMiniStreamBlock() throws IOException {
+        int sector = writeBlocks(_miniBlock, _blockSize);
+        if (_lastMiniStreamSector == POIFSConstants.END_OF_CHAIN) {
+            _miniStreamStart = sector;
+        } else if (_lastMiniStreamSector != sector - 1) {
+            // big documents have been written in between
+            _chainSectors.add(_lastMiniStreamSector);
+            _chainEntries.add(sector);
+        }
+        _lastMiniStreamSector = sector;
+        _miniBlockPos = 0;
+    }
+
+    private void checkWritable() {
+        if (_closed) {
+            throw new IllegalStateException("The writer has already been closed");
+        }
+        if (_openDocument != null) {
+            throw new IllegalStateException("The document '" + _openDocument._property.getName() + "' hasn't been closed yet");
+        }
+    }
+
+    /**
+     * A directory of the written filesystem
+     */
+    public final class Directory {
+        private final DirectoryProperty _property;
+
+        private Directory(DirectoryProperty property) {
+            _property = property;
+        }
+
+        /**
+         * @return the name of this directory
+         */
+        public String getName() {
+            return _property.getName();
+        }
+
+        /**
+         * Creates a new sub directory
+         *
+         * @param name the name of the new directory
+         * @throws IOException if an entry with the same name already exists
+         */
+        public Directory createDirectory(String name) throws IOException {
+            checkWritable();
+            DirectoryProperty dir = new DirectoryProperty(name);
+            addProperty(dir);
+            return new Directory(dir);
+        }
+
+        /**
+         * Creates a new document. The document is completed when the returned stream is closed,
+         * and no other entry can be created until then.
+         *
+         * @param name the name of the new document
+         * @throws IOException if an entry with the same name already exists
+         */
+        public OutputStream createDocument(String name) throws IOException {
+            checkWritable();
+            DocumentProperty doc = new DocumentProperty(name, 0);
+            addProperty(doc);
+            _openDocument = new DocumentOutputStream(doc);
+            return _openDocument;
+        }
+
+        /**
+         * Creates a new document with the contents of the stream
+         *
+         * @param name the name of the new document
+         * @param stream the document contents, which is read until its end but not closed
+         * @throws IOException if an entry with the same name already exists or the stream can't be read
+         */
+        public void createDocument(String name, InputStream stream) throws IOException {
+            try (OutputStream os = createDocument(name)) {
+                IOUtils.copy(stream, os);
+            }
+        }
+
+        /**
+         * Sets the storage clsid of this directory
+         */
+        public void setStorageClsid(ClassID clsid) {
+            _property.setStorageClsid(clsid);
+        }
+
+        private void addProperty(Property property) throws IOException {
+            _property.addChild(property);
+            _propertyTable.addProperty(property);
+            _properties.add(property);
+        }
+    }
+
+    private final class DocumentOutputStream extends OutputStream {
+        private final DocumentProperty _property;
+        /** buffers the first part of the document, and later one big block */
+        private final byte[] _buffer = new byte[POIFSConstants.BIG_BLOCK_MINIMUM_DOCUMENT_SIZE];
+        private int _bufferPos;
+        private long _size;
+        private int _startSector = POIFSConstants.END_OF_CHAIN;
+        private boolean _docClosed;
+
+        DocumentOutputStream(DocumentProperty property) {
+            _property = property;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (_docClosed) {
+                throw new IOException("The document '" + _property.getName() + "' has already been closed");
+            }
+            if (_size + len > Integer.MAX_VALUE) {
+                throw new IOException("The document '" + _property.getName() + "' exceeds the maximum size of 2GB");
+            }
+            while (len > 0) {
+                int chunk = Math.min(len, _buffer.length - _bufferPos);
+                System.arraycopy(b, off, _buffer, _bufferPos, chunk);
+                _bufferPos += chunk;
+                _size += chunk;
+                off += chunk;
+                len -= chunk;
+                if (_bufferPos == _buffer.length) {
+                    flushBlocks();
+                }
+            }
+        }
+
+        private void flushBlocks() throws IOException {
+            int sector = writeBlocks(_buffer, _bufferPos);
+            if (_startSector == POIFSConstants.END_OF_CHAIN) {
+                _startSector = sector;
+            }
+            _bufferPos = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (_docClosed) {
+                return;
+            }
+            _docClosed = true;
+            _openDocument = null;
+
+            if (_size == 0) {
+                _property.setStartBlock(POIFSConstants.END_OF_CHAIN);
+            } else if (_size < POIFSConstants.BIG_BLOCK_MINIMUM_DOCUMENT_SIZE) {
+                _property.setStartBlock(appendMiniStream(_buffer, _bufferPos));
+            } else {
+                if (_bufferPos > 0) {
+                    flushBlocks();
+                }
+                _property.setStartBlock(_startSector);
+                endChain(_nextSector - 1);
+            }
+            _property.updateSize((int)_size);
+        }
+    }
+}
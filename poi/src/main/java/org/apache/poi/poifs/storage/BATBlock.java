@@ -57,6 +57,11 @@ public final class BATBlock implements BlockWritable {
      */
     private int ourBlockIndex;
 
+    /**
+     * Has this BATBlock been changed since it was read or written?
+     */
+    private boolean _dirty;
+
     /**
      * Create a single instance initialized with default values
      */
@@ -67,6 +72,7 @@ public final class BATBlock implements BlockWritable {
         int _entries_per_block = bigBlockSize.getBATEntriesPerBlock();
         _values = new int[_entries_per_block];
         _has_free_sectors = true;
+        _dirty = true;
 
         Arrays.fill(_values, POIFSConstants.UNUSED_BLOCK);
     }
@@ -98,6 +104,7 @@ public final class BATBlock implements BlockWritable {
           block._values[i] = LittleEndian.getInt(buffer);
        }
        block.recomputeFree();
+       block._dirty = false;
 
        // All done
        return block;
@@ -226,6 +233,7 @@ public final class BATBlock implements BlockWritable {
     public void setValueAt(int relativeOffset, int value) {
        int oldValue = _values[relativeOffset];
        _values[relativeOffset] = value;
+       _dirty |= (oldValue != value);
 
        // Do we need to re-compute the free?
        if(value == POIFSConstants.UNUSED_BLOCK) {
@@ -268,6 +276,17 @@ public final class BATBlock implements BlockWritable {
     public void writeData(final ByteBuffer block) {
        // Save it out
        block.put( serialize() );
+       _dirty = false;
+    }
+
+    /**
+     * Has this block been created or modified since it was read from or
+     *  written to its block? Clean blocks don't need to be written again.
+     *
+     * @since POI 5.0.1
+     */
+    public boolean isDirty() {
+       return _dirty;
     }
 
     private byte[] serialize() {
@@ -44,6 +44,7 @@ import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.sl.usermodel.PictureData.PictureType;
+import org.apache.poi.util.Dimension2DDouble;
 import org.apache.poi.util.IOUtils;
 
 /**
@@ -56,6 +57,8 @@ public class BitmapImageRenderer implements ImageRenderer {
     private boolean doCache;
     private byte[] cachedImage;
     private String cachedContentType;
+    private DecodedImageCache imageCache;
+    private Dimension2D targetSize;
 
     @Override
     public boolean canRender(String contentType) {
@@ -70,17 +73,28 @@ public class BitmapImageRenderer implements ImageRenderer {
         return false;
     }
 
+    @Override
+    public void setTarget(Graphics2D graphics, Rectangle2D anchor) {
+        imageCache = (graphics == null) ? null : (DecodedImageCache)graphics.getRenderingHint(Drawable.IMAGE_CACHE);
+        targetSize = null;
+        // only subsample when rendering to a bitmap - vector outputs like PDF or SVG can be zoomed in
+        if (imageCache != null && anchor != null && graphics.getRenderingHint(Drawable.BUFFERED_IMAGE) != null) {
+            AffineTransform tx = graphics.getTransform();
+            double width = Math.abs(anchor.getWidth() * Math.hypot(tx.getScaleX(), tx.getShearY()));
+            double height = Math.abs(anchor.getHeight() * Math.hypot(tx.getShearX(), tx.getScaleY()));
+            targetSize = new Dimension2DDouble(width, height);
+        }
+    }
+
     @Override
     public void loadImage(InputStream data, String contentType) throws IOException {
-        InputStream in = data;
-        if (doCache) {
+        if (doCache || imageCache != null) {
             UnsynchronizedByteArrayOutputStream bos = new UnsynchronizedByteArrayOutputStream();
             IOUtils.copy(data, bos);
-            cachedImage = bos.toByteArray();
-            cachedContentType = contentType;
-            in = bos.toInputStream();
+            loadImage(bos.toByteArray(), contentType);
+            return;
         }
-        img = readImage(in, contentType);
+        img = readImage(data, contentType, null, null);
     }
 
     @Override
@@ -92,7 +106,31 @@ public class BitmapImageRenderer implements ImageRenderer {
             cachedImage = data.clone();
             cachedContentType = contentType;
         }
-        img = readImage(new UnsynchronizedByteArrayInputStream(data), contentType);
+        try {
+            img = (imageCache == null)
+                ? readImage(new UnsynchronizedByteArrayInputStream(data), contentType, null, null)
+                : readCachedImage(data, contentType);
+        } finally {
+            // the target only applies to the next loaded image
+            imageCache = null;
+            targetSize = null;
+        }
+    }
+
+    private BufferedImage readCachedImage(byte[] data, String contentType) throws IOException {
+        DecodedImageCache.Key key = DecodedImageCache.createKey(data);
+        // see setSubsampling() for the resolution of subsampled images
+        int minWidth = (targetSize == null) ? Integer.MAX_VALUE : (int)Math.ceil(2 * targetSize.getWidth());
+        int minHeight = (targetSize == null) ? Integer.MAX_VALUE : (int)Math.ceil(2 * targetSize.getHeight());
+        BufferedImage image = imageCache.get(key, minWidth, minHeight);
+        if (image == null) {
+            boolean[] subsampled = { false };
+            image = readImage(new UnsynchronizedByteArrayInputStream(data), contentType, targetSize, subsampled);
+            if (image != null) {
+                imageCache.put(key, image, subsampled[0]);
+            }
+        }
+        return image;
     }
 
     /**
@@ -101,10 +139,14 @@ public class BitmapImageRenderer implements ImageRenderer {
      *
      * @param data the data stream
      * @param contentType the content type
+     * @param targetSize the size in pixels the image is drawn with - if it's far below the native size,
+     *  the image is decoded with source subsampling. {@code null} to decode the image in its native size.
+     * @param subsampled set to {@code true}, if the image was subsampled
      * @return the bufferedImage or null, if there was no image reader for this content type
      * @throws IOException thrown if there was an error while processing the image
      */
-    private static BufferedImage readImage(final InputStream data, final String contentType) throws IOException {
+    private static BufferedImage readImage(final InputStream data, final String contentType,
+        final Dimension2D targetSize, final boolean[] subsampled) throws IOException {
         IOException lastException = null;
         BufferedImage img = null;
 
@@ -142,6 +184,7 @@ public class BitmapImageRenderer implements ImageRenderer {
                         switch (mode) {
                             case 0:
                                 reader.setInput(iis, false, true);
+                                setSubsampling(reader, param, targetSize, subsampled);
                                 img = reader.read(0, param);
                                 break;
                             case 1: {
@@ -158,6 +201,7 @@ public class BitmapImageRenderer implements ImageRenderer {
                                     }
                                 }
                                 reader.setInput(iis, false, true);
+                                setSubsampling(reader, param, targetSize, subsampled);
                                 img = reader.read(0, param);
                                 break;
                             }
@@ -165,6 +209,10 @@ public class BitmapImageRenderer implements ImageRenderer {
                                 // try to load truncated pictures by supplying a BufferedImage
                                 // and use the processed data up till the point of error
                                 reader.setInput(iis, false, true);
+                                param.setSourceSubsampling(1, 1, 0, 0);
+                                if (subsampled != null) {
+                                    subsampled[0] = false;
+                                }
                                 int height = reader.getHeight(0);
                                 int width = reader.getWidth(0);
 
@@ -237,6 +285,22 @@ public class BitmapImageRenderer implements ImageRenderer {
         return img;
     }
 
+    private static void setSubsampling(ImageReader reader, ImageReadParam param, Dimension2D targetSize, boolean[] subsampled)
+    throws IOException {
+        if (targetSize == null || subsampled == null) {
+            return;
+        }
+        // subsampling skips pixels, so keep twice the target resolution for the final
+        // (interpolated) scaling by the graphics context
+        int factor = (int)(Math.min(
+            reader.getWidth(0) / Math.max(targetSize.getWidth(), 1),
+            reader.getHeight(0) / Math.max(targetSize.getHeight(), 1)) / 2);
+        if (factor >= 2) {
+            param.setSourceSubsampling(factor, factor, 0, 0);
+            subsampled[0] = true;
+        }
+    }
+
     private static int findTruncatedBlackBox(BufferedImage img, int width, int height) {
         // scan through the image to find the black box after the truncated data
         int h = height-1;
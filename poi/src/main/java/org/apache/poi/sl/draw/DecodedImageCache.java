@@ -0,0 +1,283 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.sl.draw;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+import org.apache.poi.util.IOUtils;
+
+/**
+ * A size-bounded cache of decoded bitmap images, which can be shared by several graphics contexts
+ * and threads via the rendering hint {@link Drawable#IMAGE_CACHE}.<p>
+ *
+ * The images are keyed by a checksum of their data, so the same picture on each slide, layout
+ * and master is only decoded once. An image is decoded with source subsampling, if it's rendered
+ * into a bitmap far below its native size. A cached image is used as long as its resolution is
+ * sufficient for the requested size, otherwise it's decoded again and replaced.<p>
+ *
+ * Vector images like metafiles can be cached as rasterized images of the drawn size via
+ * {@link #drawRasterImage(Graphics2D, Rectangle2D, byte[], Object, BiConsumer)}, so a recurring logo
+ * isn't replayed record by record on each slide.<p>
+ *
+ * The least recently used images are evicted, when the decoded pixels exceed the maximum size.
+ * The cached images are shared and must not be modified.
+ *
+ * @since POI 5.0.1
+ */
+public final class DecodedImageCache {
+    /** the maximum pixels of a rasterized vector image - larger images are drawn as vector graphics */
+    private static final long MAX_RASTER_PIXELS = 2048L * 2048L;
+
+    private final long maxBytes;
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private final LinkedHashMap<Key,Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param maxBytes the maximum size of the decoded images, counting 4 bytes per pixel
+     */
+    public DecodedImageCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param key the key of the image data
+     * @param minWidth the minimum width in pixels of the decoded image
+     * @param minHeight the minimum height in pixels of the decoded image
+     * @return the cached image or {@code null}, if the image isn't cached or its resolution isn't sufficient
+     */
+    BufferedImage get(Key key, int minWidth, int minHeight) {
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            if (e != null && (!e.subsampled || (e.image.getWidth() >= minWidth && e.image.getHeight() >= minHeight))) {
+                hits++;
+                return e.image;
+            }
+            misses++;
+            return null;
+        }
+    }
+
+    /**
+     * @param subsampled {@code true}, if the image was decoded with a lower resolution
+     */
+    void put(Key key, BufferedImage image, boolean subsampled) {
+        long size = getSize(image);
+        if (size > maxBytes) {
+            return;
+        }
+        synchronized (entries) {
+            Entry old = entries.put(key, new Entry(image, subsampled));
+            if (old != null) {
+                usedBytes -= getSize(old.image);
+            }
+            usedBytes += size;
+            Iterator<Entry> iter = entries.values().iterator();
+            while (usedBytes > maxBytes && iter.hasNext()) {
+                usedBytes -= getSize(iter.next().image);
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Draws vector image data, e.g. a metafile, via a cached rasterized image of the size in device space.<p>
+     *
+     * The rasterized images are keyed by the data, the size in pixels, the standard AWT rendering hints
+     * of the graphics context (e.g. antialiasing and interpolation) and the given painter state, i.e. the
+     * same image drawn in different sizes or qualities is cached independently. The {@link Drawable}
+     * hints are applied when the image is rasterized, but they aren't part of the key, as they are
+     * expected to be the same for all graphics contexts sharing a cache. Rotated or sheared
+     * images are rasterized in their unrotated size and transformed when drawn.<p>
+     *
+     * Images larger than 2048x2048 pixels aren't rasterized, so the memory usage stays bounded,
+     * and need to be drawn as vector graphics by the caller.
+     *
+     * @param graphics the graphics context
+     * @param bounds the bounds in user space, which the whole image is drawn into
+     * @param data the image data
+     * @param state the state of the painter which affects the drawn image, e.g. the default charset
+     *  of a metafile, or {@code null}
+     * @param painter draws the vector image into the given graphics context and bounds
+     * @return {@code true}, if the image was drawn, {@code false} if it needs to be drawn as vector graphics
+     */
+    public boolean drawRasterImage(Graphics2D graphics, Rectangle2D bounds, byte[] data, Object state,
+        BiConsumer<Graphics2D, Rectangle2D> painter) {
+        AffineTransform tx = graphics.getTransform();
+        double pxWidth = Math.abs(bounds.getWidth() * Math.hypot(tx.getScaleX(), tx.getShearY()));
+        double pxHeight = Math.abs(bounds.getHeight() * Math.hypot(tx.getShearX(), tx.getScaleY()));
+        if (!(pxWidth >= 1 && pxHeight >= 1) || pxWidth * pxHeight > MAX_RASTER_PIXELS) {
+            return false;
+        }
+        final int width = (int)Math.ceil(pxWidth);
+        final int height = (int)Math.ceil(pxHeight);
+
+        Key key = new Key(data, width, height, getAwtHints(graphics), state);
+        BufferedImage image = get(key, width, height);
+        if (image == null) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            g.setRenderingHints(graphics.getRenderingHints());
+            g.setRenderingHint(Drawable.BUFFERED_IMAGE, new WeakReference<>(image));
+            painter.accept(g, new Rectangle2D.Double(0, 0, width, height));
+            g.dispose();
+            put(key, image, false);
+        }
+
+        AffineTransform at = AffineTransform.getTranslateInstance(bounds.getX(), bounds.getY());
+        at.scale(bounds.getWidth() / width, bounds.getHeight() / height);
+        graphics.drawImage(image, at, null);
+        return true;
+    }
+
+    /**
+     * Removes all images
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            usedBytes = 0;
+        }
+    }
+
+    /**
+     * @return the number of cached images
+     */
+    public int getImageCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the size of the cached images in bytes
+     */
+    public long getUsedBytes() {
+        synchronized (entries) {
+            return usedBytes;
+        }
+    }
+
+    /**
+     * @return the number of lookups which returned a cached image
+     */
+    public long getHits() {
+        synchronized (entries) {
+            return hits;
+        }
+    }
+
+    /**
+     * @return the number of lookups which required decoding the image
+     */
+    public long getMisses() {
+        synchronized (entries) {
+            return misses;
+        }
+    }
+
+    private static long getSize(BufferedImage image) {
+        return 4L * image.getWidth() * image.getHeight();
+    }
+
+    static Key createKey(byte[] data) {
+        return new Key(data, 0, 0, Collections.emptyMap(), null);
+    }
+
+    /**
+     * @return the standard AWT rendering hints, i.e. without the {@link Drawable} hints, which
+     *  also contain the per shape state
+     */
+    private static Map<Object,Object> getAwtHints(Graphics2D graphics) {
+        final Class<?> awtKey = RenderingHints.KEY_ANTIALIASING.getClass();
+        Map<Object,Object> hints = new HashMap<>();
+        graphics.getRenderingHints().forEach((k, v) -> {
+            if (k.getClass() == awtKey) {
+                hints.put(k, v);
+            }
+        });
+        return hints;
+    }
+
+    static final class Key {
+        private final int length;
+        private final long crc;
+        private final int hash;
+        private final int width;
+        private final int height;
+        private final Map<Object,Object> hints;
+        private final Object state;
+
+        /**
+         * @param width the width of a rasterized image, 0 for decoded images
+         * @param height the height of a rasterized image, 0 for decoded images
+         */
+        private Key(byte[] data, int width, int height, Map<Object,Object> hints, Object state) {
+            this.length = data.length;
+            this.crc = IOUtils.calculateChecksum(data);
+            this.hash = Arrays.hashCode(data);
+            this.width = width;
+            this.height = height;
+            this.hints = hints;
+            this.state = state;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key)o;
+            return length == other.length && crc == other.crc && hash == other.hash
+                && width == other.width && height == other.height
+                && hints.equals(other.hints) && Objects.equals(state, other.state);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((int)crc ^ hash) * 31 + width * 17 + height;
+        }
+    }
+
+    private static final class Entry {
+        private final BufferedImage image;
+        private final boolean subsampled;
+
+        private Entry(BufferedImage image, boolean subsampled) {
+            this.image = image;
+            this.subsampled = subsampled;
+        }
+    }
+}
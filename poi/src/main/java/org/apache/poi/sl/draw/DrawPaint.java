@@ -274,6 +274,8 @@ public class DrawPaint {
 
             Boolean cacheImage = (Boolean)graphics.getRenderingHint(Drawable.CACHE_IMAGE_SOURCE);
             renderer.setCacheInput(cacheImage != null && cacheImage);
+            // only stretched textures are scaled to the shape, tiles are drawn with the image size
+            renderer.setTarget(graphics, fill.getStretch() != null ? textAnchor : null);
             renderer.loadImage(is, contentType);
 
             int alpha = fill.getAlpha();
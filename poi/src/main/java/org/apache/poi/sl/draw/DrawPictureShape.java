@@ -65,6 +65,7 @@ public class DrawPictureShape extends DrawSimpleShape {
 
                 ImageRenderer renderer = getImageRenderer(graphics, ct);
                 if (renderer.canRender(ct)) {
+                    renderer.setTarget(graphics, getImageBounds(anchor, insets));
                     renderer.loadImage(dataBytes, ct);
                     renderer.drawImage(graphics, anchor, insets);
                     return;
@@ -75,6 +76,19 @@ public class DrawPictureShape extends DrawSimpleShape {
         }
     }
 
+    /**
+     * @return the bounds of the whole image, of which the clipped part is drawn into the anchor
+     */
+    private static Rectangle2D getImageBounds(Rectangle2D anchor, Insets insets) {
+        if (insets == null) {
+            return anchor;
+        }
+        double cw = (100000-insets.left-insets.right) / 100000.0;
+        double ch = (100000-insets.top-insets.bottom) / 100000.0;
+        return (cw <= 0 || ch <= 0) ? null
+            : new Rectangle2D.Double(anchor.getX(), anchor.getY(), anchor.getWidth()/cw, anchor.getHeight()/ch);
+    }
+
     /**
      * Returns an ImageRenderer for the PictureData
      *
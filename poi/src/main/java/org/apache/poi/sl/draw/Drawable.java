@@ -51,6 +51,7 @@ public interface Drawable {
             case 14: return "DEFAULT_CHARSET";
             case 15: return "EMF_FORCE_HEADER_BOUNDS";
             case 16: return "CACHE_IMAGE_SOURCE";
+            case 17: return "IMAGE_CACHE";
             default: return "UNKNOWN_ID "+intKey();
             }
         }
@@ -173,6 +174,16 @@ public interface Drawable {
      */
     DrawableHint CACHE_IMAGE_SOURCE = new DrawableHint(16);
 
+    /**
+     * A {@link DecodedImageCache} to share the decoded bitmap images between the drawings of
+     * slides, layouts and masters - also across threads. When rendering to a bitmap, the metafile
+     * renderers use it to cache the rasterized metafiles.
+     * If unset, the images are decoded each time they are drawn.
+     *
+     * @since POI 5.0.1
+     */
+    DrawableHint IMAGE_CACHE = new DrawableHint(17);
+
 
     /**
      * Apply 2-D transforms before drawing this shape. This includes rotation and flipping.
@@ -164,6 +164,19 @@ public interface ImageRenderer {
     default void setDefaultCharset(Charset defaultCharset) {}
 
 
+    /**
+     * Sets the graphics context and the bounds, which the next loaded image will be drawn into.
+     * Renderers can use it to share decoded images via {@link Drawable#IMAGE_CACHE} or to decode
+     * the image with a lower resolution.
+     *
+     * @param graphics the graphics context
+     * @param anchor the bounds in user space, which the whole (unclipped) image will be drawn into,
+     *  or {@code null} if the image is needed in its native size
+     *
+     * @since POI 5.0.1
+     */
+    default void setTarget(Graphics2D graphics, Rectangle2D anchor) {}
+
     /**
      * Dis-/Enables caching of input data for later retrieval.
      * Opposed to {@link #getImage()}, which returns a {@link BufferedImage}, the cached image can be later
@@ -0,0 +1,286 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.sl.draw;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Dimension2D;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.poi.sl.usermodel.Slide;
+import org.apache.poi.sl.usermodel.SlideShow;
+
+/**
+ * Renders the slides of a slide show concurrently on a bounded pool of worker threads.<p>
+ *
+ * The slide show usermodels (e.g. {@code XMLSlideShow} or {@code HSLFSlideShow}) initialize a lot of
+ * their state lazily and are not thread-safe. Therefore each worker thread opens its own instance of
+ * the slide show via the {@link SlideShowOpener} and keeps it for all slides it renders. Each slide is
+ * drawn on its own {@link Graphics2D} with its own {@link DrawFactory}.<p>
+ *
+ * The submission of slides blocks, if more than two slides per worker thread are pending, so
+ * the rendered images don't pile up, when they are consumed slower than they are produced.
+ *
+ * @since POI 5.0.1
+ */
+public final class ParallelSlideRenderer implements Closeable {
+    /** the time to wait on close for running tasks, before they are interrupted */
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    /**
+     * Opens a new instance of the slide show, e.g.
+     * {@code () -> SlideShowFactory.create(file, null, true)}
+     */
+    @FunctionalInterface
+    public interface SlideShowOpener {
+        SlideShow<?,?> open() throws IOException;
+    }
+
+    /**
+     * Processes a slide on a worker thread
+     */
+    @FunctionalInterface
+    public interface SlideTask {
+        /**
+         * @param slideNo the 1-based slide number
+         * @param slide the slide of the slide show instance of the current worker thread
+         */
+        void process(int slideNo, Slide<?,?> slide) throws IOException;
+    }
+
+    /**
+     * Receives the rendered images on the worker threads
+     */
+    @FunctionalInterface
+    public interface SlideImageConsumer {
+        /**
+         * @param slideNo the 1-based slide number
+         * @param image the rendered image - it's not used by the renderer afterwards
+         */
+        void accept(int slideNo, BufferedImage image) throws IOException;
+    }
+
+    private final SlideShowOpener opener;
+    private final int threads;
+    private final ExecutorService executor;
+    private final ThreadLocal<SlideShow<?,?>> slideShows = new ThreadLocal<>();
+    private final List<SlideShow<?,?>> openedSlideShows = new ArrayList<>();
+    private DecodedImageCache imageCache;
+
+    /**
+     * @param opener opens the slide show instance for each worker thread
+     * @param threads the number of worker threads
+     */
+    public ParallelSlideRenderer(SlideShowOpener opener, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive, but was " + threads);
+        }
+        this.opener = opener;
+        this.threads = threads;
+        final AtomicInteger threadNo = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "poi-slide-renderer-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Sets the cache of decoded images, which is shared by the worker threads in
+     * {@link #render(Iterable, double, int, SlideImageConsumer)}
+     *
+     * @param imageCache the cache or {@code null} to decode the images for each slide
+     */
+    public void setImageCache(DecodedImageCache imageCache) {
+        this.imageCache = imageCache;
+    }
+
+    public DecodedImageCache getImageCache() {
+        return imageCache;
+    }
+
+    /**
+     * Processes the given slides concurrently and waits until all are done.
+     * If a task fails, the remaining slides are skipped and the failure is rethrown,
+     * after the already running tasks have finished.
+     *
+     * @param slideNos the 1-based slide numbers
+     * @param task the task called on the worker threads for each slide
+     */
+    public void forEachSlide(Iterable<Integer> slideNos, SlideTask task) throws IOException {
+        final Semaphore pending = new Semaphore(threads * 2);
+        final AtomicBoolean aborted = new AtomicBoolean();
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int slideNo : slideNos) {
+                pending.acquire();
+                if (aborted.get()) {
+                    break;
+                }
+                futures.add(executor.submit(() -> {
+                    try {
+                        if (aborted.get()) {
+                            // skip the queued slides after a failure
+                            return null;
+                        }
+                        SlideShow<?,?> ppt = getSlideShow();
+                        task.process(slideNo, ppt.getSlides().get(slideNo - 1));
+                        return null;
+                    } catch (Exception | Error e) {
+                        aborted.set(true);
+                        throw e;
+                    } finally {
+                        pending.release();
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering slides", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            aborted.set(true);
+            awaitTasks(futures);
+        }
+    }
+
+    /**
+     * Waits for the submitted tasks, so no task uses a slide show after {@link #forEachSlide} has returned.
+     * The queued tasks finish immediately, as the processing has been aborted.
+     */
+    private static void awaitTasks(List<Future<?>> futures) {
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                // the remaining tasks are awaited on close
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ignored) {
+                // the first failure is rethrown by forEachSlide
+            }
+        }
+    }
+
+    /**
+     * Renders the given slides concurrently with the default rendering hints and a transparent
+     * background and waits until all are done.
+     *
+     * @param slideNos the 1-based slide numbers
+     * @param scale the scale factor of the images, i.e. 1 renders an image of the page size in points
+     * @param imageType the {@link BufferedImage} type, e.g. {@link BufferedImage#TYPE_INT_ARGB}
+     * @param consumer receives the images on the worker threads
+     */
+    public void render(Iterable<Integer> slideNos, double scale, int imageType, SlideImageConsumer consumer) throws IOException {
+        forEachSlide(slideNos, (slideNo, slide) -> {
+            Dimension2D pgsize = slide.getSlideShow().getPageSize();
+            int width = Math.max((int)Math.rint(pgsize.getWidth() * scale), 1);
+            int height = Math.max((int)Math.rint(pgsize.getHeight() * scale), 1);
+            BufferedImage img = new BufferedImage(width, height, imageType);
+            Graphics2D graphics = img.createGraphics();
+            try {
+                graphics.setRenderingHint(Drawable.BUFFERED_IMAGE, new WeakReference<>(img));
+                if (imageCache != null) {
+                    graphics.setRenderingHint(Drawable.IMAGE_CACHE, imageCache);
+                }
+                graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+                graphics.scale(scale, scale);
+                slide.draw(graphics);
+            } finally {
+                graphics.dispose();
+            }
+            consumer.accept(slideNo, img);
+        });
+    }
+
+    private SlideShow<?,?> getSlideShow() throws IOException {
+        SlideShow<?,?> ppt = slideShows.get();
+        if (ppt == null) {
+            ppt = opener.open();
+            slideShows.set(ppt);
+            synchronized (openedSlideShows) {
+                openedSlideShows.add(ppt);
+            }
+        }
+        return ppt;
+    }
+
+    /**
+     * Stops the worker threads and closes the slide show instances opened by them.<p>
+     *
+     * Running tasks are awaited for up to 30 seconds, before they are interrupted.
+     */
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+                executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        IOException ex = null;
+        synchronized (openedSlideShows) {
+            for (SlideShow<?,?> ppt : openedSlideShows) {
+                try {
+                    ppt.close();
+                } catch (IOException e) {
+                    ex = e;
+                }
+            }
+            openedSlideShows.clear();
+        }
+        if (ex != null) {
+            throw ex;
+        }
+    }
+}
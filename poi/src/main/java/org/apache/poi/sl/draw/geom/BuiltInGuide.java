@@ -20,15 +20,33 @@
 package org.apache.poi.sl.draw.geom;
 
 import java.awt.geom.Rectangle2D;
+import java.util.HashMap;
+import java.util.Map;
 
 /* package */ enum BuiltInGuide implements Formula {
     _3cd4, _3cd8, _5cd8, _7cd8, _b, _cd2, _cd4, _cd8, _hc, _h, _hd2, _hd3, _hd4, _hd5, _hd6, _hd8,
     _l, _ls, _r, _ss, _ssd2, _ssd4, _ssd6, _ssd8, _ssd16, _ssd32, _t, _vc,
     _w, _wd2, _wd3, _wd4, _wd5, _wd6, _wd8, _wd10, _wd32;
-    
+
+    private static final Map<String,BuiltInGuide> BY_NAME = new HashMap<>();
+
+    static {
+        for (BuiltInGuide bg : values()) {
+            BY_NAME.put(bg.getName(), bg);
+        }
+    }
+
     public String getName() {
         return name().substring(1);
     }
+
+    /**
+     * @param name the guide name without the enum prefix, e.g. "wd2"
+     * @return the built-in guide or {@code null} if there's no built-in guide of that name
+     */
+    static BuiltInGuide lookup(String name) {
+        return BY_NAME.get(name);
+    }
     
     @Override
     public double evaluate(Context ctx) {
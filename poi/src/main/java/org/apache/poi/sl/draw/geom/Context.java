@@ -55,12 +55,43 @@ public class Context {
     }
 
     public double getValue(String key){
-        if(DOUBLE_PATTERN.matcher(key).matches()){
+        if(isNumber(key)){
             return Double.parseDouble(key);
         }
 
+        return getGuideValue(key, BuiltInGuide.lookup(key));
+    }
+
+    /**
+     * Returns the value of a guide, which has been already determined to be no literal
+     *
+     * @param name the guide name
+     * @param builtIn the built-in guide of that name or {@code null}
+     */
+    double getGuideValue(String name, BuiltInGuide builtIn) {
+        Double val = _ctx.get(name);
+        if (val != null) {
+            return val;
+        }
         // BuiltInGuide throws IllegalArgumentException if key is not defined
-        return _ctx.containsKey(key) ? _ctx.get(key) : evaluate(BuiltInGuide.valueOf("_"+key));
+        return evaluate(builtIn != null ? builtIn : BuiltInGuide.valueOf("_"+name));
+    }
+
+    /**
+     * @return {@code true}, if the operand is a literal number
+     */
+    static boolean isNumber(String key) {
+        // guide names mostly start with a letter, which can't start a number - apart of NaN and Infinity -
+        // so the regex is only matched for the remaining keys
+        if (!key.isEmpty()) {
+            char c = key.charAt(0);
+            boolean numberStart = c <= ' ' || c == '+' || c == '-' || c == '.' ||
+                (c >= '0' && c <= '9') || c == 'N' || c == 'I';
+            if (!numberStart) {
+                return false;
+            }
+        }
+        return DOUBLE_PATTERN.matcher(key).matches();
     }
 
     public double evaluate(Formula fmla){
@@ -58,7 +58,8 @@ public class Guide implements Formula {
     private String fmla;
 
     private Op op;
-    private String[] operands;
+    /** the operands x, y and z - missing operands are compiled as literal 0 */
+    private final Operand[] operands = new Operand[3];
 
     public String getName(){
         return name;
@@ -74,21 +75,24 @@ public class Guide implements Formula {
 
     public void setFmla(String fmla) {
         this.fmla = fmla;
-        operands = WHITESPACE.split(fmla);
-        switch (operands[0]) {
+        String[] tokens = WHITESPACE.split(fmla);
+        switch (tokens[0]) {
             case "*/": op = Op.muldiv; break;
             case "+-": op = Op.addsub; break;
             case "+/": op = Op.adddiv; break;
             case "?:": op = Op.ifelse; break;
-            default: op = Op.valueOf(operands[0]); break;
+            default: op = Op.valueOf(tokens[0]); break;
+        }
+        for (int i=0; i<operands.length; i++) {
+            operands[i] = new Operand(i+1 < tokens.length ? tokens[i+1] : null);
         }
     }
 
     @Override
     public double evaluate(Context ctx) {
-        double x = (operands.length > 1) ? ctx.getValue(operands[1]) : 0;
-        double y = (operands.length > 2) ? ctx.getValue(operands[2]) : 0;
-        double z = (operands.length > 3) ? ctx.getValue(operands[3]) : 0;
+        double x = operands[0].evaluate(ctx);
+        double y = operands[1].evaluate(ctx);
+        double z = operands[2].evaluate(ctx);
         switch (op) {
             case abs:
                 // Absolute Value Formula
@@ -149,6 +153,34 @@ public class Guide implements Formula {
         }
     }
 
+    /**
+     * A formula operand, which is resolved once when the formula is set, instead of
+     * being parsed each time the guide is evaluated
+     */
+    private static final class Operand {
+        /** the guide name or {@code null} for a literal value */
+        private final String name;
+        /** the built-in guide used when no guide of that name has been evaluated before */
+        private final BuiltInGuide builtIn;
+        private final double value;
+
+        Operand(String token) {
+            if (token == null || Context.isNumber(token)) {
+                name = null;
+                builtIn = null;
+                value = (token == null) ? 0 : Double.parseDouble(token);
+            } else {
+                name = token;
+                builtIn = BuiltInGuide.lookup(token);
+                value = 0;
+            }
+        }
+
+        double evaluate(Context ctx) {
+            return (name == null) ? value : ctx.getGuideValue(name, builtIn);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
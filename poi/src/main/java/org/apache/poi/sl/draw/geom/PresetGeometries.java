@@ -19,26 +19,40 @@
 
 package org.apache.poi.sl.draw.geom;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
-import javax.xml.transform.stream.StreamSource;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.XMLHelper;
 
+/**
+ * The preset shape definitions.<p>
+ *
+ * The definitions are only indexed on the first access - the geometry of a shape type
+ * is parsed, when it's requested for the first time.
+ */
 public final class PresetGeometries {
     private static final Logger LOG = LogManager.getLogger(PresetGeometries.class);
 
-    private final Map<String, CustomGeometry> map = new TreeMap<>();
+    /** the raw (UTF-8) preset definitions */
+    private final byte[] definitions;
+    /** the byte offsets of the shape elements - start (inclusive) and end (exclusive) - by shape name */
+    private final Map<String, int[]> index = new TreeMap<>();
+    private final Map<String, CustomGeometry> map = new ConcurrentHashMap<>();
 
     private static class SingletonHelper{
         private static final PresetGeometries INSTANCE = new PresetGeometries();
@@ -49,18 +63,105 @@ public final class PresetGeometries {
     }
 
     private PresetGeometries() {
-        // use a local object first to not assign a partly constructed object in case of failure
-        try {
-            try (InputStream is = PresetGeometries.class.getResourceAsStream("presetShapeDefinitions.xml")) {
-                XMLInputFactory staxFactory = XMLHelper.newXMLInputFactory();
-                XMLStreamReader sr = staxFactory.createXMLStreamReader(new StreamSource(is));
-                try {
-                    PresetParser p = new PresetParser(PresetParser.Mode.FILE);
-                    p.parse(sr);
-                    p.getGeom().forEach(map::put);
-                } finally {
-                    sr.close();
+        try (InputStream is = PresetGeometries.class.getResourceAsStream("presetShapeDefinitions.xml")) {
+            definitions = IOUtils.toByteArray(is);
+        } catch (IOException e){
+            throw new RuntimeException(e);
+        }
+        indexShapes();
+    }
+
+    /**
+     * Finds the shape elements, i.e. the children of the root element.
+     * This is a minimal tag scanner for the bundled definitions, which contain no CDATA sections
+     * or DTDs - the actual parsing is left to StAX.
+     */
+    private void indexShapes() {
+        final byte[] b = definitions;
+        int depth = 0, shapeStart = -1;
+        String shapeName = null;
+        for (int i = 0; i < b.length; i++) {
+            if (b[i] != '<') {
+                continue;
+            }
+            int tagStart = i;
+            if (startsWith(b, i, "<?")) {
+                i = indexOf(b, i, "?>") + 1;
+            } else if (startsWith(b, i, "<!--")) {
+                i = indexOf(b, i, "-->") + 2;
+            } else if (b[i+1] == '/') {
+                i = indexOf(b, i, ">");
+                if (--depth == 1) {
+                    addShape(shapeName, shapeStart, i+1);
+                }
+            } else {
+                int nameEnd = i+1;
+                while (b[nameEnd] > ' ' && b[nameEnd] != '/' && b[nameEnd] != '>') {
+                    nameEnd++;
+                }
+                // skip the attributes, which might contain '>' within quoted values
+                byte quote = 0;
+                for (i = nameEnd; quote != 0 || b[i] != '>'; i++) {
+                    if (quote == 0 && (b[i] == '"' || b[i] == '\'')) {
+                        quote = b[i];
+                    } else if (quote == b[i]) {
+                        quote = 0;
+                    }
                 }
+                boolean empty = b[i-1] == '/';
+                if (depth == 1) {
+                    shapeName = new String(b, tagStart+1, nameEnd-tagStart-1, StandardCharsets.UTF_8);
+                    shapeStart = tagStart;
+                    if (empty) {
+                        addShape(shapeName, shapeStart, i+1);
+                    }
+                }
+                if (!empty) {
+                    depth++;
+                }
+            }
+        }
+    }
+
+    private void addShape(String name, int start, int end) {
+        if (index.containsKey(name)) {
+            LOG.atWarn().log("Duplicate definition of {}", name);
+        }
+        index.put(name, new int[]{start, end});
+    }
+
+    private static boolean startsWith(byte[] b, int offset, String prefix) {
+        if (offset + prefix.length() > b.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (b[offset+i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] b, int offset, String str) {
+        for (int i = offset; i < b.length; i++) {
+            if (startsWith(b, i, str)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Unterminated markup in preset shape definitions at offset "+offset);
+    }
+
+    private CustomGeometry parseShape(String name) {
+        int[] range = index.get(name);
+        XMLInputFactory staxFactory = XMLHelper.newXMLInputFactory();
+        try (InputStream is = new ByteArrayInputStream(definitions, range[0], range[1]-range[0])) {
+            XMLStreamReader sr = staxFactory.createXMLStreamReader(is, "UTF-8");
+            try {
+                PresetParser p = new PresetParser(PresetParser.Mode.SHAPE_LST);
+                p.parse(sr);
+                return p.getGeom().get(name);
+            } finally {
+                sr.close();
             }
         } catch (IOException | XMLStreamException e){
             throw new RuntimeException(e);
@@ -82,15 +183,15 @@ public final class PresetGeometries {
     }
 
     public CustomGeometry get(String name) {
-        return name == null ? null : map.get(name);
+        return (name == null || !index.containsKey(name)) ? null : map.computeIfAbsent(name, this::parseShape);
     }
 
     public Set<String> keySet() {
-        return map.keySet();
+        return Collections.unmodifiableSet(index.keySet());
     }
 
     public int size() {
-        return map.size();
+        return index.size();
     }
 
     @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
@@ -101,6 +202,9 @@ public final class PresetGeometries {
 
     @Override
     public int hashCode() {
-        return Objects.hash(map);
+        // all shapes need to be parsed to calculate the hash
+        Map<String, CustomGeometry> all = new TreeMap<>();
+        index.keySet().forEach(name -> all.put(name, get(name)));
+        return Objects.hash(all);
     }
 }
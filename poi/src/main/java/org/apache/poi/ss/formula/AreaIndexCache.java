@@ -0,0 +1,111 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.formula.FormulaUsedBlankCellSet.BookSheetKey;
+
+/**
+ * Caches lookup structures which functions derive from all values of an area
+ * (e.g. the criteria ranges of SUMIFS), so that many formulas referring to the same
+ * area can share them.<p>
+ *
+ * Each index is tracked like a formula cell without location: its {@link FormulaCellCacheEntry}
+ * depends on the cells the index was built from, and the formulas using the index depend on that
+ * entry. When one of the input cells changes, the entry and all its consumers are cleared and the
+ * index is rebuilt on the next request.
+ */
+final class AreaIndexCache {
+
+    static final class Key {
+        private final long _bookSheetColumn;
+        private final int _firstRow;
+        private final int _lastRow;
+        private final int _lastColumn;
+        private final Class<?> _indexType;
+
+        Key(int bookIndex, int sheetIndex, int firstRow, int firstColumn, int lastRow, int lastColumn, Class<?> indexType) {
+            _bookSheetColumn = PlainCellCache.Loc.toBookSheetColumn(bookIndex, sheetIndex, firstColumn);
+            _firstRow = firstRow;
+            _lastRow = lastRow;
+            _lastColumn = lastColumn;
+            _indexType = indexType;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int)(_bookSheetColumn ^ (_bookSheetColumn >>> 32))
+                + 17 * _firstRow + 31 * _lastRow + 47 * _lastColumn + _indexType.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return _bookSheetColumn == other._bookSheetColumn
+                && _firstRow == other._firstRow
+                && _lastRow == other._lastRow
+                && _lastColumn == other._lastColumn
+                && _indexType == other._indexType;
+        }
+    }
+
+    static final class Entry {
+        private final FormulaCellCacheEntry _cacheEntry = new FormulaCellCacheEntry();
+        private Object _index;
+
+        /**
+         * @return the dependency node of this index. Its value is {@code null} when the index needs to be rebuilt
+         */
+        FormulaCellCacheEntry getCacheEntry() {
+            return _cacheEntry;
+        }
+
+        Object getIndex() {
+            return _index;
+        }
+
+        void setIndex(Object index) {
+            _index = index;
+        }
+    }
+
+    private final Map<Key, Entry> _entriesByKey = new HashMap<>();
+
+    public Entry getOrCreate(Key key) {
+        return _entriesByKey.computeIfAbsent(key, k -> new Entry());
+    }
+
+    public void clear() {
+        _entriesByKey.clear();
+    }
+
+    /**
+     * Indexes aren't registered in the {@link FormulaCellCache}, so they need to be informed
+     * separately when a blank cell they have read gets a value.
+     */
+    public void notifyUpdatedBlankCell(BookSheetKey bsk, int rowIndex, int columnIndex, IEvaluationListener evaluationListener) {
+        for (Entry entry : _entriesByKey.values()) {
+            entry.getCacheEntry().notifyUpdatedBlankCell(bsk, rowIndex, columnIndex, evaluationListener);
+        }
+    }
+}
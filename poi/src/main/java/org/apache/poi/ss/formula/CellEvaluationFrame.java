@@ -17,10 +17,12 @@
 
 package org.apache.poi.ss.formula;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
 import org.apache.poi.ss.formula.eval.ValueEval;
+import org.apache.poi.util.IntList;
 
 /**
  * Stores details about the current evaluation of a cell.<br>
@@ -30,6 +32,8 @@ final class CellEvaluationFrame {
     private final FormulaCellCacheEntry _cce;
     private final Set<CellCacheEntry> _sensitiveInputCells;
     private FormulaUsedBlankCellSet _usedBlankCellGroup;
+    private CompactPlainCellCache _compactCache;
+    private IntList _compactInputSlots;
 
     public CellEvaluationFrame(FormulaCellCacheEntry cce) {
         _cce = cce;
@@ -64,6 +68,30 @@ final class CellEvaluationFrame {
         _sensitiveInputCells.toArray(result);
         return result;
     }
+    /**
+     * @param slot the slot of a cell in the compact cache, directly used by the formula of this evaluation frame
+     */
+    public void addCompactInputCell(CompactPlainCellCache cache, int slot) {
+        if (_compactInputSlots == null) {
+            _compactCache = cache;
+            _compactInputSlots = new IntList();
+        }
+        _compactInputSlots.add(slot);
+    }
+    /**
+     * @return the distinct slots of the input cells
+     */
+    private int[] getCompactInputSlots() {
+        int[] slots = _compactInputSlots.toArray();
+        Arrays.sort(slots);
+        int nDistinct = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (i == 0 || slots[i] != slots[i-1]) {
+                slots[nDistinct++] = slots[i];
+            }
+        }
+        return Arrays.copyOf(slots, nDistinct);
+    }
     public void addUsedBlankCell(EvaluationWorkbook evalWorkbook, int bookIndex, int sheetIndex, int rowIndex, int columnIndex) {
         if (_usedBlankCellGroup == null) {
             _usedBlankCellGroup = new FormulaUsedBlankCellSet();
@@ -73,5 +101,8 @@ final class CellEvaluationFrame {
 
     public void updateFormulaResult(ValueEval result) {
         _cce.updateFormulaResult(result, getSensitiveInputCells(), _usedBlankCellGroup);
+        if (_compactInputSlots != null) {
+            _cce.setCompactInputCells(_compactCache, getCompactInputSlots());
+        }
     }
 }
@@ -133,7 +133,14 @@ public final class CollaboratingWorkbooksEnvironment {
                 throw new RuntimeException("Workbook evaluators must all have the same evaluation listener");
             }
         }
-        EvaluationCache cache = new EvaluationCache(evalListener);
+        // the compact cache is only used, if all evaluators asked for it
+        EvaluationCacheType cacheType = EvaluationCacheType.COMPACT;
+        for (WorkbookEvaluator evaluator : evaluators) {
+            if (evaluator.getCacheType() != EvaluationCacheType.COMPACT) {
+                cacheType = EvaluationCacheType.DEFAULT;
+            }
+        }
+        EvaluationCache cache = new EvaluationCache(evalListener, cacheType);
 
         for(int i=0; i<nItems; i++) {
             evaluators[i].attachToEnvironment(env, cache, i);
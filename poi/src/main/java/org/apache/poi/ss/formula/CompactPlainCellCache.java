@@ -0,0 +1,317 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.formula.PlainCellCache.Loc;
+import org.apache.poi.ss.formula.eval.BlankEval;
+import org.apache.poi.ss.formula.eval.BoolEval;
+import org.apache.poi.ss.formula.eval.ErrorEval;
+import org.apache.poi.ss.formula.eval.NumberEval;
+import org.apache.poi.ss.formula.eval.StringEval;
+import org.apache.poi.ss.formula.eval.ValueEval;
+import org.apache.poi.util.IntList;
+
+/**
+ * Memory efficient replacement for {@link PlainCellCache} and the {@link PlainValueCellCacheEntry}s,
+ * used for {@link EvaluationCacheType#COMPACT}.<p>
+ *
+ * The values of the input cells are stored in chunks of 1024 rows per sheet column,
+ * as primitive type tags, doubles and indexes into a string pool. A cached cell is addressed by
+ * an int slot ({@code chunk id << CHUNK_BITS | row offset}).<p>
+ *
+ * The consuming formula cells are kept as int-indexed edges in a doubly linked list per cell,
+ * so a formula can drop its dependencies without searching them. The formula side holds the
+ * edge ids returned by {@link #addConsumer(FormulaCellCacheEntry, int[])}.
+ */
+final class CompactPlainCellCache {
+
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final byte TYPE_NONE = 0;
+    private static final byte TYPE_NUMBER = 1;
+    private static final byte TYPE_STRING = 2;
+    private static final byte TYPE_BOOLEAN = 3;
+    private static final byte TYPE_ERROR = 4;
+
+    private static final FormulaCellCacheEntry[] EMPTY_CONSUMERS = {};
+
+    private static final class Chunk {
+        private final byte[] _types = new byte[CHUNK_SIZE];
+        /** numbers, booleans as 0/1, error codes and string pool indexes */
+        private final double[] _values = new double[CHUNK_SIZE];
+        /** the first consumer edge + 1 for each cell, 0 if there's no consumer */
+        private final int[] _firstEdges = new int[CHUNK_SIZE];
+    }
+
+    /** chunk ids + 1 by row chunk, for each book/sheet/column */
+    private final Map<Long, int[]> _chunkIdsByColumn = new HashMap<>();
+    private long _lastColumnKey = -1;
+    private int[] _lastColumnChunkIds;
+
+    private Chunk[] _chunks = new Chunk[16];
+    private int _chunkCount;
+
+    private final List<String> _strings = new ArrayList<>();
+    private final Map<String, Integer> _stringIndexes = new HashMap<>();
+
+    private int[] _edgeSlots = new int[64];
+    private int[] _edgeConsumers = new int[64];
+    private int[] _edgePrev = new int[64];
+    private int[] _edgeNext = new int[64];
+    private int _edgeCount;
+    private int _freeEdge = -1;
+
+    private FormulaCellCacheEntry[] _consumers = new FormulaCellCacheEntry[16];
+    private int _consumerCount;
+    private final IntList _freeConsumerIds = new IntList();
+
+    /**
+     * @return the slot of the cached cell or {@code -1} if the cell isn't cached
+     */
+    public int find(int bookIndex, int sheetIndex, int rowIndex, int columnIndex) {
+        int[] chunkIds = getChunkIds(Loc.toBookSheetColumn(bookIndex, sheetIndex, columnIndex), false);
+        int chunkIx = rowIndex >>> CHUNK_BITS;
+        if (chunkIds == null || chunkIx >= chunkIds.length || chunkIds[chunkIx] == 0) {
+            return -1;
+        }
+        int slot = ((chunkIds[chunkIx] - 1) << CHUNK_BITS) | (rowIndex & CHUNK_MASK);
+        return getChunk(slot)._types[slot & CHUNK_MASK] == TYPE_NONE ? -1 : slot;
+    }
+
+    /**
+     * Caches the value of a cell, if it isn't already cached
+     *
+     * @param value the non-blank value of the cell
+     * @return the slot of the cell
+     * @throws IllegalStateException if the cell is cached with a different value
+     */
+    public int getOrPut(int bookIndex, int sheetIndex, int rowIndex, int columnIndex, ValueEval value) {
+        long columnKey = Loc.toBookSheetColumn(bookIndex, sheetIndex, columnIndex);
+        int[] chunkIds = getChunkIds(columnKey, true);
+        int chunkIx = rowIndex >>> CHUNK_BITS;
+        if (chunkIx >= chunkIds.length) {
+            chunkIds = Arrays.copyOf(chunkIds, Math.max(chunkIx + 1, chunkIds.length * 2));
+            _chunkIdsByColumn.put(columnKey, chunkIds);
+            _lastColumnChunkIds = chunkIds;
+        }
+        if (chunkIds[chunkIx] == 0) {
+            if (_chunkCount == _chunks.length) {
+                _chunks = Arrays.copyOf(_chunks, _chunkCount * 2);
+            }
+            _chunks[_chunkCount++] = new Chunk();
+            chunkIds[chunkIx] = _chunkCount;
+        }
+        int slot = ((chunkIds[chunkIx] - 1) << CHUNK_BITS) | (rowIndex & CHUNK_MASK);
+        if (getChunk(slot)._types[slot & CHUNK_MASK] == TYPE_NONE) {
+            setValue(slot, value);
+        } else if (!isValueEqual(slot, value)) {
+            throw new IllegalStateException("value changed");
+        }
+        return slot;
+    }
+
+    /**
+     * @return {@code true} if the value has changed
+     */
+    public boolean updateValue(int slot, ValueEval value) {
+        if (isValueEqual(slot, value)) {
+            return false;
+        }
+        setValue(slot, value);
+        return true;
+    }
+
+    /**
+     * Removes the value of the cell. Any consumers need to be removed before.
+     */
+    public void remove(int slot) {
+        getChunk(slot)._types[slot & CHUNK_MASK] = TYPE_NONE;
+    }
+
+    /**
+     * Registers a formula as consumer of the given cells
+     *
+     * @param slots the distinct slots of the used cells
+     * @return the ids of the new edges, to be passed to {@link #removeConsumer(int[])}
+     */
+    public int[] addConsumer(FormulaCellCacheEntry consumer, int[] slots) {
+        int consumerId;
+        if (_freeConsumerIds.isEmpty()) {
+            if (_consumerCount == _consumers.length) {
+                _consumers = Arrays.copyOf(_consumers, _consumerCount * 2);
+            }
+            consumerId = _consumerCount++;
+        } else {
+            consumerId = _freeConsumerIds.remove(_freeConsumerIds.size() - 1);
+        }
+        _consumers[consumerId] = consumer;
+
+        int[] edges = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            int edge = allocateEdge();
+            int[] firstEdges = getChunk(slot)._firstEdges;
+            int next = firstEdges[slot & CHUNK_MASK] - 1;
+            _edgeSlots[edge] = slot;
+            _edgeConsumers[edge] = consumerId;
+            _edgePrev[edge] = -1;
+            _edgeNext[edge] = next;
+            if (next >= 0) {
+                _edgePrev[next] = edge;
+            }
+            firstEdges[slot & CHUNK_MASK] = edge + 1;
+            edges[i] = edge;
+        }
+        return edges;
+    }
+
+    /**
+     * Removes all edges of a consumer, which were created by a single call to {@link #addConsumer(FormulaCellCacheEntry, int[])}
+     */
+    public void removeConsumer(int[] edges) {
+        if (edges.length == 0) {
+            return;
+        }
+        int consumerId = _edgeConsumers[edges[0]];
+        _consumers[consumerId] = null;
+        _freeConsumerIds.add(consumerId);
+
+        for (int edge : edges) {
+            int prev = _edgePrev[edge];
+            int next = _edgeNext[edge];
+            if (prev < 0) {
+                int slot = _edgeSlots[edge];
+                getChunk(slot)._firstEdges[slot & CHUNK_MASK] = next + 1;
+            } else {
+                _edgeNext[prev] = next;
+            }
+            if (next >= 0) {
+                _edgePrev[next] = prev;
+            }
+            _edgeNext[edge] = _freeEdge;
+            _freeEdge = edge;
+        }
+    }
+
+    /**
+     * @return the formulas consuming the cell
+     */
+    public FormulaCellCacheEntry[] getConsumers(int slot) {
+        int edge = getChunk(slot)._firstEdges[slot & CHUNK_MASK] - 1;
+        if (edge < 0) {
+            return EMPTY_CONSUMERS;
+        }
+        List<FormulaCellCacheEntry> result = new ArrayList<>();
+        for (; edge >= 0; edge = _edgeNext[edge]) {
+            result.add(_consumers[_edgeConsumers[edge]]);
+        }
+        return result.toArray(EMPTY_CONSUMERS);
+    }
+
+    private int allocateEdge() {
+        if (_freeEdge >= 0) {
+            int edge = _freeEdge;
+            _freeEdge = _edgeNext[edge];
+            return edge;
+        }
+        if (_edgeCount == _edgeSlots.length) {
+            int newSize = _edgeCount * 2;
+            _edgeSlots = Arrays.copyOf(_edgeSlots, newSize);
+            _edgeConsumers = Arrays.copyOf(_edgeConsumers, newSize);
+            _edgePrev = Arrays.copyOf(_edgePrev, newSize);
+            _edgeNext = Arrays.copyOf(_edgeNext, newSize);
+        }
+        return _edgeCount++;
+    }
+
+    private int[] getChunkIds(long columnKey, boolean create) {
+        if (columnKey != _lastColumnKey) {
+            int[] chunkIds = _chunkIdsByColumn.get(columnKey);
+            if (chunkIds == null) {
+                if (!create) {
+                    return null;
+                }
+                chunkIds = new int[1];
+                _chunkIdsByColumn.put(columnKey, chunkIds);
+            }
+            _lastColumnKey = columnKey;
+            _lastColumnChunkIds = chunkIds;
+        }
+        return _lastColumnChunkIds;
+    }
+
+    private Chunk getChunk(int slot) {
+        return _chunks[slot >>> CHUNK_BITS];
+    }
+
+    private void setValue(int slot, ValueEval value) {
+        Chunk chunk = getChunk(slot);
+        int ix = slot & CHUNK_MASK;
+        if (value == BlankEval.instance) {
+            // blank cells aren't cached
+            chunk._types[ix] = TYPE_NONE;
+        } else if (value instanceof NumberEval) {
+            chunk._types[ix] = TYPE_NUMBER;
+            chunk._values[ix] = ((NumberEval)value).getNumberValue();
+        } else if (value instanceof StringEval) {
+            String str = ((StringEval)value).getStringValue();
+            Integer strIx = _stringIndexes.get(str);
+            if (strIx == null) {
+                strIx = _strings.size();
+                _strings.add(str);
+                _stringIndexes.put(str, strIx);
+            }
+            chunk._types[ix] = TYPE_STRING;
+            chunk._values[ix] = strIx;
+        } else if (value instanceof BoolEval) {
+            chunk._types[ix] = TYPE_BOOLEAN;
+            chunk._values[ix] = ((BoolEval)value).getBooleanValue() ? 1 : 0;
+        } else if (value instanceof ErrorEval) {
+            chunk._types[ix] = TYPE_ERROR;
+            chunk._values[ix] = ((ErrorEval)value).getErrorCode();
+        } else {
+            throw new IllegalStateException("Unexpected value class (" + value.getClass().getName() + ")");
+        }
+    }
+
+    private boolean isValueEqual(int slot, ValueEval value) {
+        Chunk chunk = getChunk(slot);
+        int ix = slot & CHUNK_MASK;
+        double cached = chunk._values[ix];
+        switch (chunk._types[ix]) {
+            case TYPE_NUMBER:
+                return value instanceof NumberEval && ((NumberEval)value).getNumberValue() == cached;
+            case TYPE_STRING:
+                return value instanceof StringEval && ((StringEval)value).getStringValue().equals(_strings.get((int)cached));
+            case TYPE_BOOLEAN:
+                return value instanceof BoolEval && ((BoolEval)value).getBooleanValue() == (cached != 0);
+            case TYPE_ERROR:
+                return value instanceof ErrorEval && ((ErrorEval)value).getErrorCode() == (int)cached;
+            default:
+                return false;
+        }
+    }
+}
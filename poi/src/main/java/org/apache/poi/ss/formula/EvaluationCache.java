@@ -36,18 +36,37 @@ import org.apache.poi.ss.usermodel.CellType;
 final class EvaluationCache {
 
     private final PlainCellCache _plainCellCache;
+    /** replaces the plain cell cache for {@link EvaluationCacheType#COMPACT}, {@code null} otherwise */
+    private CompactPlainCellCache _compactPlainCellCache;
     private final FormulaCellCache _formulaCellCache;
+    private final AreaIndexCache _areaIndexCache;
     /** only used for testing. <code>null</code> otherwise */
     final IEvaluationListener _evaluationListener;
 
     /* package */EvaluationCache(IEvaluationListener evaluationListener) {
+        this(evaluationListener, EvaluationCacheType.DEFAULT);
+    }
+
+    /**
+     * @param cacheType the layout of the plain cell cache. {@link EvaluationCacheType#COMPACT} is
+     *  ignored if there's an evaluation listener, as the listener expects cache entries for plain cells
+     */
+    /* package */EvaluationCache(IEvaluationListener evaluationListener, EvaluationCacheType cacheType) {
         _evaluationListener = evaluationListener;
         _plainCellCache = new PlainCellCache();
+        if (cacheType == EvaluationCacheType.COMPACT && evaluationListener == null) {
+            _compactPlainCellCache = new CompactPlainCellCache();
+        }
         _formulaCellCache = new FormulaCellCache();
+        _areaIndexCache = new AreaIndexCache();
     }
 
     public void notifyUpdateCell(int bookIndex, int sheetIndex, EvaluationCell cell) {
         FormulaCellCacheEntry fcce = _formulaCellCache.get(cell);
+        if (_compactPlainCellCache != null) {
+            notifyUpdateCompactCell(bookIndex, sheetIndex, cell, fcce);
+            return;
+        }
 
         int rowIndex = cell.getRowIndex();
         int columnIndex = cell.getColumnIndex();
@@ -113,10 +132,69 @@ final class EvaluationCache {
         }
     }
 
+    /**
+     * Identical to {@link #notifyUpdateCell(int, int, EvaluationCell)} for the compact cache,
+     * which is never used with an evaluation listener
+     */
+    private void notifyUpdateCompactCell(int bookIndex, int sheetIndex, EvaluationCell cell, FormulaCellCacheEntry fcce) {
+        int rowIndex = cell.getRowIndex();
+        int columnIndex = cell.getColumnIndex();
+        int slot = _compactPlainCellCache.find(bookIndex, sheetIndex, rowIndex, columnIndex);
+
+        if (cell.getCellType() == CellType.FORMULA) {
+            if (fcce == null) {
+                fcce = new FormulaCellCacheEntry();
+                if (slot < 0) {
+                    updateAnyBlankReferencingFormulas(bookIndex, sheetIndex, rowIndex, columnIndex);
+                }
+                _formulaCellCache.put(cell, fcce);
+            } else {
+                fcce.recurseClearCachedFormulaResults(null);
+                fcce.clearFormulaEntry();
+            }
+            if (slot >= 0) {
+                // changing from plain cell to formula cell
+                clearCompactConsumers(slot);
+                _compactPlainCellCache.remove(slot);
+            }
+        } else {
+            ValueEval value = WorkbookEvaluator.getValueFromNonFormulaCell(cell);
+            if (slot < 0) {
+                if (value != BlankEval.instance) {
+                    if (fcce == null) {
+                        updateAnyBlankReferencingFormulas(bookIndex, sheetIndex, rowIndex, columnIndex);
+                    }
+                    _compactPlainCellCache.getOrPut(bookIndex, sheetIndex, rowIndex, columnIndex, value);
+                }
+            } else {
+                if (_compactPlainCellCache.updateValue(slot, value)) {
+                    clearCompactConsumers(slot);
+                }
+                if (value == BlankEval.instance) {
+                    _compactPlainCellCache.remove(slot);
+                }
+            }
+            if (fcce != null) {
+                // was formula cell before - now a plain value
+                _formulaCellCache.remove(cell);
+                fcce.setSensitiveInputCells(null);
+                fcce.recurseClearCachedFormulaResults(null);
+            }
+        }
+    }
+
+    private void clearCompactConsumers(int slot) {
+        for (FormulaCellCacheEntry fc : _compactPlainCellCache.getConsumers(slot)) {
+            fc.clearFormulaEntry();
+            fc.recurseClearCachedFormulaResults(null);
+        }
+    }
+
     private void updateAnyBlankReferencingFormulas(int bookIndex, int sheetIndex,
             final int rowIndex, final int columnIndex) {
         final BookSheetKey bsk = new BookSheetKey(bookIndex, sheetIndex);
         _formulaCellCache.applyOperation(entry -> entry.notifyUpdatedBlankCell(bsk, rowIndex, columnIndex, _evaluationListener));
+        _areaIndexCache.notifyUpdatedBlankCell(bsk, rowIndex, columnIndex, _evaluationListener);
     }
 
     public PlainValueCellCacheEntry getPlainValueEntry(int bookIndex, int sheetIndex,
@@ -168,6 +246,13 @@ final class EvaluationCache {
         throw new IllegalStateException("Unexpected value class (" + cls.getName() + ")");
     }
 
+    /**
+     * @return the compact plain cell cache or {@code null} if plain cells are cached as {@link PlainValueCellCacheEntry}s
+     */
+    public CompactPlainCellCache getCompactPlainCellCache() {
+        return _compactPlainCellCache;
+    }
+
     public FormulaCellCacheEntry getOrCreateFormulaCellEntry(EvaluationCell cell) {
         FormulaCellCacheEntry result = _formulaCellCache.get(cell);
         if (result == null) {
@@ -178,6 +263,10 @@ final class EvaluationCache {
         return result;
     }
 
+    public AreaIndexCache.Entry getOrCreateAreaIndexEntry(AreaIndexCache.Key key) {
+        return _areaIndexCache.getOrCreate(key);
+    }
+
     /**
      * Should be called whenever there are changes to input cells in the evaluated workbook.
      */
@@ -186,7 +275,12 @@ final class EvaluationCache {
             _evaluationListener.onClearWholeCache();
         }
         _plainCellCache.clear();
+        if (_compactPlainCellCache != null) {
+            // discarded formula entries might still refer to the old instance
+            _compactPlainCellCache = new CompactPlainCellCache();
+        }
         _formulaCellCache.clear();
+        _areaIndexCache.clear();
     }
     public void notifyDeleteCell(int bookIndex, int sheetIndex, EvaluationCell cell) {
 
@@ -198,6 +292,11 @@ final class EvaluationCache {
                 fcce.setSensitiveInputCells(null);
                 fcce.recurseClearCachedFormulaResults(_evaluationListener);
             }
+        } else if (_compactPlainCellCache != null) {
+            int slot = _compactPlainCellCache.find(bookIndex, sheetIndex, cell.getRowIndex(), cell.getColumnIndex());
+            if (slot >= 0) {
+                clearCompactConsumers(slot);
+            }
         } else {
             Loc loc = new Loc(bookIndex, sheetIndex, cell.getRowIndex(), cell.getColumnIndex());
             PlainValueCellCacheEntry pcce = _plainCellCache.get(loc);
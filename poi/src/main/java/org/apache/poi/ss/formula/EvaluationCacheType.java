@@ -0,0 +1,41 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+/**
+ * Selects how a {@link WorkbookEvaluator} caches the values of the (non-formula) input cells
+ * it has read and the dependencies of the formula cells on them.
+ *
+ * @since POI 5.0.1
+ */
+public enum EvaluationCacheType {
+    /**
+     * One cache entry object per input cell. Best suited for workbooks with a moderate number of
+     * input cells.
+     */
+    DEFAULT,
+    /**
+     * Input cell values are stored in column-chunked primitive arrays and the dependencies as
+     * int-indexed edges, which needs a fraction of the memory for models referencing millions
+     * of input cells.<p>
+     *
+     * This cache type isn't available together with an {@link IEvaluationListener} -
+     * the default cache is used in that case.
+     */
+    COMPACT
+}
@@ -0,0 +1,404 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.poi.ss.formula.eval.ValueEval;
+import org.apache.poi.ss.formula.ptg.AbstractFunctionPtg;
+import org.apache.poi.ss.formula.ptg.OperationPtg;
+import org.apache.poi.ss.util.CellReference;
+
+/**
+ * Collects evaluation statistics of a {@link WorkbookEvaluator}: invocation counts and times per
+ * function/operator, evaluation times per formula cell and sheet, cache hits and the maximum depth
+ * of nested cell evaluations.<p>
+ *
+ * The profiler is attached when the evaluator is created, e.g. via
+ * {@code HSSFFormulaEvaluator.create(workbook, null, null, profiler)}. Evaluators without a profiler
+ * only pay for a {@code null} check per cell and operation.<p>
+ *
+ * The "self" time of a cell or function excludes the evaluation of other formula cells it has triggered.
+ * The results can be exported as JSON or as collapsed stacks for flame graph tools, where each frame
+ * is either a cell (e.g. {@code Sheet1!A1}) or a function/operator (e.g. {@code SUM}).<p>
+ *
+ * Like the evaluator, this class is not thread-safe.
+ *
+ * @since POI 5.0.1
+ */
+public final class EvaluationProfiler implements IEvaluationListener {
+
+    /**
+     * The accumulated invocations of a cell, sheet or function
+     */
+    public static final class Timing {
+        private final String _name;
+        private long _count;
+        private long _totalNanos;
+        private long _selfNanos;
+
+        private Timing(String name) {
+            _name = name;
+        }
+
+        public String getName() {
+            return _name;
+        }
+
+        public long getCount() {
+            return _count;
+        }
+
+        /**
+         * @return the time including the evaluation of the nested formula cells
+         */
+        public long getTotalNanos() {
+            return _totalNanos;
+        }
+
+        /**
+         * @return the time excluding the evaluation of the nested formula cells
+         */
+        public long getSelfNanos() {
+            return _selfNanos;
+        }
+    }
+
+    private static final class Frame {
+        /** the cache entry for cells, the ptg for operations */
+        private final Object _key;
+        private final Timing _timing;
+        /** the sheet timing for cells, {@code null} for operations */
+        private final Timing _sheetTiming;
+        private final String _stack;
+        private final long _start;
+        private long _childNanos;
+        private long _nestedCellNanos;
+
+        private Frame(Object key, Timing timing, Timing sheetTiming, String stack) {
+            _key = key;
+            _timing = timing;
+            _sheetTiming = sheetTiming;
+            _stack = stack;
+            _start = System.nanoTime();
+        }
+
+        private boolean isCell() {
+            return _sheetTiming != null;
+        }
+    }
+
+    private final Map<String, Timing> _functionTimings = new HashMap<>();
+    private final Map<String, Timing> _cellTimings = new HashMap<>();
+    private final Map<String, Timing> _sheetTimings = new HashMap<>();
+    private final Map<String, long[]> _stackNanos = new HashMap<>();
+    private final Map<Class<?>, String> _operatorNames = new HashMap<>();
+    private final List<Frame> _frames = new ArrayList<>();
+    private int _cellDepth;
+    private int _maxCellDepth;
+    private long _formulaEvaluations;
+    private long _cacheHits;
+    private long _plainValueReads;
+
+    /**
+     * Discards all collected statistics
+     */
+    public void reset() {
+        _functionTimings.clear();
+        _cellTimings.clear();
+        _sheetTimings.clear();
+        _stackNanos.clear();
+        _frames.clear();
+        _cellDepth = 0;
+        _maxCellDepth = 0;
+        _formulaEvaluations = 0;
+        _cacheHits = 0;
+        _plainValueReads = 0;
+    }
+
+    /**
+     * @return the function/operator timings, by descending self time
+     */
+    public List<Timing> getFunctionTimings() {
+        return sorted(_functionTimings);
+    }
+
+    /**
+     * @return the timings of the formula cells, by descending self time
+     */
+    public List<Timing> getCellTimings() {
+        return sorted(_cellTimings);
+    }
+
+    /**
+     * @return the timings of the formula cells summed up per sheet, by descending self time
+     */
+    public List<Timing> getSheetTimings() {
+        return sorted(_sheetTimings);
+    }
+
+    /**
+     * @return the number of formula cells, which had to be evaluated
+     */
+    public long getFormulaEvaluations() {
+        return _formulaEvaluations;
+    }
+
+    /**
+     * @return the number of cell values, which were taken from the cache
+     */
+    public long getCacheHits() {
+        return _cacheHits;
+    }
+
+    /**
+     * @return the number of plain (non-formula) cell values, which were read and added to the cache
+     */
+    public long getPlainValueReads() {
+        return _plainValueReads;
+    }
+
+    /**
+     * @return the ratio of cache hits to all cell value requests, 0 if no cells were requested
+     */
+    public double getCacheHitRate() {
+        long requests = _cacheHits + _formulaEvaluations + _plainValueReads;
+        return requests == 0 ? 0 : (double)_cacheHits / requests;
+    }
+
+    /**
+     * @return the maximum depth of formula cells, whose evaluation was triggered by another formula cell
+     */
+    public int getMaxDepth() {
+        return _maxCellDepth;
+    }
+
+    /**
+     * Writes the statistics as JSON object
+     */
+    public void writeJson(Appendable out) throws IOException {
+        out.append("{\n");
+        out.append("  \"formulaEvaluations\": ").append(Long.toString(_formulaEvaluations)).append(",\n");
+        out.append("  \"cacheHits\": ").append(Long.toString(_cacheHits)).append(",\n");
+        out.append("  \"plainValueReads\": ").append(Long.toString(_plainValueReads)).append(",\n");
+        out.append("  \"cacheHitRate\": ").append(Double.toString(getCacheHitRate())).append(",\n");
+        out.append("  \"maxDepth\": ").append(Integer.toString(_maxCellDepth)).append(",\n");
+        writeJsonTimings(out, "functions", getFunctionTimings());
+        out.append(",\n");
+        writeJsonTimings(out, "sheets", getSheetTimings());
+        out.append(",\n");
+        writeJsonTimings(out, "cells", getCellTimings());
+        out.append("\n}\n");
+    }
+
+    /**
+     * Writes the exclusive times in nanoseconds per call stack in the "collapsed" format
+     * of the flame graph tools, i.e. one line per stack with the frames separated by semicolons
+     */
+    public void writeCollapsedStacks(Appendable out) throws IOException {
+        List<String> stacks = new ArrayList<>(_stackNanos.keySet());
+        Collections.sort(stacks);
+        for (String stack : stacks) {
+            out.append(stack).append(' ').append(Long.toString(_stackNanos.get(stack)[0])).append('\n');
+        }
+    }
+
+    @Override
+    public void onStartEvaluate(OperationEvaluationContext ec, EvaluationCell cell, ICacheEntry entry) {
+        String sheetName = ec.getWorkbook().getSheetName(ec.getSheetIndex());
+        String cellName = SheetNameFormatter.format(sheetName) + "!"
+            + new CellReference(ec.getRowIndex(), ec.getColumnIndex()).formatAsString();
+        Timing sheetTiming = _sheetTimings.computeIfAbsent(sheetName, Timing::new);
+        push(entry, _cellTimings.computeIfAbsent(cellName, Timing::new), sheetTiming, cellName);
+
+        _formulaEvaluations++;
+        _cellDepth++;
+        _maxCellDepth = Math.max(_maxCellDepth, _cellDepth);
+    }
+
+    @Override
+    public void onStartEvaluate(EvaluationCell cell, ICacheEntry entry) {
+        // only called for listeners without the context variant
+    }
+
+    @Override
+    public void onEndEvaluate(ICacheEntry entry, ValueEval result) {
+        pop(entry);
+    }
+
+    @Override
+    public void onStartOperation(OperationEvaluationContext ec, OperationPtg ptg) {
+        String name = getOperationName(ptg);
+        push(ptg, _functionTimings.computeIfAbsent(name, Timing::new), null, name);
+    }
+
+    @Override
+    public void onEndOperation(OperationEvaluationContext ec, OperationPtg ptg, ValueEval result) {
+        pop(ptg);
+    }
+
+    @Override
+    public boolean supportsAreaIndexes() {
+        // profile the evaluation as it is done without a listener
+        return true;
+    }
+
+    @Override
+    public void onCacheHit(int sheetIndex, int rowIndex, int columnIndex, ValueEval result) {
+        _cacheHits++;
+    }
+
+    @Override
+    public void onReadPlainValue(int sheetIndex, int rowIndex, int columnIndex, ICacheEntry entry) {
+        _plainValueReads++;
+    }
+
+    @Override
+    public void onClearWholeCache() {
+        // not profiled
+    }
+
+    @Override
+    public void onClearCachedValue(ICacheEntry entry) {
+        // not profiled
+    }
+
+    @Override
+    public void sortDependentCachedValues(ICacheEntry[] formulaCells) {
+        // not profiled
+    }
+
+    @Override
+    public void onClearDependentCachedValue(ICacheEntry formulaCell, int depth) {
+        // not profiled
+    }
+
+    @Override
+    public void onChangeFromBlankValue(int sheetIndex, int rowIndex, int columnIndex, EvaluationCell cell, ICacheEntry entry) {
+        // not profiled
+    }
+
+    private void push(Object key, Timing timing, Timing sheetTiming, String name) {
+        // semicolons separate the frames of collapsed stacks
+        String frameName = name.replace(';', ',');
+        int nFrames = _frames.size();
+        String stack = nFrames == 0 ? frameName : _frames.get(nFrames - 1)._stack + ";" + frameName;
+        _frames.add(new Frame(key, timing, sheetTiming, stack));
+    }
+
+    private void pop(Object key) {
+        // nested frames without a reported end are discarded
+        int frameIx = _frames.size() - 1;
+        while (frameIx >= 0 && _frames.get(frameIx)._key != key) {
+            frameIx--;
+        }
+        if (frameIx < 0) {
+            return;
+        }
+        while (_frames.size() > frameIx + 1) {
+            if (_frames.remove(_frames.size() - 1).isCell()) {
+                _cellDepth--;
+            }
+        }
+
+        Frame frame = _frames.remove(frameIx);
+        long totalNanos = System.nanoTime() - frame._start;
+        long selfNanos = totalNanos - frame._nestedCellNanos;
+        add(frame._timing, totalNanos, selfNanos);
+        if (frame.isCell()) {
+            add(frame._sheetTiming, totalNanos, selfNanos);
+            _cellDepth--;
+        }
+        _stackNanos.computeIfAbsent(frame._stack, k -> new long[1])[0] += totalNanos - frame._childNanos;
+
+        if (frameIx > 0) {
+            _frames.get(frameIx - 1)._childNanos += totalNanos;
+        }
+        if (frame.isCell()) {
+            // the enclosing operations and cell don't include the nested cell in their self time
+            for (int i = frameIx - 1; i >= 0; i--) {
+                Frame enclosing = _frames.get(i);
+                enclosing._nestedCellNanos += totalNanos;
+                if (enclosing.isCell()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void add(Timing timing, long totalNanos, long selfNanos) {
+        timing._count++;
+        timing._totalNanos += totalNanos;
+        timing._selfNanos += selfNanos;
+    }
+
+    private String getOperationName(OperationPtg ptg) {
+        if (ptg instanceof AbstractFunctionPtg) {
+            return ((AbstractFunctionPtg)ptg).getName();
+        }
+        return _operatorNames.computeIfAbsent(ptg.getClass(), c -> {
+            String[] operands = new String[ptg.getNumberOfOperands()];
+            Arrays.fill(operands, "");
+            return ptg.toFormulaString(operands).trim();
+        });
+    }
+
+    private static List<Timing> sorted(Map<String, Timing> timings) {
+        List<Timing> result = new ArrayList<>(timings.values());
+        result.sort(Comparator.comparingLong(Timing::getSelfNanos).reversed().thenComparing(Timing::getName));
+        return result;
+    }
+
+    private static void writeJsonTimings(Appendable out, String name, List<Timing> timings) throws IOException {
+        out.append("  \"").append(name).append("\": [");
+        for (int i = 0; i < timings.size(); i++) {
+            Timing t = timings.get(i);
+            out.append(i == 0 ? "\n" : ",\n");
+            out.append("    {\"name\": ");
+            appendJsonString(out, t.getName());
+            out.append(", \"count\": ").append(Long.toString(t.getCount()));
+            out.append(", \"totalNanos\": ").append(Long.toString(t.getTotalNanos()));
+            out.append(", \"selfNanos\": ").append(Long.toString(t.getSelfNanos()));
+            out.append("}");
+        }
+        out.append(timings.isEmpty() ? "]" : "\n  ]");
+    }
+
+    private static void appendJsonString(Appendable out, String str) throws IOException {
+        out.append('"');
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format(Locale.ROOT, "\\u%04x", (int)c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+}
@@ -137,8 +137,12 @@ final class EvaluationTracker {
             // Top level frame, there is no 'cell' above this frame that is using the current cell
         } else {
             CellEvaluationFrame consumingFrame = _evaluationFrames.get(prevFrameIndex);
+            CompactPlainCellCache compactCache = _cache.getCompactPlainCellCache();
             if (value == BlankEval.instance) {
                 consumingFrame.addUsedBlankCell(evalWorkbook, bookIndex, sheetIndex, rowIndex, columnIndex);
+            } else if (compactCache != null) {
+                int slot = compactCache.getOrPut(bookIndex, sheetIndex, rowIndex, columnIndex, value);
+                consumingFrame.addCompactInputCell(compactCache, slot);
             } else {
                 PlainValueCellCacheEntry cce = _cache.getPlainValueEntry(bookIndex, sheetIndex,
                         rowIndex, columnIndex, value);
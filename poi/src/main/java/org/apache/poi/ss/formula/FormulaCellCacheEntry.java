@@ -40,6 +40,10 @@ final class FormulaCellCacheEntry extends CellCacheEntry {
 
     private FormulaUsedBlankCellSet _usedBlankCellGroup;
 
+    /** the cache holding the edges to the input cells, if a {@link CompactPlainCellCache} is used */
+    private CompactPlainCellCache _compactInputCache;
+    private int[] _compactInputEdges;
+
     public FormulaCellCacheEntry() {
         // leave fields un-set
     }
@@ -50,6 +54,9 @@ final class FormulaCellCacheEntry extends CellCacheEntry {
                 return true;
             }
         }
+        if (_compactInputEdges != null) {
+            return true;
+        }
         return _usedBlankCellGroup == null ? false : !_usedBlankCellGroup.isEmpty();
     }
 
@@ -57,6 +64,7 @@ final class FormulaCellCacheEntry extends CellCacheEntry {
         // need to tell all cells that were previously used, but no longer are, 
         // that they are not consumed by this cell any more
         if (sensitiveInputCells == null) {
+            clearCompactInputCells();
             _sensitiveInputCells = null;
             changeConsumingCells(CellCacheEntry.EMPTY_ARRAY);
         } else {
@@ -73,8 +81,28 @@ final class FormulaCellCacheEntry extends CellCacheEntry {
             }
         }
         _sensitiveInputCells = null;
+        clearCompactInputCells();
         clearValue();
     }
+
+    /**
+     * @param slots the distinct slots of the input cells in the compact cache
+     */
+    public void setCompactInputCells(CompactPlainCellCache cache, int[] slots) {
+        clearCompactInputCells();
+        if (slots.length > 0) {
+            _compactInputCache = cache;
+            _compactInputEdges = cache.addConsumer(this, slots);
+        }
+    }
+
+    private void clearCompactInputCells() {
+        if (_compactInputCache != null) {
+            _compactInputCache.removeConsumer(_compactInputEdges);
+            _compactInputCache = null;
+            _compactInputEdges = null;
+        }
+    }
     
     private void changeConsumingCells(CellCacheEntry[] usedCells) {
 
@@ -108,6 +136,7 @@ final class FormulaCellCacheEntry extends CellCacheEntry {
 
     public void updateFormulaResult(ValueEval result, CellCacheEntry[] sensitiveInputCells, FormulaUsedBlankCellSet usedBlankAreas) {
         updateValue(result);
+        clearCompactInputCells();
         setSensitiveInputCells(sensitiveInputCells);
         _usedBlankCellGroup = usedBlankAreas;
     }
@@ -0,0 +1,175 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.poi.ss.formula.eval.AreaEval;
+import org.apache.poi.ss.formula.eval.ValueEval;
+import org.apache.poi.ss.formula.udf.UDFFinder;
+import org.apache.poi.util.Internal;
+
+/**
+ * Evaluates formula cells and records the cells each formula cell has read - including blank and
+ * cached cells - so the formula cells affected by a change of a cell can be determined later on.<p>
+ *
+ * Dependencies are only recorded within the evaluated workbook. Cells are identified by keys created
+ * with {@link #toCellKey(int, int, int)}.<p>
+ *
+ * For POI internal use only
+ */
+@Internal
+public final class FormulaDependencyRecorder implements IEvaluationListener {
+
+    private final WorkbookEvaluator _evaluator;
+    /** the formula cells, which have read a cell, by the key of the read cell */
+    private final Map<Long, Set<Long>> _dependentsByCell = new HashMap<>();
+    private final List<ICacheEntry> _evaluatingEntries = new ArrayList<>();
+    private final List<Long> _evaluatingCells = new ArrayList<>();
+
+    /**
+     * @param udfFinder pass {@code null} for default (AnalysisToolPak only)
+     */
+    public FormulaDependencyRecorder(EvaluationWorkbook workbook, UDFFinder udfFinder) {
+        // no stability classifier - all dependencies need to be recorded
+        _evaluator = new WorkbookEvaluator(workbook, this, null, udfFinder);
+    }
+
+    public static long toCellKey(int sheetIndex, int rowIndex, int columnIndex) {
+        return ((long)sheetIndex << 40) | ((long)rowIndex << 16) | columnIndex;
+    }
+
+    /**
+     * Evaluates the cell and records the dependencies of all formula cells evaluated along the way
+     */
+    public ValueEval evaluate(EvaluationCell cell) {
+        try {
+            return _evaluator.evaluate(cell);
+        } finally {
+            // don't attribute later reads to the cells of an aborted evaluation
+            _evaluatingEntries.clear();
+            _evaluatingCells.clear();
+        }
+    }
+
+    /**
+     * @return the formula cells, which have directly read the given cell, or an empty set
+     */
+    public Set<Long> getDependents(long cellKey) {
+        Set<Long> dependents = _dependentsByCell.get(cellKey);
+        return dependents == null ? Collections.emptySet() : Collections.unmodifiableSet(dependents);
+    }
+
+    /**
+     * @return the keys of all cells, which have been read by a formula cell
+     */
+    public Set<Long> getReadCells() {
+        return Collections.unmodifiableSet(_dependentsByCell.keySet());
+    }
+
+    @Override
+    public void onReadCell(int sheetIndex, int rowIndex, int columnIndex) {
+        int nEvaluating = _evaluatingCells.size();
+        if (nEvaluating > 0) {
+            _dependentsByCell.computeIfAbsent(toCellKey(sheetIndex, rowIndex, columnIndex), k -> new HashSet<>())
+                .add(_evaluatingCells.get(nEvaluating - 1));
+        }
+    }
+
+    @Override
+    public boolean supportsAreaIndexes() {
+        return true;
+    }
+
+    @Override
+    public void onReadAreaIndex(int sheetIndex, AreaEval area) {
+        // a cached index doesn't read its cells again, but the formula depends on them anyway
+        int nEvaluating = _evaluatingCells.size();
+        if (nEvaluating == 0) {
+            return;
+        }
+        Long formulaCell = _evaluatingCells.get(nEvaluating - 1);
+        for (int row = area.getFirstRow(); row <= area.getLastRow(); row++) {
+            for (int col = area.getFirstColumn(); col <= area.getLastColumn(); col++) {
+                _dependentsByCell.computeIfAbsent(toCellKey(sheetIndex, row, col), k -> new HashSet<>()).add(formulaCell);
+            }
+        }
+    }
+
+    @Override
+    public void onStartEvaluate(OperationEvaluationContext ec, EvaluationCell cell, ICacheEntry entry) {
+        _evaluatingEntries.add(entry);
+        _evaluatingCells.add(toCellKey(ec.getSheetIndex(), ec.getRowIndex(), ec.getColumnIndex()));
+    }
+
+    @Override
+    public void onStartEvaluate(EvaluationCell cell, ICacheEntry entry) {
+        // only called for listeners without the context variant
+    }
+
+    @Override
+    public void onEndEvaluate(ICacheEntry entry, ValueEval result) {
+        // nested evaluations without a reported end are discarded as well
+        int ix = _evaluatingEntries.lastIndexOf(entry);
+        if (ix >= 0) {
+            _evaluatingEntries.subList(ix, _evaluatingEntries.size()).clear();
+            _evaluatingCells.subList(ix, _evaluatingCells.size()).clear();
+        }
+    }
+
+    @Override
+    public void onCacheHit(int sheetIndex, int rowIndex, int columnIndex, ValueEval result) {
+        // recorded by onReadCell
+    }
+
+    @Override
+    public void onReadPlainValue(int sheetIndex, int rowIndex, int columnIndex, ICacheEntry entry) {
+        // recorded by onReadCell
+    }
+
+    @Override
+    public void onClearWholeCache() {
+        // not relevant
+    }
+
+    @Override
+    public void onClearCachedValue(ICacheEntry entry) {
+        // not relevant
+    }
+
+    @Override
+    public void sortDependentCachedValues(ICacheEntry[] formulaCells) {
+        // not relevant
+    }
+
+    @Override
+    public void onClearDependentCachedValue(ICacheEntry formulaCell, int depth) {
+        // not relevant
+    }
+
+    @Override
+    public void onChangeFromBlankValue(int sheetIndex, int rowIndex, int columnIndex, EvaluationCell cell, ICacheEntry entry) {
+        // not relevant
+    }
+}
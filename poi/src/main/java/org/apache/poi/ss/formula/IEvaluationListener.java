@@ -17,12 +17,14 @@
 
 package org.apache.poi.ss.formula;
 
+import org.apache.poi.ss.formula.eval.AreaEval;
 import org.apache.poi.ss.formula.eval.ValueEval;
+import org.apache.poi.ss.formula.ptg.OperationPtg;
 
 /**
  * Tests can implement this class to track the internal working of the {@link WorkbookEvaluator}.<br>
  *
- * For POI internal testing use only
+ * For POI internal testing and the {@link EvaluationProfiler} use only
  */
 interface IEvaluationListener {
     /**
@@ -35,8 +37,25 @@ interface IEvaluationListener {
     }
 
     void onCacheHit(int sheetIndex, int rowIndex, int columnIndex, ValueEval result);
+    /**
+     * Called whenever the value of a cell is requested, regardless of the cell type or whether
+     * its value is already cached
+     */
+    default void onReadCell(int sheetIndex, int rowIndex, int columnIndex) {
+        // do nothing
+    }
     void onReadPlainValue(int sheetIndex, int rowIndex, int columnIndex, ICacheEntry entry);
     void onStartEvaluate(EvaluationCell cell, ICacheEntry entry);
+    /**
+     * Variant of {@link #onStartEvaluate(EvaluationCell, ICacheEntry)} with the evaluation context,
+     * which provides the sheet and workbook of the cell.
+     */
+    default void onStartEvaluate(OperationEvaluationContext ec, EvaluationCell cell, ICacheEntry entry) {
+        onStartEvaluate(cell, entry);
+    }
+    /**
+     * @param result the result of the formula, {@code null} if the evaluation was aborted by an exception
+     */
     void onEndEvaluate(ICacheEntry entry, ValueEval result);
     void onClearWholeCache();
     void onClearCachedValue(ICacheEntry entry);
@@ -49,4 +68,36 @@ interface IEvaluationListener {
     void onClearDependentCachedValue(ICacheEntry formulaCell, int depth);
     void onChangeFromBlankValue(int sheetIndex, int rowIndex, int columnIndex,
             EvaluationCell cell, ICacheEntry entry);
+    /**
+     * Called before an operator or function is invoked with its (already evaluated) operands
+     */
+    default void onStartOperation(OperationEvaluationContext ec, OperationPtg ptg) {
+        // do nothing
+    }
+    /**
+     * Called after an operator or function was invoked
+     *
+     * @param result the result of the operation, {@code null} if it was aborted by an exception
+     */
+    default void onEndOperation(OperationEvaluationContext ec, OperationPtg ptg, ValueEval result) {
+        // do nothing
+    }
+
+    /**
+     * Area indexes, e.g. of the *IFS criteria ranges, are cached in entries which don't belong to a cell.
+     * Listeners which expect every cache entry to be a cell return {@code false}, which disables the indexes.
+     *
+     * @return {@code true}, if the evaluator may use area indexes while this listener is attached
+     */
+    default boolean supportsAreaIndexes() {
+        return false;
+    }
+
+    /**
+     * Called whenever a formula uses an area index - the cells of the area are only read by the
+     * formula which caused the index to be built, the others only get this notification
+     */
+    default void onReadAreaIndex(int sheetIndex, AreaEval area) {
+        // do nothing
+    }
 }
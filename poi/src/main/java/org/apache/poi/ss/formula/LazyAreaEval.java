@@ -17,6 +17,8 @@
 
 package org.apache.poi.ss.formula;
 
+import java.util.function.Function;
+
 import org.apache.poi.ss.formula.eval.AreaEval;
 import org.apache.poi.ss.formula.eval.AreaEvalBase;
 import org.apache.poi.ss.formula.eval.ValueEval;
@@ -53,6 +55,16 @@ final class LazyAreaEval extends AreaEvalBase {
         return _evaluator.getEvalForCell(sheetIndex, rowIx, colIx);
     }
 
+    /**
+     * @see OperationEvaluationContext#getAreaIndex(AreaEval, Class, Function)
+     */
+    <T> T getAreaIndex(Class<T> indexType, Function<ValueEval[], T> indexBuilder) {
+        if (getFirstSheetIndex() != getLastSheetIndex()) {
+            return null;
+        }
+        return _evaluator.getSheetEvaluator(getFirstSheetIndex()).getAreaIndex(this, indexType, indexBuilder);
+    }
+
     @Override
     public AreaEval offset(int relFirstRowIx, int relLastRowIx, int relFirstColIx, int relLastColIx) {
         AreaI area = new OffsetArea(getFirstRow(), getFirstColumn(),
@@ -17,6 +17,8 @@
 
 package org.apache.poi.ss.formula;
 
+import java.util.function.Function;
+
 import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.formula.CollaboratingWorkbooksEnvironment.WorkbookNotFoundException;
 import org.apache.poi.ss.formula.EvaluationWorkbook.ExternalName;
@@ -314,6 +316,27 @@ public final class OperationEvaluationContext {
         return _bookEvaluator.findUserDefinedFunction(functionName);
     }
 
+    /**
+     * Returns an index built from the values of the given area, which is shared by all formulas
+     * referring to the same area until one of its cells changes. The values are passed to the
+     * builder in row-major order.<p>
+     *
+     * Functions which scan the same large range over and over again (e.g. the criteria ranges of SUMIFS)
+     * can use this to replace the cell-by-cell evaluation by a lookup.
+     *
+     * @param area the area to index
+     * @param indexType the type of the index, used as part of the cache key
+     * @param indexBuilder creates the index from the cell values of the area
+     * @return the index or {@code null}, if the area can't be indexed (e.g. multi-sheet areas or
+     *  areas not backed by workbook cells) - the caller needs to fall back to reading the cells in this case
+     */
+    public <T> T getAreaIndex(AreaEval area, Class<T> indexType, Function<ValueEval[], T> indexBuilder) {
+        if (!(area instanceof LazyAreaEval)) {
+            return null;
+        }
+        return ((LazyAreaEval)area).getAreaIndex(indexType, indexBuilder);
+    }
+
     public ValueEval getRefEval(int rowIndex, int columnIndex) {
         SheetRangeEvaluator sre = getRefEvaluatorForCurrentSheet();
         return new LazyRefEval(rowIndex, columnIndex, sre);
@@ -17,6 +17,9 @@
 
 package org.apache.poi.ss.formula;
 
+import java.util.function.Function;
+
+import org.apache.poi.ss.formula.eval.AreaEval;
 import org.apache.poi.ss.formula.eval.ValueEval;
 import org.apache.poi.ss.formula.ptg.FuncVarPtg;
 import org.apache.poi.ss.formula.ptg.Ptg;
@@ -48,6 +51,10 @@ final class SheetRefEvaluator {
         return _bookEvaluator.evaluateReference(getSheet(), _sheetIndex, rowIndex, columnIndex, _tracker);
     }
 
+    public <T> T getAreaIndex(AreaEval area, Class<T> indexType, Function<ValueEval[], T> indexBuilder) {
+        return _bookEvaluator.getAreaIndex(_sheetIndex, area, indexType, indexBuilder, _tracker);
+    }
+
     private EvaluationSheet getSheet() {
         if (_sheet == null) {
             _sheet = _bookEvaluator.getSheet(_sheetIndex);
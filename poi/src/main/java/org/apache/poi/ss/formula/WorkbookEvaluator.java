@@ -62,6 +62,7 @@ public final class WorkbookEvaluator {
     private int _workbookIx;
 
     private final IEvaluationListener _evaluationListener;
+    private final EvaluationCacheType _cacheType;
     private final Map<EvaluationSheet, Integer> _sheetIndexesBySheet;
     private final Map<String, Integer> _sheetIndexesByName;
     private CollaboratingWorkbooksEnvironment _collaboratingWorkbookEnvironment;
@@ -84,13 +85,44 @@ public final class WorkbookEvaluator {
      * @param udfFinder pass {@code null} for default (AnalysisToolPak only)
      */
     public WorkbookEvaluator(EvaluationWorkbook workbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder) {
-        this (workbook, null, stabilityClassifier, udfFinder);
+        this (workbook, null, stabilityClassifier, udfFinder, EvaluationCacheType.DEFAULT);
     }
+
+    /**
+     * @param udfFinder pass {@code null} for default (AnalysisToolPak only)
+     * @param cacheType the layout of the cache for the input cells, e.g. {@link EvaluationCacheType#COMPACT}
+     *  for models referencing millions of input cells
+     *
+     * @since POI 5.0.1
+     */
+    public WorkbookEvaluator(EvaluationWorkbook workbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder,
+            EvaluationCacheType cacheType) {
+        this (workbook, null, stabilityClassifier, udfFinder, cacheType);
+    }
+
+    /**
+     * Creates an evaluator, which reports the evaluation times to the given profiler
+     *
+     * @param udfFinder pass {@code null} for default (AnalysisToolPak only)
+     *
+     * @since POI 5.0.1
+     */
+    public WorkbookEvaluator(EvaluationWorkbook workbook, EvaluationProfiler profiler,
+            IStabilityClassifier stabilityClassifier, UDFFinder udfFinder) {
+        this (workbook, (IEvaluationListener)profiler, stabilityClassifier, udfFinder);
+    }
+
     /* package */ WorkbookEvaluator(EvaluationWorkbook workbook, IEvaluationListener evaluationListener,
             IStabilityClassifier stabilityClassifier, UDFFinder udfFinder) {
+        this (workbook, evaluationListener, stabilityClassifier, udfFinder, EvaluationCacheType.DEFAULT);
+    }
+
+    private WorkbookEvaluator(EvaluationWorkbook workbook, IEvaluationListener evaluationListener,
+            IStabilityClassifier stabilityClassifier, UDFFinder udfFinder, EvaluationCacheType cacheType) {
         _workbook = workbook;
         _evaluationListener = evaluationListener;
-        _cache = new EvaluationCache(evaluationListener);
+        _cacheType = cacheType == null ? EvaluationCacheType.DEFAULT : cacheType;
+        _cache = new EvaluationCache(evaluationListener, _cacheType);
         _sheetIndexesBySheet = new IdentityHashMap<>();
         _sheetIndexesByName = new IdentityHashMap<>();
         _collaboratingWorkbookEnvironment = CollaboratingWorkbooksEnvironment.EMPTY;
@@ -139,7 +171,7 @@ public final class WorkbookEvaluator {
      */
     /* package */ void detachFromEnvironment() {
         _collaboratingWorkbookEnvironment = CollaboratingWorkbooksEnvironment.EMPTY;
-        _cache = new EvaluationCache(_evaluationListener);
+        _cache = new EvaluationCache(_evaluationListener, _cacheType);
         _workbookIx = 0;
     }
     /**
@@ -153,6 +185,10 @@ public final class WorkbookEvaluator {
         return _evaluationListener;
     }
 
+    /* package */ EvaluationCacheType getCacheType() {
+        return _cacheType;
+    }
+
     /**
      * Should be called whenever there are changes to input cells in the evaluated workbook.
      * Failure to call this method after changing cell values will cause incorrect behaviour
@@ -227,6 +263,10 @@ public final class WorkbookEvaluator {
     private ValueEval evaluateAny(EvaluationCell srcCell, int sheetIndex,
                 int rowIndex, int columnIndex, EvaluationTracker tracker) {
 
+        if (_evaluationListener != null) {
+            _evaluationListener.onReadCell(sheetIndex, rowIndex, columnIndex);
+        }
+
         // avoid tracking dependencies to cells that have constant definition
         boolean shouldCellDependencyBeRecorded = _stabilityClassifier == null ? true
                     : !_stabilityClassifier.isCellFinal(sheetIndex, rowIndex, columnIndex);
@@ -257,9 +297,15 @@ public final class WorkbookEvaluator {
                 if (evalListener == null) {
                     result = evaluateFormula(ec, ptgs);
                 } else {
-                    evalListener.onStartEvaluate(srcCell, cce);
-                    result = evaluateFormula(ec, ptgs);
-                    evalListener.onEndEvaluate(cce, result);
+                    evalListener.onStartEvaluate(ec, srcCell, cce);
+                    ValueEval value = null;
+                    try {
+                        value = evaluateFormula(ec, ptgs);
+                    } finally {
+                        // evaluations aborted by exceptions report their end with a null result
+                        evalListener.onEndEvaluate(cce, value);
+                    }
+                    result = value;
                 }
 
                 tracker.updateCacheResult(result);
@@ -526,7 +572,17 @@ public final class WorkbookEvaluator {
                 ec.setArrayMode(arrayMode);
 
 //                logDebug("invoke " + operation + " (nAgs=" + numops + ")");
-                opResult = OperationEvaluatorFactory.evaluate(optg, ops, ec);
+                if (_evaluationListener == null) {
+                    opResult = OperationEvaluatorFactory.evaluate(optg, ops, ec);
+                } else {
+                    _evaluationListener.onStartOperation(ec, optg);
+                    opResult = null;
+                    try {
+                        opResult = OperationEvaluatorFactory.evaluate(optg, ops, ec);
+                    } finally {
+                        _evaluationListener.onEndOperation(ec, optg, opResult);
+                    }
+                }
 
                 ec.setArrayMode(false);
 
@@ -788,6 +844,58 @@ public final class WorkbookEvaluator {
         return _udfFinder.findFunction(functionName);
     }
 
+    /**
+     * Used by the lazy area evals to provide an index over all values of a single sheet area.
+     * The index is built at most once until any of the area cells changes and the current formula
+     * is registered as consumer of the index instead of the single cells.
+     *
+     * @return {@code null} if the index can't be provided at this point, e.g. because it's
+     *  already being built further up the evaluation stack
+     */
+    /* package */ <T> T getAreaIndex(int sheetIndex, AreaEval area, Class<T> indexType,
+            java.util.function.Function<ValueEval[], T> indexBuilder, EvaluationTracker tracker) {
+        if (_evaluationListener != null && !_evaluationListener.supportsAreaIndexes()) {
+            return null;
+        }
+
+        AreaIndexCache.Key key = new AreaIndexCache.Key(_workbookIx, sheetIndex,
+                area.getFirstRow(), area.getFirstColumn(), area.getLastRow(), area.getLastColumn(), indexType);
+        AreaIndexCache.Entry entry = _cache.getOrCreateAreaIndexEntry(key);
+        FormulaCellCacheEntry cce = entry.getCacheEntry();
+
+        if (cce.getValue() == null) {
+            if (!tracker.startEvaluate(cce)) {
+                return null;
+            }
+            try {
+                final int width = area.getWidth();
+                final int height = area.getHeight();
+                ValueEval[] values = new ValueEval[width * height];
+                for (int r = 0, i = 0; r < height; r++) {
+                    for (int c = 0; c < width; c++, i++) {
+                        ValueEval ve = area.getRelativeValue(r, c);
+                        if (ve == ErrorEval.CIRCULAR_REF_ERROR) {
+                            // the values read so far depend on the formula currently being evaluated
+                            entry.setIndex(null);
+                            return null;
+                        }
+                        values[i] = ve;
+                    }
+                }
+                entry.setIndex(indexBuilder.apply(values));
+                tracker.updateCacheResult(new NumberEval(values.length));
+            } finally {
+                tracker.endEvaluate(cce);
+            }
+        }
+
+        tracker.acceptFormulaDependency(cce);
+        if (_evaluationListener != null) {
+            _evaluationListener.onReadAreaIndex(sheetIndex, area);
+        }
+        return indexType.cast(entry.getIndex());
+    }
+
     /**
      * Evaluate a formula outside a cell value, e.g. conditional format rules or data validation expressions
      *
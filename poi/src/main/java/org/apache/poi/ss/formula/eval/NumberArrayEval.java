@@ -0,0 +1,278 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula.eval;
+
+import org.apache.poi.ss.formula.FormulaParseException;
+import org.apache.poi.ss.formula.TwoDEval;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.Internal;
+
+/**
+ * Holds the numeric results of array operations as primitive doubles.<p>
+ *
+ * Blanks and errors are stored as NaN values with a tagged payload, so intermediate
+ * arrays - e.g. of {@code A1:A1000*B1:B1000} inside SUMPRODUCT - don't need a
+ * {@link NumberEval} per element. Array aware functions read the doubles via {@link #getNumber(int)},
+ * all others get the decoded values via {@link #getRelativeValue(int, int)}.<p>
+ *
+ * Like {@link org.apache.poi.ss.formula.CacheAreaEval}, the row/column references
+ * don't correspond to data in the file.
+ */
+@Internal
+public final class NumberArrayEval extends AreaEvalBase {
+
+    /** quiet NaN with a payload prefix, which isn't produced by arithmetic operations */
+    private static final long TAG_PREFIX = 0x7FFDEC0000000000L;
+    private static final long TAG_PREFIX_MASK = 0xFFFFFF0000000000L;
+    private static final long KIND_BLANK = 1L << 32;
+    private static final long KIND_ERROR = 2L << 32;
+    private static final long KIND_INVALID = 3L << 32;
+    private static final long KIND_MASK = 0xFFL << 32;
+
+    /** the tagged value for a blank element */
+    public static final double BLANK = Double.longBitsToDouble(TAG_PREFIX | KIND_BLANK);
+
+    /**
+     * the tagged value for an operand element which can't be coerced to a number, e.g. text.
+     * In contrast to the error values, this only turns into {@code #VALUE!} when the element is used.
+     */
+    public static final double INVALID = Double.longBitsToDouble(TAG_PREFIX | KIND_INVALID);
+
+    private final double[] _values;
+
+    public NumberArrayEval(int firstRow, int firstColumn, int lastRow, int lastColumn, double[] values) {
+        super(firstRow, firstColumn, lastRow, lastColumn);
+        if (values.length != getWidth() * getHeight()) {
+            throw new IllegalArgumentException("Array size " + values.length + " doesn't match the area dimensions");
+        }
+        _values = values;
+    }
+
+    /**
+     * @return the tagged value for the given error
+     */
+    public static double errorValue(ErrorEval error) {
+        return Double.longBitsToDouble(TAG_PREFIX | KIND_ERROR | (error.getErrorCode() & 0xFFFFFFFFL));
+    }
+
+    /**
+     * @return {@code true} if the value is a tagged blank, error or invalid value,
+     *  {@code false} for all numbers including plain NaN
+     */
+    public static boolean isTagged(double value) {
+        return Double.isNaN(value) && (Double.doubleToRawLongBits(value) & TAG_PREFIX_MASK) == TAG_PREFIX;
+    }
+
+    public static boolean isBlank(double value) {
+        return isTagged(value) && (Double.doubleToRawLongBits(value) & KIND_MASK) == KIND_BLANK;
+    }
+
+    public static boolean isError(double value) {
+        return isTagged(value) && (Double.doubleToRawLongBits(value) & KIND_MASK) == KIND_ERROR;
+    }
+
+    public static boolean isInvalid(double value) {
+        return isTagged(value) && (Double.doubleToRawLongBits(value) & KIND_MASK) == KIND_INVALID;
+    }
+
+    /**
+     * @return the error of a tagged error value
+     */
+    public static ErrorEval getError(double value) {
+        return ErrorEval.valueOf((int)Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * @return the {@link ValueEval} corresponding to the (possibly tagged) value
+     */
+    public static ValueEval toValueEval(double value) {
+        if (isBlank(value)) {
+            return BlankEval.instance;
+        }
+        if (isError(value)) {
+            return getError(value);
+        }
+        if (isInvalid(value)) {
+            return ErrorEval.VALUE_INVALID;
+        }
+        return new NumberEval(value);
+    }
+
+    /**
+     * Converts a value for arithmetic operations, as {@link OperandResolver#coerceValueToDouble(ValueEval)}
+     * would do, but returns errors and values which can't be coerced as tagged values instead of throwing them.
+     */
+    public static double coerceToNumber(ValueEval ve) {
+        if (ve instanceof ErrorEval) {
+            return errorValue((ErrorEval)ve);
+        }
+        try {
+            return OperandResolver.coerceValueToDouble(ve);
+        } catch (EvaluationException e) {
+            return INVALID;
+        }
+    }
+
+    /**
+     * Loads an operand of an array operation. Every element is coerced with {@link #coerceToNumber(ValueEval)}.
+     *
+     * @param arg an area, reference or single value
+     * @return the operand itself, if it's already a {@code NumberArrayEval}
+     */
+    public static NumberArrayEval coerceToNumbers(ValueEval arg) {
+        if (arg instanceof NumberArrayEval) {
+            return (NumberArrayEval)arg;
+        }
+        if (arg instanceof AreaEval) {
+            AreaEval ae = (AreaEval)arg;
+            int width = ae.getWidth();
+            int height = ae.getHeight();
+            double[] values = new double[width * height];
+            for (int r = 0, i = 0; r < height; r++) {
+                for (int c = 0; c < width; c++, i++) {
+                    values[i] = coerceToNumber(resolveElement(ae, r, c));
+                }
+            }
+            return new NumberArrayEval(ae.getFirstRow(), ae.getFirstColumn(), ae.getLastRow(), ae.getLastColumn(), values);
+        }
+
+        if (arg instanceof RefEval) {
+            RefEval ref = (RefEval)arg;
+            double value = coerceToNumber(resolveElement(ref, -1, -1));
+            return new NumberArrayEval(ref.getRow(), ref.getColumn(), ref.getRow(), ref.getColumn(), new double[]{ value });
+        }
+        return new NumberArrayEval(0, 0, 0, 0, new double[]{ coerceToNumber(arg) });
+    }
+
+    private static ValueEval resolveElement(ValueEval arg, int relativeRowIndex, int relativeColumnIndex) {
+        try {
+            return (arg instanceof RefEval)
+                ? ((RefEval)arg).getInnerValueEval(((RefEval)arg).getFirstSheetIndex())
+                : ((AreaEval)arg).getRelativeValue(relativeRowIndex, relativeColumnIndex);
+        } catch (FormulaParseException e) {
+            return ErrorEval.NAME_INVALID;
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().startsWith("Don't know how to evaluate name")) {
+                return ErrorEval.NAME_INVALID;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the element used for the given position of an array operation result, i.e. single
+     * rows/columns are repeated along the other dimension and positions outside of the array are {@code #VALUE!}
+     *
+     * @return the (possibly tagged) value
+     */
+    public double getBroadcastNumber(int relativeRowIndex, int relativeColumnIndex) {
+        int width = getWidth();
+        int height = getHeight();
+        int row = (height == 1) ? 0 : relativeRowIndex;
+        int col = (width == 1) ? 0 : relativeColumnIndex;
+        if (row >= height || col >= width) {
+            return errorValue(ErrorEval.VALUE_INVALID);
+        }
+        return _values[row * width + col];
+    }
+
+    /**
+     * @param index the row-major index of the element
+     * @return the (possibly tagged) value of the element
+     */
+    public double getNumber(int index) {
+        return _values[index];
+    }
+
+    public int getSize() {
+        return _values.length;
+    }
+
+    @Override
+    public ValueEval getRelativeValue(int relativeRowIndex, int relativeColumnIndex) {
+        return getRelativeValue(-1, relativeRowIndex, relativeColumnIndex);
+    }
+
+    @Override
+    public ValueEval getRelativeValue(int sheetIndex, int relativeRowIndex, int relativeColumnIndex) {
+        return toValueEval(_values[relativeRowIndex * getWidth() + relativeColumnIndex]);
+    }
+
+    @Override
+    public AreaEval offset(int relFirstRowIx, int relLastRowIx, int relFirstColIx, int relLastColIx) {
+        int firstRow = getFirstRow() + Math.min(relFirstRowIx, relLastRowIx);
+        int lastRow = getFirstRow() + Math.max(relFirstRowIx, relLastRowIx);
+        int firstCol = getFirstColumn() + Math.min(relFirstColIx, relLastColIx);
+        int lastCol = getFirstColumn() + Math.max(relFirstColIx, relLastColIx);
+
+        int height = lastRow - firstRow + 1;
+        int width = lastCol - firstCol + 1;
+        double[] newVals = new double[height * width];
+
+        for (int j = 0; j < height; j++) {
+            for (int i = 0; i < width; i++) {
+                int row = firstRow + j;
+                int col = firstCol + i;
+                // like CacheAreaEval, attempts going beyond the array result in blanks
+                newVals[j * width + i] = (contains(row, col))
+                    ? _values[(row - getFirstRow()) * getWidth() + (col - getFirstColumn())]
+                    : BLANK;
+            }
+        }
+
+        return new NumberArrayEval(firstRow, firstCol, lastRow, lastCol, newVals);
+    }
+
+    @Override
+    public TwoDEval getRow(int rowIndex) {
+        if (rowIndex >= getHeight()) {
+            throw new IllegalArgumentException("Invalid rowIndex " + rowIndex
+                    + ".  Allowable range is (0.." + getHeight() + ").");
+        }
+        int width = getWidth();
+        double[] values = new double[width];
+        System.arraycopy(_values, rowIndex * width, values, 0, width);
+        int absRowIndex = getFirstRow() + rowIndex;
+        return new NumberArrayEval(absRowIndex, getFirstColumn(), absRowIndex, getLastColumn(), values);
+    }
+
+    @Override
+    public TwoDEval getColumn(int columnIndex) {
+        if (columnIndex >= getWidth()) {
+            throw new IllegalArgumentException("Invalid columnIndex " + columnIndex
+                    + ".  Allowable range is (0.." + getWidth() + ").");
+        }
+        int width = getWidth();
+        double[] values = new double[getHeight()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = _values[i * width + columnIndex];
+        }
+        int absColIndex = getFirstColumn() + columnIndex;
+        return new NumberArrayEval(getFirstRow(), absColIndex, getLastRow(), absColIndex, values);
+    }
+
+    public String toString() {
+        CellReference crA = new CellReference(getFirstRow(), getFirstColumn());
+        CellReference crB = new CellReference(getLastRow(), getLastColumn());
+        return getClass().getName() + "[" +
+                crA.formatAsString() +
+                ':' +
+                crB.formatAsString() +
+                "]";
+    }
+}
@@ -33,20 +33,48 @@ public abstract class TwoOperandNumericOperation extends Fixed2ArgFunction imple
         if (args.length != 2) {
             return ErrorEval.VALUE_INVALID;
         }
-        //return new ArrayEval().evaluate(srcRowIndex, srcColumnIndex, args[0], args[1]);
 
-        return evaluateTwoArrayArgs(args[0], args[1], srcRowIndex, srcColumnIndex,
-                (vA, vB) -> {
+        // the operands are loaded once into primitive arrays, to avoid resolving and boxing every element
+        NumberArrayEval arg0 = NumberArrayEval.coerceToNumbers(args[0]);
+        NumberArrayEval arg1 = NumberArrayEval.coerceToNumbers(args[1]);
+
+        int width = Math.max(arg0.getWidth(), arg1.getWidth());
+        int height = Math.max(arg0.getHeight(), arg1.getHeight());
+
+        double[] vals = new double[height * width];
+
+        int idx = 0;
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                double d0 = arg0.getBroadcastNumber(i, j);
+                double d1 = arg1.getBroadcastNumber(i, j);
+                double result;
+                if (NumberArrayEval.isError(d0)) {
+                    result = d0;
+                } else if (NumberArrayEval.isError(d1)) {
+                    result = d1;
+                } else if (NumberArrayEval.isInvalid(d0) || NumberArrayEval.isInvalid(d1)) {
+                    result = NumberArrayEval.errorValue(ErrorEval.VALUE_INVALID);
+                } else {
                     try {
-                        double d0 = OperandResolver.coerceValueToDouble(vA);
-                        double d1 = OperandResolver.coerceValueToDouble(vB);
-                        double result = evaluate(d0, d1);
-                        return new NumberEval(result);
-                    } catch (EvaluationException e){
-                        return e.getErrorEval();
+                        result = evaluate(blankToZero(d0), blankToZero(d1));
+                    } catch (EvaluationException e) {
+                        result = NumberArrayEval.errorValue(e.getErrorEval());
                     }
-                });
+                }
+                vals[idx++] = result;
+            }
+        }
+
+        if (vals.length == 1) {
+            return NumberArrayEval.toValueEval(vals[0]);
+        }
+
+        return new NumberArrayEval(srcRowIndex, srcColumnIndex, srcRowIndex + height - 1, srcColumnIndex + width - 1, vals);
+    }
 
+    private static double blankToZero(double d) {
+        return NumberArrayEval.isBlank(d) ? 0.0 : d;
     }
 
     @Override
@@ -0,0 +1,167 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula.eval.forked;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.ss.formula.EvaluationWorkbook;
+import org.apache.poi.ss.formula.FormulaDependencyRecorder;
+import org.apache.poi.ss.formula.eval.ValueEval;
+import org.apache.poi.ss.formula.udf.AggregatingUDFFinder;
+import org.apache.poi.ss.formula.udf.UDFFinder;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * An immutable evaluation of a master workbook, which is shared by many {@link ForkedEvaluator}s -
+ * also across threads.<p>
+ *
+ * When the base is created, the cells, formulas and defined names of the master workbook are copied
+ * and all formula cells are evaluated once. The forks only read this copy, so the master workbook
+ * itself is not shared between threads - apart from the rare lookups of external workbook references
+ * and user defined functions, which are synchronized on it. The copy roughly needs as much memory
+ * as the cell values of the master workbook.<p>
+ *
+ * The results are frozen together with the cells each formula has read. Formula cells, which can't
+ * be evaluated (e.g. because of an unsupported function), are not frozen and are evaluated by each
+ * fork instead. A fork created with
+ * {@link ForkedEvaluator#create(ForkedEvaluationBase, org.apache.poi.ss.formula.IStabilityClassifier)}
+ * presents the frozen results as plain values and only re-evaluates the formula cells, which
+ * (transitively) depend on the cells updated in that fork.<p>
+ *
+ * Later changes of the master workbook are not seen by the base. Formulas referring to other
+ * workbooks and volatile functions (e.g. {@code RAND()} or {@code NOW()}) keep their frozen values
+ * in the forks, unless they depend on an updated cell.
+ *
+ * @since POI 5.0.1
+ */
+public final class ForkedEvaluationBase {
+
+    private static final Logger LOG = LogManager.getLogger(ForkedEvaluationBase.class);
+
+    private final SnapshotEvaluationWorkbook _snapshotBook;
+    /** the frozen results of all formula cells by cell key */
+    private final Map<Long, ForkedEvaluationCell> _frozenCells;
+    /** the formula cells, which have read a cell, by the key of the read cell */
+    private final Map<Long, long[]> _dependentsByCell;
+
+    private ForkedEvaluationBase(EvaluationWorkbook masterBook, Workbook wb, UDFFinder udfFinder) {
+        if (udfFinder != null) {
+            // the formulas are parsed with the functions of the master workbook
+            ((AggregatingUDFFinder)masterBook.getUDFFinder()).add(udfFinder);
+        }
+        _snapshotBook = new SnapshotEvaluationWorkbook(masterBook, wb);
+        FormulaDependencyRecorder recorder = new FormulaDependencyRecorder(_snapshotBook, null);
+        Map<Long, ForkedEvaluationCell> frozenCells = new HashMap<>();
+
+        for (int sheetIndex = 0; sheetIndex < wb.getNumberOfSheets(); sheetIndex++) {
+            Sheet sheet = wb.getSheetAt(sheetIndex);
+            SnapshotEvaluationSheet snapshotSheet = _snapshotBook.getSheet(sheetIndex);
+            for (Row row : sheet) {
+                for (Cell cell : row) {
+                    if (cell.getCellType() != CellType.FORMULA) {
+                        continue;
+                    }
+                    SnapshotEvaluationCell snapshotCell = snapshotSheet.getCell(cell.getRowIndex(), cell.getColumnIndex());
+                    ValueEval value;
+                    try {
+                        value = recorder.evaluate(snapshotCell);
+                    } catch (RuntimeException e) {
+                        // e.g. an unsupported function - the forks evaluate the formula themselves
+                        LOG.atInfo().log("Formula cell {}!{} is not frozen: {}", sheet.getSheetName(), cell.getAddress(), e.getMessage());
+                        continue;
+                    }
+                    ForkedEvaluationCell frozenCell = new ForkedEvaluationCell(snapshotSheet, snapshotCell);
+                    frozenCell.setValue(value);
+                    frozenCells.put(FormulaDependencyRecorder.toCellKey(sheetIndex, cell.getRowIndex(), cell.getColumnIndex()), frozenCell);
+                }
+            }
+        }
+
+        Map<Long, long[]> dependentsByCell = new HashMap<>();
+        for (Long cellKey : recorder.getReadCells()) {
+            Set<Long> dependents = recorder.getDependents(cellKey);
+            long[] keys = new long[dependents.size()];
+            int i = 0;
+            for (Long dependent : dependents) {
+                keys[i++] = dependent;
+            }
+            dependentsByCell.put(cellKey, keys);
+        }
+
+        _frozenCells = Collections.unmodifiableMap(frozenCells);
+        _dependentsByCell = Collections.unmodifiableMap(dependentsByCell);
+    }
+
+    /**
+     * Evaluates all formula cells of the workbook
+     *
+     * @param udfFinder pass {@code null} for default (AnalysisToolPak only)
+     */
+    public static ForkedEvaluationBase create(Workbook wb, UDFFinder udfFinder) {
+        return new ForkedEvaluationBase(wb.createEvaluationWorkbook(), wb, udfFinder);
+    }
+
+    /* package */ EvaluationWorkbook getMasterBook() {
+        return _snapshotBook;
+    }
+
+    /**
+     * @return the cell with the frozen formula result or {@code null} if it's not a formula cell
+     *  or the formula couldn't be evaluated
+     */
+    /* package */ ForkedEvaluationCell getFrozenCell(long cellKey) {
+        return _frozenCells.get(cellKey);
+    }
+
+    /**
+     * Collects the formula cells, which need to be re-evaluated after a change of the given cell
+     *
+     * @param dirtyCells the formula cells, which are already known to be affected.
+     *  The newly affected cells are added to it.
+     * @return the newly affected cells
+     */
+    /* package */ List<Long> addDependentCells(long cellKey, Set<Long> dirtyCells) {
+        List<Long> result = new ArrayList<>();
+        List<Long> pending = new ArrayList<>();
+        pending.add(cellKey);
+        while (!pending.isEmpty()) {
+            long[] dependents = _dependentsByCell.get(pending.remove(pending.size() - 1));
+            if (dependents == null) {
+                continue;
+            }
+            for (long dependent : dependents) {
+                if (dirtyCells.add(dependent)) {
+                    result.add(dependent);
+                    pending.add(dependent);
+                }
+            }
+        }
+        return result;
+    }
+}
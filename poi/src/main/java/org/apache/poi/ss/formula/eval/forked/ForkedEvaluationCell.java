@@ -31,7 +31,10 @@ import org.apache.poi.ss.util.CellRangeAddress;
 
 /**
  * Represents a cell being used for forked evaluation that has had a value set different from the
- * corresponding cell in the shared master workbook.
+ * corresponding cell in the shared master workbook.<p>
+ *
+ * A {@link ForkedEvaluationBase} also uses instances to present the frozen results of formula cells,
+ * which are shared between the forks and never modified after construction.
  */
 final class ForkedEvaluationCell implements EvaluationCell {
 
@@ -44,7 +47,7 @@ final class ForkedEvaluationCell implements EvaluationCell {
     private double _numberValue;
     private String _stringValue;
 
-    public ForkedEvaluationCell(ForkedEvaluationSheet sheet, EvaluationCell masterCell) {
+    public ForkedEvaluationCell(EvaluationSheet sheet, EvaluationCell masterCell) {
         _sheet = sheet;
         _masterCell = masterCell;
         // start with value blank, but expect construction to be immediately
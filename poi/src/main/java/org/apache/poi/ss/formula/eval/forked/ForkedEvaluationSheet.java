@@ -20,10 +20,12 @@ package org.apache.poi.ss.formula.eval.forked;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.poi.ss.formula.EvaluationCell;
 import org.apache.poi.ss.formula.EvaluationSheet;
 import org.apache.poi.ss.formula.EvaluationWorkbook;
+import org.apache.poi.ss.formula.FormulaDependencyRecorder;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
@@ -34,7 +36,10 @@ import org.apache.poi.util.Internal;
  * Represents a sheet being used for forked evaluation.  Initially, objects of this class contain
  * only the cells from the master workbook. By calling {@link #getOrCreateUpdatableCell(int, int)},
  * the master cell object is logically replaced with a {@link ForkedEvaluationCell} instance, which
- * will be used in all subsequent evaluations.<br>
+ * will be used in all subsequent evaluations.<p>
+ *
+ * When forked from a {@link ForkedEvaluationBase}, formula cells which don't depend on the updated
+ * cells are represented by their frozen results.<br>
  *
  * For POI internal use only
  */
@@ -48,9 +53,21 @@ final class ForkedEvaluationSheet implements EvaluationSheet {
      */
     private final Map<RowColKey, ForkedEvaluationCell> _sharedCellsByRowCol;
 
+    private final ForkedEvaluationBase _base;
+    private final int _sheetIndex;
+    /** the formula cells of the base, which need to be re-evaluated in this fork */
+    private final Set<Long> _dirtyCells;
+
     public ForkedEvaluationSheet(EvaluationSheet masterSheet) {
+        this(masterSheet, null, -1, null);
+    }
+
+    public ForkedEvaluationSheet(EvaluationSheet masterSheet, ForkedEvaluationBase base, int sheetIndex, Set<Long> dirtyCells) {
         _masterSheet = masterSheet;
         _sharedCellsByRowCol = new HashMap<>();
+        _base = base;
+        _sheetIndex = sheetIndex;
+        _dirtyCells = dirtyCells;
     }
 
     /* (non-Javadoc)
@@ -77,6 +94,13 @@ final class ForkedEvaluationSheet implements EvaluationSheet {
 
         ForkedEvaluationCell result = _sharedCellsByRowCol.get(key);
         if (result == null) {
+            if (_base != null) {
+                long cellKey = FormulaDependencyRecorder.toCellKey(_sheetIndex, rowIndex, columnIndex);
+                ForkedEvaluationCell frozenCell = _base.getFrozenCell(cellKey);
+                if (frozenCell != null && !_dirtyCells.contains(cellKey)) {
+                    return frozenCell;
+                }
+            }
             return _masterSheet.getCell(rowIndex, columnIndex);
         }
         return result;
@@ -17,14 +17,19 @@
 
 package org.apache.poi.ss.formula.eval.forked;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.formula.EvaluationCell;
 import org.apache.poi.ss.formula.EvaluationName;
 import org.apache.poi.ss.formula.EvaluationSheet;
 import org.apache.poi.ss.formula.EvaluationWorkbook;
+import org.apache.poi.ss.formula.FormulaDependencyRecorder;
 import org.apache.poi.ss.formula.ptg.NamePtg;
 import org.apache.poi.ss.formula.ptg.NameXPtg;
 import org.apache.poi.ss.formula.ptg.Ptg;
@@ -44,10 +49,45 @@ final class ForkedEvaluationWorkbook implements EvaluationWorkbook {
 
     private final EvaluationWorkbook _masterBook;
     private final Map<String, ForkedEvaluationSheet> _sharedSheetsByName;
+    private final ForkedEvaluationBase _base;
+    private final Set<Long> _dirtyCells;
 
     public ForkedEvaluationWorkbook(EvaluationWorkbook master) {
         _masterBook = master;
         _sharedSheetsByName = new HashMap<>();
+        _base = null;
+        _dirtyCells = null;
+    }
+
+    public ForkedEvaluationWorkbook(ForkedEvaluationBase base) {
+        _masterBook = base.getMasterBook();
+        _sharedSheetsByName = new HashMap<>();
+        _base = base;
+        _dirtyCells = new HashSet<>();
+    }
+
+    /**
+     * Marks the frozen formula cells of the base, which depend on the given cell, for re-evaluation
+     *
+     * @return the master cells of the newly marked formula cells - the evaluator needs to be notified
+     *  about their change from a plain value to a formula
+     */
+    public List<EvaluationCell> markDependentCells(String sheetName, int rowIndex, int columnIndex) {
+        List<EvaluationCell> result = new ArrayList<>();
+        if (_base == null) {
+            return result;
+        }
+        int sheetIndex = _masterBook.getSheetIndex(sheetName);
+        long cellKey = FormulaDependencyRecorder.toCellKey(sheetIndex, rowIndex, columnIndex);
+        for (long dependent : _base.addDependentCells(cellKey, _dirtyCells)) {
+            EvaluationCell frozenCell = _base.getFrozenCell(dependent);
+            if (frozenCell == null) {
+                // not evaluated by the base - the fork evaluates the formula anyway
+                continue;
+            }
+            result.add(frozenCell.getSheet().getCell(frozenCell.getRowIndex(), frozenCell.getColumnIndex()));
+        }
+        return result;
     }
 
     public ForkedEvaluationCell getOrCreateUpdatableCell(String sheetName, int rowIndex,
@@ -64,8 +104,8 @@ final class ForkedEvaluationWorkbook implements EvaluationWorkbook {
     private ForkedEvaluationSheet getSharedSheet(String sheetName) {
         ForkedEvaluationSheet result = _sharedSheetsByName.get(sheetName);
         if (result == null) {
-            result = new ForkedEvaluationSheet(_masterBook.getSheet(_masterBook
-                    .getSheetIndex(sheetName)));
+            int sheetIndex = _masterBook.getSheetIndex(sheetName);
+            result = new ForkedEvaluationSheet(_masterBook.getSheet(sheetIndex), _base, sheetIndex, _dirtyCells);
             _sharedSheetsByName.put(sheetName, result);
         }
         return result;
@@ -22,7 +22,6 @@ import java.util.stream.Stream;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.formula.CollaboratingWorkbooksEnvironment;
 import org.apache.poi.ss.formula.EvaluationCell;
-import org.apache.poi.ss.formula.EvaluationWorkbook;
 import org.apache.poi.ss.formula.IStabilityClassifier;
 import org.apache.poi.ss.formula.WorkbookEvaluator;
 import org.apache.poi.ss.formula.eval.BoolEval;
@@ -46,8 +45,8 @@ public final class ForkedEvaluator {
     private final WorkbookEvaluator _evaluator;
     private final ForkedEvaluationWorkbook _sewb;
 
-    private ForkedEvaluator(EvaluationWorkbook masterWorkbook, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder) {
-        _sewb = new ForkedEvaluationWorkbook(masterWorkbook);
+    private ForkedEvaluator(ForkedEvaluationWorkbook sewb, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder) {
+        _sewb = sewb;
         _evaluator = new WorkbookEvaluator(_sewb, stabilityClassifier, udfFinder);
     }
 
@@ -55,7 +54,22 @@ public final class ForkedEvaluator {
      * @param udfFinder pass {@code null} for default (AnalysisToolPak only)
      */
     public static ForkedEvaluator create(Workbook wb, IStabilityClassifier stabilityClassifier, UDFFinder udfFinder) {
-        return new ForkedEvaluator(wb.createEvaluationWorkbook(), stabilityClassifier, udfFinder);
+        return new ForkedEvaluator(new ForkedEvaluationWorkbook(wb.createEvaluationWorkbook()), stabilityClassifier, udfFinder);
+    }
+
+    /**
+     * Creates an evaluator, which starts with the frozen formula results of the base and only
+     * re-evaluates the formulas depending on the cells updated via this evaluator.<p>
+     *
+     * Any number of evaluators can be created from the same base - also concurrently, as long as
+     * each evaluator is only used by one thread at a time. The user defined functions of the base
+     * are used.
+     *
+     * @since POI 5.0.1
+     */
+    public static ForkedEvaluator create(ForkedEvaluationBase base, IStabilityClassifier stabilityClassifier) {
+        // the UDFs are already part of the master workbook, don't register them again on the shared instance
+        return new ForkedEvaluator(new ForkedEvaluationWorkbook(base), stabilityClassifier, null);
     }
 
     /**
@@ -68,6 +82,10 @@ public final class ForkedEvaluator {
 
         ForkedEvaluationCell cell = _sewb.getOrCreateUpdatableCell(sheetName, rowIndex, columnIndex);
         cell.setValue(value);
+        for (EvaluationCell dependentCell : _sewb.markDependentCells(sheetName, rowIndex, columnIndex)) {
+            // the frozen value is replaced by the formula of the master cell
+            _evaluator.notifyUpdateCell(dependentCell);
+        }
         _evaluator.notifyUpdateCell(cell);
     }
     /**
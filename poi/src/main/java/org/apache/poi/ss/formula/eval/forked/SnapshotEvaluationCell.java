@@ -0,0 +1,145 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula.eval.forked;
+
+import org.apache.poi.ss.formula.EvaluationCell;
+import org.apache.poi.ss.formula.EvaluationSheet;
+import org.apache.poi.ss.formula.EvaluationWorkbook;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+/**
+ * An immutable copy of a master workbook cell, including the formula tokens of formula cells.<p>
+ *
+ * For POI internal use only
+ */
+final class SnapshotEvaluationCell implements EvaluationCell {
+
+    private final SnapshotEvaluationSheet _sheet;
+    private final int _rowIndex;
+    private final int _columnIndex;
+    private final CellType _cellType;
+    private final CellType _cachedFormulaResultType;
+    private final boolean _booleanValue;
+    private final int _errorValue;
+    private final double _numberValue;
+    private final String _stringValue;
+    private final CellRangeAddress _arrayFormulaRange;
+    private final Ptg[] _formulaTokens;
+    /** the exception thrown by the master workbook when the formula was parsed */
+    private final RuntimeException _formulaException;
+
+    public SnapshotEvaluationCell(SnapshotEvaluationSheet sheet, EvaluationWorkbook masterBook, EvaluationCell masterCell) {
+        _sheet = sheet;
+        _rowIndex = masterCell.getRowIndex();
+        _columnIndex = masterCell.getColumnIndex();
+        _cellType = masterCell.getCellType();
+
+        Ptg[] formulaTokens = null;
+        RuntimeException formulaException = null;
+        CellType valueType = _cellType;
+        if (_cellType == CellType.FORMULA) {
+            _cachedFormulaResultType = masterCell.getCachedFormulaResultType();
+            valueType = _cachedFormulaResultType;
+            try {
+                formulaTokens = masterBook.getFormulaTokens(masterCell);
+            } catch (RuntimeException e) {
+                formulaException = e;
+            }
+        } else {
+            _cachedFormulaResultType = null;
+        }
+        _formulaTokens = formulaTokens;
+        _formulaException = formulaException;
+
+        _booleanValue = (valueType == CellType.BOOLEAN) && masterCell.getBooleanCellValue();
+        _errorValue = (valueType == CellType.ERROR) ? masterCell.getErrorCellValue() : 0;
+        _numberValue = (valueType == CellType.NUMERIC) ? masterCell.getNumericCellValue() : 0;
+        _stringValue = (valueType == CellType.STRING) ? masterCell.getStringCellValue() : null;
+
+        _arrayFormulaRange = masterCell.isPartOfArrayFormulaGroup() ? masterCell.getArrayFormulaRange() : null;
+    }
+
+    /* package */ Ptg[] getFormulaTokens() {
+        if (_formulaException != null) {
+            throw _formulaException;
+        }
+        return _formulaTokens;
+    }
+
+    @Override
+    public Object getIdentityKey() {
+        return this;
+    }
+
+    @Override
+    public EvaluationSheet getSheet() {
+        return _sheet;
+    }
+
+    @Override
+    public int getRowIndex() {
+        return _rowIndex;
+    }
+
+    @Override
+    public int getColumnIndex() {
+        return _columnIndex;
+    }
+
+    @Override
+    public CellType getCellType() {
+        return _cellType;
+    }
+
+    @Override
+    public double getNumericCellValue() {
+        return _numberValue;
+    }
+
+    @Override
+    public String getStringCellValue() {
+        return _stringValue;
+    }
+
+    @Override
+    public boolean getBooleanCellValue() {
+        return _booleanValue;
+    }
+
+    @Override
+    public int getErrorCellValue() {
+        return _errorValue;
+    }
+
+    @Override
+    public CellRangeAddress getArrayFormulaRange() {
+        return _arrayFormulaRange;
+    }
+
+    @Override
+    public boolean isPartOfArrayFormulaGroup() {
+        return _arrayFormulaRange != null;
+    }
+
+    @Override
+    public CellType getCachedFormulaResultType() {
+        return _cachedFormulaResultType;
+    }
+}
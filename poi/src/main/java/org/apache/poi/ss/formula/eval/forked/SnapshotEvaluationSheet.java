@@ -0,0 +1,81 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula.eval.forked;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.formula.EvaluationCell;
+import org.apache.poi.ss.formula.EvaluationSheet;
+import org.apache.poi.ss.formula.EvaluationWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * An immutable copy of the cells of a master workbook sheet.<p>
+ *
+ * For POI internal use only
+ */
+final class SnapshotEvaluationSheet implements EvaluationSheet {
+
+    private final Map<Long, SnapshotEvaluationCell> _cells = new HashMap<>();
+    private final BitSet _hiddenRows = new BitSet();
+    private final int _lastRowNum;
+
+    public SnapshotEvaluationSheet(EvaluationWorkbook masterBook, EvaluationSheet masterSheet, Sheet sheet) {
+        _lastRowNum = masterSheet.getLastRowNum();
+        for (Row row : sheet) {
+            int rowIndex = row.getRowNum();
+            if (masterSheet.isRowHidden(rowIndex)) {
+                _hiddenRows.set(rowIndex);
+            }
+            for (Cell cell : row) {
+                EvaluationCell masterCell = masterSheet.getCell(rowIndex, cell.getColumnIndex());
+                if (masterCell != null) {
+                    _cells.put(toKey(rowIndex, cell.getColumnIndex()), new SnapshotEvaluationCell(this, masterBook, masterCell));
+                }
+            }
+        }
+    }
+
+    private static long toKey(int rowIndex, int columnIndex) {
+        return ((long)rowIndex << 32) | (columnIndex & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public SnapshotEvaluationCell getCell(int rowIndex, int columnIndex) {
+        return _cells.get(toKey(rowIndex, columnIndex));
+    }
+
+    @Override
+    public int getLastRowNum() {
+        return _lastRowNum;
+    }
+
+    @Override
+    public boolean isRowHidden(int rowIndex) {
+        return rowIndex >= 0 && _hiddenRows.get(rowIndex);
+    }
+
+    @Override
+    public void clearAllCachedResultValues() {
+        // nothing cached
+    }
+}
@@ -0,0 +1,265 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula.eval.forked;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.EvaluationCell;
+import org.apache.poi.ss.formula.EvaluationName;
+import org.apache.poi.ss.formula.EvaluationSheet;
+import org.apache.poi.ss.formula.EvaluationWorkbook;
+import org.apache.poi.ss.formula.ptg.NamePtg;
+import org.apache.poi.ss.formula.ptg.NameXPtg;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.formula.udf.AggregatingUDFFinder;
+import org.apache.poi.ss.formula.udf.UDFFinder;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.Workbook;
+
+/**
+ * An immutable copy of the parts of a master workbook, which are needed for evaluation - i.e. the cells,
+ * the parsed formulas and the defined names. Structured references to tables are resolved when the
+ * formulas are parsed, so the tables don't need to be copied.<p>
+ *
+ * As the master workbook implementations parse formulas and fill their caches lazily, they can't be
+ * read by several threads at once. The few lookups, which aren't copied (external workbook references
+ * and the user defined functions), are synchronized on the master workbook.<p>
+ *
+ * For POI internal use only
+ */
+final class SnapshotEvaluationWorkbook implements EvaluationWorkbook {
+
+    private final EvaluationWorkbook _masterBook;
+    private final String[] _sheetNames;
+    private final SnapshotEvaluationSheet[] _sheets;
+    private final SnapshotName[] _names;
+    /** the defined names by upper case name text and scope */
+    private final Map<String, SnapshotName> _namesByText = new HashMap<>();
+    private final UDFFinder _udfFinder;
+    private final SpreadsheetVersion _spreadsheetVersion;
+
+    public SnapshotEvaluationWorkbook(EvaluationWorkbook masterBook, Workbook wb) {
+        _masterBook = masterBook;
+        _spreadsheetVersion = masterBook.getSpreadsheetVersion();
+
+        int nSheets = wb.getNumberOfSheets();
+        _sheetNames = new String[nSheets];
+        _sheets = new SnapshotEvaluationSheet[nSheets];
+        for (int sheetIndex = 0; sheetIndex < nSheets; sheetIndex++) {
+            _sheetNames[sheetIndex] = masterBook.getSheetName(sheetIndex);
+            _sheets[sheetIndex] = new SnapshotEvaluationSheet(masterBook, masterBook.getSheet(sheetIndex), wb.getSheetAt(sheetIndex));
+        }
+
+        List<? extends Name> names = wb.getAllNames();
+        _names = new SnapshotName[names.size()];
+        for (int nameIndex = 0; nameIndex < _names.length; nameIndex++) {
+            SnapshotName name = new SnapshotName(masterBook.getName(new NamePtg(nameIndex)));
+            _names[nameIndex] = name;
+            _namesByText.put(toNameKey(name.getNameText(), names.get(nameIndex).getSheetIndex()), name);
+        }
+
+        UDFFinder masterFinder = masterBook.getUDFFinder();
+        _udfFinder = new AggregatingUDFFinder(functionName -> {
+            synchronized (_masterBook) {
+                return masterFinder.findFunction(functionName);
+            }
+        });
+    }
+
+    private static String toNameKey(String nameText, int sheetIndex) {
+        return nameText.toUpperCase(Locale.ROOT) + "!" + sheetIndex;
+    }
+
+    @Override
+    public String getSheetName(int sheetIndex) {
+        return _sheetNames[sheetIndex];
+    }
+
+    @Override
+    public int getSheetIndex(EvaluationSheet sheet) {
+        for (int sheetIndex = 0; sheetIndex < _sheets.length; sheetIndex++) {
+            if (_sheets[sheetIndex] == sheet) {
+                return sheetIndex;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getSheetIndex(String sheetName) {
+        for (int sheetIndex = 0; sheetIndex < _sheetNames.length; sheetIndex++) {
+            if (_sheetNames[sheetIndex].equalsIgnoreCase(sheetName)) {
+                return sheetIndex;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public SnapshotEvaluationSheet getSheet(int sheetIndex) {
+        return _sheets[sheetIndex];
+    }
+
+    @Override
+    public ExternalSheet getExternalSheet(int externSheetIndex) {
+        synchronized (_masterBook) {
+            return _masterBook.getExternalSheet(externSheetIndex);
+        }
+    }
+
+    @Override
+    public ExternalSheet getExternalSheet(String firstSheetName, String lastSheetName, int externalWorkbookNumber) {
+        synchronized (_masterBook) {
+            return _masterBook.getExternalSheet(firstSheetName, lastSheetName, externalWorkbookNumber);
+        }
+    }
+
+    @Override
+    public int convertFromExternSheetIndex(int externSheetIndex) {
+        synchronized (_masterBook) {
+            return _masterBook.convertFromExternSheetIndex(externSheetIndex);
+        }
+    }
+
+    @Override
+    public ExternalName getExternalName(int externSheetIndex, int externNameIndex) {
+        synchronized (_masterBook) {
+            return _masterBook.getExternalName(externSheetIndex, externNameIndex);
+        }
+    }
+
+    @Override
+    public ExternalName getExternalName(String nameName, String sheetName, int externalWorkbookNumber) {
+        synchronized (_masterBook) {
+            return _masterBook.getExternalName(nameName, sheetName, externalWorkbookNumber);
+        }
+    }
+
+    @Override
+    public EvaluationName getName(NamePtg namePtg) {
+        return _names[namePtg.getIndex()];
+    }
+
+    @Override
+    public EvaluationName getName(String name, int sheetIndex) {
+        SnapshotName result = _namesByText.get(toNameKey(name, sheetIndex));
+        if (result == null && sheetIndex != -1) {
+            result = _namesByText.get(toNameKey(name, -1));
+        }
+        return result;
+    }
+
+    @Override
+    public String resolveNameXText(NameXPtg ptg) {
+        synchronized (_masterBook) {
+            return _masterBook.resolveNameXText(ptg);
+        }
+    }
+
+    @Override
+    public Ptg[] getFormulaTokens(EvaluationCell cell) {
+        if (!(cell instanceof SnapshotEvaluationCell)) {
+            throw new IllegalArgumentException("Cell is not part of the snapshot: " + cell);
+        }
+        return ((SnapshotEvaluationCell)cell).getFormulaTokens();
+    }
+
+    @Override
+    public UDFFinder getUDFFinder() {
+        return _udfFinder;
+    }
+
+    @Override
+    public SpreadsheetVersion getSpreadsheetVersion() {
+        return _spreadsheetVersion;
+    }
+
+    @Override
+    public void clearAllCachedResultValues() {
+        // nothing cached
+    }
+
+    private static final class SnapshotName implements EvaluationName {
+
+        private final String _nameText;
+        private final boolean _functionName;
+        private final boolean _hasFormula;
+        private final boolean _range;
+        private final int _index;
+        private final Ptg[] _nameDefinition;
+        /** the exception thrown by the master workbook when the definition was parsed */
+        private final RuntimeException _definitionException;
+
+        public SnapshotName(EvaluationName masterName) {
+            _nameText = masterName.getNameText();
+            _functionName = masterName.isFunctionName();
+            _hasFormula = masterName.hasFormula();
+            _range = masterName.isRange();
+            _index = masterName.createPtg().getIndex();
+
+            Ptg[] nameDefinition = null;
+            RuntimeException definitionException = null;
+            if (_hasFormula) {
+                try {
+                    nameDefinition = masterName.getNameDefinition();
+                } catch (RuntimeException e) {
+                    definitionException = e;
+                }
+            }
+            _nameDefinition = nameDefinition;
+            _definitionException = definitionException;
+        }
+
+        @Override
+        public String getNameText() {
+            return _nameText;
+        }
+
+        @Override
+        public boolean isFunctionName() {
+            return _functionName;
+        }
+
+        @Override
+        public boolean hasFormula() {
+            return _hasFormula;
+        }
+
+        @Override
+        public Ptg[] getNameDefinition() {
+            if (_definitionException != null) {
+                throw _definitionException;
+            }
+            return _nameDefinition;
+        }
+
+        @Override
+        public boolean isRange() {
+            return _range;
+        }
+
+        @Override
+        public NamePtg createPtg() {
+            return new NamePtg(_index);
+        }
+    }
+}
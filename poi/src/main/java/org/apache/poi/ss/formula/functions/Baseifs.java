@@ -19,6 +19,8 @@
 
 package org.apache.poi.ss.formula.functions;
 
+import java.util.BitSet;
+
 import org.apache.poi.ss.formula.OperationEvaluationContext;
 import org.apache.poi.ss.formula.eval.AreaEval;
 import org.apache.poi.ss.formula.eval.ErrorEval;
@@ -77,7 +79,7 @@ import org.apache.poi.ss.formula.functions.Countif.ErrorMatcher;
             validateCriteriaRanges(sumRange, ae);
             validateCriteria(mp);
 
-            return aggregateMatchingCells(createAggregator(), sumRange, ae, mp);
+            return aggregateMatchingCells(createAggregator(), sumRange, ae, mp, ec);
         } catch (EvaluationException e) {
             return e.getErrorEval();
         }
@@ -129,45 +131,77 @@ import org.apache.poi.ss.formula.functions.Countif.ErrorMatcher;
      * @param sumRange  the range to sum, if used (uses 1 for each match if not present)
      * @param ranges  criteria ranges
      * @param predicates  array of predicates, a predicate for each value in <code>ranges</code>
+     * @param ec  the context used to look up the shared criteria range indexes
      * @return the computed value
      * @throws EvaluationException if there is an issue with eval
      */
-    private static ValueEval aggregateMatchingCells(Aggregator aggregator, AreaEval sumRange, AreaEval[] ranges, I_MatchPredicate[] predicates)
-            throws EvaluationException {
-        int height = ranges[0].getHeight();
+    private static ValueEval aggregateMatchingCells(Aggregator aggregator, AreaEval sumRange, AreaEval[] ranges,
+            I_MatchPredicate[] predicates, OperationEvaluationContext ec) throws EvaluationException {
         int width = ranges[0].getWidth();
 
-        for (int r = 0; r < height; r++) {
-            for (int c = 0; c < width; c++) {
+        BitSet matches = null;
+        for(int i = 0; i < ranges.length; i++){
+            AreaEval aeRange = ranges[i];
+            I_MatchPredicate mp = predicates[i];
 
-                boolean matches = true;
-                for(int i = 0; i < ranges.length; i++){
-                    AreaEval aeRange = ranges[i];
-                    I_MatchPredicate mp = predicates[i];
+            // Bugs 60858 and 56420 show predicate can be null
+            if (mp == null) {
+                return aggregator.getResult();
+            }
 
-                    // Bugs 60858 and 56420 show predicate can be null
-                    if (mp == null || !mp.matches(aeRange.getRelativeValue(r, c))) {
-                        matches = false;
-                        break;
+            CriteriaRangeIndex index = (ec == null) ? null
+                : ec.getAreaIndex(aeRange, CriteriaRangeIndex.class, CriteriaRangeIndex::new);
+            if (index != null) {
+                BitSet rangeMatches = index.getMatches(mp);
+                if (matches == null) {
+                    matches = rangeMatches;
+                } else {
+                    matches.and(rangeMatches);
+                }
+            } else if (matches == null) {
+                matches = getMatchingCells(aeRange, mp);
+            } else {
+                // only check the cells matched by the previous criteria
+                for (int pos = matches.nextSetBit(0); pos >= 0; pos = matches.nextSetBit(pos+1)) {
+                    if (!mp.matches(aeRange.getRelativeValue(pos / width, pos % width))) {
+                        matches.clear(pos);
                     }
                 }
+            }
+        }
 
-                if(matches) { // aggregate only if all of the corresponding criteria specified are true for that cell.
-                    if(sumRange != null) {
-                        ValueEval value = sumRange.getRelativeValue(r, c);
-                        if (value instanceof ErrorEval) {
-                            throw new EvaluationException((ErrorEval)value);
-                        }
-                        aggregator.addValue(value);
-                    } else {
-                        aggregator.addValue(null);
-                    }
+        // aggregate only if all of the corresponding criteria specified are true for that cell.
+        for (int pos = matches.nextSetBit(0); pos >= 0; pos = matches.nextSetBit(pos+1)) {
+            if(sumRange != null) {
+                ValueEval value = sumRange.getRelativeValue(pos / width, pos % width);
+                if (value instanceof ErrorEval) {
+                    throw new EvaluationException((ErrorEval)value);
                 }
+                aggregator.addValue(value);
+            } else {
+                aggregator.addValue(null);
             }
         }
         return aggregator.getResult();
     }
 
+    /**
+     * @return the (row-major) positions of the cells in <code>range</code> matching the predicate
+     */
+    private static BitSet getMatchingCells(AreaEval range, I_MatchPredicate predicate) {
+        int height = range.getHeight();
+        int width = range.getWidth();
+        BitSet matches = new BitSet(height * width);
+        for (int r = 0, pos = 0; r < height; r++) {
+            for (int c = 0; c < width; c++, pos++) {
+                if (predicate.matches(range.getRelativeValue(r, c))) {
+                    matches.set(pos);
+                }
+            }
+        }
+        return matches;
+    }
+
     protected static AreaEval convertRangeArg(ValueEval eval) throws EvaluationException {
         if (eval instanceof AreaEval) {
             return (AreaEval) eval;
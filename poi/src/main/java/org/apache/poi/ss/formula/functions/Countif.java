@@ -44,7 +44,7 @@ import org.apache.poi.ss.usermodel.FormulaError;
  */
 public final class Countif extends Fixed2ArgFunction {
 
-    private static final class CmpOp {
+    static final class CmpOp {
         public static final int NONE = 0;
         public static final int EQ = 1;
         public static final int NE = 2;
@@ -145,7 +145,7 @@ public final class Countif extends Fixed2ArgFunction {
         }
     }
 
-    private static abstract class MatcherBase implements I_MatchPredicate {
+    static abstract class MatcherBase implements I_MatchPredicate {
         private final CmpOp _operator;
 
         MatcherBase(CmpOp operator) {
@@ -167,7 +167,7 @@ public final class Countif extends Fixed2ArgFunction {
         protected abstract String getValueText();
     }
 
-    private static final class NumberMatcher extends MatcherBase {
+    static final class NumberMatcher extends MatcherBase {
 
         private final double _value;
 
@@ -180,6 +180,10 @@ public final class Countif extends Fixed2ArgFunction {
             return String.valueOf(_value);
         }
 
+        double getValue() {
+            return _value;
+        }
+
         @Override
         public boolean matches(ValueEval x) {
             double testValue;
@@ -333,6 +337,14 @@ public final class Countif extends Fixed2ArgFunction {
             return _pattern.pattern();
         }
 
+        String getValue() {
+            return _value;
+        }
+
+        boolean hasWildCard() {
+            return _pattern != null;
+        }
+
         @Override
         public boolean matches(ValueEval x) {
             if (x instanceof BlankEval) {
@@ -0,0 +1,254 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula.functions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.formula.eval.BoolEval;
+import org.apache.poi.ss.formula.eval.NumberEval;
+import org.apache.poi.ss.formula.eval.OperandResolver;
+import org.apache.poi.ss.formula.eval.StringEval;
+import org.apache.poi.ss.formula.eval.ValueEval;
+import org.apache.poi.ss.formula.functions.Countif.CmpOp;
+import org.apache.poi.ss.formula.functions.Countif.NumberMatcher;
+import org.apache.poi.ss.formula.functions.Countif.StringMatcher;
+import org.apache.poi.ss.formula.functions.CountUtils.I_MatchPredicate;
+import org.apache.poi.util.IntList;
+
+/**
+ * Index over the values of a criteria range, as used by the *IFS functions.<p>
+ *
+ * The cells are grouped by distinct value, so a criteria predicate only needs to be
+ * applied once per distinct value instead of once per cell. In addition, the groups are
+ * hashed by (case-folded) value for equality criteria and sorted by number for the
+ * relational operators, so the common criteria become lookups.<p>
+ *
+ * The lookups only preselect candidate groups - each candidate is still checked with the
+ * predicate, so the matching rules of {@link Countif} apply unchanged.
+ */
+final class CriteriaRangeIndex {
+
+    private final int _size;
+    /** one representative value for each group of equal values */
+    private final ValueEval[] _groupValues;
+    /** the (row-major) positions of the cells in each group */
+    private final int[][] _groupPositions;
+    private final Map<Object, Integer> _groupsByValue;
+    /** string groups by case-folded text */
+    private final Map<String, IntList> _stringGroupsByFoldedText;
+    /** string groups which can be parsed as number */
+    private final Map<Double, IntList> _stringGroupsByNumber;
+    private final double[] _sortedNumbers;
+    private final int[] _sortedNumberGroups;
+
+    CriteriaRangeIndex(ValueEval[] values) {
+        _size = values.length;
+        _groupsByValue = new HashMap<>();
+        List<ValueEval> groupValues = new ArrayList<>();
+        List<IntList> groupPositions = new ArrayList<>();
+
+        for (int i = 0; i < values.length; i++) {
+            ValueEval ve = values[i];
+            Object key = toKey(ve);
+            Integer group = _groupsByValue.get(key);
+            if (group == null) {
+                group = groupValues.size();
+                _groupsByValue.put(key, group);
+                groupValues.add(ve);
+                groupPositions.add(new IntList());
+            }
+            groupPositions.get(group).add(i);
+        }
+
+        int groupCnt = groupValues.size();
+        _groupValues = groupValues.toArray(new ValueEval[0]);
+        _groupPositions = new int[groupCnt][];
+        for (int i = 0; i < groupCnt; i++) {
+            _groupPositions[i] = groupPositions.get(i).toArray();
+        }
+
+        _stringGroupsByFoldedText = new HashMap<>();
+        _stringGroupsByNumber = new HashMap<>();
+        IntList numberGroups = new IntList();
+        for (int i = 0; i < groupCnt; i++) {
+            ValueEval ve = _groupValues[i];
+            if (ve instanceof NumberEval) {
+                numberGroups.add(i);
+            } else if (ve instanceof StringEval) {
+                String text = ((StringEval)ve).getStringValue();
+                _stringGroupsByFoldedText.computeIfAbsent(foldCase(text), k -> new IntList()).add(i);
+                Double number = OperandResolver.parseDouble(text);
+                if (number != null) {
+                    _stringGroupsByNumber.computeIfAbsent(normalize(number), k -> new IntList()).add(i);
+                }
+            }
+        }
+
+        // sort the number groups by value, the same way as Double.compare() orders them
+        int numberCnt = numberGroups.size();
+        double[] numbers = new double[numberCnt];
+        for (int i = 0; i < numberCnt; i++) {
+            numbers[i] = ((NumberEval)_groupValues[numberGroups.get(i)]).getNumberValue();
+        }
+        Integer[] order = new Integer[numberCnt];
+        for (int i = 0; i < numberCnt; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(numbers[a], numbers[b]));
+        _sortedNumbers = new double[numberCnt];
+        _sortedNumberGroups = new int[numberCnt];
+        for (int i = 0; i < numberCnt; i++) {
+            _sortedNumbers[i] = numbers[order[i]];
+            _sortedNumberGroups[i] = numberGroups.get(order[i]);
+        }
+    }
+
+    /**
+     * @return the (row-major) positions of all cells matching the predicate
+     */
+    BitSet getMatches(I_MatchPredicate predicate) {
+        BitSet result = new BitSet(_size);
+
+        if (predicate instanceof NumberMatcher) {
+            NumberMatcher nm = (NumberMatcher)predicate;
+            double value = nm.getValue();
+            switch (nm.getCode()) {
+                case CmpOp.NONE:
+                case CmpOp.EQ:
+                    markGroup(predicate, _groupsByValue.get(value), result);
+                    markGroups(predicate, _stringGroupsByNumber.get(normalize(value)), result);
+                    return result;
+                case CmpOp.LT:
+                case CmpOp.LE:
+                    markGroups(predicate, 0, upperBound(value), result);
+                    return result;
+                case CmpOp.GT:
+                case CmpOp.GE:
+                    markGroups(predicate, lowerBound(value), _sortedNumbers.length, result);
+                    return result;
+                default:
+                    break;
+            }
+        } else if (predicate instanceof StringMatcher) {
+            StringMatcher sm = (StringMatcher)predicate;
+            String value = sm.getValue();
+            boolean isEquals = sm.getCode() == CmpOp.NONE || sm.getCode() == CmpOp.EQ;
+            // empty criteria also match blank cells, so they are handled by the general case
+            if (isEquals && !sm.hasWildCard() && !value.isEmpty()) {
+                markGroups(predicate, _stringGroupsByFoldedText.get(foldCase(value)), result);
+                return result;
+            }
+        }
+
+        for (int i = 0; i < _groupValues.length; i++) {
+            markGroup(predicate, i, result);
+        }
+        return result;
+    }
+
+    private void markGroups(I_MatchPredicate predicate, IntList groups, BitSet result) {
+        if (groups != null) {
+            for (int i = 0; i < groups.size(); i++) {
+                markGroup(predicate, groups.get(i), result);
+            }
+        }
+    }
+
+    private void markGroups(I_MatchPredicate predicate, int fromSorted, int toSorted, BitSet result) {
+        for (int i = fromSorted; i < toSorted; i++) {
+            markGroup(predicate, _sortedNumberGroups[i], result);
+        }
+    }
+
+    private void markGroup(I_MatchPredicate predicate, Integer group, BitSet result) {
+        if (group != null && predicate.matches(_groupValues[group])) {
+            for (int pos : _groupPositions[group]) {
+                result.set(pos);
+            }
+        }
+    }
+
+    /**
+     * @return the index of the first sorted number which is greater or equal to the value
+     */
+    private int lowerBound(double value) {
+        int lo = 0, hi = _sortedNumbers.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Double.compare(_sortedNumbers[mid], value) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * @return the index of the first sorted number which is greater than the value
+     */
+    private int upperBound(double value) {
+        int lo = 0, hi = _sortedNumbers.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Double.compare(_sortedNumbers[mid], value) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static Object toKey(ValueEval ve) {
+        if (ve instanceof NumberEval) {
+            return ((NumberEval)ve).getNumberValue();
+        }
+        if (ve instanceof StringEval) {
+            return ((StringEval)ve).getStringValue();
+        }
+        if (ve instanceof BoolEval) {
+            return ((BoolEval)ve).getBooleanValue();
+        }
+        // blank and error values are compared by identity
+        return ve;
+    }
+
+    /**
+     * Folds the case the same way as {@link String#compareToIgnoreCase(String)} compares characters
+     */
+    private static String foldCase(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Strings are compared by {@code ==} with the criteria number, i.e. 0.0 equals -0.0
+     */
+    private static Double normalize(double value) {
+        return value + 0.0;
+    }
+}
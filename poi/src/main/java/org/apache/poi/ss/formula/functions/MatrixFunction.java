@@ -17,10 +17,10 @@
 
 package org.apache.poi.ss.formula.functions;
 
-import org.apache.poi.ss.formula.CacheAreaEval;
 import org.apache.poi.ss.formula.eval.AreaEval;
 import org.apache.poi.ss.formula.eval.ErrorEval;
 import org.apache.poi.ss.formula.eval.EvaluationException;
+import org.apache.poi.ss.formula.eval.NumberArrayEval;
 import org.apache.poi.ss.formula.eval.NumberEval;
 import org.apache.poi.ss.formula.eval.OperandResolver;
 import org.apache.poi.ss.formula.eval.ValueEval;
@@ -111,20 +111,13 @@ public abstract class MatrixFunction implements Function{
                     return e.getErrorEval();
                 }
 
-                ValueEval[] vals = new ValueEval[result.length];
-
-                for (int idx = 0; idx < result.length; idx++) {
-                    vals[idx] = new NumberEval(result[idx]);
-                }
-
                 if (result.length == 1) {
-                    return vals[0];
+                    return new NumberEval(result[0]);
                 }
                 else {
-                    /* find a better solution */
-                    return new CacheAreaEval(((AreaEval) arg0).getFirstRow(), ((AreaEval) arg0).getFirstColumn(),
+                    return new NumberArrayEval(((AreaEval) arg0).getFirstRow(), ((AreaEval) arg0).getFirstColumn(),
                                             ((AreaEval) arg0).getFirstRow() + height - 1,
-                                            ((AreaEval) arg0).getFirstColumn() + width - 1, vals);
+                                            ((AreaEval) arg0).getFirstColumn() + width - 1, result);
                 }
             }
             else {
@@ -214,18 +207,12 @@ public abstract class MatrixFunction implements Function{
             }
 
 
-            ValueEval[] vals = new ValueEval[result.length];
-
-            for (int idx = 0; idx < result.length; idx++) {
-                vals[idx] = new NumberEval(result[idx]);
-            }
-
             if (result.length == 1)
-                return vals[0];
+                return new NumberEval(result[0]);
             else {
-                return new CacheAreaEval(((AreaEval) arg0).getFirstRow(), ((AreaEval) arg0).getFirstColumn(),
+                return new NumberArrayEval(((AreaEval) arg0).getFirstRow(), ((AreaEval) arg0).getFirstColumn(),
                         ((AreaEval) arg0).getFirstRow() + height - 1,
-                        ((AreaEval) arg0).getFirstColumn() + width - 1, vals);
+                        ((AreaEval) arg0).getFirstColumn() + width - 1, result);
             }
 
         }
@@ -27,6 +27,7 @@ import org.apache.poi.ss.formula.eval.BoolEval;
 import org.apache.poi.ss.formula.eval.ErrorEval;
 import org.apache.poi.ss.formula.eval.EvaluationException;
 import org.apache.poi.ss.formula.eval.MissingArgEval;
+import org.apache.poi.ss.formula.eval.NumberArrayEval;
 import org.apache.poi.ss.formula.eval.NumberEval;
 import org.apache.poi.ss.formula.eval.NumericValueEval;
 import org.apache.poi.ss.formula.eval.OperandResolver;
@@ -159,6 +160,19 @@ public abstract class MultiOperandNumericFunction implements Function {
      * Collects values from a single argument
      */
     private void collectValues(ValueEval operand, DoubleList temp) throws EvaluationException {
+        if (operand instanceof NumberArrayEval) {
+            // array results only contain numbers, blanks and errors
+            NumberArrayEval nae = (NumberArrayEval) operand;
+            for (int i = 0, size = nae.getSize(); i < size; i++) {
+                double d = nae.getNumber(i);
+                if (!NumberArrayEval.isTagged(d)) {
+                    temp.add(d);
+                } else {
+                    collectValue(NumberArrayEval.toValueEval(d), true, temp);
+                }
+            }
+            return;
+        }
         if (operand instanceof ThreeDEval) {
             ThreeDEval ae = (ThreeDEval) operand;
             for (int sIx = ae.getFirstSheetIndex(); sIx <= ae.getLastSheetIndex(); sIx++) {
@@ -24,6 +24,7 @@ import org.apache.poi.ss.formula.eval.AreaEval;
 import org.apache.poi.ss.formula.eval.BlankEval;
 import org.apache.poi.ss.formula.eval.ErrorEval;
 import org.apache.poi.ss.formula.eval.EvaluationException;
+import org.apache.poi.ss.formula.eval.NumberArrayEval;
 import org.apache.poi.ss.formula.eval.NumberEval;
 import org.apache.poi.ss.formula.eval.NumericValueEval;
 import org.apache.poi.ss.formula.eval.RefEval;
@@ -50,9 +51,12 @@ import org.apache.poi.ss.formula.eval.ValueEval;
  *    (&nbsp; &Pi;<sub><b>n</b>: 1..N</sub>
  *          A<b>n</b><sub>(<b>i</b>,<b>j</b>)</sub>&nbsp;
  *    )&nbsp;
- *  )
+ *  )<p>
+ *
+ * The arguments are evaluated in array mode, e.g. {@code SUMPRODUCT((A1:A9>5)*B1:B9)} multiplies
+ * the whole areas.
  */
-public final class Sumproduct implements Function {
+public final class Sumproduct implements Function, ArrayMode {
 
 
     @Override
@@ -156,7 +160,9 @@ public final class Sumproduct implements Function {
             for (int rcIx=0; rcIx<width; rcIx++) {
                 double term = 1D;
                 for(int n=0; n<maxN; n++) {
-                    double val = getProductTerm(args[n].getValue(rrIx, rcIx), false);
+                    double val = (args[n] instanceof NumberArrayEval)
+                        ? getProductTerm(((NumberArrayEval)args[n]).getNumber(rrIx*width + rcIx))
+                        : getProductTerm(args[n].getValue(rrIx, rcIx), false);
                     term *= val;
                 }
                 acc += term;
@@ -193,6 +199,20 @@ public final class Sumproduct implements Function {
     }
 
 
+    /**
+     * Determines the area (sum)product term for an element of a {@link NumberArrayEval}
+     * @throws EvaluationException if {@code value} represents an error value.
+     */
+    private static double getProductTerm(double value) throws EvaluationException {
+        if (NumberArrayEval.isBlank(value)) {
+            return 0;
+        }
+        if (NumberArrayEval.isTagged(value)) {
+            throw new EvaluationException((ErrorEval)NumberArrayEval.toValueEval(value));
+        }
+        return value;
+    }
+
     /**
      * Determines a {@code double} value for the specified {@code ValueEval}.
      * @param isScalarProduct {@code false} for SUMPRODUCTs over area refs.
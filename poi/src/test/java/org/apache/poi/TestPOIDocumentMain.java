@@ -23,14 +23,20 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
 import org.apache.poi.hpsf.DocumentSummaryInformation;
 import org.apache.poi.hpsf.HPSFPropertiesOnlyDocument;
 import org.apache.poi.hpsf.SummaryInformation;
+import org.apache.poi.hssf.HSSFTestDataSamples;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.TempFile;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -163,4 +169,24 @@ final class TestPOIDocumentMain {
             }
         }
     }
+
+    @Test
+    void writeInformationPropertiesInPlace() throws IOException {
+        final File file = TempFile.createTempFile("TestPOIDocumentMain", ".xls");
+        try (InputStream is = HSSFTestDataSamples.openSampleFileStream("DateFormats.xls");
+             FileOutputStream fos = new FileOutputStream(file)) {
+            IOUtils.copy(is, fos);
+        }
+
+        try (HSSFWorkbook xls = new HSSFWorkbook(new POIFSFileSystem(file, false))) {
+            xls.getSummaryInformation().setAuthor("POI Testing");
+            xls.writeInformationProperties();
+        }
+
+        try (HSSFWorkbook xls = new HSSFWorkbook(new POIFSFileSystem(file))) {
+            assertEquals("POI Testing", xls.getSummaryInformation().getAuthor());
+            assertEquals(0, xls.getDocumentSummaryInformation().getByteCount());
+            assertEquals(3, xls.getNumberOfSheets());
+        }
+    }
 }
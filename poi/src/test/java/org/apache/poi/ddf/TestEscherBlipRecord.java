@@ -23,8 +23,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.poi.POIDataSamples;
 import org.apache.poi.sl.usermodel.PictureData;
+import org.apache.poi.util.IOUtils;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -165,4 +171,52 @@ final class TestEscherBlipRecord {
         byte[] ser = bse.serialize();  //serialize and assert against the source data
         assertArrayEquals(data, ser);
     }
+
+    @Test
+    void testLazyBlipData() throws IOException {
+        byte[] data = _samples.readFile("Container.dat");
+
+        EscherContainerRecord eager = new EscherContainerRecord();
+        eager.fillFields(data, 0, new DefaultEscherRecordFactory());
+        EscherContainerRecord lazy = new EscherContainerRecord();
+        lazy.fillFields(data, 0, new DefaultEscherRecordFactory(true));
+
+        // serializing doesn't need to copy or decompress the referenced data
+        assertArrayEquals(data, lazy.serialize());
+
+        List<EscherBlipRecord> eagerBlips = getBlips(eager);
+        List<EscherBlipRecord> lazyBlips = getBlips(lazy);
+        assertEquals(2, eagerBlips.size());
+        assertEquals(eagerBlips.size(), lazyBlips.size());
+
+        for (int i = 0; i < eagerBlips.size(); i++) {
+            EscherBlipRecord eagerBlip = eagerBlips.get(i);
+            EscherBlipRecord lazyBlip = lazyBlips.get(i);
+            assertEquals(eagerBlip.getRecordSize(), lazyBlip.getRecordSize());
+
+            byte[] expected = eagerBlip.getPicturedata();
+            try (InputStream is = lazyBlip.getPictureDataStream()) {
+                assertArrayEquals(expected, IOUtils.toByteArray(is));
+            }
+            EscherBlipRecord copy = lazyBlip.copy();
+            assertArrayEquals(expected, lazyBlip.getPicturedata());
+            assertArrayEquals(expected, copy.getPicturedata());
+
+            // the picture data is a copy, i.e. changes don't affect the parsed data
+            lazyBlip.getPicturedata()[0]++;
+            assertArrayEquals(expected, copy.getPicturedata());
+        }
+        assertArrayEquals(data, eager.serialize());
+    }
+
+    private static List<EscherBlipRecord> getBlips(EscherContainerRecord container) {
+        List<EscherBlipRecord> blips = new ArrayList<>();
+        EscherContainerRecord bstore = (EscherContainerRecord)container.getChild(1);
+        for (EscherRecord r : bstore) {
+            if (r instanceof EscherBSERecord && ((EscherBSERecord)r).getBlipRecord() != null) {
+                blips.add(((EscherBSERecord)r).getBlipRecord());
+            }
+        }
+        return blips;
+    }
 }
@@ -21,8 +21,10 @@ import static org.apache.poi.POIDataSamples.writeOutAndReadBack;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -2666,6 +2668,75 @@ final class TestPOIFSStream {
         }
     }
 
+    @Test
+    void updateOnlyChangedDocuments() throws IOException {
+        byte[] data = new byte[8192];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte)i;
+        }
+
+        File file = TempFile.createTempFile("TestPOIFS", ".ole2");
+        try (POIFSFileSystem fs = POIFSFileSystem.create(file)) {
+            fs.createDocument(new ByteArrayInputStream(data), "First");
+            fs.createDocument(new ByteArrayInputStream(data), "Second");
+            fs.writeFilesystem();
+        }
+
+        byte[] longer = Arrays.copyOf(data, data.length + 100);
+        try (POIFSFileSystem fs = new POIFSFileSystem(file, false)) {
+            DirectoryNode root = fs.getRoot();
+            // free the blocks at the start, which would be reused by a rewritten document
+            root.getEntry("First").delete();
+            DocumentNode second = (DocumentNode)root.getEntry("Second");
+            int startBlock = second.getProperty().getStartBlock();
+
+            root.createOrUpdateDocument("Second", new ByteArrayInputStream(data));
+            assertEquals(startBlock, second.getProperty().getStartBlock());
+
+            // changes after the end of the stored contents
+            root.createOrUpdateDocument("Second", new ByteArrayInputStream(longer));
+            assertNotEquals(startBlock, second.getProperty().getStartBlock());
+            assertEquals(longer.length, second.getSize());
+            fs.writeFilesystem();
+        }
+
+        try (POIFSFileSystem fs = new POIFSFileSystem(file, false)) {
+            DirectoryNode root = fs.getRoot();
+            assertFalse(root.hasEntry("First"));
+            try (InputStream is = root.createDocumentInputStream("Second")) {
+                assertArrayEquals(longer, IOUtils.toByteArray(is));
+            }
+
+            // changes within the stored contents and shorter contents
+            byte[] changed = data.clone();
+            changed[5000]++;
+            POIFSDocument doc = new POIFSDocument((DocumentNode)root.getEntry("Second"));
+            assertTrue(doc.replaceContentsIfChanged(new ByteArrayInputStream(changed)));
+            assertFalse(doc.replaceContentsIfChanged(new ByteArrayInputStream(changed)));
+            try (InputStream is = root.createDocumentInputStream("Second")) {
+                assertArrayEquals(changed, IOUtils.toByteArray(is));
+            }
+
+            byte[] shorter = Arrays.copyOf(changed, 100);
+            assertTrue(doc.replaceContentsIfChanged(new ByteArrayInputStream(shorter)));
+
+            // the byte array variant compares in place
+            assertFalse(doc.replaceContentsIfChanged(shorter));
+            byte[] shorterChanged = shorter.clone();
+            shorterChanged[50]++;
+            assertTrue(doc.replaceContentsIfChanged(shorterChanged));
+            assertTrue(doc.replaceContentsIfChanged(shorter));
+            fs.writeFilesystem();
+        }
+
+        try (POIFSFileSystem fs = new POIFSFileSystem(file)) {
+            try (InputStream is = fs.createDocumentInputStream("Second")) {
+                assertArrayEquals(Arrays.copyOf(data, 100), IOUtils.toByteArray(is));
+            }
+        }
+        assertTrue(file.delete());
+    }
+
     private static final class DummyDataInputStream extends InputStream {
         private final long maxSize;
         private long size;
@@ -0,0 +1,178 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.poifs.filesystem;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+import org.apache.poi.hpsf.ClassID;
+import org.apache.poi.hpsf.ClassIDPredefined;
+import org.apache.poi.poifs.common.POIFSBigBlockSize;
+import org.apache.poi.poifs.common.POIFSConstants;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.TempFile;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the forward-only {@link POIFSStreamingWriter}
+ */
+final class TestPOIFSStreamingWriter {
+
+    private static byte[] data(int size, int seed) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte)(i * 31 + seed);
+        }
+        return data;
+    }
+
+    @Test
+    void testMixedDocuments() throws IOException {
+        for (POIFSBigBlockSize bbs : new POIFSBigBlockSize[]{
+            POIFSConstants.SMALLER_BIG_BLOCK_SIZE_DETAILS, POIFSConstants.LARGER_BIG_BLOCK_SIZE_DETAILS}) {
+            File file = TempFile.createTempFile("TestPOIFSStreamingWriter", ".ole2");
+            try {
+                ClassID clsid = ClassIDPredefined.WORD_V8.getClassID();
+                try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+                     POIFSStreamingWriter writer = new POIFSStreamingWriter(fc, bbs)) {
+                    POIFSStreamingWriter.Directory root = writer.getRoot();
+                    root.setStorageClsid(clsid);
+                    root.createDocument("Small1", new ByteArrayInputStream(data(100, 1)));
+                    root.createDocument("Big1", new ByteArrayInputStream(data(10000, 2)));
+                    root.createDocument("Small2", new ByteArrayInputStream(data(4095, 3)));
+                    root.createDocument("Border", new ByteArrayInputStream(data(4096, 4)));
+                    root.createDocument("Empty", new ByteArrayInputStream(new byte[0]));
+
+                    POIFSStreamingWriter.Directory sub = root.createDirectory("Sub");
+                    try (OutputStream os = sub.createDocument("Big2")) {
+                        byte[] d = data(100000, 5);
+                        for (int i = 0; i < d.length; i += 999) {
+                            os.write(d, i, Math.min(999, d.length - i));
+                        }
+                    }
+                    // left open, to be closed by the writer
+                    OutputStream os = sub.createDirectory("SubSub").createDocument("Small3");
+                    os.write(data(3000, 6));
+                }
+
+                try (POIFSFileSystem fs = new POIFSFileSystem(file)) {
+                    DirectoryNode root = fs.getRoot();
+                    assertEquals(clsid, root.getStorageClsid());
+                    assertEquals(6, root.getEntryCount());
+                    assertDocument(data(100, 1), root, "Small1");
+                    assertDocument(data(10000, 2), root, "Big1");
+                    assertDocument(data(4095, 3), root, "Small2");
+                    assertDocument(data(4096, 4), root, "Border");
+                    assertDocument(new byte[0], root, "Empty");
+                    DirectoryNode sub = (DirectoryNode)root.getEntry("Sub");
+                    assertDocument(data(100000, 5), sub, "Big2");
+                    assertDocument(data(3000, 6), (DirectoryNode)sub.getEntry("SubSub"), "Small3");
+                    assertEquals(bbs.getBigBlockSize(), fs.getBigBlockSize());
+                }
+
+                // the file can also be processed by the usual read-write filesystem
+                try (InputStream is = new FileInputStream(file);
+                     POIFSFileSystem fs = new POIFSFileSystem(is)) {
+                    fs.getRoot().createDocument("Small4", new ByteArrayInputStream(data(200, 7)));
+                    UnsynchronizedByteArrayOutputStream bos = new UnsynchronizedByteArrayOutputStream();
+                    fs.writeFilesystem(bos);
+                    try (POIFSFileSystem fs2 = new POIFSFileSystem(bos.toInputStream())) {
+                        assertDocument(data(100, 1), fs2.getRoot(), "Small1");
+                        assertDocument(data(200, 7), fs2.getRoot(), "Small4");
+                        assertDocument(data(10000, 2), fs2.getRoot(), "Big1");
+                    }
+                }
+            } finally {
+                assertTrue(file.delete());
+            }
+        }
+    }
+
+    @Test
+    void testManyFATSectors() throws IOException {
+        // more than 109 FAT sectors, so the XFAT (DIFAT) is required
+        final int size = 8*1024*1024;
+        File file = TempFile.createTempFile("TestPOIFSStreamingWriter", ".ole2");
+        try {
+            try (POIFSStreamingWriter writer = new POIFSStreamingWriter(file)) {
+                writer.getRoot().createDocument("Small", new ByteArrayInputStream(data(500, 1)));
+                try (OutputStream os = writer.getRoot().createDocument("Large")) {
+                    byte[] chunk = data(65536, 2);
+                    for (int i = 0; i < size; i += chunk.length) {
+                        os.write(chunk);
+                    }
+                }
+                writer.getRoot().createDocument("Small2", new ByteArrayInputStream(data(500, 3)));
+            }
+
+            try (POIFSFileSystem fs = new POIFSFileSystem(file)) {
+                assertTrue(fs.getHeaderBlock().getXBATCount() > 0);
+                assertDocument(data(500, 1), fs.getRoot(), "Small");
+                assertDocument(data(500, 3), fs.getRoot(), "Small2");
+                DocumentEntry de = (DocumentEntry)fs.getRoot().getEntry("Large");
+                assertEquals(size, de.getSize());
+                byte[] chunk = data(65536, 2);
+                byte[] buf = new byte[chunk.length];
+                try (DocumentInputStream dis = fs.createDocumentInputStream("Large")) {
+                    for (int i = 0; i < size; i += chunk.length) {
+                        assertEquals(chunk.length, IOUtils.readFully(dis, buf));
+                        assertArrayEquals(chunk, buf);
+                    }
+                }
+            }
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    @Test
+    void testInvalidUsage() throws IOException {
+        File file = TempFile.createTempFile("TestPOIFSStreamingWriter", ".ole2");
+        try {
+            POIFSStreamingWriter writer = new POIFSStreamingWriter(file);
+            POIFSStreamingWriter.Directory root = writer.getRoot();
+            OutputStream os = root.createDocument("Doc");
+            assertThrows(IllegalStateException.class, () -> root.createDocument("Doc2"));
+            os.close();
+            assertThrows(IOException.class, () -> os.write(1));
+            assertThrows(IOException.class, () -> root.createDocument("Doc"));
+            writer.close();
+            assertThrows(IllegalStateException.class, () -> root.createDirectory("Dir"));
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
+    private static void assertDocument(byte[] expected, DirectoryNode dir, String name) throws IOException {
+        try (DocumentInputStream dis = dir.createDocumentInputStream(name)) {
+            assertArrayEquals(expected, IOUtils.toByteArray(dis));
+        }
+    }
+}
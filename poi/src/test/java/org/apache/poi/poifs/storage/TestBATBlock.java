@@ -348,4 +348,26 @@ final class TestBATBlock {
         assertEquals(0, BATBlock.getBATBlockAndIndex(offset, header, blocks).getIndex());
         assertEquals(1, blocks.indexOf(BATBlock.getBATBlockAndIndex(offset, header, blocks).getBlock()));
     }
+
+    @Test
+    void testDirty() {
+        BATBlock block = BATBlock.createEmptyBATBlock(POIFSConstants.SMALLER_BIG_BLOCK_SIZE_DETAILS, false);
+        assertTrue(block.isDirty());
+
+        ByteBuffer data = ByteBuffer.allocate(512);
+        block.writeData(data);
+        assertFalse(block.isDirty());
+
+        // setting the same value doesn't change the block
+        block.setValueAt(0, POIFSConstants.UNUSED_BLOCK);
+        assertFalse(block.isDirty());
+        block.setValueAt(0, POIFSConstants.END_OF_CHAIN);
+        assertTrue(block.isDirty());
+
+        // read blocks are already stored
+        data.flip();
+        block = BATBlock.createBATBlock(POIFSConstants.SMALLER_BIG_BLOCK_SIZE_DETAILS, data);
+        assertFalse(block.isDirty());
+        assertEquals(POIFSConstants.UNUSED_BLOCK, block.getValueAt(0));
+    }
 }
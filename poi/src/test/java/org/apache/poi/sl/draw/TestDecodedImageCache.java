@@ -0,0 +1,178 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.sl.draw;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.io.output.UnsynchronizedByteArrayOutputStream;
+import org.junit.jupiter.api.Test;
+
+class TestDecodedImageCache {
+
+    @Test
+    void subsampledImages() throws IOException {
+        byte[] png = createPng(800, 600);
+
+        DecodedImageCache cache = new DecodedImageCache(10_000_000);
+        BufferedImage canvas = new BufferedImage(200, 200, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = canvas.createGraphics();
+        graphics.setRenderingHint(Drawable.IMAGE_CACHE, cache);
+        graphics.setRenderingHint(Drawable.BUFFERED_IMAGE, new WeakReference<>(canvas));
+
+        // drawn with 100x75 pixels - decoded with twice the resolution
+        BufferedImage small = load(graphics, png, new Rectangle2D.Double(0, 0, 100, 75));
+        assertEquals(200, small.getWidth());
+        assertEquals(150, small.getHeight());
+        assertEquals(0xFF336699, small.getRGB(50, 30));
+
+        // the scaling of the graphics context is considered
+        graphics.scale(0.5, 0.5);
+        assertSame(small, load(graphics, png, new Rectangle2D.Double(0, 0, 200, 150)));
+        assertEquals(1, cache.getHits());
+
+        // a higher resolution replaces the cached image
+        graphics.scale(2, 2);
+        BufferedImage larger = load(graphics, png, new Rectangle2D.Double(0, 0, 200, 150));
+        assertEquals(400, larger.getWidth());
+        assertSame(larger, load(graphics, png, new Rectangle2D.Double(0, 0, 100, 75)));
+
+        // the native resolution
+        BufferedImage full = load(graphics, png, null);
+        assertEquals(800, full.getWidth());
+        assertSame(full, load(graphics, png, new Rectangle2D.Double(0, 0, 100, 75)));
+        assertEquals(1, cache.getImageCount());
+        assertEquals(4L * 800 * 600, cache.getUsedBytes());
+
+        graphics.dispose();
+    }
+
+    @Test
+    void eviction() throws IOException {
+        byte[] png1 = createPng(100, 100);
+        byte[] png2 = createPng(100, 101);
+
+        DecodedImageCache cache = new DecodedImageCache(50_000);
+        BufferedImage canvas = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = canvas.createGraphics();
+        graphics.setRenderingHint(Drawable.IMAGE_CACHE, cache);
+
+        BufferedImage img1 = load(graphics, png1, null);
+        assertSame(img1, load(graphics, png1, null));
+        BufferedImage img2 = load(graphics, png2, null);
+        assertEquals(1, cache.getImageCount());
+        assertSame(img2, load(graphics, png2, null));
+        assertNotSame(img1, load(graphics, png1, null));
+        assertEquals(2, cache.getHits());
+        assertEquals(3, cache.getMisses());
+
+        // without cache, the image is decoded each time
+        graphics.setRenderingHint(Drawable.IMAGE_CACHE, null);
+        assertNotSame(load(graphics, png1, null), load(graphics, png1, null));
+
+        graphics.dispose();
+    }
+
+    @Test
+    void rasterImages() {
+        byte[] data = { 1, 2, 3 };
+        List<Rectangle2D> painted = new ArrayList<>();
+        BiConsumer<Graphics2D, Rectangle2D> painter = (g, bnds) -> {
+            painted.add(bnds);
+            g.setColor(Color.RED);
+            g.fill(bnds);
+        };
+
+        DecodedImageCache cache = new DecodedImageCache(10_000_000);
+        BufferedImage canvas = new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = canvas.createGraphics();
+
+        assertTrue(cache.drawRasterImage(graphics, new Rectangle2D.Double(10, 10, 100, 50), data, null, painter));
+        assertEquals(1, painted.size());
+        assertEquals(new Rectangle2D.Double(0, 0, 100, 50), painted.get(0));
+        assertEquals(0xFFFF0000, canvas.getRGB(50, 30));
+        assertEquals(0, canvas.getRGB(150, 30));
+
+        // the same size in device space is taken from the cache
+        graphics.translate(200, 200);
+        graphics.scale(2, 2);
+        assertTrue(cache.drawRasterImage(graphics, new Rectangle2D.Double(0, 0, 50, 25), data, null, painter));
+        assertEquals(1, painted.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(0xFFFF0000, canvas.getRGB(250, 220));
+
+        // other sizes are rasterized again
+        assertTrue(cache.drawRasterImage(graphics, new Rectangle2D.Double(0, 0, 60, 25), data, null, painter));
+        assertEquals(2, painted.size());
+        assertEquals(new Rectangle2D.Double(0, 0, 120, 50), painted.get(1));
+        assertEquals(2, cache.getImageCount());
+
+        // too large images are left for the vector rendering
+        assertFalse(cache.drawRasterImage(graphics, new Rectangle2D.Double(0, 0, 5000, 5000), data, null, painter));
+        assertEquals(2, painted.size());
+
+        // other qualities or painter states are rasterized again
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        assertTrue(cache.drawRasterImage(graphics, new Rectangle2D.Double(0, 0, 60, 25), data, null, painter));
+        assertEquals(3, painted.size());
+        assertTrue(cache.drawRasterImage(graphics, new Rectangle2D.Double(0, 0, 60, 25), data, "state", painter));
+        assertEquals(4, painted.size());
+
+        // the drawable hints aren't part of the key
+        graphics.setRenderingHint(Drawable.GROUP_TRANSFORM, new AffineTransform());
+        assertTrue(cache.drawRasterImage(graphics, new Rectangle2D.Double(0, 0, 60, 25), data, "state", painter));
+        assertEquals(4, painted.size());
+
+        graphics.dispose();
+    }
+
+    private static BufferedImage load(Graphics2D graphics, byte[] data, Rectangle2D anchor) throws IOException {
+        BitmapImageRenderer renderer = new BitmapImageRenderer();
+        renderer.setTarget(graphics, anchor);
+        renderer.loadImage(data, "image/png");
+        return renderer.getImage();
+    }
+
+    private static byte[] createPng(int width, int height) throws IOException {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(new Color(0x336699));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        UnsynchronizedByteArrayOutputStream bos = new UnsynchronizedByteArrayOutputStream();
+        ImageIO.write(img, "png", bos);
+        return bos.toByteArray();
+    }
+}
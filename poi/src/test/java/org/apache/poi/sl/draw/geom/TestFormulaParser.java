@@ -19,6 +19,9 @@
 package org.apache.poi.sl.draw.geom;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.geom.Rectangle2D;
 
 import org.junit.jupiter.api.Test;
 
@@ -55,6 +58,25 @@ class TestFormulaParser {
         assertEquals(2.0, ctx.getValue("a5"), 0.0);
     }
 
+    @Test
+    void testOperands() {
+        CustomGeometry geom = new CustomGeometry();
+        Context ctx = new Context(geom, new Rectangle2D.Double(10, 20, 200, 100), null);
+
+        // built-in guides, literals and guides shadowing built-in guides
+        assertEquals(100.0, ctx.evaluate(newGuide("a1", "*/ w 1 2")), 0.0);
+        assertEquals(-0.5, ctx.evaluate(newGuide("a2", "+- 0 .5 1")), 0.0);
+        assertEquals(1000.0, ctx.evaluate(newGuide("a3", "+- 1e3 0 0")), 0.0);
+        assertEquals(90.0, ctx.evaluate(newGuide("a4", "+- ss l t")), 0.0);
+        assertEquals(7.0, ctx.evaluate(newGuide("w", "val 7")), 0.0);
+        assertEquals(7.0, ctx.evaluate(newGuide("a5", "val w")), 0.0);
+        assertEquals(100.0, ctx.getValue("a1"), 0.0);
+        assertEquals(7.0, ctx.getValue("w"), 0.0);
+
+        Guide undefined = newGuide("a6", "val undefined");
+        assertThrows(IllegalArgumentException.class, () -> ctx.evaluate(undefined));
+    }
+
     private static Guide newGuide(String name, String fmla) {
         Guide gd = new Guide();
         gd.setName(name);
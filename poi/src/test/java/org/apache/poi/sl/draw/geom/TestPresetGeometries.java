@@ -20,12 +20,20 @@ package org.apache.poi.sl.draw.geom;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.Enumeration;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+
+import org.apache.poi.util.XMLHelper;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -50,6 +58,30 @@ class TestPresetGeometries {
         assertSame(shapes, PresetGeometries.getInstance());
     }
 
+    @Test
+    void testLazyShapesMatchFullParse() throws Exception {
+        PresetParser p = new PresetParser(PresetParser.Mode.FILE);
+        try (InputStream is = PresetGeometries.class.getResourceAsStream("presetShapeDefinitions.xml")) {
+            XMLStreamReader sr = XMLHelper.newXMLInputFactory().createXMLStreamReader(new StreamSource(is));
+            try {
+                p.parse(sr);
+            } finally {
+                sr.close();
+            }
+        }
+
+        PresetGeometries shapes = PresetGeometries.getInstance();
+        Map<String, CustomGeometry> expected = p.getGeom();
+        assertEquals(expected.keySet(), shapes.keySet());
+        for (Map.Entry<String, CustomGeometry> me : expected.entrySet()) {
+            CustomGeometry geom = shapes.get(me.getKey());
+            assertEquals(me.getValue(), geom, me.getKey());
+            // parsed shapes are kept
+            assertSame(geom, shapes.get(me.getKey()));
+        }
+        assertNull(shapes.get("noSuchShape"));
+    }
+
     @Disabled("problem solved? Turn back on if this debugging is still in process.")
     void testCheckXMLParser() throws Exception{
         // Gump reports a strange error because of an unavailable XML Parser, let's try to find out where
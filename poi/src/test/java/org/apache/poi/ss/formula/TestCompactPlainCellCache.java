@@ -0,0 +1,92 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.poi.ss.formula.eval.BoolEval;
+import org.apache.poi.ss.formula.eval.ErrorEval;
+import org.apache.poi.ss.formula.eval.NumberEval;
+import org.apache.poi.ss.formula.eval.StringEval;
+import org.junit.jupiter.api.Test;
+
+class TestCompactPlainCellCache {
+
+    @Test
+    void testValues() {
+        CompactPlainCellCache cache = new CompactPlainCellCache();
+        assertEquals(-1, cache.find(0, 0, 0, 0));
+
+        int slot1 = cache.getOrPut(0, 0, 0, 0, new NumberEval(1));
+        int slot2 = cache.getOrPut(0, 1, 0, 0, new StringEval("abc"));
+        int slot3 = cache.getOrPut(1, 0, 0x10000, 0x3FFF, BoolEval.TRUE);
+        int slot4 = cache.getOrPut(0, 0, 5000, 0, ErrorEval.DIV_ZERO);
+        assertEquals(slot1, cache.find(0, 0, 0, 0));
+        assertEquals(slot2, cache.find(0, 1, 0, 0));
+        assertEquals(slot3, cache.find(1, 0, 0x10000, 0x3FFF));
+        assertEquals(slot4, cache.find(0, 0, 5000, 0));
+        assertNotEquals(slot1, slot4);
+        assertEquals(-1, cache.find(0, 0, 1, 0));
+
+        assertEquals(slot2, cache.getOrPut(0, 1, 0, 0, new StringEval("abc")));
+        assertThrows(IllegalStateException.class, () -> cache.getOrPut(0, 1, 0, 0, new StringEval("abd")));
+
+        assertFalse(cache.updateValue(slot3, BoolEval.TRUE));
+        assertTrue(cache.updateValue(slot3, BoolEval.FALSE));
+        assertTrue(cache.updateValue(slot4, new NumberEval(ErrorEval.DIV_ZERO.getErrorCode())));
+
+        cache.remove(slot1);
+        assertEquals(-1, cache.find(0, 0, 0, 0));
+    }
+
+    @Test
+    void testConsumers() {
+        CompactPlainCellCache cache = new CompactPlainCellCache();
+        int slotA = cache.getOrPut(0, 0, 0, 0, new NumberEval(1));
+        int slotB = cache.getOrPut(0, 0, 1, 0, new NumberEval(2));
+        FormulaCellCacheEntry fc1 = new FormulaCellCacheEntry();
+        FormulaCellCacheEntry fc2 = new FormulaCellCacheEntry();
+        FormulaCellCacheEntry fc3 = new FormulaCellCacheEntry();
+
+        int[] edges1 = cache.addConsumer(fc1, new int[] { slotA, slotB });
+        int[] edges2 = cache.addConsumer(fc2, new int[] { slotA });
+        int[] edges3 = cache.addConsumer(fc3, new int[] { slotA, slotB });
+        assertArrayEquals(new FormulaCellCacheEntry[] { fc3, fc2, fc1 }, cache.getConsumers(slotA));
+        assertArrayEquals(new FormulaCellCacheEntry[] { fc3, fc1 }, cache.getConsumers(slotB));
+
+        // remove from the middle, the start and the end of the lists
+        cache.removeConsumer(edges2);
+        assertArrayEquals(new FormulaCellCacheEntry[] { fc3, fc1 }, cache.getConsumers(slotA));
+        cache.removeConsumer(edges3);
+        assertArrayEquals(new FormulaCellCacheEntry[] { fc1 }, cache.getConsumers(slotA));
+        assertArrayEquals(new FormulaCellCacheEntry[] { fc1 }, cache.getConsumers(slotB));
+
+        // edges and consumer ids are reused
+        int[] edges2b = cache.addConsumer(fc2, new int[] { slotB });
+        assertArrayEquals(new FormulaCellCacheEntry[] { fc2, fc1 }, cache.getConsumers(slotB));
+        cache.removeConsumer(edges1);
+        cache.removeConsumer(edges2b);
+        assertEquals(0, cache.getConsumers(slotA).length);
+        assertEquals(0, cache.getConsumers(slotB).length);
+    }
+}
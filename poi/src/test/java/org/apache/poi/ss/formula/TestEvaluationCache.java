@@ -709,4 +709,65 @@ class TestEvaluationCache {
         assertEquals(8394753.0, summaryCell.getNumericCellValue(), 0);
     }
 
+    /**
+     * Same dependency changes as above, evaluated with the compact input cell cache
+     */
+    @Test
+    void testCompactCacheDependencyChanges() {
+        HSSFWorkbook wb = new HSSFWorkbook();
+        HSSFSheet sheet = wb.createSheet("Sheet1");
+        HSSFRow row = sheet.createRow(0);
+        HSSFCell cellA1 = row.createCell(0);
+        HSSFCell cellB1 = row.createCell(1);
+        HSSFCell cellC1 = row.createCell(2);
+        HSSFCell cellD1 = row.createCell(3);
+        // rows in different chunks of the compact cache
+        HSSFCell cellB5000 = sheet.createRow(4999).createCell(1);
+        HSSFFormulaEvaluator fe = HSSFFormulaEvaluator.create(wb, null, null, EvaluationCacheType.COMPACT);
+
+        cellA1.setCellFormula("B1+C1+SUM(B2:B5000)");
+        cellD1.setCellFormula("A1*2");
+        cellB1.setCellValue(1.5);
+        cellC1.setCellValue("2");
+        cellB5000.setCellValue(10);
+
+        assertEquals(13.5, fe.evaluate(cellA1).getNumberValue(), 0.0);
+        assertEquals(27.0, fe.evaluate(cellD1).getNumberValue(), 0.0);
+
+        // value changes are propagated to all consumers
+        cellB1.setCellValue(2.5);
+        fe.notifyUpdateCell(cellB1);
+        assertEquals(29.0, fe.evaluate(cellD1).getNumberValue(), 0.0);
+
+        cellB5000.setCellValue(20);
+        fe.notifyUpdateCell(cellB5000);
+        assertEquals(24.5, fe.evaluate(cellA1).getNumberValue(), 0.0);
+
+        // blank to value
+        HSSFCell cellB2 = sheet.createRow(1).createCell(1);
+        cellB2.setCellValue(100);
+        fe.notifyUpdateCell(cellB2);
+        assertEquals(249.0, fe.evaluate(cellD1).getNumberValue(), 0.0);
+
+        // value to blank and value to formula
+        cellB2.setBlank();
+        fe.notifyUpdateCell(cellB2);
+        cellC1.setCellFormula("B1*2");
+        fe.notifyUpdateCell(cellC1);
+        assertEquals(27.5, fe.evaluate(cellA1).getNumberValue(), 0.0);
+
+        // formula to value
+        cellC1.removeFormula();
+        cellC1.setCellValue(1);
+        fe.notifyUpdateCell(cellC1);
+        assertEquals(23.5, fe.evaluate(cellA1).getNumberValue(), 0.0);
+
+        fe.notifyDeleteCell(cellB5000);
+        sheet.getRow(4999).removeCell(cellB5000);
+        assertEquals(3.5, fe.evaluate(cellA1).getNumberValue(), 0.0);
+
+        cellB1.setCellValue(-1);
+        fe.clearAllCachedResultValues();
+        assertEquals(0.0, fe.evaluate(cellD1).getNumberValue(), 0.0);
+    }
 }
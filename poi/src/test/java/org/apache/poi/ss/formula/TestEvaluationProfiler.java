@@ -0,0 +1,120 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.formula;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.poi.hssf.usermodel.HSSFFormulaEvaluator;
+import org.apache.poi.hssf.usermodel.HSSFRow;
+import org.apache.poi.hssf.usermodel.HSSFSheet;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.formula.EvaluationProfiler.Timing;
+import org.apache.poi.ss.formula.eval.NotImplementedException;
+import org.junit.jupiter.api.Test;
+
+class TestEvaluationProfiler {
+
+    @Test
+    void testProfile() throws IOException {
+        try (HSSFWorkbook wb = new HSSFWorkbook()) {
+            HSSFSheet sheet = wb.createSheet("My Sheet");
+            HSSFRow row = sheet.createRow(0);
+            row.createCell(0).setCellValue(1);
+            row.createCell(1).setCellValue(2);
+            row.createCell(2).setCellFormula("SUM(A1:B1)+1");
+            row.createCell(3).setCellFormula("C1*2+C1");
+            row.createCell(4).setCellFormula("D1/2");
+
+            EvaluationProfiler profiler = new EvaluationProfiler();
+            HSSFFormulaEvaluator fe = HSSFFormulaEvaluator.create(wb, null, null, profiler);
+            assertEquals(6, fe.evaluate(row.getCell(4)).getNumberValue(), 0);
+
+            assertEquals(3, profiler.getFormulaEvaluations());
+            assertEquals(2, profiler.getPlainValueReads());
+            // second reference to C1
+            assertEquals(1, profiler.getCacheHits());
+            assertEquals(3, profiler.getMaxDepth());
+
+            List<Timing> cells = profiler.getCellTimings();
+            assertEquals(3, cells.size());
+            for (Timing t : cells) {
+                assertEquals(1, t.getCount());
+                assertTrue(t.getSelfNanos() <= t.getTotalNanos());
+            }
+            List<Timing> sheets = profiler.getSheetTimings();
+            assertEquals(1, sheets.size());
+            assertEquals("My Sheet", sheets.get(0).getName());
+            assertEquals(3, sheets.get(0).getCount());
+
+            long sumCount = 0, plusCount = 0;
+            for (Timing t : profiler.getFunctionTimings()) {
+                if ("SUM".equals(t.getName())) {
+                    sumCount = t.getCount();
+                } else if ("+".equals(t.getName())) {
+                    plusCount = t.getCount();
+                }
+            }
+            assertEquals(1, sumCount);
+            assertEquals(2, plusCount);
+
+            StringBuilder stacks = new StringBuilder();
+            profiler.writeCollapsedStacks(stacks);
+            // the referenced cells are evaluated, when the operators access their values
+            assertTrue(stacks.toString().contains("'My Sheet'!E1;/;'My Sheet'!D1;*;'My Sheet'!C1;SUM "), stacks.toString());
+
+            StringBuilder json = new StringBuilder();
+            profiler.writeJson(json);
+            assertTrue(json.toString().contains("\"name\": \"'My Sheet'!C1\", \"count\": 1"), json.toString());
+            assertTrue(json.toString().contains("\"formulaEvaluations\": 3"), json.toString());
+
+            profiler.reset();
+            fe.clearAllCachedResultValues();
+            assertEquals(6, fe.evaluate(row.getCell(4)).getNumberValue(), 0);
+            assertEquals(3, profiler.getFormulaEvaluations());
+        }
+    }
+
+    @Test
+    void testAbortedEvaluation() throws IOException {
+        try (HSSFWorkbook wb = new HSSFWorkbook()) {
+            HSSFSheet sheet = wb.createSheet("Sheet1");
+            HSSFRow row = sheet.createRow(0);
+            row.createCell(0).setCellValue(1);
+            // FISHER isn't implemented
+            row.createCell(1).setCellFormula("FISHER(A1/2)");
+            row.createCell(2).setCellFormula("A1+1");
+
+            EvaluationProfiler profiler = new EvaluationProfiler();
+            HSSFFormulaEvaluator fe = HSSFFormulaEvaluator.create(wb, null, null, profiler);
+            assertThrows(NotImplementedException.class, () -> fe.evaluate(row.getCell(1)));
+            assertEquals(2, fe.evaluate(row.getCell(2)).getNumberValue(), 0);
+
+            // the frames of the failed cell don't prefix the stacks of the next cell
+            assertEquals(1, profiler.getMaxDepth());
+            StringBuilder stacks = new StringBuilder();
+            profiler.writeCollapsedStacks(stacks);
+            assertTrue(("\n" + stacks).contains("\nSheet1!B1;FISHER "), stacks.toString());
+            assertTrue(("\n" + stacks).contains("\nSheet1!C1;+ "), stacks.toString());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+package org.apache.poi.ss.formula;
+
+import static org.apache.poi.ss.formula.FormulaDependencyRecorder.toCellKey;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.apache.poi.hssf.usermodel.HSSFEvaluationWorkbook;
+import org.apache.poi.hssf.usermodel.HSSFRow;
+import org.apache.poi.hssf.usermodel.HSSFSheet;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.formula.eval.NumberEval;
+import org.junit.jupiter.api.Test;
+
+class TestFormulaDependencyRecorder {
+
+    /**
+     * The second COUNTIFS uses the cached index of the criteria range and doesn't read the cells again
+     */
+    @Test
+    void testAreaIndexDependencies() throws IOException {
+        try (HSSFWorkbook wb = new HSSFWorkbook()) {
+            HSSFSheet sheet = wb.createSheet("Sheet1");
+            for (int i = 0; i < 3; i++) {
+                sheet.createRow(i).createCell(0).setCellValue(i + 1);
+            }
+            HSSFRow row = sheet.getRow(0);
+            row.createCell(1).setCellFormula("COUNTIFS(A1:A3,\">1\")");
+            row.createCell(2).setCellFormula("COUNTIFS(A1:A3,\">2\")*2");
+
+            HSSFEvaluationWorkbook ewb = HSSFEvaluationWorkbook.create(wb);
+            EvaluationSheet es = ewb.getSheet(0);
+            FormulaDependencyRecorder recorder = new FormulaDependencyRecorder(ewb, null);
+            assertEquals(2, ((NumberEval)recorder.evaluate(es.getCell(0, 1))).getNumberValue(), 0);
+            assertEquals(2, ((NumberEval)recorder.evaluate(es.getCell(0, 2))).getNumberValue(), 0);
+
+            for (int i = 0; i < 3; i++) {
+                Set<Long> dependents = recorder.getDependents(toCellKey(0, i, 0));
+                assertEquals(2, dependents.size());
+                assertTrue(dependents.contains(toCellKey(0, 0, 1)));
+                assertTrue(dependents.contains(toCellKey(0, 0, 2)));
+            }
+        }
+    }
+}
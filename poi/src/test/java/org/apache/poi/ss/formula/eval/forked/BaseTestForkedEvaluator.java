@@ -19,13 +19,22 @@ package org.apache.poi.ss.formula.eval.forked;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.formula.FormulaDependencyRecorder;
 import org.apache.poi.ss.formula.IStabilityClassifier;
+import org.apache.poi.ss.formula.eval.NotImplementedException;
 import org.apache.poi.ss.formula.eval.NumberEval;
+import org.apache.poi.ss.formula.eval.ValueEval;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -114,4 +123,94 @@ public class BaseTestForkedEvaluator {
             assertEquals("Underlying cell 'A2' is missing in master sheet.", ex.getMessage());
         }
     }
+
+    @Test
+    void testSharedBase() throws IOException {
+        try (Workbook wb = createWorkbook()) {
+            Row row = wb.getSheet("Calculations").getRow(0);
+            row.createCell(2).setCellFormula("A1*2");               // Calculations!C1
+            row.createCell(3).setCellFormula("B1+1");               // Calculations!D1
+            row.createCell(4).setCellFormula("SUM(Inputs!A1:B1)");  // Calculations!E1
+
+            ForkedEvaluationBase base = ForkedEvaluationBase.create(wb, null);
+
+            ForkedEvaluator fe1 = ForkedEvaluator.create(base, null);
+            assertEquals(7.0, evaluate(fe1, "Calculations", 0, 0), 0.0);
+            assertEquals(14.0, evaluate(fe1, "Calculations", 0, 2), 0.0);
+
+            // the frozen results were read before, so they need to be replaced by the formulas
+            fe1.updateCell("Inputs", 0, 0, new NumberEval(4.0));
+            assertEquals(17.0, evaluate(fe1, "Calculations", 0, 0), 0.0);
+            assertEquals(34.0, evaluate(fe1, "Calculations", 0, 2), 0.0);
+            assertEquals(6.0, evaluate(fe1, "Calculations", 0, 3), 0.0);
+            assertEquals(7.0, evaluate(fe1, "Calculations", 0, 4), 0.0);
+
+            ForkedEvaluator fe2 = ForkedEvaluator.create(base, null);
+            fe2.updateCell("Calculations", 0, 1, new NumberEval(1.0));
+            assertEquals(-1.0, evaluate(fe2, "Calculations", 0, 0), 0.0);
+            assertEquals(-2.0, evaluate(fe2, "Calculations", 0, 2), 0.0);
+            assertEquals(2.0, evaluate(fe2, "Calculations", 0, 3), 0.0);
+            assertEquals(5.0, evaluate(fe2, "Calculations", 0, 4), 0.0);
+
+            // overriding a formula cell
+            fe2.updateCell("Calculations", 0, 0, new NumberEval(10.0));
+            assertEquals(20.0, evaluate(fe2, "Calculations", 0, 2), 0.0);
+
+            // the forks don't disturb each other
+            assertEquals(34.0, evaluate(fe1, "Calculations", 0, 2), 0.0);
+            assertEquals(14.0, evaluate(ForkedEvaluator.create(base, null), "Calculations", 0, 2), 0.0);
+        }
+    }
+
+    @Test
+    void testSharedBaseConcurrently() throws Exception {
+        try (Workbook wb = createWorkbook()) {
+            wb.getSheet("Calculations").getRow(0).createCell(2).setCellFormula("A1*2");
+
+            ForkedEvaluationBase base = ForkedEvaluationBase.create(wb, null);
+
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<Double>> results = new ArrayList<>();
+                for (int i = 0; i < 32; i++) {
+                    final double input = i;
+                    results.add(executor.submit(() -> {
+                        ForkedEvaluator fe = ForkedEvaluator.create(base, null);
+                        fe.updateCell("Inputs", 0, 0, new NumberEval(input));
+                        return evaluate(fe, "Calculations", 0, 2);
+                    }));
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    assertEquals((5 * i - 3) * 2, results.get(i).get(), 0.0);
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void testSharedBaseWithUnsupportedFunction() throws IOException {
+        try (Workbook wb = createWorkbook()) {
+            Row row = wb.getSheet("Calculations").getRow(0);
+            row.createCell(2).setCellFormula("A1*2");               // Calculations!C1
+            row.createCell(3).setCellFormula("FISHER(Inputs!A1)");  // Calculations!D1
+
+            // the unsupported function doesn't prevent the other cells from being frozen
+            ForkedEvaluationBase base = ForkedEvaluationBase.create(wb, null);
+            assertNotNull(base.getFrozenCell(FormulaDependencyRecorder.toCellKey(1, 0, 2)));
+            assertNull(base.getFrozenCell(FormulaDependencyRecorder.toCellKey(1, 0, 3)));
+
+            ForkedEvaluator fe = ForkedEvaluator.create(base, null);
+            fe.updateCell("Inputs", 0, 0, new NumberEval(4.0));
+            assertEquals(34.0, evaluate(fe, "Calculations", 0, 2), 0.0);
+            assertThrows(NotImplementedException.class, () -> fe.evaluate("Calculations", 0, 3));
+        }
+    }
+
+    protected static double evaluate(ForkedEvaluator fe, String sheetName, int rowIndex, int columnIndex) {
+        ValueEval ve = fe.evaluate(sheetName, rowIndex, columnIndex);
+        assertNotNull(ve);
+        return ((NumberEval) ve).getNumberValue();
+    }
 }
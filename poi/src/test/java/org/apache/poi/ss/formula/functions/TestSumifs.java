@@ -391,6 +391,38 @@ final class TestSumifs {
         }
     }
 
+    @Test
+    void testSharedCriteriaRanges() throws IOException {
+        try (HSSFWorkbook wb = initWorkbook1()) {
+            HSSFFormulaEvaluator fe = new HSSFFormulaEvaluator(wb);
+            HSSFSheet sheet = wb.getSheetAt(0);
+            HSSFCell cell1 = sheet.getRow(0).createCell(100);
+            HSSFCell cell2 = sheet.getRow(1).createCell(100);
+            HSSFCell cell3 = sheet.getRow(2).createCell(100);
+            assertDouble(fe, cell1, "SUMIFS(A2:A12, B2:B12, \"apples\", C2:C12, \"Tom\")", 5);
+            assertDouble(fe, cell2, "SUMIFS(A2:A12, B2:B12, \"Bananas\", C2:C12, \"Tom\")", 22);
+            assertDouble(fe, cell3, "SUMIFS(A2:A12, A2:A12, \">=10\", A2:A12, \"<22\")", 37);
+
+            // change a criteria cell used by all formulas
+            sheet.getRow(5).getCell(2).setCellValue("Sarah");
+            fe.notifyUpdateCell(sheet.getRow(5).getCell(2));
+            assertEquals(5, fe.evaluate(cell1).getNumberValue(), 0);
+            assertEquals(0, fe.evaluate(cell2).getNumberValue(), 0);
+
+            // fill a blank cell of the criteria ranges
+            addRow(sheet, 11, 7, "Bananas", "Tom");
+            fe.notifyUpdateCell(sheet.getRow(11).getCell(0));
+            fe.notifyUpdateCell(sheet.getRow(11).getCell(1));
+            fe.notifyUpdateCell(sheet.getRow(11).getCell(2));
+            assertEquals(7, fe.evaluate(cell2).getNumberValue(), 0);
+            assertEquals(37, fe.evaluate(cell3).getNumberValue(), 0);
+
+            sheet.getRow(2).getCell(0).setCellValue(11);
+            fe.notifyUpdateCell(sheet.getRow(2).getCell(0));
+            assertEquals(48, fe.evaluate(cell3).getNumberValue(), 0);
+        }
+    }
+
     //see https://support.microsoft.com/en-us/office/sumifs-function-c9e748f5-7ea7-455d-9406-611cebce642b
     private HSSFWorkbook initWorkbook1() {
         HSSFWorkbook wb = new HSSFWorkbook();
@@ -20,6 +20,13 @@ package org.apache.poi.ss.formula.functions;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+
+import org.apache.poi.hssf.usermodel.HSSFCell;
+import org.apache.poi.hssf.usermodel.HSSFFormulaEvaluator;
+import org.apache.poi.hssf.usermodel.HSSFRow;
+import org.apache.poi.hssf.usermodel.HSSFSheet;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.formula.eval.AreaEval;
 import org.apache.poi.ss.formula.eval.ErrorEval;
 import org.apache.poi.ss.formula.eval.NumberEval;
@@ -118,4 +125,35 @@ final class TestSumproduct {
         ValueEval[] args = { aeA, aeB, };
         assertEquals(ErrorEval.REF_INVALID, invokeSumproduct(args));
     }
+
+    @Test
+    void testArrayOperands() throws IOException {
+        try (HSSFWorkbook wb = new HSSFWorkbook()) {
+            HSSFSheet sheet = wb.createSheet();
+            double[][] data = { {1, 10}, {2, 20}, {3, 30}, {4, 40} };
+            for (int i = 0; i < data.length; i++) {
+                HSSFRow row = sheet.createRow(i);
+                row.createCell(0).setCellValue(data[i][0]);
+                row.createCell(1).setCellValue(data[i][1]);
+            }
+            HSSFCell cell = sheet.createRow(5).createCell(0);
+            HSSFFormulaEvaluator fe = new HSSFFormulaEvaluator(wb);
+
+            cell.setCellFormula("SUMPRODUCT(A1:A4*B1:B4)");
+            assertEquals(300, fe.evaluate(cell).getNumberValue(), 0);
+
+            fe.clearAllCachedResultValues();
+            cell.setCellFormula("SUMPRODUCT((A1:A4>2)*B1:B4)");
+            assertEquals(70, fe.evaluate(cell).getNumberValue(), 0);
+
+            fe.clearAllCachedResultValues();
+            cell.setCellFormula("SUMPRODUCT(A1:A4*2,B1:B4+1)");
+            assertEquals(2*(11 + 2*21 + 3*31 + 4*41), fe.evaluate(cell).getNumberValue(), 0);
+
+            // errors in the array elements are propagated
+            fe.clearAllCachedResultValues();
+            cell.setCellFormula("SUMPRODUCT(A1:A4/(B1:B4-20))");
+            assertEquals(ErrorEval.DIV_ZERO.getErrorCode(), fe.evaluate(cell).getErrorValue());
+        }
+    }
 }